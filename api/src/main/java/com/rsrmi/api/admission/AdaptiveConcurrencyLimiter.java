@@ -0,0 +1,150 @@
+package com.rsrmi.api.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AIMD limit on requests in flight to the RMI server. Every admitted request reports its
+ * latency when it finishes: one slower than ADMISSION_LATENCY_TARGET_MS, or one that failed
+ * with a 5xx, cuts the limit by a tenth (at most once per target interval, so one slow burst
+ * counts once); otherwise, while the limit is actually being used, it grows by about one per
+ * limit's worth of requests. Each priority may fill only its share of the limit.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+    private static final double BACKOFF = 0.9;
+    private static final double LATENCY_SMOOTHING = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder[] admitted = adders();
+    private final LongAdder[] rejected = adders();
+    private final LongAdder overloadSignals = new LongAdder();
+
+    // Guarded by this; limit is republished through currentLimit for tryAcquire
+    private double limit;
+    private long lastDecrease;
+    private double smoothedLatencyMillis;
+    private volatile int currentLimit;
+
+    public AdaptiveConcurrencyLimiter(
+        @Value("${ADMISSION_INITIAL_LIMIT:32}") int initialLimit,
+        @Value("${ADMISSION_MIN_LIMIT:4}") int minLimit,
+        @Value("${ADMISSION_MAX_LIMIT:256}") int maxLimit,
+        @Value("${ADMISSION_LATENCY_TARGET_MS:500}") long targetMillis
+    ) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetMillis * 1_000_000;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.currentLimit = (int) limit;
+        this.lastDecrease = System.nanoTime() - targetNanos;
+    }
+
+    /**
+     * @return true if the request may run; it must then call {@link #release} exactly once
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (currentLimit * priority.getShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected[priority.ordinal()].increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted[priority.ordinal()].increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends a request and adjusts the limit from how it went.
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int current = inFlight.getAndDecrement();
+        long now = System.nanoTime();
+        synchronized (this) {
+            smoothedLatencyMillis += LATENCY_SMOOTHING * (latencyNanos / 1e6 - smoothedLatencyMillis);
+            if (failed || latencyNanos > targetNanos) {
+                overloadSignals.increment();
+                if (now - lastDecrease >= targetNanos) {
+                    limit = Math.max(minLimit, limit * BACKOFF);
+                    lastDecrease = now;
+                }
+            } else if (current * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            currentLimit = (int) limit;
+        }
+    }
+
+    /**
+     * Ends a request without a sample, when the client went away before it finished.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return currentLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Limiter state in the Prometheus text format.
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        gauge(out, "api_admission_limit", "Current adaptive concurrency limit", currentLimit);
+        gauge(out, "api_admission_in_flight", "Requests admitted and not yet finished", inFlight.get());
+        double latency;
+        synchronized (this) {
+            latency = smoothedLatencyMillis;
+        }
+        gauge(out, "api_admission_latency_ms", "Smoothed latency of admitted requests", latency);
+        counter(out, "api_admission_admitted_total", "Requests admitted", admitted);
+        counter(out, "api_admission_rejected_total", "Requests shed with 503", rejected);
+        out.append("# HELP api_admission_overload_signals_total Slow or failed requests that count against the limit\n")
+            .append("# TYPE api_admission_overload_signals_total counter\n")
+            .append("api_admission_overload_signals_total ").append(overloadSignals.sum()).append('\n');
+        return out.toString();
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, double value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+            .append("# TYPE ").append(name).append(" gauge\n")
+            .append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counter(StringBuilder out, String name, String help, LongAdder[] byPriority) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+            .append("# TYPE ").append(name).append(" counter\n");
+        for (RequestPriority priority : RequestPriority.values()) {
+            out.append(name).append("{priority=\"").append(priority.name().toLowerCase()).append("\"} ")
+                .append(byPriority[priority.ordinal()].sum()).append('\n');
+        }
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[RequestPriority.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,23 @@
+package com.rsrmi.api.admission;
+
+/**
+ * How much of the concurrency limit a request may use. As the limit shrinks under load, lower
+ * priorities run out of room first and are shed while ride requests and transitions still get in.
+ */
+public enum RequestPriority {
+    /** Ride requests and lifecycle transitions */
+    CRITICAL(1.0),
+    NORMAL(0.8),
+    /** History, heatmap, trajectory, place search and location reads */
+    SHEDDABLE(0.5);
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    public double getShare() {
+        return share;
+    }
+}
@@ -0,0 +1,227 @@
+package com.rsrmi.api.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user rate limits for the chatty routes: location pings, heartbeats and status polls.
+ * RATE_LIMIT_ROUTES lists them as "METHOD /path/{var} perSecond burst [coalesce]", separated by
+ * semicolons; "coalesce" marks routes whose excess requests are held back rather than refused: the
+ * latest one is applied when the bucket has room again and any it replaced are acknowledged,
+ * because it carries newer data anyway. A request whose state differs from the last one let
+ * through for that user (a driver going offline) is never held back.
+ *
+ * Each (route, user) has a token bucket kept in GCRA form: a single AtomicLong holding the time
+ * at which the bucket will be full again, advanced by one interval per request with CAS. A bucket
+ * whose time has passed is full and carries no information, so sweeps drop it; the map only holds
+ * users who were active within the last burst, up to RATE_LIMIT_MAX_BUCKETS. Past that, requests
+ * from users without a bucket go through unlimited rather than evicting someone else's.
+ */
+@Component
+public class UserRateLimiter {
+    private static final String DEFAULT_ROUTES =
+        "POST /api/v1/rides/driver/{driverId}/location 1 5 coalesce;" +
+        "PUT /api/v1/users/update/location 1 5 coalesce;" +
+        "POST /api/v1/drivers/heartbeat 1 5 coalesce;" +
+        "GET /api/v1/rides/current 2 10;" +
+        "GET /api/v1/rides/pending 1 5;" +
+        "GET /api/v1/rides/{rideId}/status 2 10;" +
+        "GET /api/v1/drivers/{id}/position 2 10";
+    private static final int SWEEP_EVERY_INSERTS = 4096;
+
+    public static final class Route {
+        private final int index;
+        private final String name;
+        private final HttpMethod method;
+        private final PathPattern pattern;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final boolean coalesce;
+        private final LongAdder limited = new LongAdder();
+
+        Route(int index, String name, HttpMethod method, PathPattern pattern, double perSecond, int burst, boolean coalesce) {
+            this.index = index;
+            this.name = name;
+            this.method = method;
+            this.pattern = pattern;
+            this.intervalNanos = (long) (1e9 / perSecond);
+            this.toleranceNanos = (Math.max(1, burst) - 1) * intervalNanos;
+            this.coalesce = coalesce;
+        }
+
+        public boolean isCoalesce() {
+            return coalesce;
+        }
+    }
+
+    private final List<Route> routes;
+    private final int maxBuckets;
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong inserts = new AtomicLong();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final LongAdder untracked = new LongAdder();
+
+    public UserRateLimiter(
+        @Value("${RATE_LIMIT_ROUTES:}") String routes,
+        @Value("${RATE_LIMIT_MAX_BUCKETS:100000}") int maxBuckets
+    ) {
+        this.routes = parse(routes.isBlank() ? DEFAULT_ROUTES : routes);
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * @return the limited route this request falls under, or null
+     */
+    public Route route(HttpMethod method, PathContainer path) {
+        for (Route route : routes) {
+            if (route.method.equals(method) && route.pattern.matches(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static final class Bucket {
+        final AtomicLong fullAt;
+        volatile int state;
+
+        Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+    }
+
+    /**
+     * @return a key identifying the user's bucket for this route
+     */
+    public long key(Route route, int userId) {
+        return ((long) route.index << 32) | (userId & 0xffffffffL);
+    }
+
+    /**
+     * Takes a token from the user's bucket for this route. {@code state} summarizes what the
+     * request changes (0 when nothing in particular); a request whose state differs from the
+     * last one let through takes its token even over the limit.
+     *
+     * @return 0 if the request may go ahead, otherwise nanoseconds until it would
+     */
+    public long acquire(Route route, int userId, int state) {
+        long now = System.nanoTime();
+        Bucket bucket = bucket(route, userId, now);
+        if (bucket == null) {
+            return 0;
+        }
+        boolean transition = state != 0 && bucket.state != 0 && state != bucket.state;
+        while (true) {
+            long fullAt = bucket.fullAt.get();
+            long start = Math.max(fullAt, now);
+            if (!transition && start - now > route.toleranceNanos) {
+                route.limited.increment();
+                return start - now - route.toleranceNanos;
+            }
+            if (bucket.fullAt.compareAndSet(fullAt, start + route.intervalNanos)) {
+                if (state != 0) {
+                    bucket.state = state;
+                }
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Takes a token even over the limit, for a held-back request that will run once the token's
+     * slot comes.
+     *
+     * @return nanoseconds until that slot, 0 if it is now
+     */
+    public long reserve(Route route, int userId) {
+        long now = System.nanoTime();
+        Bucket bucket = bucket(route, userId, now);
+        if (bucket == null) {
+            return 0;
+        }
+        long fullAt = bucket.fullAt.getAndAccumulate(now, (current, time) -> Math.max(current, time) + route.intervalNanos);
+        return Math.max(0, Math.max(fullAt, now) - now - route.toleranceNanos);
+    }
+
+    // null when the map is full and the user goes untracked
+    private Bucket bucket(Route route, int userId, long now) {
+        long key = key(route, userId);
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets && !sweep(now)) {
+                untracked.increment();
+                return null;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(now));
+            if (inserts.incrementAndGet() % SWEEP_EVERY_INSERTS == 0) {
+                sweep(now);
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Drops full buckets.
+     *
+     * @return true if the map has room again
+     */
+    private boolean sweep(long now) {
+        if (sweeping.compareAndSet(false, true)) {
+            try {
+                buckets.values().removeIf(bucket -> bucket.fullAt.get() <= now);
+            } finally {
+                sweeping.set(false);
+            }
+        }
+        return buckets.size() < maxBuckets;
+    }
+
+    /**
+     * Rate limiter state in the Prometheus text format.
+     */
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP api_rate_limit_buckets Per-user buckets currently tracked\n")
+            .append("# TYPE api_rate_limit_buckets gauge\n")
+            .append("api_rate_limit_buckets ").append(buckets.size()).append('\n')
+            .append("# HELP api_rate_limit_untracked_total Requests let through because the bucket map was full\n")
+            .append("# TYPE api_rate_limit_untracked_total counter\n")
+            .append("api_rate_limit_untracked_total ").append(untracked.sum()).append('\n')
+            .append("# HELP api_rate_limited_total Requests over a user's rate, held back or refused\n")
+            .append("# TYPE api_rate_limited_total counter\n");
+        for (Route route : routes) {
+            out.append("api_rate_limited_total{route=\"").append(route.name).append("\"} ")
+                .append(route.limited.sum()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static List<Route> parse(String spec) {
+        PathPatternParser parser = new PathPatternParser();
+        List<Route> routes = new ArrayList<>();
+        for (String entry : spec.split(";")) {
+            String[] parts = entry.trim().split("\\s+");
+            if (parts.length < 4) {
+                if (!entry.isBlank()) {
+                    throw new IllegalArgumentException("RATE_LIMIT_ROUTES entry needs METHOD PATH PER_SECOND BURST: " + entry);
+                }
+                continue;
+            }
+            routes.add(new Route(routes.size(), parts[0] + " " + parts[1], HttpMethod.valueOf(parts[0]), parser.parse(parts[1]),
+                Double.parseDouble(parts[2]), Integer.parseInt(parts[3]), parts.length > 4 && parts[4].equals("coalesce")));
+        }
+        return routes;
+    }
+}
@@ -2,13 +2,24 @@ package com.rsrmi.api.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import com.rsrmi.ride_sharing_api.rmi.interfaces.UserService;
 import com.rsrmi.ride_sharing_api.rmi.interfaces.LocationService;
 import com.rsrmi.ride_sharing_api.rmi.interfaces.RideService;
+import com.rsrmi.ride_sharing_api.rmi.transport.BinaryClient;
+import com.rsrmi.ride_sharing_api.rmi.transport.BinaryLocationService;
+import com.rsrmi.ride_sharing_api.rmi.transport.BinaryRideService;
+import com.rsrmi.ride_sharing_api.rmi.transport.BinaryUserService;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 
+/**
+ * Backend service stubs for the *RmiClient classes. RMI_TRANSPORT=binary swaps the RMI stubs
+ * for ones that multiplex calls over a few binary-transport connections; the clients see the
+ * same interfaces either way.
+ */
 @Configuration
 public class RmiClientConfig {
     @Value("${RMI_HOST:rmi-server}")
@@ -17,20 +28,42 @@ public class RmiClientConfig {
     @Value("${RMI_PORT:1099}")
     private int rmiPort;
 
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "RMI_TRANSPORT", havingValue = "binary")
+    public BinaryClient binaryClient(
+        @Value("${BINARY_TRANSPORT_PORT:1100}") int port,
+        @Value("${BINARY_TRANSPORT_CONNECTIONS:4}") int connections,
+        @Value("${BINARY_TRANSPORT_TIMEOUT_MS:10000}") long timeoutMillis
+    ) {
+        return new BinaryClient(rmiHost, port, connections, timeoutMillis);
+    }
+
     @Bean
-    public UserService userService() throws Exception {
+    public UserService userService(ObjectProvider<BinaryClient> binaryClient) throws Exception {
+        BinaryClient client = binaryClient.getIfAvailable();
+        if (client != null) {
+            return new BinaryUserService(client);
+        }
         Registry registry = LocateRegistry.getRegistry(rmiHost, rmiPort); // or use @Value for host/port
         return (UserService) registry.lookup("UserService");
     }
 
     @Bean
-    public LocationService locationService() throws Exception {
+    public LocationService locationService(ObjectProvider<BinaryClient> binaryClient) throws Exception {
+        BinaryClient client = binaryClient.getIfAvailable();
+        if (client != null) {
+            return new BinaryLocationService(client);
+        }
         Registry registry = LocateRegistry.getRegistry(rmiHost, rmiPort);
         return (LocationService) registry.lookup("LocationService");
     }
 
     @Bean
-    public RideService rideService() throws Exception {
+    public RideService rideService(ObjectProvider<BinaryClient> binaryClient) throws Exception {
+        BinaryClient client = binaryClient.getIfAvailable();
+        if (client != null) {
+            return new BinaryRideService(client);
+        }
         Registry registry = LocateRegistry.getRegistry(rmiHost, rmiPort);
         return (RideService) registry.lookup("RideService");
     }
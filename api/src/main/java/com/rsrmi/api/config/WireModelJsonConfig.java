@@ -0,0 +1,77 @@
+package com.rsrmi.api.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.StdConverter;
+import com.rsrmi.ride_sharing_api.rmi.models.FareQuote;
+import com.rsrmi.ride_sharing_api.rmi.models.PlaceSuggestion;
+import com.rsrmi.ride_sharing_api.rmi.models.PredictedPosition;
+import com.rsrmi.ride_sharing_api.rmi.models.User;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JSON shape of the RMI wire models the controllers return as-is. The models live in the shared
+ * module without Jackson on their classpath, so field names are set here through mixins. Ride is
+ * served with its default camelCase names; the location, fare and place payloads use snake_case.
+ */
+@Configuration
+public class WireModelJsonConfig {
+
+    @Bean
+    public Module wireModelModule() {
+        SimpleModule module = new SimpleModule("WireModels");
+        module.setMixInAnnotation(User.class, UserMixin.class);
+        module.setMixInAnnotation(UserLocation.class, SnakeCaseMixin.class);
+        module.setMixInAnnotation(FareQuote.class, SnakeCaseMixin.class);
+        module.setMixInAnnotation(PlaceSuggestion.class, PlaceSuggestionMixin.class);
+        module.setMixInAnnotation(PredictedPosition.class, PredictedPositionMixin.class);
+        return module;
+    }
+
+    abstract static class UserMixin {
+        // Accepted on register and update, never echoed back
+        @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+        abstract String getPassword();
+    }
+
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    abstract static class SnakeCaseMixin {
+    }
+
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    abstract static class PlaceSuggestionMixin {
+        @JsonSerialize(converter = UnknownDistance.class)
+        abstract double getDistanceKm();
+    }
+
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    abstract static class PredictedPositionMixin {
+        @JsonProperty("at")
+        abstract long getAtMillis();
+
+        @JsonProperty("fix_time")
+        abstract long getFixMillis();
+
+        @JsonProperty("offset_ms")
+        abstract long getOffsetMillis();
+
+        @JsonProperty("heading")
+        abstract double getHeadingDegrees();
+    }
+
+    /**
+     * The wire model marks a place with no reference point by a negative distance; clients get null.
+     */
+    static final class UnknownDistance extends StdConverter<Double, Double> {
+        @Override
+        public Double convert(Double km) {
+            return km != null && km >= 0 ? km : null;
+        }
+    }
+}
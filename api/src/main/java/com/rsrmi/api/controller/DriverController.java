@@ -4,11 +4,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import com.rsrmi.api.dto.ApiResponse;
-import com.rsrmi.api.model.User;
+import com.rsrmi.api.filter.JwtWebFilter;
+import com.rsrmi.ride_sharing_api.rmi.models.PredictedPosition;
+import com.rsrmi.ride_sharing_api.rmi.models.User;
+import com.rsrmi.api.service.LocationServiceRmiClient;
 import com.rsrmi.api.service.UserServiceRmiClient;
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
@@ -28,6 +33,9 @@ public class DriverController {
     @Autowired
     private UserServiceRmiClient userServiceRmiClient;
 
+    @Autowired
+    private LocationServiceRmiClient locationServiceRmiClient;
+
     // Register a user via RMI
     @PostMapping("/register")
     @Operation(summary = "Register a new driver via RMI", description = "Registers a driver using the RMI microservice.")
@@ -137,5 +145,58 @@ public class DriverController {
         });
     }
 
-    
+
+    @PostMapping("/heartbeat")
+    @Operation(
+        summary = "Driver presence heartbeat",
+        description = "Keeps the calling driver visible to riders without sending a position (JWT protected). " +
+                      "The driver is the token's user; an id that names anyone else is refused. " +
+                      "Returns data=false when the driver has gone offline after a silence and must send a location update.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public Mono<ResponseEntity<ApiResponse>> heartbeat(@RequestParam(required = false) Integer id, ServerWebExchange exchange) {
+        // Only ever the caller's own presence: otherwise any token could keep another driver online
+        Claims claims = exchange.getAttribute(JwtWebFilter.CLAIMS_ATTRIBUTE);
+        Integer userId = claims != null ? claims.get("userId", Integer.class) : null;
+        if (userId == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse(false, "Missing or invalid token")));
+        }
+        if (id != null && !id.equals(userId)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ApiResponse(false, "Heartbeat is only allowed for your own driver id")));
+        }
+        return Mono.fromCallable(() -> {
+            try {
+                boolean online = locationServiceRmiClient.heartbeat(userId);
+                return ResponseEntity.ok(new ApiResponse(true, online ? "Driver is online" : "Driver is offline, send a location update", online));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(new ApiResponse(false, "Error: " + e.getMessage()));
+            }
+        });
+    }
+
+    @GetMapping("/{id}/position")
+    @Operation(
+        summary = "Predicted driver position",
+        description = "Where an online driver probably is at 'at' (epoch millis, default now), dead-reckoned on the server " +
+                      "from their recent pings. speed_mps and heading let the client keep animating between polls (JWT protected).",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public Mono<ResponseEntity<ApiResponse>> predictedPosition(@PathVariable int id, @RequestParam(required = false) Long at) {
+        return Mono.fromCallable(() -> {
+            try {
+                PredictedPosition position = locationServiceRmiClient.predictDriverPosition(id, at != null ? at : 0);
+                if (position == null) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(new ApiResponse(false, "Driver is not online"));
+                }
+                return ResponseEntity.ok(new ApiResponse(true, "Predicted position", position));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(new ApiResponse(false, "Error: " + e.getMessage()));
+            }
+        });
+    }
 }
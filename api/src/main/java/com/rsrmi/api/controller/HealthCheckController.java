@@ -1,5 +1,7 @@
 package com.rsrmi.api.controller;
 
+import com.rsrmi.api.admission.AdaptiveConcurrencyLimiter;
+import com.rsrmi.api.admission.UserRateLimiter;
 import com.rsrmi.ride_sharing_api.rmi.interfaces.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +19,12 @@ public class HealthCheckController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AdaptiveConcurrencyLimiter admissionLimiter;
+
+    @Autowired
+    private UserRateLimiter userRateLimiter;
+
     @GetMapping("/health")
     public Mono<String> health() {
         return Mono.just("OK");
@@ -32,6 +40,12 @@ public class HealthCheckController {
             return Mono.just("RMI ERROR: " + e.getMessage());
         }
     }
+    @GetMapping(value = "/metrics", produces = "text/plain; version=0.0.4")
+    @Operation(summary = "Admission metrics", description = "Adaptive concurrency limit, requests in flight, admitted/shed counts per priority, and per-user rate limiting, in Prometheus text format.")
+    public Mono<String> metrics() {
+        return Mono.just(admissionLimiter.toPrometheus() + userRateLimiter.toPrometheus());
+    }
+
     @GetMapping("/cors-test")
     @Operation(summary = "CORS test endpoint", description = "Simple endpoint to test CORS headers")
     public Mono<ResponseEntity<String>> corsTest() {
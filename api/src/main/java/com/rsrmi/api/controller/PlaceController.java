@@ -0,0 +1,72 @@
+package com.rsrmi.api.controller;
+
+import com.rsrmi.api.dto.ApiResponse;
+import com.rsrmi.api.filter.JwtWebFilter;
+import com.rsrmi.ride_sharing_api.rmi.models.PlaceSuggestion;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
+import com.rsrmi.api.service.LocationServiceRmiClient;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import io.jsonwebtoken.Claims;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/v1/places")
+@Tag(name = "Place", description = "Place search endpoints")
+public class PlaceController {
+
+    private static final int MAX_LIMIT = 10;
+
+    @Autowired
+    private LocationServiceRmiClient locationServiceRmiClient;
+
+    @GetMapping("/search")
+    @Operation(
+        summary = "Autocomplete place names",
+        description = "Prefix search over the local place dataset, nearest first. Ranking uses lat/lng when given, otherwise the caller's stored location (JWT protected)",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public Mono<ResponseEntity<ApiResponse>> searchPlaces(
+        @RequestParam String q,
+        @RequestParam(required = false) Double lat,
+        @RequestParam(required = false) Double lng,
+        @RequestParam(defaultValue = "5") int limit,
+        ServerWebExchange exchange
+    ) {
+        // Only ever the caller's own location: ranking by someone else's would leak it through distanceKm
+        Claims claims = exchange.getAttribute(JwtWebFilter.CLAIMS_ATTRIBUTE);
+        Integer userId = claims != null ? claims.get("userId", Integer.class) : null;
+        return Mono.fromCallable(() -> {
+            try {
+                if (q.isBlank()) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(new ApiResponse(false, "Query must not be empty"));
+                }
+                Double nearLat = lat;
+                Double nearLng = lng;
+                if ((nearLat == null || nearLng == null) && userId != null) {
+                    UserLocation userLocation = locationServiceRmiClient.getUserLocation(userId);
+                    if (userLocation != null) {
+                        nearLat = userLocation.getLatitude();
+                        nearLng = userLocation.getLongitude();
+                    }
+                }
+                List<PlaceSuggestion> suggestions = locationServiceRmiClient.searchPlaces(
+                    q, nearLat, nearLng, Math.max(1, Math.min(limit, MAX_LIMIT)));
+                return ResponseEntity.ok(new ApiResponse(true, "Places retrieved successfully", suggestions));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(new ApiResponse(false, "Error: " + e.getMessage()));
+            }
+        });
+    }
+}
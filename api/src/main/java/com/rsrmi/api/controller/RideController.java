@@ -1,7 +1,12 @@
 package com.rsrmi.api.controller;
 
-import com.rsrmi.api.model.Ride;
+import com.rsrmi.api.dto.Versioned;
+import com.rsrmi.api.model.CellSupplyDemand;
+import com.rsrmi.ride_sharing_api.rmi.models.FareQuote;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import com.rsrmi.api.model.RideTrajectory;
 import com.rsrmi.api.service.RideServiceRmiClient;
+import com.rsrmi.api.util.ETagUtil;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,7 +19,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
@@ -48,16 +56,35 @@ public class RideController {
         @ApiResponse(responseCode = "200", description = "Current ride retrieved successfully",
                     content = @Content(mediaType = "application/json", 
                     schema = @Schema(implementation = Ride.class))),
+        @ApiResponse(responseCode = "304", description = "Current ride unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(mediaType = "application/json"))
     })
     @GetMapping("/current")
     public Mono<ResponseEntity<?>> getCurrentRide(
             @Parameter(description = "User ID (rider or driver)", required = true, example = "123")
-            @RequestParam int userId) {
+            @RequestParam int userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Ride currentRide = rideServiceRmiClient.getCurrentRide(userId);
-            return Mono.just(ResponseEntity.ok(currentRide));
+            // The RMI server compares versions itself, so an unchanged ride never crosses the wire
+            String tagName = "ride-" + userId;
+            long knownVersion = ETagUtil.parseVersion(ifNoneMatch, tagName);
+            Versioned<Ride> current = rideServiceRmiClient.getCurrentRideIfChanged(userId, knownVersion);
+            String etag = ETagUtil.etag(tagName, current.getVersion());
+            if (!current.isModified()) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .build());
+            }
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate());
+            Ride currentRide = current.getValue();
+            if (currentRide != null && currentRide.getUpdatedAt() != null) {
+                ok.lastModified(currentRide.getUpdatedAt().getTime());
+            }
+            return Mono.just(ok.body(currentRide));
         } catch (RemoteException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to get current ride: " + e.getMessage());
@@ -68,7 +95,9 @@ public class RideController {
     @Operation(
         summary = "Request a New Ride",
         description = "Creates a new ride request from a rider. The ride will be created with PENDING status " +
-                     "and made available to nearby drivers. Requires pickup and destination coordinates.",
+                     "and made available to nearby drivers. Requires pickup and destination coordinates. " +
+                     "A retry carrying the same Idempotency-Key returns the ride the first attempt created. " +
+                     "A rider can have only one active ride at a time.",
         tags = {"Ride Management"},
         security = @SecurityRequirement(name = "bearerAuth")
     )
@@ -77,6 +106,7 @@ public class RideController {
                     content = @Content(mediaType = "application/json",
                     examples = @ExampleObject(value = "{\"success\": true, \"message\": \"Ride requested successfully\", \"status\": \"PENDING\"}"))),
         @ApiResponse(responseCode = "400", description = "Invalid request parameters"),
+        @ApiResponse(responseCode = "409", description = "Rider already has an active ride"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PostMapping("/request")
@@ -93,7 +123,14 @@ public class RideController {
                     "  \"destLng\": -73.9851\n" +
                     "}"))
             )
-            @RequestBody Map<String, Object> rideRequest) {
+            @RequestBody Map<String, Object> rideRequest,
+            @Parameter(description = "Client-generated key, the same on every retry of one request (max 64 characters)", example = "3f2b8c1e-9a4d-4e7a-b0c5-6d1f2a3b4c5d")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 64)) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Idempotency-Key must be 1 to 64 characters");
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error));
+        }
         try {
             int riderId = (Integer) rideRequest.get("riderId");
             double pickupLat = ((Number) rideRequest.get("pickupLat")).doubleValue();
@@ -101,7 +138,7 @@ public class RideController {
             double destLat = ((Number) rideRequest.get("destLat")).doubleValue();
             double destLng = ((Number) rideRequest.get("destLng")).doubleValue();
             
-            int rideId = rideServiceRmiClient.requestRide(riderId, pickupLat, pickupLng, destLat, destLng);
+            int rideId = rideServiceRmiClient.requestRide(riderId, pickupLat, pickupLng, destLat, destLng, idempotencyKey);
             
             if (rideId > 0) {
                 Map<String, Object> response = new HashMap<>();
@@ -112,8 +149,8 @@ public class RideController {
                 return Mono.just(ResponseEntity.status(HttpStatus.CREATED).body(response));
             } else {
                 Map<String, String> error = new HashMap<>();
-                error.put("error", "Failed to request ride");
-                return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error));
+                error.put("error", "Rider already has an active ride");
+                return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(error));
             }
         } catch (RemoteException e) {
             Map<String, String> error = new HashMap<>();
@@ -313,6 +350,115 @@ public class RideController {
         }
     }
 
+    @Operation(
+        summary = "Get Supply and Demand Heatmap",
+        description = "Per geohash cell: open ride requests, online drivers, and requests/accepts/cancels/driver updates " +
+                     "over the last 1, 5 and 15 minutes. Served from in-memory counters on the RMI server. " +
+                     "Defaults to every active cell when no bounding box is given.",
+        tags = {"Ride Information"},
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Heatmap cells retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(type = "array", implementation = CellSupplyDemand.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/heatmap")
+    public Mono<ResponseEntity<?>> getSupplyDemandHeatmap(
+            @Parameter(description = "South edge of the bounding box", required = false, example = "16.70")
+            @RequestParam(defaultValue = "-90") double minLat,
+            @Parameter(description = "West edge of the bounding box", required = false, example = "96.05")
+            @RequestParam(defaultValue = "-180") double minLng,
+            @Parameter(description = "North edge of the bounding box", required = false, example = "17.00")
+            @RequestParam(defaultValue = "90") double maxLat,
+            @Parameter(description = "East edge of the bounding box", required = false, example = "96.30")
+            @RequestParam(defaultValue = "180") double maxLng) {
+        try {
+            List<CellSupplyDemand> cells = rideServiceRmiClient.getSupplyDemand(minLat, minLng, maxLat, maxLng);
+            return Mono.just(ResponseEntity.ok(cells));
+        } catch (RemoteException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to get supply and demand: " + e.getMessage());
+            return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error));
+        }
+    }
+
+    @Operation(
+        summary = "Get Fare Quote",
+        description = "Upfront fare for a trip from road distance and drive time, times the current surge multiplier " +
+                     "at the pickup. Quotes are shared per pickup/destination cell for a short time bucket; a ride " +
+                     "requested before valid_until is charged the quoted fare.",
+        tags = {"Ride Management"},
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fare quote computed successfully",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = FareQuote.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/quote")
+    public Mono<ResponseEntity<?>> getFareQuote(
+            @Parameter(description = "Pickup latitude", required = true, example = "16.8409")
+            @RequestParam double pickupLat,
+            @Parameter(description = "Pickup longitude", required = true, example = "96.1735")
+            @RequestParam double pickupLng,
+            @Parameter(description = "Destination latitude", required = true, example = "16.7800")
+            @RequestParam double destLat,
+            @Parameter(description = "Destination longitude", required = true, example = "96.1500")
+            @RequestParam double destLng) {
+        try {
+            FareQuote quote = rideServiceRmiClient.getFareQuote(pickupLat, pickupLng, destLat, destLng);
+            return Mono.just(ResponseEntity.ok(quote));
+        } catch (RemoteException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to get fare quote: " + e.getMessage());
+            return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error));
+        }
+    }
+
+    @Operation(
+        summary = "Get Ride Trajectory",
+        description = "Replays the driver's path for a ride: simplified breadcrumbs (bounded position and timing error) " +
+                     "as latitude/longitude/timestamp columns. Send Accept: application/octet-stream to get the stored " +
+                     "delta/varint encoding instead, which is several times smaller.",
+        tags = {"Ride Information"},
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Trajectory retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = RideTrajectory.class))),
+        @ApiResponse(responseCode = "404", description = "No breadcrumbs recorded for the ride"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/{rideId}/trajectory")
+    public Mono<ResponseEntity<?>> getRideTrajectory(
+            @Parameter(description = "Unique identifier of the ride", required = true, example = "456")
+            @PathVariable int rideId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        try {
+            RideTrajectory trajectory = rideServiceRmiClient.getRideTrajectory(rideId);
+            if (trajectory == null) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "No trajectory recorded for ride " + rideId);
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(error));
+            }
+            if (accept != null && accept.contains(MediaType.APPLICATION_OCTET_STREAM_VALUE)) {
+                return Mono.just(ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header("X-Point-Count", String.valueOf(trajectory.getPointCount()))
+                        .body(trajectory.getEncoded()));
+            }
+            return Mono.just(ResponseEntity.ok(trajectory));
+        } catch (RemoteException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to get ride trajectory: " + e.getMessage());
+            return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error));
+        }
+    }
+
     @Operation(
         summary = "Get Ride Status",
         description = "Retrieves the current status of a specific ride by its ID. " +
@@ -325,19 +471,38 @@ public class RideController {
         @ApiResponse(responseCode = "200", description = "Ride status retrieved successfully",
                     content = @Content(mediaType = "application/json",
                     examples = @ExampleObject(value = "{\"rideId\": 456, \"status\": \"IN_PROGRESS\"}"))),
+        @ApiResponse(responseCode = "304", description = "Status unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Ride not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/{rideId}/status")
     public Mono<ResponseEntity<?>> getRideStatus(
             @Parameter(description = "Unique identifier of the ride", required = true, example = "456")
-            @PathVariable int rideId) {
+            @PathVariable int rideId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             String status = rideServiceRmiClient.getRideStatus(rideId);
+            if (status == null) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("rideId", rideId);
+                response.put("status", null);
+                return Mono.just(ResponseEntity.ok(response));
+            }
+            // The status string is the whole payload, so it doubles as the version
+            String etag = ETagUtil.etag("status-" + rideId, status);
+            if (ETagUtil.matches(ifNoneMatch, etag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .build());
+            }
             Map<String, Object> response = new HashMap<>();
             response.put("rideId", rideId);
             response.put("status", status);
-            return Mono.just(ResponseEntity.ok(response));
+            return Mono.just(ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(response));
         } catch (RemoteException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to get ride status: " + e.getMessage());
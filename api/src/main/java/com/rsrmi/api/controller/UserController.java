@@ -2,8 +2,9 @@ package com.rsrmi.api.controller;
 
 import com.rsrmi.api.service.UserServiceRmiClient;
 import com.rsrmi.api.service.LocationServiceRmiClient;
-import com.rsrmi.api.model.User;
-import com.rsrmi.api.model.UserLocation;
+import com.rsrmi.ride_sharing_api.rmi.models.User;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
+import com.rsrmi.api.util.ETagUtil;
 
 import java.time.LocalDateTime;
 
@@ -15,6 +16,8 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import reactor.core.publisher.Mono;
@@ -193,12 +196,34 @@ public class UserController {
         description = "Get user's current location (JWT protected)",
         security = @SecurityRequirement(name = "bearerAuth")
     )
-    public Mono<ResponseEntity<ApiResponse>> getUserLocation(@PathVariable int userId) {
+    public Mono<ResponseEntity<ApiResponse>> getUserLocation(
+        @PathVariable int userId,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         return Mono.fromCallable(() -> {
             try {
+                String tagName = "location-" + userId;
+                // Only conditional requests pay for the probe; a match skips loading the location
+                if (ifNoneMatch != null) {
+                    long version = locationServiceRmiClient.getUserLocationVersion(userId);
+                    String etag = ETagUtil.etag(tagName, version);
+                    if (version != 0 && ETagUtil.matches(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(etag)
+                                .cacheControl(CacheControl.noCache().cachePrivate())
+                                .<ApiResponse>build();
+                    }
+                }
                 UserLocation userLocation = locationServiceRmiClient.getUserLocation(userId);
                 if (userLocation != null) {
-                    return ResponseEntity.ok(new ApiResponse(true, "Location retrieved successfully", userLocation));
+                    long version = UserLocation.version(
+                        userLocation.getLastUpdated(), userLocation.getIsOnline());
+                    // No Last-Modified: last_updated is a zone-less time in the RMI server's default
+                    // zone, so it can't be stated as an HTTP date. The ETag alone validates.
+                    return ResponseEntity.ok()
+                            .eTag(ETagUtil.etag(tagName, version))
+                            .cacheControl(CacheControl.noCache().cachePrivate())
+                            .body(new ApiResponse(true, "Location retrieved successfully", userLocation));
                 } else {
                     return ResponseEntity.status(HttpStatus.NOT_FOUND)
                             .body(new ApiResponse(false, "User location not found"));
@@ -0,0 +1,29 @@
+package com.rsrmi.api.dto;
+
+/**
+ * A value together with the RMI-side version it was read at. When {@code modified} is
+ * false the caller's version is still current and {@code value} is not populated.
+ */
+public class Versioned<T> {
+    private final long version;
+    private final boolean modified;
+    private final T value;
+
+    public Versioned(long version, boolean modified, T value) {
+        this.version = version;
+        this.modified = modified;
+        this.value = value;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    public T getValue() {
+        return value;
+    }
+}
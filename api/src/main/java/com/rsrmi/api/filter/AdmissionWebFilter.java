@@ -0,0 +1,145 @@
+package com.rsrmi.api.filter;
+
+import com.rsrmi.api.admission.AdaptiveConcurrencyLimiter;
+import com.rsrmi.api.admission.RequestPriority;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Admission control in front of the controllers. Each API request is given a priority and
+ * either admitted by the adaptive limiter or turned away at once with 503 and Retry-After, so an
+ * RMI or database slowdown sheds reads instead of queueing everyone into timeouts.
+ *
+ * The controllers make blocking RMI calls, so admitted requests run on a worker pool sized to
+ * the limiter's maximum rather than on the event loop; request bodies are read first and
+ * replayed on the worker so @RequestBody handlers don't resume on the event loop either.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class AdmissionWebFilter implements WebFilter, DisposableBean {
+    private static final int MAX_BODY_BYTES = 256 * 1024;
+    private static final byte[] BUSY = "{\"success\":false,\"message\":\"Server busy, please retry\"}".getBytes();
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+    private final Scheduler workers;
+
+    public AdmissionWebFilter(
+        AdaptiveConcurrencyLimiter limiter,
+        @Value("${ADMISSION_ENABLED:true}") boolean enabled,
+        @Value("${ADMISSION_RETRY_AFTER_SECONDS:1}") int retryAfterSeconds
+    ) {
+        this.limiter = limiter;
+        this.enabled = enabled;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        this.workers = Schedulers.newBoundedElastic(limiter.getMaxLimit(), Integer.MAX_VALUE, "api-worker");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        RequestPriority priority = enabled ? classify(request.getMethod(), request.getPath().value()) : null;
+        if (priority == null) {
+            return chain.filter(exchange);
+        }
+        if (!limiter.tryAcquire(priority)) {
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(BUSY)));
+        }
+        long start = System.nanoTime();
+        return runOnWorker(exchange, chain).doFinally(signal -> {
+            if (signal == SignalType.CANCEL) {
+                limiter.release();
+                return;
+            }
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+            limiter.release(System.nanoTime() - start, failed);
+        });
+    }
+
+    /**
+     * @return null for requests the limiter doesn't cover: preflights, health checks, metrics and
+     *         anything outside the API
+     */
+    static RequestPriority classify(HttpMethod method, String path) {
+        if (HttpMethod.OPTIONS.equals(method) || !path.startsWith("/api/v1/") ||
+            path.equals("/api/v1/health") ||
+            path.equals("/api/v1/rmi/health") ||
+            path.equals("/api/v1/cors-test") ||
+            path.equals("/api/v1/metrics")) {
+            return null;
+        }
+        if (
+            (HttpMethod.POST.equals(method) && path.equals("/api/v1/rides/request")) ||
+            (path.startsWith("/api/v1/rides/") && path.endsWith("/accept")) ||
+            (path.startsWith("/api/v1/rides/") && path.endsWith("/cancel")) ||
+            (HttpMethod.PUT.equals(method) && path.startsWith("/api/v1/rides/") && path.endsWith("/status"))
+        ) {
+            return RequestPriority.CRITICAL;
+        }
+        if (
+            path.startsWith("/api/v1/rides/history") ||
+            path.startsWith("/api/v1/rides/heatmap") ||
+            (path.startsWith("/api/v1/rides/") && path.endsWith("/trajectory")) ||
+            (path.startsWith("/api/v1/users/") && path.endsWith("/get/location")) ||
+            (path.startsWith("/api/v1/drivers/") && path.endsWith("/position")) ||
+            path.startsWith("/api/v1/places/search")
+        ) {
+            return RequestPriority.SHEDDABLE;
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    private Mono<Void> runOnWorker(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        if (!HttpMethod.POST.equals(method) && !HttpMethod.PUT.equals(method) && !HttpMethod.PATCH.equals(method)) {
+            return chain.filter(exchange).subscribeOn(workers);
+        }
+        return DataBufferUtils.join(request.getBody(), MAX_BODY_BYTES)
+            .map(buffer -> {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                DataBufferUtils.release(buffer);
+                return bytes;
+            })
+            .defaultIfEmpty(new byte[0])
+            .publishOn(workers)
+            .flatMap(bytes -> chain.filter(exchange.mutate().request(new ServerHttpRequestDecorator(request) {
+                @Override
+                public Flux<DataBuffer> getBody() {
+                    return bytes.length == 0 ? Flux.empty() : Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(bytes)));
+                }
+            }).build()));
+    }
+
+    @Override
+    public void destroy() {
+        workers.dispose();
+    }
+}
@@ -1,6 +1,8 @@
 package com.rsrmi.api.filter;
 
 import com.rsrmi.api.util.JwtUtil;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
@@ -10,7 +12,11 @@ import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
 public class JwtWebFilter implements WebFilter {
+    /** Exchange attribute holding the validated token's claims, for filters further down */
+    public static final String CLAIMS_ATTRIBUTE = JwtWebFilter.class.getName() + ".claims";
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         String path = exchange.getRequest().getPath().value();
@@ -26,19 +32,26 @@ public class JwtWebFilter implements WebFilter {
             path.startsWith("/api/v1/users/get") ||
             path.startsWith("/api/v1/users/update") ||
             path.startsWith("/api/v1/users/location") ||
-            path.startsWith("/api/v1/users/{userId}/location") ||
+            (path.startsWith("/api/v1/users/") && path.endsWith("/location")) ||
 
             path.startsWith("/api/v1/rides/current") ||
             path.startsWith("/api/v1/rides/request") ||
-            path.startsWith("/api/v1/rides/{rideId}/accept") ||
-            path.startsWith("/api/v1/rides/{rideId}/status") ||
-            path.startsWith("/api/v1/rides/{rideId}/cancel") ||
-            path.startsWith("/api/v1/rides/driver/{rideId}/location") ||
+            (path.startsWith("/api/v1/rides/") && path.endsWith("/accept")) ||
+            (path.startsWith("/api/v1/rides/") && path.endsWith("/status")) ||
+            (path.startsWith("/api/v1/rides/") && path.endsWith("/cancel")) ||
+            (path.startsWith("/api/v1/rides/driver/") && path.endsWith("/location")) ||
             path.startsWith("/api/v1/rides/history") ||
             path.startsWith("/api/v1/rides/pending") ||
+            path.startsWith("/api/v1/rides/heatmap") ||
+            path.startsWith("/api/v1/rides/quote") ||
+            (path.startsWith("/api/v1/rides/") && path.endsWith("/trajectory")) ||
+
+            path.startsWith("/api/v1/places/search") ||
 
             path.startsWith("/api/v1/drivers/get") ||
-            path.startsWith("api/v1/drivers/update")
+            path.startsWith("/api/v1/drivers/heartbeat") ||
+            (path.startsWith("/api/v1/drivers/") && path.endsWith("/position")) ||
+            path.startsWith("/api/v1/drivers/update")
         ) {
             String authHeader = exchange.getRequest().getHeaders().getFirst("Authorization");
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -49,7 +62,7 @@ public class JwtWebFilter implements WebFilter {
             }
             String token = authHeader.substring(7);
             try {
-                JwtUtil.validateToken(token);
+                exchange.getAttributes().put(CLAIMS_ATTRIBUTE, JwtUtil.validateToken(token).getBody());
             } catch (Exception ex) {
                 exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
                 exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
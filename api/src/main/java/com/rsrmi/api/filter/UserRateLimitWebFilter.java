@@ -0,0 +1,144 @@
+package com.rsrmi.api.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rsrmi.api.admission.UserRateLimiter;
+import io.jsonwebtoken.Claims;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies the per-user limits of {@link UserRateLimiter} to authenticated requests, keyed by the
+ * userId in the token JwtWebFilter already validated. Over the limit, polls get 429 with
+ * Retry-After. Location pings and heartbeats are held back instead: each user has at most one
+ * waiting, which goes to the RMI server once the bucket has room, and a newer ping replaces it
+ * (the replaced one gets 202, since the newer one carries its data). A location update that
+ * changes isOnline is never held back, and drops the one waiting so an older "online" ping
+ * cannot land after it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class UserRateLimitWebFilter implements WebFilter {
+    private static final byte[] COALESCED = "{\"success\":true,\"message\":\"Update coalesced with a newer one\",\"data\":true}".getBytes();
+    private static final byte[] TOO_MANY = "{\"success\":false,\"message\":\"Too many requests\"}".getBytes();
+
+    private final UserRateLimiter limiter;
+    private final ObjectMapper objectMapper;
+    // (route, user) -> the request held back for that bucket; true lets it through, false means replaced
+    private final Map<Long, Sinks.One<Boolean>> held = new ConcurrentHashMap<>();
+
+    public UserRateLimitWebFilter(UserRateLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Claims claims = exchange.getAttribute(JwtWebFilter.CLAIMS_ATTRIBUTE);
+        Integer userId = claims != null ? claims.get("userId", Integer.class) : null;
+        if (userId == null) {
+            return chain.filter(exchange);
+        }
+        UserRateLimiter.Route route = limiter.route(exchange.getRequest().getMethod(), exchange.getRequest().getPath().pathWithinApplication());
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        if (route.isCoalesce()) {
+            // The body decides whether this is a state change, so read it once and hand the copy on
+            return DataBufferUtils.join(exchange.getRequest().getBody())
+                .map(UserRateLimitWebFilter::drain)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(body -> coalesce(withBody(exchange, body), chain, route, userId, state(body)));
+        }
+        long waitNanos = limiter.acquire(route, userId, 0);
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000)));
+        return write(exchange, TOO_MANY);
+    }
+
+    private Mono<Void> coalesce(ServerWebExchange exchange, WebFilterChain chain, UserRateLimiter.Route route, int userId, int state) {
+        long key = limiter.key(route, userId);
+        if (limiter.acquire(route, userId, state) == 0) {
+            Sinks.One<Boolean> stale = held.remove(key);
+            if (stale != null) {
+                stale.tryEmitValue(false);
+            }
+            return chain.filter(exchange);
+        }
+        Sinks.One<Boolean> mine = Sinks.one();
+        Sinks.One<Boolean> previous = held.put(key, mine);
+        if (previous != null) {
+            previous.tryEmitValue(false);
+        } else {
+            // First one held for this bucket: take the next slot, and whoever is held by then gets it
+            Mono.delay(Duration.ofNanos(limiter.reserve(route, userId))).subscribe(tick -> {
+                Sinks.One<Boolean> latest = held.remove(key);
+                if (latest != null) {
+                    latest.tryEmitValue(true);
+                }
+            });
+        }
+        return mine.asMono().flatMap(go -> {
+            if (go) {
+                return chain.filter(exchange);
+            }
+            exchange.getResponse().setStatusCode(HttpStatus.ACCEPTED);
+            return write(exchange, COALESCED);
+        });
+    }
+
+    // 1 online, 2 offline, 0 when the body says neither
+    private int state(byte[] body) {
+        if (body.length == 0) {
+            return 0;
+        }
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            JsonNode online = json.has("isOnline") ? json.get("isOnline") : json.get("is_online");
+            return online == null || !online.isBoolean() ? 0 : online.booleanValue() ? 1 : 2;
+        } catch (Exception e) {
+            return 0; // the controller reports the bad body
+        }
+    }
+
+    private static byte[] drain(DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    private static ServerWebExchange withBody(ServerWebExchange exchange, byte[] body) {
+        return exchange.mutate().request(new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }
+        }).build();
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, byte[] body) {
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+    }
+}
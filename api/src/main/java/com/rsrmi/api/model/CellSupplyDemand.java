@@ -0,0 +1,113 @@
+package com.rsrmi.api.model;
+
+import java.io.Serializable;
+import java.util.Map;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class CellSupplyDemand implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @JsonProperty("geohash")
+    private String geohash;
+
+    @JsonProperty("center_latitude")
+    private double center_latitude;
+
+    @JsonProperty("center_longitude")
+    private double center_longitude;
+
+    @JsonProperty("pending_rides")
+    private long pending_rides;
+
+    @JsonProperty("online_drivers")
+    private long online_drivers;
+
+    // Window counts keyed "1m", "5m", "15m"
+    @JsonProperty("requested")
+    private Map<String, Long> requested;
+
+    @JsonProperty("accepted")
+    private Map<String, Long> accepted;
+
+    @JsonProperty("cancelled")
+    private Map<String, Long> cancelled;
+
+    @JsonProperty("driver_updates")
+    private Map<String, Long> driver_updates;
+
+    public CellSupplyDemand() {
+        // Default constructor
+    }
+
+    public String getGeohash() {
+        return this.geohash;
+    }
+
+    public void setGeohash(String geohash) {
+        this.geohash = geohash;
+    }
+
+    public double getCenterLatitude() {
+        return this.center_latitude;
+    }
+
+    public void setCenterLatitude(double center_latitude) {
+        this.center_latitude = center_latitude;
+    }
+
+    public double getCenterLongitude() {
+        return this.center_longitude;
+    }
+
+    public void setCenterLongitude(double center_longitude) {
+        this.center_longitude = center_longitude;
+    }
+
+    public long getPendingRides() {
+        return this.pending_rides;
+    }
+
+    public void setPendingRides(long pending_rides) {
+        this.pending_rides = pending_rides;
+    }
+
+    public long getOnlineDrivers() {
+        return this.online_drivers;
+    }
+
+    public void setOnlineDrivers(long online_drivers) {
+        this.online_drivers = online_drivers;
+    }
+
+    public Map<String, Long> getRequested() {
+        return this.requested;
+    }
+
+    public void setRequested(Map<String, Long> requested) {
+        this.requested = requested;
+    }
+
+    public Map<String, Long> getAccepted() {
+        return this.accepted;
+    }
+
+    public void setAccepted(Map<String, Long> accepted) {
+        this.accepted = accepted;
+    }
+
+    public Map<String, Long> getCancelled() {
+        return this.cancelled;
+    }
+
+    public void setCancelled(Map<String, Long> cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    public Map<String, Long> getDriverUpdates() {
+        return this.driver_updates;
+    }
+
+    public void setDriverUpdates(Map<String, Long> driver_updates) {
+        this.driver_updates = driver_updates;
+    }
+}
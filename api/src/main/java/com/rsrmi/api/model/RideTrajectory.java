@@ -0,0 +1,94 @@
+package com.rsrmi.api.model;
+
+import java.io.Serializable;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Trip replay in columnar form: point i is (latitudes[i], longitudes[i], timestamps[i])
+public class RideTrajectory implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @JsonProperty("ride_id")
+    private int ride_id;
+
+    @JsonProperty("point_count")
+    private int point_count;
+
+    @JsonProperty("raw_point_count")
+    private int raw_point_count;
+
+    @JsonProperty("latitudes")
+    private double[] latitudes;
+
+    @JsonProperty("longitudes")
+    private double[] longitudes;
+
+    // Epoch millis
+    @JsonProperty("timestamps")
+    private long[] timestamps;
+
+    // The stored delta/varint form, served as-is to clients that ask for application/octet-stream
+    @JsonIgnore
+    private byte[] encoded;
+
+    public RideTrajectory() {
+        // Default constructor
+    }
+
+    public int getRideId() {
+        return this.ride_id;
+    }
+
+    public void setRideId(int ride_id) {
+        this.ride_id = ride_id;
+    }
+
+    public int getPointCount() {
+        return this.point_count;
+    }
+
+    public void setPointCount(int point_count) {
+        this.point_count = point_count;
+    }
+
+    public int getRawPointCount() {
+        return this.raw_point_count;
+    }
+
+    public void setRawPointCount(int raw_point_count) {
+        this.raw_point_count = raw_point_count;
+    }
+
+    public double[] getLatitudes() {
+        return this.latitudes;
+    }
+
+    public void setLatitudes(double[] latitudes) {
+        this.latitudes = latitudes;
+    }
+
+    public double[] getLongitudes() {
+        return this.longitudes;
+    }
+
+    public void setLongitudes(double[] longitudes) {
+        this.longitudes = longitudes;
+    }
+
+    public long[] getTimestamps() {
+        return this.timestamps;
+    }
+
+    public void setTimestamps(long[] timestamps) {
+        this.timestamps = timestamps;
+    }
+
+    @JsonIgnore
+    public byte[] getEncoded() {
+        return this.encoded;
+    }
+
+    public void setEncoded(byte[] encoded) {
+        this.encoded = encoded;
+    }
+}
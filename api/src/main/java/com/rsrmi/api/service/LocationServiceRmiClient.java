@@ -1,11 +1,11 @@
 package com.rsrmi.api.service;
 
-import com.rsrmi.api.model.UserLocation;
 import com.rsrmi.ride_sharing_api.rmi.interfaces.LocationService;
+import com.rsrmi.ride_sharing_api.rmi.models.PlaceSuggestion;
+import com.rsrmi.ride_sharing_api.rmi.models.PredictedPosition;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -18,48 +18,43 @@ public class LocationServiceRmiClient {
         int userId,
         UserLocation location
     ) throws Exception {
-        com.rsrmi.ride_sharing_api.rmi.models.UserLocation rmiUserLocation = new com.rsrmi.ride_sharing_api.rmi.models.UserLocation();
-        rmiUserLocation.setUserId(userId);
-        rmiUserLocation.setLatitude(location.getLatitude());
-        rmiUserLocation.setLongitude(location.getLongitude());
-        rmiUserLocation.setAddress(location.getAddress());
-        rmiUserLocation.setLastUpdated(location.getLastUpdated());
-        rmiUserLocation.setIsOnline(location.getIsOnline());
-        return locationService.updateUserLocation(userId, rmiUserLocation);
+        location.setUserId(userId);
+        return locationService.updateUserLocation(userId, location);
     }
 
     public UserLocation getUserLocation(int userId) throws Exception {
-        com.rsrmi.ride_sharing_api.rmi.models.UserLocation rmiResult = locationService.getUserLocation(userId);
-        if (rmiResult == null) return null;
-        UserLocation apiUserLocation = new UserLocation();
-        apiUserLocation.setUserId(rmiResult.getUserId());
-        apiUserLocation.setLatitude(rmiResult.getLatitude());
-        apiUserLocation.setLongitude(rmiResult.getLongitude());
-        apiUserLocation.setAddress(rmiResult.getAddress());
-        apiUserLocation.setLastUpdated(rmiResult.getLastUpdated());
-        apiUserLocation.setIsOnline(rmiResult.getIsOnline());
-        return apiUserLocation;
+        return locationService.getUserLocation(userId);
+    }
+
+    public long getUserLocationVersion(int userId) throws Exception {
+        return locationService.getUserLocationVersion(userId);
     }
 
     public List<UserLocation> findNearbyDrivers(
-        com.rsrmi.ride_sharing_api.rmi.models.UserLocation riderLocation, 
+        UserLocation riderLocation, 
         double radiusKm
     ) throws Exception {
-        List<com.rsrmi.ride_sharing_api.rmi.models.UserLocation> rmiResults = locationService.findNearbyDrivers(riderLocation, radiusKm);
-        List<UserLocation> apiResults = new ArrayList<>();
-        if (rmiResults != null) {
-            for (com.rsrmi.ride_sharing_api.rmi.models.UserLocation rmiLoc : rmiResults) {
-                UserLocation apiLoc = new UserLocation();
-                apiLoc.setUserId(rmiLoc.getUserId());
-                apiLoc.setLatitude(rmiLoc.getLatitude());
-                apiLoc.setLongitude(rmiLoc.getLongitude());
-                apiLoc.setAddress(rmiLoc.getAddress());
-                apiLoc.setLastUpdated(rmiLoc.getLastUpdated());
-                apiLoc.setIsOnline(rmiLoc.getIsOnline());
-                apiResults.add(apiLoc);
-            }   
-        }
-        return apiResults;
+        List<UserLocation> drivers = locationService.findNearbyDrivers(riderLocation, radiusKm);
+        return drivers != null ? drivers : List.of();
     }
     
-}
+    public boolean heartbeat(int driverId) throws Exception {
+        return locationService.heartbeat(driverId);
+    }
+
+    public PredictedPosition predictDriverPosition(int driverId, long atMillis) throws Exception {
+        return locationService.predictDriverPosition(driverId, atMillis);
+    }
+
+    public List<PlaceSuggestion> searchPlaces(String query, Double lat, Double lng, int limit) throws Exception {
+        UserLocation near = null;
+        if (lat != null && lng != null) {
+            near = new UserLocation();
+            near.setLatitude(lat);
+            near.setLongitude(lng);
+        }
+        List<PlaceSuggestion> places = locationService.searchPlaces(query, near, limit);
+        return places != null ? places : List.of();
+    }
+
+}
\ No newline at end of file
@@ -1,12 +1,19 @@
 package com.rsrmi.api.service;
 
-import com.rsrmi.api.model.Ride;
+import com.rsrmi.api.dto.Versioned;
+import com.rsrmi.api.model.CellSupplyDemand;
+import com.rsrmi.api.model.RideTrajectory;
 import com.rsrmi.ride_sharing_api.rmi.interfaces.RideService;
+import com.rsrmi.ride_sharing_api.rmi.models.CurrentRideResult;
+import com.rsrmi.ride_sharing_api.rmi.models.FareQuote;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.rmi.RemoteException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,12 +23,12 @@ public class RideServiceRmiClient {
     private RideService rideService;
 
     public int requestRide(int riderId, double pickupLat, double pickupLng, 
-                              double destLat, double destLng) throws RemoteException {
+                              double destLat, double destLng, String idempotencyKey) throws RemoteException {
         if (rideService == null) {
             throw new RemoteException("RMI service not available");
         }
         
-        return rideService.requestRide(riderId, pickupLat, pickupLng, destLat, destLng);
+        return rideService.requestRide(riderId, pickupLat, pickupLng, destLat, destLng, idempotencyKey);
     }
 
     public List<Ride> getPendingRides(double driverLat, double driverLng, double radius) throws RemoteException {
@@ -29,12 +36,7 @@ public class RideServiceRmiClient {
             throw new RemoteException("RMI service not available");
         }
         
-        List<com.rsrmi.ride_sharing_api.rmi.models.Ride> rmiRides = 
-            rideService.getPendingRides(driverLat, driverLng, radius);
-        
-        return rmiRides.stream()
-                .map(this::convertFromRmiRide)
-                .collect(Collectors.toList());
+        return rideService.getPendingRides(driverLat, driverLng, radius);
     }
 
     public int acceptRide(int driverId, int rideId) throws RemoteException {
@@ -98,8 +100,16 @@ public class RideServiceRmiClient {
             throw new RemoteException("RMI service not available");
         }
         
-        com.rsrmi.ride_sharing_api.rmi.models.Ride rmiRide = rideService.getCurrentRide(userId);
-        return rmiRide != null ? convertFromRmiRide(rmiRide) : null;
+        return rideService.getCurrentRide(userId);
+    }
+
+    public Versioned<Ride> getCurrentRideIfChanged(int userId, long knownVersion) throws RemoteException {
+        if (rideService == null) {
+            throw new RemoteException("RMI service not available");
+        }
+        
+        CurrentRideResult result = rideService.getCurrentRideIfChanged(userId, knownVersion);
+        return new Versioned<>(result.getVersion(), result.isModified(), result.getRide());
     }
 
     public List<Ride> getRideHistory(int userId) throws RemoteException {
@@ -107,10 +117,7 @@ public class RideServiceRmiClient {
             throw new RemoteException("RMI service not available");
         }
         
-        List<com.rsrmi.ride_sharing_api.rmi.models.Ride> rmiRides = rideService.getRideHistory(userId);
-        return rmiRides.stream()
-                .map(this::convertFromRmiRide)
-                .collect(Collectors.toList());
+        return rideService.getRideHistory(userId);
     }
 
     public String getRideStatus(int rideId) throws RemoteException {
@@ -121,38 +128,76 @@ public class RideServiceRmiClient {
         return rideService.getRideStatus(rideId);
     }
 
-    private Ride convertFromRmiRide(com.rsrmi.ride_sharing_api.rmi.models.Ride rmiRide) {
-        if (rmiRide == null) return null;
-        
-        Ride ride = new Ride();
-        ride.setId(rmiRide.getId());
-        ride.setRiderId(rmiRide.getRiderId());
-        ride.setDriverId(rmiRide.getDriverId());
-        ride.setPickupLatitude(rmiRide.getPickupLatitude());
-        ride.setPickupLongitude(rmiRide.getPickupLongitude());
-        ride.setPickupAddress(rmiRide.getPickupAddress());
-        ride.setDestinationLatitude(rmiRide.getDestinationLatitude());
-        ride.setDestinationLongitude(rmiRide.getDestinationLongitude());
-        ride.setDestinationAddress(rmiRide.getDestinationAddress());
-        
-        // Set rider information
-        ride.setRiderUsername(rmiRide.getRiderUsername());
-        ride.setRiderPhone(rmiRide.getRiderPhone());
+    public List<CellSupplyDemand> getSupplyDemand(double minLat, double minLng, double maxLat, double maxLng) throws RemoteException {
+        if (rideService == null) {
+            throw new RemoteException("RMI service not available");
+        }
         
-        // Convert status
-        try {
-            ride.setStatus(Ride.Status.valueOf(rmiRide.getStatus().toString()));
-        } catch (IllegalArgumentException e) {
-            ride.setStatus(Ride.Status.PENDING); // Default fallback
+        return rideService.getSupplyDemand(minLat, minLng, maxLat, maxLng).stream()
+                .map(this::convertFromRmiCell)
+                .collect(Collectors.toList());
+    }
+
+    public FareQuote getFareQuote(double pickupLat, double pickupLng, double destLat, double destLng) throws RemoteException {
+        if (rideService == null) {
+            throw new RemoteException("RMI service not available");
         }
         
-        // Convert timestamps - keep as Timestamp
-        ride.setCreatedAt(rmiRide.getCreatedAt());
-        ride.setUpdatedAt(rmiRide.getUpdatedAt());
-        ride.setAcceptedAt(rmiRide.getAcceptedAt());
-        ride.setStartedAt(rmiRide.getStartedAt());
-        ride.setCompletedAt(rmiRide.getCompletedAt());
+        return rideService.getFareQuote(pickupLat, pickupLng, destLat, destLng);
+    }
+
+    public RideTrajectory getRideTrajectory(int rideId) throws RemoteException {
+        if (rideService == null) {
+            throw new RemoteException("RMI service not available");
+        }
         
-        return ride;
+        com.rsrmi.ride_sharing_api.rmi.models.RideTrajectory rmiTrajectory = rideService.getRideTrajectory(rideId);
+        if (rmiTrajectory == null) return null;
+        
+        // Decode straight into the response columns, no per-point objects
+        int count = rmiTrajectory.getPointCount();
+        double[] latitudes = new double[count];
+        double[] longitudes = new double[count];
+        long[] timestamps = new long[count];
+        int[] next = { 0 };
+        rmiTrajectory.decode((lat, lng, time) -> {
+            int i = next[0]++;
+            latitudes[i] = lat;
+            longitudes[i] = lng;
+            timestamps[i] = time;
+        });
+        
+        RideTrajectory trajectory = new RideTrajectory();
+        trajectory.setRideId(rmiTrajectory.getRideId());
+        trajectory.setPointCount(count);
+        trajectory.setRawPointCount(rmiTrajectory.getRawPointCount());
+        trajectory.setLatitudes(latitudes);
+        trajectory.setLongitudes(longitudes);
+        trajectory.setTimestamps(timestamps);
+        trajectory.setEncoded(rmiTrajectory.getEncoded());
+        return trajectory;
+    }
+
+    private CellSupplyDemand convertFromRmiCell(com.rsrmi.ride_sharing_api.rmi.models.CellSupplyDemand rmiCell) {
+        CellSupplyDemand cell = new CellSupplyDemand();
+        cell.setGeohash(rmiCell.getGeohash());
+        cell.setCenterLatitude(rmiCell.getCenterLatitude());
+        cell.setCenterLongitude(rmiCell.getCenterLongitude());
+        cell.setPendingRides(rmiCell.getPendingRides());
+        cell.setOnlineDrivers(rmiCell.getOnlineDrivers());
+        cell.setRequested(toWindowMap(rmiCell.getRequested()));
+        cell.setAccepted(toWindowMap(rmiCell.getAccepted()));
+        cell.setCancelled(toWindowMap(rmiCell.getCancelled()));
+        cell.setDriverUpdates(toWindowMap(rmiCell.getDriverUpdates()));
+        return cell;
+    }
+
+    private Map<String, Long> toWindowMap(long[] counts) {
+        Map<String, Long> windows = new LinkedHashMap<>();
+        int[] minutes = com.rsrmi.ride_sharing_api.rmi.models.CellSupplyDemand.WINDOW_MINUTES;
+        for (int i = 0; i < minutes.length && counts != null && i < counts.length; i++) {
+            windows.put(minutes[i] + "m", counts[i]);
+        }
+        return windows;
     }
-}
+}
\ No newline at end of file
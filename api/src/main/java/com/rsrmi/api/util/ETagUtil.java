@@ -0,0 +1,57 @@
+package com.rsrmi.api.util;
+
+/**
+ * Strong ETags of the form "name-version" and If-None-Match matching for polled endpoints.
+ */
+public class ETagUtil {
+
+    public static String etag(String name, Object version) {
+        return "\"" + name + "-" + version + "\"";
+    }
+
+    /**
+     * Weak comparison as required for If-None-Match: ignores W/ prefixes and accepts lists and "*".
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extract the numeric version from the first If-None-Match entry named {@code name}, or -1.
+     */
+    public static long parseVersion(String ifNoneMatch, String name) {
+        if (ifNoneMatch == null) {
+            return -1;
+        }
+        String prefix = "\"" + name + "-";
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.startsWith(prefix) && tag.endsWith("\"")) {
+                try {
+                    return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,45 @@
+package com.rsrmi.api.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+
+class UserRateLimiterTest {
+
+	private final UserRateLimiter limiter = new UserRateLimiter("PUT /api/v1/users/update/location 1 2 coalesce", 1000);
+	private final UserRateLimiter.Route route = limiter.route(HttpMethod.PUT, PathContainer.parsePath("/api/v1/users/update/location"));
+
+	@Test
+	void burstThenLimited() {
+		assertNotNull(route);
+		assertEquals(0, limiter.acquire(route, 7, 1));
+		assertEquals(0, limiter.acquire(route, 7, 1));
+		assertTrue(limiter.acquire(route, 7, 1) > 0);
+		// Other users have their own bucket
+		assertEquals(0, limiter.acquire(route, 8, 1));
+	}
+
+	@Test
+	void stateChangeGoesThroughOverTheLimit() {
+		limiter.acquire(route, 7, 1);
+		limiter.acquire(route, 7, 1);
+		assertTrue(limiter.acquire(route, 7, 1) > 0);
+		assertEquals(0, limiter.acquire(route, 7, 2), "going offline is never held back");
+		assertTrue(limiter.acquire(route, 7, 2) > 0, "a repeat of the same state is");
+		assertEquals(0, limiter.acquire(route, 7, 1), "nor is coming back online");
+	}
+
+	@Test
+	void reserveTakesTheNextSlot() {
+		limiter.acquire(route, 7, 0);
+		limiter.acquire(route, 7, 0);
+		long first = limiter.reserve(route, 7);
+		long second = limiter.reserve(route, 7);
+		assertTrue(first > 0 && first <= 1_000_000_000L, "first slot within one interval: " + first);
+		assertTrue(second > first, "each reservation takes a later slot");
+	}
+}
@@ -0,0 +1,71 @@
+package com.rsrmi.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.rsrmi.api.dto.ApiResponse;
+import com.rsrmi.api.filter.JwtWebFilter;
+import com.rsrmi.api.service.LocationServiceRmiClient;
+import com.rsrmi.ride_sharing_api.rmi.interfaces.LocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class DriverControllerTest {
+
+	private final List<Integer> heartbeats = new ArrayList<>();
+	private final DriverController controller = new DriverController();
+
+	DriverControllerTest() {
+		LocationService service = (LocationService) Proxy.newProxyInstance(LocationService.class.getClassLoader(),
+				new Class<?>[] { LocationService.class }, (proxy, method, args) -> {
+					if (method.getName().equals("heartbeat")) {
+						heartbeats.add((Integer) args[0]);
+						return true;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+		LocationServiceRmiClient client = new LocationServiceRmiClient();
+		ReflectionTestUtils.setField(client, "locationService", service);
+		ReflectionTestUtils.setField(controller, "locationServiceRmiClient", client);
+	}
+
+	@Test
+	void heartbeatUsesTheTokensDriver() {
+		ResponseEntity<ApiResponse> response = controller.heartbeat(null, exchangeFor(7)).block();
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(List.of(7), heartbeats);
+	}
+
+	@Test
+	void heartbeatForAnotherDriverIsForbidden() {
+		ResponseEntity<ApiResponse> response = controller.heartbeat(8, exchangeFor(7)).block();
+
+		assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+		assertEquals(List.of(), heartbeats);
+	}
+
+	@Test
+	void heartbeatNamingItselfIsAllowed() {
+		ResponseEntity<ApiResponse> response = controller.heartbeat(7, exchangeFor(7)).block();
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(List.of(7), heartbeats);
+	}
+
+	private static MockServerWebExchange exchangeFor(int userId) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/drivers/heartbeat"));
+		Claims claims = Jwts.claims();
+		claims.put("userId", userId);
+		exchange.getAttributes().put(JwtWebFilter.CLAIMS_ATTRIBUTE, claims);
+		return exchange;
+	}
+}
@@ -37,7 +37,12 @@ CREATE TABLE IF NOT EXISTS rides (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     accepted_at TIMESTAMP,
     started_at TIMESTAMP,
-    completed_at TIMESTAMP
+    completed_at TIMESTAMP,
+    fare_amount NUMERIC(10, 2),
+    fare_currency VARCHAR(3),
+    surge_multiplier NUMERIC(4, 2),
+    -- bumped by every UPDATE, so the RMI server's active-ride cache can order concurrent writes
+    revision BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS ride_tracking (
@@ -48,11 +53,35 @@ CREATE TABLE IF NOT EXISTS ride_tracking (
     timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Simplified, delta/varint-encoded driver breadcrumbs, one row per segment of a ride
+CREATE TABLE IF NOT EXISTS ride_tracks (
+    ride_id INTEGER REFERENCES rides(id) ON DELETE CASCADE,
+    segment_no INTEGER NOT NULL,
+    point_count INTEGER NOT NULL,
+    raw_point_count INTEGER NOT NULL,
+    encoded BYTEA NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (ride_id, segment_no)
+);
+
+-- Idempotency keys for ride requests: a retry with the same key gets the ride the first attempt created
+CREATE TABLE IF NOT EXISTS ride_request_keys (
+    rider_id INTEGER NOT NULL REFERENCES users(id),
+    request_key VARCHAR(64) NOT NULL,
+    ride_id INTEGER NOT NULL REFERENCES rides(id) ON DELETE CASCADE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (rider_id, request_key)
+);
+
 CREATE INDEX IF NOT EXISTS idx_users_phone ON users(phone);
 CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
 CREATE INDEX IF NOT EXISTS idx_user_locations_user_id ON user_locations(user_id);
 CREATE INDEX IF NOT EXISTS idx_rides_rider_id ON rides(rider_id);
 CREATE INDEX IF NOT EXISTS idx_rides_driver_id ON rides(driver_id);
 CREATE INDEX IF NOT EXISTS idx_rides_status ON rides(status);
+CREATE INDEX IF NOT EXISTS idx_rides_active_rider ON rides(rider_id, created_at DESC) WHERE status IN ('PENDING', 'ACCEPTED', 'DRIVER_EN_ROUTE', 'ARRIVED', 'IN_PROGRESS');
+-- One active ride per rider; requestRide's INSERT ... ON CONFLICT relies on this exact predicate
+CREATE UNIQUE INDEX IF NOT EXISTS idx_rides_one_active_per_rider ON rides(rider_id) WHERE status IN ('PENDING', 'ACCEPTED', 'DRIVER_EN_ROUTE', 'ARRIVED', 'IN_PROGRESS');
+CREATE INDEX IF NOT EXISTS idx_rides_active_driver ON rides(driver_id, created_at DESC) WHERE status IN ('PENDING', 'ACCEPTED', 'DRIVER_EN_ROUTE', 'ARRIVED', 'IN_PROGRESS');
 CREATE INDEX IF NOT EXISTS idx_ride_tracking_ride_id ON ride_tracking(ride_id);
 CREATE INDEX IF NOT EXISTS idx_ride_tracking_timestamp ON ride_tracking(timestamp);
@@ -4,7 +4,7 @@ set -e
 echo "Building..."
 [ -d build ] || mkdir build
 
-find src -name "*.java" | sort > sources.txt
+find src ../shared/src/main/java -name "*.java" | sort > sources.txt
 javac -d build -cp "./lib/*" @sources.txt
 rm sources.txt
 
@@ -4,7 +4,17 @@ set -e
 
 echo "Starting RMI Server (production)..."
 
-# Set classpath: build dir + all jars in lib
-CLASSPATH="./build:./lib/*"
+# Production image: prebuilt jar, started with its AppCDS archive. logback.xml is passed by path
+# because CDS refuses a classpath with non-empty directories on it
+if [ -f ./rmi-server.jar ]; then
+    CDS_OPTS=""
+    if [ -f ./rmi-server.jsa ]; then
+        CDS_OPTS="-XX:SharedArchiveFile=./rmi-server.jsa -Xshare:auto"
+    fi
+    exec java $JAVA_OPTS $CDS_OPTS -Dlogback.configurationFile=./config/logback.xml -jar ./rmi-server.jar
+fi
+
+# Set classpath: build dir + config (logback.xml) + all jars in lib
+CLASSPATH="./build:./config:./lib/*"
 
 exec java $JAVA_OPTS -cp "$CLASSPATH" com.rsrmi.ride_sharing_api.rmi.servers.RMIServer
@@ -0,0 +1,211 @@
+package com.rsrmi.ride_sharing_api.rmi.auth;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import com.rsrmi.ride_sharing_api.rmi.logging.LatencyHistogram;
+import java.nio.charset.StandardCharsets;
+import java.rmi.RemoteException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Password hashing with PBKDF2-HMAC-SHA512, stored as "pbkdf2-sha512$iterations$salt$hash".
+ *
+ * Hashing is deliberately slow, so it runs on its own pool of PASSWORD_HASH_THREADS platform
+ * threads (half the cores by default) with a queue of PASSWORD_HASH_QUEUE tasks. A login storm
+ * can keep that pool busy, but never the cores left to ride and location traffic: past the
+ * queue, or after PASSWORD_HASH_TIMEOUT_MS in it, a caller gets a RemoteException to retry.
+ *
+ * Rows written before hashing hold the plaintext password; {@link #verify} still accepts them
+ * and {@link #needsRehash} tells the caller to replace them, as it does for hashes made with
+ * fewer than PASSWORD_HASH_ITERATIONS.
+ *
+ * A login for an unknown account calls {@link #verifyAbsent}, which does the same work against a
+ * dummy hash, so response time does not reveal which accounts exist.
+ */
+public class PasswordHasher {
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private static final String PREFIX = "pbkdf2-sha512$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA512";
+    private static final int ITERATIONS = EnvConfig.getInt("PASSWORD_HASH_ITERATIONS", 210_000);
+    private static final int THREADS = EnvConfig.getInt("PASSWORD_HASH_THREADS", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int QUEUE = EnvConfig.getInt("PASSWORD_HASH_QUEUE", 64);
+    private static final long TIMEOUT_MS = EnvConfig.getLong("PASSWORD_HASH_TIMEOUT_MS", 5000);
+    private static final long STATS_MILLIS = EnvConfig.getLong("PASSWORD_HASH_STATS_MILLIS", 60_000);
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static PasswordHasher instance;
+
+    private final ThreadPoolExecutor executor;
+    private final SecureRandom random = new SecureRandom();
+    private final String dummyHash;
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+    private final LatencyHistogram hashLatency = new LatencyHistogram();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final AtomicInteger peakQueue = new AtomicInteger();
+    private final AtomicLong nextStatsAt = new AtomicLong(System.currentTimeMillis() + STATS_MILLIS);
+
+    private PasswordHasher() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(THREADS, THREADS, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE), r -> {
+            Thread t = new Thread(r, "password-hash-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // Random bytes in the stored format: nothing hashes to it, and checking against it costs a real verify
+        byte[] salt = new byte[SALT_BYTES];
+        byte[] hash = new byte[HASH_BITS / 8];
+        random.nextBytes(salt);
+        random.nextBytes(hash);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        this.dummyHash = PREFIX + ITERATIONS + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+        log.info("Password hasher ready threads={} queue={} iterations={}", THREADS, QUEUE, ITERATIONS);
+    }
+
+    public static synchronized PasswordHasher getInstance() {
+        if (instance == null) {
+            instance = new PasswordHasher();
+        }
+        return instance;
+    }
+
+    /**
+     * @return the encoded hash of a password, with a fresh salt
+     */
+    public String hash(String password) throws RemoteException {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = run(() -> derive(password, salt, ITERATIONS));
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + ITERATIONS + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+    }
+
+    /**
+     * @return whether the password matches what is stored: an encoded hash or a legacy plaintext
+     */
+    public boolean verify(String password, String stored) throws RemoteException {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!stored.startsWith(PREFIX)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        int iterations;
+        byte[] salt;
+        byte[] expected;
+        try {
+            iterations = Integer.parseInt(parts[1]);
+            salt = Base64.getDecoder().decode(parts[2]);
+            expected = Base64.getDecoder().decode(parts[3]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            log.warn("Unreadable password hash");
+            return false;
+        }
+        byte[] actual = run(() -> derive(password, salt, iterations));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * Verifies against a dummy hash with the current settings, for a login whose account does
+     * not exist, so it takes as long as a wrong password for one that does.
+     *
+     * @return always false
+     */
+    public boolean verifyAbsent(String password) throws RemoteException {
+        verify(password != null ? password : "", dummyHash);
+        return false;
+    }
+
+    /**
+     * @return true for plaintext rows and hashes weaker than the current settings
+     */
+    public boolean needsRehash(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return true;
+        }
+        int end = stored.indexOf('$', PREFIX.length());
+        try {
+            return end < 0 || Integer.parseInt(stored.substring(PREFIX.length(), end)) < ITERATIONS;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private byte[] run(Callable<byte[]> task) throws RemoteException {
+        long submitted = System.nanoTime();
+        Future<byte[]> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                queueLatency.recordNanos(start - submitted);
+                try {
+                    return task.call();
+                } finally {
+                    hashLatency.recordNanos(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logStatsIfDue();
+            throw new RemoteException("Too many logins in progress, please retry");
+        }
+        peakQueue.accumulateAndGet(executor.getQueue().size(), Math::max);
+        logStatsIfDue();
+        try {
+            return future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            timedOut.increment();
+            throw new RemoteException("Too many logins in progress, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new RemoteException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new RemoteException("Failed to hash password: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) throws GeneralSecurityException {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private void logStatsIfDue() {
+        long due = nextStatsAt.get();
+        long now = System.currentTimeMillis();
+        if (now >= due && nextStatsAt.compareAndSet(due, now + STATS_MILLIS)) {
+            log.info("Password hashing active={} queued={} peakQueued={} rejected={} timedOut={} queue[{}] hash[{}]",
+                executor.getActiveCount(), executor.getQueue().size(), peakQueue.getAndSet(0), rejected.sum(),
+                timedOut.sum(), queueLatency.summary(), hashLatency.summary());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.rsrmi.ride_sharing_api.rmi.cache;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory userId -> active ride index maintained by the RideServiceImpl lifecycle methods.
+ *
+ * Every change is stamped from one global sequence, so a caller can remember the version it
+ * last saw and cheaply ask whether anything changed since. Users with no active ride are kept
+ * as explicit "no ride" bindings, which makes the common idle poll a map hit as well.
+ *
+ * Writes are ordered by the rides.revision column rather than by arrival, and an ended ride
+ * stays as a tombstone for ACTIVE_RIDE_TOMBSTONE_MILLIS, so an accept that loses the race to a
+ * cancel cannot put the cancelled ride back.
+ */
+public class ActiveRideCache {
+
+    private static final long TOMBSTONE_MILLIS = EnvConfig.getLong("ACTIVE_RIDE_TOMBSTONE_MILLIS", 300_000);
+
+    private static ActiveRideCache instance;
+
+    private final Map<Integer, Binding> byUser = new ConcurrentHashMap<>();
+    private final Map<Integer, Snapshot> byRide = new ConcurrentHashMap<>();
+    // Seeded from the clock so versions handed out before a restart are never reused
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final AtomicLong nextSweepAt = new AtomicLong();
+
+    ActiveRideCache() {
+    }
+
+    public static synchronized ActiveRideCache getInstance() {
+        if (instance == null) {
+            instance = new ActiveRideCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Result of a lookup: {@code ride} is null when the user has no active ride.
+     */
+    public static final class Entry {
+        public final Ride ride;
+        public final long version;
+
+        Entry(Ride ride, long version) {
+            this.ride = ride;
+            this.version = version;
+        }
+    }
+
+    /**
+     * @return the cached entry, or null when the user is not in the cache and the DB must be asked
+     */
+    public Entry lookup(int userId) {
+        Binding binding = byUser.get(userId);
+        if (binding == null) {
+            return null;
+        }
+        if (binding.rideId == 0) {
+            return new Entry(null, binding.version);
+        }
+        Snapshot snapshot = byRide.get(binding.rideId);
+        if (snapshot == null) {
+            return null;
+        }
+        long version = Math.max(binding.version, snapshot.version);
+        return snapshot.endedAt > 0 ? new Entry(null, version) : new Entry(snapshot.ride, version);
+    }
+
+    public Ride getRide(int rideId) {
+        Snapshot snapshot = byRide.get(rideId);
+        return snapshot != null && snapshot.endedAt == 0 ? snapshot.ride : null;
+    }
+
+    public long getRideVersion(int rideId) {
+        Snapshot snapshot = byRide.get(rideId);
+        return snapshot != null ? snapshot.version : 0;
+    }
+
+    /**
+     * Record the state of a ride returned by a lifecycle write. {@code revision} is the row's
+     * revision column, bumped by every UPDATE under the row lock, so it orders writes the way
+     * the database applied them. A row older than the cached one, or any row after the ride
+     * ended, is ignored; terminal rides are unbound from their rider and driver and kept as a
+     * tombstone for a while. The ride object must not be mutated after it is handed in.
+     */
+    public void put(Ride ride, long revision) {
+        long now = System.currentTimeMillis();
+        boolean terminal = isTerminal(ride.getStatus());
+        Snapshot[] applied = new Snapshot[1];
+        byRide.compute(ride.getId(), (id, current) -> {
+            if (current != null && (current.endedAt > 0 || current.revision >= revision)) {
+                return current;
+            }
+            // Stamped inside compute, so versions follow the order writes were applied in
+            applied[0] = new Snapshot(ride, sequence.incrementAndGet(), revision, terminal ? now : 0);
+            return applied[0];
+        });
+        sweepIfDue(now);
+        if (applied[0] == null) {
+            return;
+        }
+        long version = applied[0].version;
+        if (terminal) {
+            unbind(ride.getRiderId(), ride.getId(), version);
+            unbind(ride.getDriverId(), ride.getId(), version);
+            return;
+        }
+        bind(ride.getRiderId(), ride.getId(), version);
+        bind(ride.getDriverId(), ride.getId(), version);
+    }
+
+    /**
+     * Warm the cache from a DB read. Never overwrites a binding or ride written by a lifecycle
+     * method in the meantime, so a slow read cannot resurrect stale state.
+     */
+    public Entry warm(int userId, Ride ride, long revision) {
+        long version = sequence.incrementAndGet();
+        if (ride == null || isTerminal(ride.getStatus())) {
+            Binding existing = byUser.putIfAbsent(userId, new Binding(0, version));
+            Entry entry = existing == null ? null : lookup(userId);
+            return entry != null ? entry : new Entry(null, version);
+        }
+        byRide.putIfAbsent(ride.getId(), new Snapshot(ride, version, revision, 0));
+        byUser.putIfAbsent(userId, new Binding(ride.getId(), version));
+        Entry entry = lookup(userId);
+        return entry != null ? entry : new Entry(ride, version);
+    }
+
+    private void bind(int userId, int rideId, long version) {
+        if (userId <= 0) {
+            return;
+        }
+        // A put that lost the race to a newer one (e.g. the unbind of a cancel) leaves it alone
+        byUser.compute(userId, (id, current) ->
+            current == null || current.version < version ? new Binding(rideId, version) : current);
+    }
+
+    private void unbind(int userId, int rideId, long version) {
+        if (userId <= 0) {
+            return;
+        }
+        // Only clear the binding if it still points at this ride
+        byUser.compute(userId, (id, current) ->
+            current == null || current.rideId == rideId ? new Binding(0, version) : current);
+    }
+
+    // Drops tombstones once no delayed write for their ride can still be in flight
+    private void sweepIfDue(long now) {
+        long due = nextSweepAt.get();
+        if (now < due || !nextSweepAt.compareAndSet(due, now + TOMBSTONE_MILLIS)) {
+            return;
+        }
+        for (Snapshot snapshot : byRide.values()) {
+            if (snapshot.endedAt > 0 && snapshot.endedAt < now - TOMBSTONE_MILLIS
+                    && byRide.remove(snapshot.ride.getId(), snapshot)) {
+                long version = sequence.incrementAndGet();
+                unbind(snapshot.ride.getRiderId(), snapshot.ride.getId(), version);
+                unbind(snapshot.ride.getDriverId(), snapshot.ride.getId(), version);
+            }
+        }
+    }
+
+    private static boolean isTerminal(Ride.Status status) {
+        return status == Ride.Status.COMPLETED || status == Ride.Status.CANCELLED;
+    }
+
+    private static final class Binding {
+        final int rideId; // 0 = no active ride
+        final long version;
+
+        Binding(int rideId, long version) {
+            this.rideId = rideId;
+            this.version = version;
+        }
+    }
+
+    private static final class Snapshot {
+        final Ride ride;
+        final long version;
+        final long revision;
+        final long endedAt; // 0 = active, else when the terminal row was recorded
+
+        Snapshot(Ride ride, long version, long revision, long endedAt) {
+            this.ride = ride;
+            this.version = version;
+            this.revision = revision;
+            this.endedAt = endedAt;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.rsrmi.ride_sharing_api.rmi.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings, sized for an expected number of entries and a target
+ * false-positive rate. Adds and lookups are lock-free; bits are only ever set, so removals have
+ * to be handled by the owner rebuilding the filter.
+ *
+ * Probe positions come from one 64-bit hash split by double hashing (h1 + i*h2), which keeps
+ * the rate close to the ideal k-hash figure without hashing the string k times.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final AtomicLong bitsSet = new AtomicLong();
+    private final AtomicLong added = new AtomicLong();
+
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long n = Math.max(1, expectedEntries);
+        double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+        long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.capacity = n;
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0 && (words.getAndAccumulate(word, mask, (a, b) -> a | b) & mask) == 0) {
+                bitsSet.incrementAndGet();
+            }
+        }
+        added.incrementAndGet();
+    }
+
+    /**
+     * @return false only if the value was never added
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * False-positive rate implied by the bits set so far, (set / total)^k.
+     */
+    public double estimatedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.get() / bitCount, hashCount);
+    }
+
+    public long getAdded() {
+        return added.get();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units, finished with a mixer for the low bits
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
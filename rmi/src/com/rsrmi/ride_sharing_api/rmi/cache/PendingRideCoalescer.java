@@ -0,0 +1,178 @@
+package com.rsrmi.ride_sharing_api.rmi.cache;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight front for pending-ride queries. Drivers waiting in the same area poll with
+ * nearly the same position and radius, so queries are keyed by a quantized (radius, cell) and
+ * every caller with the same key shares one scan: callers arriving while it runs wait for it,
+ * and for PENDING_RIDES_SNAPSHOT_MILLIS afterwards they reuse its result.
+ *
+ * The radius is rounded up to the next power of 1.25 and the cell is a fraction of that
+ * radius, so the key works for any radius unit. The shared scan covers the rounded radius
+ * around every point of the cell; each caller then keeps the rides inside its own exact radius,
+ * nearest first. A ride that is requested, accepted or cancelled invalidates only the snapshots
+ * whose scan area covers its pickup, so drivers elsewhere keep sharing theirs.
+ */
+public class PendingRideCoalescer {
+
+    /**
+     * The uncoalesced query: pending rides within {@code radius} of a point.
+     */
+    public interface Loader {
+        List<Ride> load(double lat, double lng, double radius) throws RemoteException;
+    }
+
+    private static final long SNAPSHOT_NANOS = EnvConfig.getLong("PENDING_RIDES_SNAPSHOT_MILLIS", 500) * 1_000_000;
+    private static final double CELL_FRACTION = EnvConfig.getDouble("PENDING_RIDES_CELL_FRACTION", 0.25);
+    private static final double RADIUS_GROWTH = 1.25;
+    private static final double LOG_RADIUS_GROWTH = Math.log(RADIUS_GROWTH);
+    private static final int SWEEP_EVERY_SCANS = 256;
+
+    private final Loader loader;
+    private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final AtomicLong scans = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    public PendingRideCoalescer(Loader loader) {
+        this.loader = loader;
+    }
+
+    private record Key(int radiusBucket, long latCell, long lngCell) {
+    }
+
+    private static final class Flight {
+        final CompletableFuture<List<Ride>> result = new CompletableFuture<>();
+        final double centerLat;
+        final double centerLng;
+        final double scanRadius;
+        volatile long completedAt; // System.nanoTime(), 0 while the scan runs
+
+        Flight(double centerLat, double centerLng, double scanRadius) {
+            this.centerLat = centerLat;
+            this.centerLng = centerLng;
+            this.scanRadius = scanRadius;
+        }
+
+        boolean isStale(long now) {
+            return completedAt != 0 && now - completedAt > SNAPSHOT_NANOS;
+        }
+
+        boolean covers(double lat, double lng) {
+            double dLat = lat - centerLat;
+            double dLng = lng - centerLng;
+            return Math.sqrt(dLat * dLat + dLng * dLng) <= scanRadius;
+        }
+    }
+
+    public List<Ride> getPendingRides(double lat, double lng, double radius) throws RemoteException {
+        if (!(radius > 0)) {
+            return loader.load(lat, lng, radius);
+        }
+        int bucket = (int) Math.ceil(Math.log(radius) / LOG_RADIUS_GROWTH);
+        double sharedRadius = Math.pow(RADIUS_GROWTH, bucket);
+        double cell = sharedRadius * CELL_FRACTION;
+        long latCell = (long) Math.floor(lat / cell);
+        long lngCell = (long) Math.floor(lng / cell);
+        Key key = new Key(bucket, latCell, lngCell);
+
+        long now = System.nanoTime();
+        Flight[] started = new Flight[1];
+        Flight flight = flights.compute(key, (k, existing) -> existing != null && !existing.isStale(now) ? existing
+            : (started[0] = new Flight((latCell + 0.5) * cell, (lngCell + 0.5) * cell, sharedRadius + cell * Math.sqrt(0.5))));
+
+        if (flight == started[0]) {
+            scan(key, flight);
+        } else {
+            shared.incrementAndGet();
+        }
+        return nearest(await(flight), lat, lng, radius);
+    }
+
+    /**
+     * Drops the snapshots whose scan area covers a pickup, for when a ride there starts or stops
+     * being pending. Callers already waiting on a dropped scan still get its result; the next
+     * caller for that key scans again.
+     */
+    public void invalidate(double pickupLat, double pickupLng) {
+        flights.values().removeIf(f -> f.covers(pickupLat, pickupLng));
+    }
+
+    public long getScans() {
+        return scans.get();
+    }
+
+    public long getShared() {
+        return shared.get();
+    }
+
+    private void scan(Key key, Flight flight) throws RemoteException {
+        try {
+            List<Ride> rides = loader.load(flight.centerLat, flight.centerLng, flight.scanRadius);
+            flight.completedAt = System.nanoTime();
+            flight.result.complete(rides);
+        } catch (RemoteException | RuntimeException e) {
+            // Waiters see this failure; the next caller starts a fresh scan
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        if (scans.incrementAndGet() % SWEEP_EVERY_SCANS == 0) {
+            long now = System.nanoTime();
+            flights.values().removeIf(f -> f.isStale(now));
+        }
+    }
+
+    private static List<Ride> await(Flight flight) throws RemoteException {
+        try {
+            return flight.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteException("Interrupted waiting for pending rides", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RemoteException remote) {
+                throw remote;
+            }
+            throw new RemoteException("Failed to get pending rides: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Rides of the shared scan within this caller's radius, by the same planar distance the
+     * query uses, nearest first.
+     */
+    static List<Ride> nearest(List<Ride> rides, double lat, double lng, double radius) {
+        Ride[] inside = new Ride[rides.size()];
+        double[] distance = new double[rides.size()];
+        int n = 0;
+        for (Ride ride : rides) {
+            double dLat = ride.getPickupLatitude() - lat;
+            double dLng = ride.getPickupLongitude() - lng;
+            double d = Math.sqrt(dLat * dLat + dLng * dLng);
+            if (d <= radius) {
+                inside[n] = ride;
+                distance[n++] = d;
+            }
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(distance[a], distance[b]));
+        List<Ride> result = new ArrayList<>(n);
+        for (int i : order) {
+            result.add(inside[i]);
+        }
+        return result;
+    }
+}
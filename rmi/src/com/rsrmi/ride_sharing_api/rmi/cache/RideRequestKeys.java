@@ -0,0 +1,56 @@
+package com.rsrmi.ride_sharing_api.rmi.cache;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recently used ride-request idempotency keys, (riderId, key) -> rideId, in front of the
+ * ride_request_keys table. Bounded LRU of RIDE_REQUEST_KEY_CACHE_SIZE entries; a key only counts
+ * within RIDE_REQUEST_KEY_WINDOW_MINUTES of the request that created the ride.
+ */
+public class RideRequestKeys {
+
+    public static final long WINDOW_MINUTES = EnvConfig.getLong("RIDE_REQUEST_KEY_WINDOW_MINUTES", 60);
+    private static final int CACHE_SIZE = EnvConfig.getInt("RIDE_REQUEST_KEY_CACHE_SIZE", 10_000);
+
+    private static RideRequestKeys instance;
+
+    private final Map<String, long[]> byKey; // { rideId, createdAt millis }
+
+    private RideRequestKeys() {
+        this.byKey = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+
+    public static synchronized RideRequestKeys getInstance() {
+        if (instance == null) {
+            instance = new RideRequestKeys();
+        }
+        return instance;
+    }
+
+    /**
+     * @return the ride this key created within the window, or 0 if it isn't cached
+     */
+    public int lookup(int riderId, String key) {
+        long[] entry;
+        synchronized (byKey) {
+            entry = byKey.get(riderId + ":" + key);
+        }
+        if (entry == null || System.currentTimeMillis() - entry[1] > WINDOW_MINUTES * 60_000) {
+            return 0;
+        }
+        return (int) entry[0];
+    }
+
+    public void put(int riderId, String key, int rideId, long createdAtMillis) {
+        synchronized (byKey) {
+            byKey.put(riderId + ":" + key, new long[] { rideId, createdAtMillis });
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.rsrmi.ride_sharing_api.rmi.cache;
+
+import com.rsrmi.ride_sharing_api.rmi.config.DatabaseConfig;
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bloom filters of every username and phone in the users table, so the registration form's
+ * "is this taken?" checks can answer a definite "no" without a query. A "maybe" still goes to
+ * the database, so the filters only ever save work; they never decide that a value is taken.
+ *
+ * Built by a streaming scan on a background thread when first used; until then every check
+ * goes to the database. UserServiceImpl adds values after it commits them. Deletes and renames
+ * can't clear bits, so they are counted as stale entries, and once stale entries pass
+ * USER_FILTER_STALE_FRACTION of the filter, or it fills past its capacity, it is rebuilt.
+ * Values added while a rebuild scans go into both filters.
+ *
+ * USER_FILTER_FALSE_POSITIVE_RATE sets the target rate; the configured, estimated (from the
+ * filter's fill) and observed rates are logged with the hit counters every USER_FILTER_STATS_MILLIS.
+ */
+public class UserExistenceFilter {
+    private static final Logger log = LoggerFactory.getLogger(UserExistenceFilter.class);
+
+    private static final double FALSE_POSITIVE_RATE = EnvConfig.getDouble("USER_FILTER_FALSE_POSITIVE_RATE", 0.01);
+    private static final long MIN_CAPACITY = EnvConfig.getLong("USER_FILTER_MIN_CAPACITY", 100_000);
+    private static final double STALE_FRACTION = EnvConfig.getDouble("USER_FILTER_STALE_FRACTION", 0.1);
+    private static final long STATS_MILLIS = EnvConfig.getLong("USER_FILTER_STATS_MILLIS", 60_000);
+    private static final int FETCH_SIZE = 1000;
+
+    private static UserExistenceFilter instance;
+
+    private static final class Filters {
+        final BloomFilter usernames;
+        final BloomFilter phones;
+
+        Filters(long capacity) {
+            this.usernames = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+            this.phones = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        }
+    }
+
+    private volatile Filters current; // null until the first build finishes
+    private volatile Filters building;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong stale = new AtomicLong();
+
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final AtomicLong nextStatsAt = new AtomicLong(System.currentTimeMillis() + STATS_MILLIS);
+
+    UserExistenceFilter() {
+    }
+
+    public static synchronized UserExistenceFilter getInstance() {
+        if (instance == null) {
+            instance = new UserExistenceFilter();
+            instance.rebuildAsync();
+        }
+        return instance;
+    }
+
+    /**
+     * @return false if no user has this username; true means the database has to be asked
+     */
+    public boolean mightHaveUsername(String username) {
+        Filters filters = current;
+        return check(filters == null || filters.usernames.mightContain(username));
+    }
+
+    /**
+     * @return false if no user has this phone; true means the database has to be asked
+     */
+    public boolean mightHavePhone(String phone) {
+        Filters filters = current;
+        return check(filters == null || filters.phones.mightContain(phone));
+    }
+
+    /**
+     * Reports what the database said after a "maybe", so false positives can be counted.
+     */
+    public void recordLookup(boolean exists) {
+        if (!exists && current != null) {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * Records a user's username and phone; call after the row is committed.
+     */
+    public void add(String username, String phone) {
+        Filters filters = current;
+        if (filters != null) {
+            addTo(filters, username, phone);
+        }
+        filters = building;
+        if (filters != null) {
+            addTo(filters, username, phone);
+        }
+        if (filters == null && current != null && current.usernames.getAdded() > current.usernames.getCapacity()) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Notes that a username or phone may have left the table, through a rename or a delete.
+     */
+    public void markStale() {
+        Filters filters = current;
+        if (filters != null && stale.incrementAndGet() > filters.usernames.getAdded() * STALE_FRACTION) {
+            rebuildAsync();
+        }
+    }
+
+    private static void addTo(Filters filters, String username, String phone) {
+        if (username != null) {
+            filters.usernames.add(username);
+        }
+        if (phone != null) {
+            filters.phones.add(phone);
+        }
+    }
+
+    private boolean check(boolean maybe) {
+        if (maybe) {
+            passed.increment();
+        } else {
+            skipped.increment();
+        }
+        logStatsIfDue();
+        return maybe;
+    }
+
+    private void rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (SQLException | RuntimeException e) {
+                log.error("User existence filter build failed, checks keep going to the database", e);
+            } finally {
+                building = null;
+                rebuilding.set(false);
+            }
+        }, "user-filter-build");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void rebuild() throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConfig.getInstance().getConnection()) {
+            long count;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM users")) {
+                rs.next();
+                count = rs.getLong(1);
+            }
+            Filters next = new Filters(Math.max(MIN_CAPACITY, count * 2));
+            // Published before the scan starts, so a value committed after the scan's snapshot
+            // is still added here by add()
+            building = next;
+            long staleBefore = stale.get();
+            long rows = 0;
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false); // PostgreSQL only streams with a cursor inside a transaction
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT username, phone FROM users")) {
+                stmt.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        addTo(next, rs.getString(1), rs.getString(2));
+                        rows++;
+                    }
+                }
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            current = next;
+            stale.addAndGet(-staleBefore);
+            log.info("User existence filter built users={} capacity={} bits={} hashes={} targetFpp={} ms={}", rows,
+                next.usernames.getCapacity(), next.usernames.getBitCount(), next.usernames.getHashCount(),
+                FALSE_POSITIVE_RATE, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private void logStatsIfDue() {
+        long due = nextStatsAt.get();
+        long now = System.currentTimeMillis();
+        if (now >= due && nextStatsAt.compareAndSet(due, now + STATS_MILLIS)) {
+            Filters filters = current;
+            long negatives = skipped.sum() + falsePositives.sum();
+            log.info("User existence filter skipped={} passed={} falsePositives={} targetFpp={} estimatedFpp={} observedFpp={} entries={} stale={}",
+                skipped.sum(), passed.sum(), falsePositives.sum(), FALSE_POSITIVE_RATE,
+                filters == null ? 1.0 : String.format("%.5f", Math.max(filters.usernames.estimatedFalsePositiveRate(), filters.phones.estimatedFalsePositiveRate())),
+                negatives == 0 ? 0.0 : String.format("%.5f", (double) falsePositives.sum() / negatives),
+                filters == null ? 0 : filters.usernames.getAdded(), stale.get());
+        }
+    }
+}
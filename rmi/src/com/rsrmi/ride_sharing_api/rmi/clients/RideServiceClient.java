@@ -20,7 +20,7 @@ public class RideServiceClient {
             
             // Test 1: Request a ride
             System.out.println("\n=== Testing Ride Request ===");
-            int rideRequested = rideService.requestRide(1, 40.7128, -74.0060, 40.7589, -73.9851);
+            int rideRequested = rideService.requestRide(1, 40.7128, -74.0060, 40.7589, -73.9851, null);
             System.out.println("Ride requested: " + rideRequested);
             
             // Test 2: Get pending rides
@@ -2,21 +2,51 @@ package com.rsrmi.ride_sharing_api.rmi.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.rsrmi.ride_sharing_api.rmi.dispatch.AdmissionGate;
 import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
 import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Database configuration and connection management
  */
 public class DatabaseConfig {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseConfig.class);
     
+    private static final int POOL_SIZE = EnvConfig.getInt("DB_POOL_SIZE", 20);
+
     private static DatabaseConfig instance;
-    private final HikariDataSource dataSource;
+    private final DataSource dataSource;
+    private final AdmissionGate admission;
+    // The release flag of the connection this thread last borrowed; set once it is closed, from any thread
+    private final ThreadLocal<AtomicBoolean> holding = new ThreadLocal<>();
+    // Set when startup dropped and recreated the tables, so ids saved before it mean nothing now
+    private volatile boolean schemaRecreated;
     
     private DatabaseConfig() {
+        this(createDataSource(), createAdmission());
+        // Initialize database tables
+        initializeDatabase();
+    }
+
+    /**
+     * Over a data source that already has its schema, e.g. one a test provides; the admission
+     * gate and the one-connection-per-thread rule apply as usual.
+     */
+    DatabaseConfig(DataSource dataSource, AdmissionGate admission) {
+        this.dataSource = dataSource;
+        this.admission = admission;
+    }
+
+    private static HikariDataSource createDataSource() {
         HikariConfig config = new HikariConfig();
         
         // Get database configuration from environment variables or use defaults
@@ -32,16 +62,21 @@ public class DatabaseConfig {
         config.setDriverClassName("org.postgresql.Driver");
         
         // Connection pool settings
-        config.setMaximumPoolSize(20);
+        config.setMaximumPoolSize(POOL_SIZE);
         config.setMinimumIdle(5);
         config.setConnectionTimeout(30000);
         config.setIdleTimeout(600000);
         config.setMaxLifetime(1800000);
         
-        this.dataSource = new HikariDataSource(config);
-        
-        // Initialize database tables
-        initializeDatabase();
+        return new HikariDataSource(config);
+    }
+
+    // One permit per pooled connection; a bounded number of callers may queue for one and
+    // the rest fail fast, so cheap request threads cannot build an unbounded queue in Hikari
+    private static AdmissionGate createAdmission() {
+        return new AdmissionGate("db", POOL_SIZE,
+            EnvConfig.getInt("DB_ADMISSION_MAX_WAITING", POOL_SIZE * 4),
+            EnvConfig.getLong("DB_ADMISSION_TIMEOUT_MS", 5000));
     }
     
     public static synchronized DatabaseConfig getInstance() {
@@ -55,20 +90,86 @@ public class DatabaseConfig {
         return dataSource;
     }
     
+    /**
+     * Borrow a pooled connection through the admission gate. Closing the returned connection
+     * hands it back to Hikari and frees the admission permit.
+     *
+     * A thread holds at most one at a time. The gate has one permit per pooled connection, so
+     * threads that each wait for a second connection while holding one can take every permit
+     * and stall until DB_ADMISSION_TIMEOUT_MS; a nested call throws IllegalStateException
+     * instead. Pass the held connection down to code that needs one.
+     */
     public Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+        AtomicBoolean held = holding.get();
+        if (held != null && !held.get()) {
+            throw new IllegalStateException("Thread " + Thread.currentThread().getName()
+                + " already holds a database connection; pass it down instead of borrowing another");
+        }
+        try {
+            if (!admission.acquire()) {
+                throw new SQLTransientConnectionException("Database busy: " + admission.getInFlight()
+                    + " calls in flight, " + admission.getWaiting() + " waiting");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database connection", e);
+        }
+        try {
+            AtomicBoolean released = new AtomicBoolean(false);
+            Connection connection = admitted(dataSource.getConnection(), released);
+            holding.set(released);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            admission.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return true if this process dropped and recreated the schema at startup
+     */
+    public boolean isSchemaRecreated() {
+        return schemaRecreated;
+    }
+
+    public AdmissionGate getAdmission() {
+        return admission;
+    }
+
+    private Connection admitted(Connection delegate, AtomicBoolean released) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                    try {
+                        delegate.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            admission.release();
+                        }
+                    }
+                    return null;
+                }
+                try {
+                    return method.invoke(delegate, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
     }
     
     private void initializeDatabase() {
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
             
-            System.out.println("Initializing database tables...");
+            log.info("Initializing database tables");
 
             // drop all the table
+            stmt.executeUpdate("DROP TABLE IF EXISTS ride_request_keys CASCADE");
+            stmt.executeUpdate("DROP TABLE IF EXISTS ride_tracks CASCADE");
             stmt.executeUpdate("DROP TABLE IF EXISTS rides CASCADE");
             stmt.executeUpdate("DROP TABLE IF EXISTS user_locations CASCADE");
             stmt.executeUpdate("DROP TABLE IF EXISTS users CASCADE");
+            schemaRecreated = true;
             
             // Create users table
             stmt.executeUpdate("""
@@ -115,7 +216,11 @@ public class DatabaseConfig {
                     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                     accepted_at TIMESTAMP,
                     started_at TIMESTAMP,
-                    completed_at TIMESTAMP
+                    completed_at TIMESTAMP,
+                    fare_amount NUMERIC(10, 2),
+                    fare_currency VARCHAR(3),
+                    surge_multiplier NUMERIC(4, 2),
+                    revision BIGINT NOT NULL DEFAULT 0
                 )
             """);
             
@@ -129,7 +234,31 @@ public class DatabaseConfig {
                     timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                 )
             """);
+
+            // Create ride_tracks table: simplified, delta/varint-encoded breadcrumbs, one row per segment of a ride
+            stmt.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS ride_tracks (
+                    ride_id INTEGER REFERENCES rides(id) ON DELETE CASCADE,
+                    segment_no INTEGER NOT NULL,
+                    point_count INTEGER NOT NULL,
+                    raw_point_count INTEGER NOT NULL,
+                    encoded BYTEA NOT NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (ride_id, segment_no)
+                )
+            """);
             
+            // Create ride_request_keys table: a retry with the same idempotency key gets the ride the first attempt created
+            stmt.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS ride_request_keys (
+                    rider_id INTEGER NOT NULL REFERENCES users(id),
+                    request_key VARCHAR(64) NOT NULL,
+                    ride_id INTEGER NOT NULL REFERENCES rides(id) ON DELETE CASCADE,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (rider_id, request_key)
+                )
+            """);
+
             // Create indexes for better performance
             stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_users_phone ON users(phone)");
             stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_users_username ON users(username)");
@@ -137,30 +266,37 @@ public class DatabaseConfig {
             stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_rides_rider_id ON rides(rider_id)");
             stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_rides_driver_id ON rides(driver_id)");
             stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_rides_status ON rides(status)");
+            // Partial indexes covering only active rides, used by getCurrentRide on a cache miss
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_rides_active_rider ON rides(rider_id, created_at DESC) " +
+                "WHERE status IN ('PENDING', 'ACCEPTED', 'DRIVER_EN_ROUTE', 'ARRIVED', 'IN_PROGRESS')");
+            // One active ride per rider; requestRide's INSERT ... ON CONFLICT relies on this exact predicate
+            stmt.executeUpdate("CREATE UNIQUE INDEX IF NOT EXISTS idx_rides_one_active_per_rider ON rides(rider_id) " +
+                "WHERE status IN ('PENDING', 'ACCEPTED', 'DRIVER_EN_ROUTE', 'ARRIVED', 'IN_PROGRESS')");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_rides_active_driver ON rides(driver_id, created_at DESC) " +
+                "WHERE status IN ('PENDING', 'ACCEPTED', 'DRIVER_EN_ROUTE', 'ARRIVED', 'IN_PROGRESS')");
             stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_ride_tracking_ride_id ON ride_tracking(ride_id)");
             stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_ride_tracking_timestamp ON ride_tracking(timestamp)");
             
-            System.out.println("Database tables initialized successfully!");
+            log.info("Database tables initialized");
 
             // create rider and driver
             stmt.executeUpdate("""
                 INSERT INTO users (username, phone, password, user_type, car_type, license_number)
-                VALUES 
+                VALUES
                     ('rider', '09761349721', 'rider', 'RIDER', NULL, NULL),
                     ('driver', '0900112233', 'driver', 'DRIVER', 'Sedan', 'LIC12345')
                 ON CONFLICT (username) DO NOTHING
             """);
             
         } catch (SQLException e) {
-            System.err.println("Error initializing database: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error initializing database", e);
             throw new RuntimeException("Failed to initialize database", e);
         }
     }
     
     public void close() {
-        if (dataSource != null) {
-            dataSource.close();
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari.close();
         }
     }
 }
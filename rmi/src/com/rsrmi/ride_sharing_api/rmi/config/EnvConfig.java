@@ -0,0 +1,56 @@
+package com.rsrmi.ride_sharing_api.rmi.config;
+
+/**
+ * Typed lookups of tuning knobs from environment variables, falling back to defaults.
+ */
+public final class EnvConfig {
+
+    private EnvConfig() {
+    }
+
+    public static String getString(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value.trim() : defaultValue;
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String name, long defaultValue) {
+        String value = System.getenv(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static double getDouble(String name, double defaultValue) {
+        String value = System.getenv(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+}
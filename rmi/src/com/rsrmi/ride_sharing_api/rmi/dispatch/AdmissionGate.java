@@ -0,0 +1,91 @@
+package com.rsrmi.ride_sharing_api.rmi.dispatch;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds how many callers may work against a scarce resource at once and how many may wait
+ * for it. Callers beyond {@code permits + maxWaiting} are rejected immediately instead of
+ * piling up behind the resource, which matters once request threads are cheap (virtual)
+ * and nothing else limits how many of them arrive.
+ */
+public class AdmissionGate {
+
+    private final String name;
+    private final int permits;
+    private final int maxWaiting;
+    private final long waitTimeoutMs;
+    private final Semaphore semaphore;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicInteger peakWaiting = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public AdmissionGate(String name, int permits, int maxWaiting, long waitTimeoutMs) {
+        this.name = name;
+        this.permits = permits;
+        this.maxWaiting = maxWaiting;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.semaphore = new Semaphore(permits, true);
+    }
+
+    /**
+     * @return true when admitted; the caller must then call {@link #release()} exactly once
+     */
+    public boolean acquire() throws InterruptedException {
+        if (!semaphore.tryAcquire()) {
+            int nowWaiting = waiting.incrementAndGet();
+            try {
+                if (nowWaiting > maxWaiting) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+                peakWaiting.accumulateAndGet(nowWaiting, Math::max);
+                if (!semaphore.tryAcquire(waitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+        semaphore.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public int getPeakWaiting() {
+        return peakWaiting.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,42 @@
+package com.rsrmi.ride_sharing_api.rmi.dispatch;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the server's own worker executors. A pool created with a mode variable set to
+ * "virtual" (RIDE_OFFER_DELIVERY_THREAD_MODE, BINARY_TRANSPORT_THREAD_MODE) gives every task its
+ * own virtual thread, so blocking JDBC or callback I/O no longer pins a platform thread; the
+ * default "platform" mode keeps a fixed pool of daemon threads. The threads the RMI runtime
+ * runs remote calls on are its own and not affected.
+ *
+ * Virtual-thread executors are unbounded by design - limit concurrency where the scarce
+ * resource is (see DatabaseConfig admission), not by pool size.
+ */
+public final class ServerExecutors {
+
+    private ServerExecutors() {
+    }
+
+    public static String mode(String modeVariable) {
+        return EnvConfig.getString(modeVariable, "platform");
+    }
+
+    public static ExecutorService newWorkerPool(String name, String modeVariable, int platformThreads) {
+        if ("virtual".equalsIgnoreCase(mode(modeVariable))) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+        }
+        return newWorkerPool(name, platformThreads);
+    }
+
+    public static ExecutorService newWorkerPool(String name, int platformThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(platformThreads, r -> {
+            Thread t = new Thread(r, name + "-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -0,0 +1,260 @@
+package com.rsrmi.ride_sharing_api.rmi.events;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import com.rsrmi.ride_sharing_api.rmi.dispatch.ServerExecutors;
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import com.rsrmi.ride_sharing_api.rmi.interfaces.RideOfferListener;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import java.rmi.RemoteException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pushes ride offers to registered {@link RideOfferListener}s.
+ *
+ * Every subscriber owns a bounded queue that is drained on a shared delivery pool,
+ * and at most one pool thread works on a given subscriber at a time. A withdrawal goes only
+ * to subscribers that were handed the offer; one whose offer is still queued just removes it.
+ * Publishing never blocks the calling RMI thread: when a queue is full the oldest offer is
+ * dropped, never a withdrawal while an offer is left, so a slow client does not keep showing
+ * a ride that is taken. A subscriber that keeps overflowing or keeps failing is unsubscribed.
+ */
+public class RideOfferBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(RideOfferBroadcaster.class);
+
+    private static final int QUEUE_CAPACITY = EnvConfig.getInt("RIDE_OFFER_QUEUE_CAPACITY", 64);
+    private static final int DELIVERY_THREADS = EnvConfig.getInt("RIDE_OFFER_DELIVERY_THREADS", 4);
+    private static final int MAX_CONSECUTIVE_DROPS = EnvConfig.getInt("RIDE_OFFER_MAX_DROPS", 256);
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
+    private static final int DRAIN_BATCH = 32;
+
+    private static RideOfferBroadcaster instance;
+
+    private final Map<Integer, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSubscriptionId = new AtomicInteger(1);
+    private final ExecutorService deliveryPool;
+
+    private RideOfferBroadcaster() {
+        this.deliveryPool = ServerExecutors.newWorkerPool("ride-offer-delivery", "RIDE_OFFER_DELIVERY_THREAD_MODE", DELIVERY_THREADS);
+    }
+
+    public static synchronized RideOfferBroadcaster getInstance() {
+        if (instance == null) {
+            instance = new RideOfferBroadcaster();
+        }
+        return instance;
+    }
+
+    public int subscribe(RideOfferListener listener, double lat, double lng, double radiusKm) {
+        int id = nextSubscriptionId.getAndIncrement();
+        subscriptions.put(id, new Subscription(id, listener, lat, lng, radiusKm));
+        log.info("Ride offer subscription registered id={} center=({}, {}) radiusKm={}", id, lat, lng, radiusKm);
+        return id;
+    }
+
+    public boolean updateArea(int subscriptionId, double lat, double lng, double radiusKm) {
+        Subscription sub = subscriptions.get(subscriptionId);
+        if (sub == null) {
+            return false;
+        }
+        sub.area = new double[] { lat, lng, radiusKm };
+        return true;
+    }
+
+    public boolean unsubscribe(int subscriptionId) {
+        Subscription removed = subscriptions.remove(subscriptionId);
+        if (removed != null) {
+            removed.clear();
+            log.info("Ride offer subscription removed id={}", subscriptionId);
+        }
+        return removed != null;
+    }
+
+    public void publishOffer(Ride ride) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        OfferEvent event = new OfferEvent(ride, ride.getId());
+        for (Subscription sub : subscriptions.values()) {
+            if (sub.covers(ride.getPickupLatitude(), ride.getPickupLongitude())) {
+                enqueue(sub, event);
+            }
+        }
+    }
+
+    public void publishWithdrawal(int rideId) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        OfferEvent event = new OfferEvent(null, rideId);
+        for (Subscription sub : subscriptions.values()) {
+            if (sub.withdraw(rideId)) {
+                enqueue(sub, event);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private void enqueue(Subscription sub, OfferEvent event) {
+        if (sub.offer(event) && sub.consecutiveDrops.incrementAndGet() > MAX_CONSECUTIVE_DROPS) {
+            log.warn("Ride offer subscription too slow, unsubscribing id={}", sub.id);
+            unsubscribe(sub.id);
+            return;
+        }
+        schedule(sub);
+    }
+
+    private void schedule(Subscription sub) {
+        if (sub.draining.compareAndSet(false, true)) {
+            deliveryPool.execute(() -> drain(sub));
+        }
+    }
+
+    private void drain(Subscription sub) {
+        try {
+            for (int i = 0; i < DRAIN_BATCH; i++) {
+                OfferEvent event = sub.poll();
+                if (event == null) {
+                    break;
+                }
+                try {
+                    if (event.ride != null) {
+                        sub.listener.onRideOffered(event.ride);
+                    } else {
+                        sub.listener.onRideWithdrawn(event.rideId);
+                    }
+                    sub.consecutiveFailures = 0;
+                    sub.consecutiveDrops.set(0);
+                } catch (RemoteException e) {
+                    if (++sub.consecutiveFailures >= MAX_CONSECUTIVE_FAILURES) {
+                        log.warn("Ride offer subscription unreachable, unsubscribing id={}: {}", sub.id, e.getMessage());
+                        unsubscribe(sub.id);
+                        return;
+                    }
+                }
+            }
+        } finally {
+            sub.draining.set(false);
+        }
+        // Yield the pool thread after a batch so one busy subscriber cannot monopolise it
+        if (!sub.isEmpty() && subscriptions.containsKey(sub.id)) {
+            schedule(sub);
+        }
+    }
+
+    private static final class OfferEvent {
+        final Ride ride;   // null for withdrawals
+        final int rideId;
+
+        OfferEvent(Ride ride, int rideId) {
+            this.ride = ride;
+            this.rideId = rideId;
+        }
+    }
+
+    private static final class Subscription {
+        final int id;
+        final RideOfferListener listener;
+        // rideId -> latest event for that ride, oldest first; guarded by itself, as is shown
+        private final LinkedHashMap<Integer, OfferEvent> queue = new LinkedHashMap<>();
+        // Offers handed to the listener and not withdrawn yet
+        private final Set<Integer> shown = new HashSet<>();
+        final AtomicBoolean draining = new AtomicBoolean(false);
+        final AtomicInteger consecutiveDrops = new AtomicInteger();
+        volatile double[] area; // {lat, lng, radiusKm}, swapped atomically by updateArea
+        int consecutiveFailures; // only touched by the single draining thread
+
+        Subscription(int id, RideOfferListener listener, double lat, double lng, double radiusKm) {
+            this.id = id;
+            this.listener = listener;
+            this.area = new double[] { lat, lng, radiusKm };
+        }
+
+        boolean covers(double lat, double lng) {
+            double[] a = area;
+            return LocationServiceImpl.haversine(a[0], a[1], lat, lng) <= a[2];
+        }
+
+        /**
+         * @return true if an event had to be dropped to make room
+         */
+        boolean offer(OfferEvent event) {
+            synchronized (queue) {
+                queue.put(event.rideId, event);
+                if (queue.size() <= QUEUE_CAPACITY) {
+                    return false;
+                }
+                // A stale offer is worth less than a fresh one, and acceptRide rejects stale ids anyway;
+                // a withdrawal only goes when nothing but withdrawals is queued
+                Iterator<OfferEvent> events = queue.values().iterator();
+                while (events.hasNext()) {
+                    if (events.next().ride != null) {
+                        events.remove();
+                        return true;
+                    }
+                }
+                events = queue.values().iterator();
+                events.next();
+                events.remove();
+                return true;
+            }
+        }
+
+        /**
+         * Forgets the offer if it is still queued.
+         *
+         * @return true if the listener was handed it and must be told
+         */
+        boolean withdraw(int rideId) {
+            synchronized (queue) {
+                OfferEvent queued = queue.get(rideId);
+                if (queued != null && queued.ride != null) {
+                    queue.remove(rideId);
+                }
+                return shown.remove(rideId);
+            }
+        }
+
+        OfferEvent poll() {
+            synchronized (queue) {
+                Iterator<OfferEvent> events = queue.values().iterator();
+                if (!events.hasNext()) {
+                    return null;
+                }
+                OfferEvent event = events.next();
+                events.remove();
+                // Counted as shown before the call, so a withdrawal racing the delivery still goes out
+                if (event.ride != null) {
+                    shown.add(event.rideId);
+                }
+                return event;
+            }
+        }
+
+        boolean isEmpty() {
+            synchronized (queue) {
+                return queue.isEmpty();
+            }
+        }
+
+        void clear() {
+            synchronized (queue) {
+                queue.clear();
+                shown.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.rsrmi.ride_sharing_api.rmi.geocoding;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable set of named places (addresses and POIs) in packed arrays, with an implicit
+ * KD-tree over their coordinates for nearest-place lookups.
+ *
+ * Coordinates are floats on an equirectangular projection around the dataset's mean latitude,
+ * and all labels share one UTF-8 byte pool, so a place costs about 12 bytes plus its label.
+ */
+public final class PlaceIndex {
+
+    private static final double METERS_PER_DEGREE = 111_320;
+
+    private final int size;
+    // Tree order: the node for range [lo, hi) sits at (lo + hi) >>> 1, split on x at even depths
+    private final float[] x;      // longitude * lngScale
+    private final float[] y;      // latitude
+    private final int[] place;    // original place id of each tree slot
+    private final int[] slotOf;   // inverse of place
+    private final double lngScale;
+
+    // Labels by original place id
+    private final byte[] labelBytes;
+    private final int[] labelStart; // label of place i is labelBytes[labelStart[i] .. labelStart[i + 1] - 1]
+
+    private PlaceIndex(float[] lat, float[] lng, byte[] labelBytes, int[] labelStart, int size) {
+        this.size = size;
+        this.labelBytes = labelBytes;
+        this.labelStart = labelStart;
+        double latSum = 0;
+        for (int i = 0; i < size; i++) {
+            latSum += lat[i];
+        }
+        this.lngScale = Math.cos(Math.toRadians(size > 0 ? latSum / size : 0));
+        this.x = new float[size];
+        this.y = new float[size];
+        this.place = new int[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = (float) (lng[i] * lngScale);
+            y[i] = lat[i];
+            place[i] = i;
+        }
+        build(0, size, 0);
+        this.slotOf = new int[size];
+        for (int slot = 0; slot < size; slot++) {
+            slotOf[place[slot]] = slot;
+        }
+    }
+
+    /**
+     * Loads a CSV of {@code latitude,longitude,label} rows. The label is everything after the
+     * second comma; a header row and blank or unparsable lines are skipped.
+     */
+    public static PlaceIndex load(Path csv) throws IOException {
+        try (Reader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    public static PlaceIndex load(Reader source) throws IOException {
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source : new BufferedReader(source);
+        float[] lat = new float[1024];
+        float[] lng = new float[1024];
+        int[] labelStart = new int[1025];
+        byte[] labels = new byte[16 * 1024];
+        int count = 0;
+        int labelLength = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] parts = line.split(",", 3);
+            if (parts.length < 3) {
+                continue;
+            }
+            float latitude;
+            float longitude;
+            try {
+                latitude = Float.parseFloat(parts[0].trim());
+                longitude = Float.parseFloat(parts[1].trim());
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            String label = parts[2].trim();
+            if (label.length() >= 2 && label.startsWith("\"") && label.endsWith("\"")) {
+                label = label.substring(1, label.length() - 1).replace("\"\"", "\"");
+            }
+            if (label.isEmpty()) {
+                continue;
+            }
+            byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+            if (count == lat.length) {
+                lat = Arrays.copyOf(lat, count * 2);
+                lng = Arrays.copyOf(lng, count * 2);
+                labelStart = Arrays.copyOf(labelStart, count * 2 + 1);
+            }
+            if (labelLength + bytes.length > labels.length) {
+                labels = Arrays.copyOf(labels, Math.max(labels.length * 2, labelLength + bytes.length));
+            }
+            lat[count] = latitude;
+            lng[count] = longitude;
+            labelStart[count] = labelLength;
+            System.arraycopy(bytes, 0, labels, labelLength, bytes.length);
+            labelLength += bytes.length;
+            count++;
+        }
+        labelStart[count] = labelLength;
+        return new PlaceIndex(lat, lng, Arrays.copyOf(labels, labelLength), Arrays.copyOf(labelStart, count + 1), count);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String label(int placeId) {
+        int start = labelStart[placeId];
+        return new String(labelBytes, start, labelStart[placeId + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    public double latitude(int placeId) {
+        return y[slotOf[placeId]];
+    }
+
+    public double longitude(int placeId) {
+        return x[slotOf[placeId]] / lngScale;
+    }
+
+    /**
+     * Equirectangular distance on the index projection; for ranking, not for display.
+     */
+    public double approximateKm(int placeId, double latitude, double longitude) {
+        int slot = slotOf[placeId];
+        double dx = x[slot] - longitude * lngScale;
+        double dy = y[slot] - latitude;
+        return Math.sqrt(dx * dx + dy * dy) * METERS_PER_DEGREE / 1000;
+    }
+
+    byte[] labelBytes() {
+        return labelBytes;
+    }
+
+    int labelStart(int placeId) {
+        return labelStart[placeId];
+    }
+
+    int labelEnd(int placeId) {
+        return labelStart[placeId + 1];
+    }
+
+    /**
+     * Calls {@code visitor} with every place within roughly {@code meters} of the coordinate
+     * (a box on the projection, so slightly more at the corners).
+     */
+    public void forEachWithin(double latitude, double longitude, double meters, IntConsumer visitor) {
+        float qx = (float) (longitude * lngScale);
+        float qy = (float) latitude;
+        float r = (float) (meters / METERS_PER_DEGREE);
+        within(0, size, 0, qx - r, qx + r, qy - r, qy + r, visitor);
+    }
+
+    private void within(int lo, int hi, int depth, float minX, float maxX, float minY, float maxY, IntConsumer visitor) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (x[mid] >= minX && x[mid] <= maxX && y[mid] >= minY && y[mid] <= maxY) {
+            visitor.accept(place[mid]);
+        }
+        float split = (depth & 1) == 0 ? x[mid] : y[mid];
+        float min = (depth & 1) == 0 ? minX : minY;
+        float max = (depth & 1) == 0 ? maxX : maxY;
+        if (min <= split) {
+            within(lo, mid, depth + 1, minX, maxX, minY, maxY, visitor);
+        }
+        if (max >= split) {
+            within(mid + 1, hi, depth + 1, minX, maxX, minY, maxY, visitor);
+        }
+    }
+
+    /**
+     * @return the id of the place nearest to the coordinate within {@code maxMeters}, or -1
+     */
+    public int nearest(double latitude, double longitude, double maxMeters) {
+        if (size == 0) {
+            return -1;
+        }
+        double maxDegrees = maxMeters / METERS_PER_DEGREE;
+        Nearest best = new Nearest(maxDegrees * maxDegrees);
+        search(0, size, 0, (float) (longitude * lngScale), (float) latitude, best);
+        return best.slot >= 0 ? place[best.slot] : -1;
+    }
+
+    private void search(int lo, int hi, int depth, float qx, float qy, Nearest best) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double dx = x[mid] - qx;
+        double dy = y[mid] - qy;
+        double squared = dx * dx + dy * dy;
+        if (squared <= best.squared) {
+            best.squared = squared;
+            best.slot = mid;
+        }
+        double delta = (depth & 1) == 0 ? qx - x[mid] : qy - y[mid];
+        // Descend into the side the query is on first; only cross the split plane if it is closer than the best so far
+        if (delta < 0) {
+            search(lo, mid, depth + 1, qx, qy, best);
+            if (delta * delta <= best.squared) {
+                search(mid + 1, hi, depth + 1, qx, qy, best);
+            }
+        } else {
+            search(mid + 1, hi, depth + 1, qx, qy, best);
+            if (delta * delta <= best.squared) {
+                search(lo, mid, depth + 1, qx, qy, best);
+            }
+        }
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, (depth & 1) == 0 ? x : y);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    // Quickselect: partition [left, right] so slot k holds its sorted value on the given axis
+    private void select(int left, int right, int k, float[] axis) {
+        while (left < right) {
+            float pivot = axis[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (axis[i] < pivot) {
+                    i++;
+                }
+                while (axis[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        float tx = x[a];
+        x[a] = x[b];
+        x[b] = tx;
+        float ty = y[a];
+        y[a] = y[b];
+        y[b] = ty;
+        int tp = place[a];
+        place[a] = place[b];
+        place[b] = tp;
+    }
+
+    private static final class Nearest {
+        double squared;
+        int slot = -1;
+
+        Nearest(double squared) {
+            this.squared = squared;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.rsrmi.ride_sharing_api.rmi.geocoding;
+
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import com.rsrmi.ride_sharing_api.rmi.models.PlaceSuggestion;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Prefix search over the labels of a {@link PlaceIndex}, for autocomplete.
+ *
+ * Every word start of every label is one entry, packed into a long as (placeId << 8 | byte
+ * offset) and sorted by the label text from that offset, compared case-insensitively. A prefix
+ * then maps to one contiguous run found by binary search - the leaf level of a trie without the
+ * per-node overhead - and labels are never copied, so the index costs 8 bytes per word.
+ *
+ * Runs small enough to score are ranked by distance to the caller; for very short prefixes the
+ * run is too long, and the nearby places are filtered instead.
+ */
+public final class PlaceSearchIndex {
+
+    private static final int MAX_WORD_OFFSET = 255;
+    private static final int SCAN_LIMIT = 50_000;
+    private static final double[] NEARBY_RADII_METERS = { 500, 1_500, 5_000, 15_000, 50_000 };
+    private static final double NOT_AT_START_FACTOR = 2.0;
+
+    private final PlaceIndex places;
+    private final byte[] text;
+    private final long[] entries;
+
+    public PlaceSearchIndex(PlaceIndex places) {
+        this.places = places;
+        this.text = places.labelBytes();
+        long[] collected = new long[Math.max(16, places.size() * 3)];
+        int count = 0;
+        for (int id = 0; id < places.size(); id++) {
+            int start = places.labelStart(id);
+            int end = places.labelEnd(id);
+            for (int i = start; i < end && i - start <= MAX_WORD_OFFSET; i++) {
+                if (!isSeparator(text[i]) && (i == start || isSeparator(text[i - 1]))) {
+                    if (count == collected.length) {
+                        collected = Arrays.copyOf(collected, count * 2);
+                    }
+                    collected[count++] = ((long) id << 8) | (i - start);
+                }
+            }
+        }
+        this.entries = Arrays.copyOf(collected, count);
+        mergeSort(entries, new long[count], 0, count);
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * @param nearLat, nearLng caller position for ranking, or NaN for none
+     */
+    public List<PlaceSuggestion> search(String query, double nearLat, double nearLng, int limit) {
+        List<PlaceSuggestion> result = new ArrayList<>();
+        if (query == null || limit <= 0) {
+            return result;
+        }
+        byte[] prefix = query.trim().replaceAll("\\s+", " ").getBytes(StandardCharsets.UTF_8);
+        if (prefix.length == 0) {
+            return result;
+        }
+        boolean located = !Double.isNaN(nearLat) && !Double.isNaN(nearLng);
+        TopK top = new TopK(limit);
+
+        int lo = lowerBound(prefix);
+        int hi = upperBound(prefix, lo);
+        if (hi - lo <= SCAN_LIMIT || !located) {
+            for (int i = lo; i < Math.min(hi, lo + SCAN_LIMIT); i++) {
+                int id = (int) (entries[i] >>> 8);
+                int offset = (int) (entries[i] & 0xff);
+                top.offer(id, cost(id, offset, located, nearLat, nearLng));
+            }
+        } else {
+            // Thousands of names share this prefix: look at what is around the caller instead
+            for (double radius : NEARBY_RADII_METERS) {
+                top.clear();
+                places.forEachWithin(nearLat, nearLng, radius, id -> {
+                    int offset = matchOffset(id, prefix);
+                    if (offset >= 0) {
+                        top.offer(id, cost(id, offset, true, nearLat, nearLng));
+                    }
+                });
+                // Done once nothing outside the box could beat the last result
+                if (top.size() >= limit && top.costs[limit - 1] <= radius / 1000) {
+                    break;
+                }
+            }
+        }
+
+        for (int i = 0; i < top.size(); i++) {
+            int id = top.ids[i];
+            double lat = places.latitude(id);
+            double lng = places.longitude(id);
+            double distanceKm = located ? LocationServiceImpl.haversine(nearLat, nearLng, lat, lng) : -1;
+            result.add(new PlaceSuggestion(places.label(id), lat, lng, distanceKm));
+        }
+        return result;
+    }
+
+    private double cost(int id, int offset, boolean located, double nearLat, double nearLng) {
+        if (!located) {
+            // Without a position prefer names that start with the query, then shorter names
+            return (offset == 0 ? 0 : 1000) + (places.labelEnd(id) - places.labelStart(id));
+        }
+        // A match inside the name ranks like a name starting with the query twice as far away.
+        // Multiplicative rather than a fixed offset so the radius cut-off in search() stays tight.
+        double km = places.approximateKm(id, nearLat, nearLng);
+        return offset == 0 ? km : km * NOT_AT_START_FACTOR;
+    }
+
+    // Offset of the first word of the place's label that starts with prefix, or -1
+    private int matchOffset(int id, byte[] prefix) {
+        int start = places.labelStart(id);
+        int end = places.labelEnd(id);
+        for (int i = start; i < end && i - start <= MAX_WORD_OFFSET; i++) {
+            if (!isSeparator(text[i]) && (i == start || isSeparator(text[i - 1])) && comparePrefix(i, end, prefix) == 0) {
+                return i - start;
+            }
+        }
+        return -1;
+    }
+
+    private int lowerBound(byte[] prefix) {
+        int lo = 0;
+        int hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(entries[mid], prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int upperBound(byte[] prefix, int from) {
+        int lo = from;
+        int hi = entries.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(entries[mid], prefix) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Compares the entry's text, truncated to prefix.length, with prefix
+    private int comparePrefix(long entry, byte[] prefix) {
+        int id = (int) (entry >>> 8);
+        int start = places.labelStart(id) + (int) (entry & 0xff);
+        return comparePrefix(start, places.labelEnd(id), prefix);
+    }
+
+    private int comparePrefix(int start, int end, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (start + i >= end) {
+                return -1;
+            }
+            int a = fold(text[start + i]);
+            int b = fold(prefix[i]);
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return 0;
+    }
+
+    private int compareEntries(long left, long right) {
+        int leftId = (int) (left >>> 8);
+        int rightId = (int) (right >>> 8);
+        int a = places.labelStart(leftId) + (int) (left & 0xff);
+        int aEnd = places.labelEnd(leftId);
+        int b = places.labelStart(rightId) + (int) (right & 0xff);
+        int bEnd = places.labelEnd(rightId);
+        while (a < aEnd && b < bEnd) {
+            int diff = fold(text[a++]) - fold(text[b++]);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return (aEnd - a) - (bEnd - b);
+    }
+
+    private void mergeSort(long[] a, long[] buffer, int from, int to) {
+        if (to - from <= 16) {
+            for (int i = from + 1; i < to; i++) {
+                long v = a[i];
+                int j = i - 1;
+                while (j >= from && compareEntries(a[j], v) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(a, buffer, from, mid);
+        mergeSort(a, buffer, mid, to);
+        if (compareEntries(a[mid - 1], a[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(a, from, buffer, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || i < mid && compareEntries(buffer[i], buffer[j]) <= 0) {
+                a[k] = buffer[i++];
+            } else {
+                a[k] = buffer[j++];
+            }
+        }
+    }
+
+    // ASCII case folding on unsigned bytes; multi-byte UTF-8 sequences compare as-is
+    private static int fold(byte b) {
+        int c = b & 0xff;
+        return c >= 'A' && c <= 'Z' ? c + 32 : c;
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == ',' || b == '-' || b == '/' || b == '(' || b == ')' || b == '.';
+    }
+
+    /**
+     * Fixed-size best-k list by ascending cost, keeping one slot per place.
+     */
+    private static final class TopK {
+        final int[] ids;
+        final double[] costs;
+        int count;
+
+        TopK(int k) {
+            ids = new int[k];
+            costs = new double[k];
+        }
+
+        int size() {
+            return count;
+        }
+
+        void clear() {
+            count = 0;
+        }
+
+        void offer(int id, double cost) {
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    if (cost >= costs[i]) {
+                        return;
+                    }
+                    remove(i);
+                    break;
+                }
+            }
+            if (count == ids.length && cost >= costs[count - 1]) {
+                return;
+            }
+            int i = count == ids.length ? count - 1 : count++;
+            while (i > 0 && costs[i - 1] > cost) {
+                ids[i] = ids[i - 1];
+                costs[i] = costs[i - 1];
+                i--;
+            }
+            ids[i] = id;
+            costs[i] = cost;
+        }
+
+        private void remove(int index) {
+            System.arraycopy(ids, index + 1, ids, index, count - index - 1);
+            System.arraycopy(costs, index + 1, costs, index, count - index - 1);
+            count--;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.rsrmi.ride_sharing_api.rmi.geocoding;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Offline reverse geocoding against the place dataset in GEOCODER_PLACES_FILE. Results,
+ * including misses, are cached in an LRU keyed by coordinates rounded to 4 decimals (~11 m),
+ * since pickups cluster heavily around the same doors and junctions.
+ */
+public class ReverseGeocoder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReverseGeocoder.class);
+
+    private static final double MAX_METERS = EnvConfig.getDouble("GEOCODER_MAX_METERS", 250);
+    private static final int CACHE_SIZE = EnvConfig.getInt("GEOCODER_CACHE_SIZE", 10_000);
+    private static final double ROUNDING = 10_000;
+    private static final String NO_PLACE = "";
+
+    private static ReverseGeocoder instance;
+
+    private final PlaceIndex places;
+    private final Map<Long, String> cache;
+
+    private ReverseGeocoder(PlaceIndex places) {
+        this.places = places;
+        this.cache = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+
+    public static synchronized ReverseGeocoder getInstance() {
+        if (instance == null) {
+            instance = new ReverseGeocoder(loadConfiguredPlaces());
+        }
+        return instance;
+    }
+
+    public PlaceIndex getPlaces() {
+        return places;
+    }
+
+    /**
+     * @return the label of the nearest known place, or null when there is none within range
+     */
+    public String reverse(double latitude, double longitude) {
+        if (places == null) {
+            return null;
+        }
+        long key = (Math.round(latitude * ROUNDING) << 32) | (Math.round(longitude * ROUNDING) & 0xffffffffL);
+        String cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached == null) {
+            int place = places.nearest(latitude, longitude, MAX_METERS);
+            cached = place >= 0 ? places.label(place) : NO_PLACE;
+            synchronized (cache) {
+                cache.put(key, cached);
+            }
+        }
+        return cached.isEmpty() ? null : cached;
+    }
+
+    private static PlaceIndex loadConfiguredPlaces() {
+        String file = EnvConfig.getString("GEOCODER_PLACES_FILE", null);
+        if (file == null) {
+            log.info("GEOCODER_PLACES_FILE not set, addresses are left for the client to fill");
+            return null;
+        }
+        Path path = Path.of(file);
+        if (!Files.isReadable(path)) {
+            log.warn("Places file not readable path={}, reverse geocoding disabled", path);
+            return null;
+        }
+        try {
+            long start = System.nanoTime();
+            PlaceIndex loaded = PlaceIndex.load(path);
+            log.info("Places loaded path={} count={} ms={}", path, loaded.size(), (System.nanoTime() - start) / 1_000_000);
+            return loaded;
+        } catch (Exception e) {
+            log.error("Failed to load places path={}, reverse geocoding disabled", path, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.rsrmi.ride_sharing_api.rmi.health;
+
+import com.rsrmi.ride_sharing_api.rmi.interfaces.UserService;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Container health probe; exits 0 when healthy and 1 otherwise.
+ *
+ * "live" only checks that the registry answers, which it does from the first moments of
+ * startup. "ready" (the default) also needs every service bound and UserService.ping() true,
+ * which happens once the services are initialized and the database is reachable.
+ *
+ * Usage: java -cp rmi-server.jar com.rsrmi.ride_sharing_api.rmi.health.HealthCheck [live|ready] [host] [port]
+ */
+public class HealthCheck {
+
+    private static final List<String> SERVICES = List.of("UserService", "LocationService", "RideService", "RoutingService");
+
+    public static void main(String[] args) {
+        String mode = args.length > 0 ? args[0] : "ready";
+        String host = args.length > 1 ? args[1] : "localhost";
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : 1099;
+        // Don't let a hung server hold the probe past the orchestrator's own timeout
+        System.setProperty("sun.rmi.transport.tcp.responseTimeout", "3000");
+        System.setProperty("sun.rmi.transport.connectionTimeout", "3000");
+        try {
+            Registry registry = LocateRegistry.getRegistry(host, port);
+            List<String> bound = Arrays.asList(registry.list());
+            if (mode.equals("live")) {
+                System.out.println("live");
+                System.exit(0);
+            }
+            if (!bound.containsAll(SERVICES)) {
+                System.out.println("not ready: bound " + bound);
+                System.exit(1);
+            }
+            if (!((UserService) registry.lookup("UserService")).ping()) {
+                System.out.println("not ready: services starting");
+                System.exit(1);
+            }
+            System.out.println("ready");
+            System.exit(0);
+        } catch (Exception e) {
+            System.out.println("unhealthy: " + e);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.rsrmi.ride_sharing_api.rmi.health;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cold-start timings, measured from when the JVM was created so its own boot and class loading
+ * count too. Each phase is logged once as "Startup phase=... ms=..."; the last one,
+ * first-call, is the time until the server actually answered a client.
+ */
+public final class StartupTimer {
+    private static final Logger log = LoggerFactory.getLogger(StartupTimer.class);
+
+    private static final long JVM_START_MILLIS = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static final AtomicBoolean firstCall = new AtomicBoolean();
+
+    private StartupTimer() {
+    }
+
+    public static long elapsedMillis() {
+        return System.currentTimeMillis() - JVM_START_MILLIS;
+    }
+
+    public static void mark(String phase) {
+        log.info("Startup phase={} ms={}", phase, elapsedMillis());
+    }
+
+    /**
+     * Marks the first-call phase, once per process.
+     */
+    public static void firstCall(String method) {
+        if (!firstCall.get() && firstCall.compareAndSet(false, true)) {
+            log.info("Startup phase=first-call ms={} method={}", elapsedMillis(), method);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.rsrmi.ride_sharing_api.rmi.heatmap;
+
+/**
+ * Standard base32 geohash encoding and cell bounds. Precision 6 cells are about
+ * 1.2 km x 0.6 km, precision 5 about 4.9 km x 4.9 km.
+ */
+public final class GeoHash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90;
+        double maxLat = 90;
+        double minLng = -180;
+        double maxLng = 180;
+        char[] hash = new char[precision];
+        boolean lngBit = true;
+        for (int i = 0; i < precision; i++) {
+            int index = 0;
+            for (int bit = 0; bit < 5; bit++) {
+                if (lngBit) {
+                    double mid = (minLng + maxLng) / 2;
+                    if (longitude >= mid) {
+                        index = index * 2 + 1;
+                        minLng = mid;
+                    } else {
+                        index = index * 2;
+                        maxLng = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (latitude >= mid) {
+                        index = index * 2 + 1;
+                        minLat = mid;
+                    } else {
+                        index = index * 2;
+                        maxLat = mid;
+                    }
+                }
+                lngBit = !lngBit;
+            }
+            hash[i] = BASE32[index];
+        }
+        return new String(hash);
+    }
+
+    /**
+     * @return {minLat, minLng, maxLat, maxLng} of the cell
+     */
+    public static double[] bounds(String geohash) {
+        double minLat = -90;
+        double maxLat = 90;
+        double minLng = -180;
+        double maxLng = 180;
+        boolean lngBit = true;
+        for (int i = 0; i < geohash.length(); i++) {
+            int index = indexOf(geohash.charAt(i));
+            for (int bit = 4; bit >= 0; bit--) {
+                boolean set = ((index >> bit) & 1) == 1;
+                if (lngBit) {
+                    double mid = (minLng + maxLng) / 2;
+                    if (set) {
+                        minLng = mid;
+                    } else {
+                        maxLng = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) {
+                        minLat = mid;
+                    } else {
+                        maxLat = mid;
+                    }
+                }
+                lngBit = !lngBit;
+            }
+        }
+        return new double[] { minLat, minLng, maxLat, maxLng };
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < BASE32.length; i++) {
+            if (BASE32[i] == c) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Not a geohash character: " + c);
+    }
+}
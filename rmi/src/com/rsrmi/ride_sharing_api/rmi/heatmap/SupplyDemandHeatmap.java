@@ -0,0 +1,211 @@
+package com.rsrmi.ride_sharing_api.rmi.heatmap;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import com.rsrmi.ride_sharing_api.rmi.models.CellSupplyDemand;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-geohash-cell counters of open ride requests and online drivers, maintained from the
+ * ride lifecycle and location update paths instead of being recomputed by SQL.
+ *
+ * Gauges (pending rides, online drivers) are LongAdders moved as rides and drivers enter and
+ * leave cells. Flows (requests, accepts, cancels, driver updates) go into per-minute LongAdder
+ * buckets, and the 1/5/15-minute windows are summed from those buckets on read.
+ */
+public class SupplyDemandHeatmap {
+
+    private static final int PRECISION = EnvConfig.getInt("HEATMAP_GEOHASH_PRECISION", 6);
+    private static final int BUCKETS = 16; // > largest window, so a bucket is never reused inside one
+
+    private static SupplyDemandHeatmap instance;
+
+    private final Map<String, Cell> cells = new ConcurrentHashMap<>();
+    private final Map<Integer, Cell> pendingRideCells = new ConcurrentHashMap<>();
+    private final Map<Integer, Cell> onlineDriverCells = new ConcurrentHashMap<>();
+
+    private SupplyDemandHeatmap() {
+    }
+
+    public static synchronized SupplyDemandHeatmap getInstance() {
+        if (instance == null) {
+            instance = new SupplyDemandHeatmap();
+        }
+        return instance;
+    }
+
+    public void onRideRequested(Ride ride) {
+        Cell cell = cellAt(ride.getPickupLatitude(), ride.getPickupLongitude());
+        long minute = currentMinute();
+        cell.requested.increment(minute);
+        if (pendingRideCells.putIfAbsent(ride.getId(), cell) == null) {
+            cell.pendingRides.increment();
+        }
+    }
+
+    /**
+     * Record a ride's new state after a lifecycle write. Any status other than PENDING takes it
+     * out of its cell's pending gauge, once.
+     */
+    public void onRideTransition(Ride ride) {
+        if (ride.getStatus() == Ride.Status.PENDING) {
+            return;
+        }
+        Cell pendingIn = pendingRideCells.remove(ride.getId());
+        if (pendingIn != null) {
+            pendingIn.pendingRides.decrement();
+        }
+        long minute = currentMinute();
+        if (ride.getStatus() == Ride.Status.ACCEPTED) {
+            cellAt(ride.getPickupLatitude(), ride.getPickupLongitude()).accepted.increment(minute);
+        } else if (ride.getStatus() == Ride.Status.CANCELLED) {
+            cellAt(ride.getPickupLatitude(), ride.getPickupLongitude()).cancelled.increment(minute);
+        }
+    }
+
+    public void onDriverLocation(int driverId, double latitude, double longitude, boolean online) {
+        Cell cell = cellAt(latitude, longitude);
+        cell.driverUpdates.increment(currentMinute());
+        if (online) {
+            moveDriver(driverId, cell);
+        } else {
+            driverOffline(driverId);
+        }
+    }
+
+    public void driverOffline(int driverId) {
+        Cell previous = onlineDriverCells.remove(driverId);
+        if (previous != null) {
+            previous.onlineDrivers.decrement();
+        }
+    }
+
+    /**
+     * Cells with any activity inside the bounding box, busiest (most pending rides) first.
+     * Only touches cells that have been active since startup, never the database.
+     */
+    public List<CellSupplyDemand> snapshot(double minLat, double minLng, double maxLat, double maxLng) {
+        long minute = currentMinute();
+        List<CellSupplyDemand> result = new ArrayList<>();
+        for (Cell cell : cells.values()) {
+            if (cell.centerLat < minLat || cell.centerLat > maxLat || cell.centerLng < minLng || cell.centerLng > maxLng) {
+                continue;
+            }
+            CellSupplyDemand view = view(cell, minute);
+            if (view.getPendingRides() > 0 || view.getOnlineDrivers() > 0 || view.getRequested()[2] > 0
+                    || view.getDriverUpdates()[2] > 0) {
+                result.add(view);
+            }
+        }
+        result.sort((a, b) -> Long.compare(b.getPendingRides(), a.getPendingRides()));
+        return result;
+    }
+
+    /**
+     * Counters of the cell containing the point, without creating it; an untouched cell reads as all zeros.
+     */
+    public CellSupplyDemand cellContaining(double latitude, double longitude) {
+        String geohash = GeoHash.encode(latitude, longitude, PRECISION);
+        Cell cell = cells.get(geohash);
+        return view(cell != null ? cell : new Cell(geohash), currentMinute());
+    }
+
+    private static CellSupplyDemand view(Cell cell, long minute) {
+        CellSupplyDemand view = new CellSupplyDemand();
+        view.setGeohash(cell.geohash);
+        view.setCenterLatitude(cell.centerLat);
+        view.setCenterLongitude(cell.centerLng);
+        view.setPendingRides(cell.pendingRides.sum());
+        view.setOnlineDrivers(cell.onlineDrivers.sum());
+        view.setRequested(cell.requested.windows(minute));
+        view.setAccepted(cell.accepted.windows(minute));
+        view.setCancelled(cell.cancelled.windows(minute));
+        view.setDriverUpdates(cell.driverUpdates.windows(minute));
+        return view;
+    }
+
+    private void moveDriver(int driverId, Cell cell) {
+        Cell previous = onlineDriverCells.put(driverId, cell);
+        if (previous != cell) {
+            cell.onlineDrivers.increment();
+            if (previous != null) {
+                previous.onlineDrivers.decrement();
+            }
+        }
+    }
+
+    private Cell cellAt(double latitude, double longitude) {
+        return cells.computeIfAbsent(GeoHash.encode(latitude, longitude, PRECISION), Cell::new);
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+
+    private static final class Cell {
+        final String geohash;
+        final double centerLat;
+        final double centerLng;
+        final LongAdder pendingRides = new LongAdder();
+        final LongAdder onlineDrivers = new LongAdder();
+        final MinuteCounter requested = new MinuteCounter();
+        final MinuteCounter accepted = new MinuteCounter();
+        final MinuteCounter cancelled = new MinuteCounter();
+        final MinuteCounter driverUpdates = new MinuteCounter();
+
+        Cell(String geohash) {
+            this.geohash = geohash;
+            double[] bounds = GeoHash.bounds(geohash);
+            this.centerLat = (bounds[0] + bounds[2]) / 2;
+            this.centerLng = (bounds[1] + bounds[3]) / 2;
+        }
+    }
+
+    /**
+     * Ring of per-minute LongAdders. A bucket is claimed for a new minute by CAS on its stamp and
+     * then reset, so an increment racing the claim at a minute boundary can be lost - acceptable
+     * for a heatmap, and it keeps the hot path free of locks.
+     */
+    private static final class MinuteCounter {
+        private final AtomicLongArray stamps = new AtomicLongArray(BUCKETS);
+        private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+        MinuteCounter() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        void increment(long minute) {
+            int slot = (int) (minute % BUCKETS);
+            long stamp = stamps.get(slot);
+            if (stamp != minute && stamps.compareAndSet(slot, stamp, minute)) {
+                counts[slot].reset();
+            }
+            counts[slot].increment();
+        }
+
+        long[] windows(long minute) {
+            int[] windowMinutes = CellSupplyDemand.WINDOW_MINUTES;
+            long[] sums = new long[windowMinutes.length];
+            long running = 0;
+            int w = 0;
+            for (int back = 0; back < windowMinutes[windowMinutes.length - 1]; back++) {
+                long m = minute - back;
+                int slot = (int) (m % BUCKETS);
+                if (stamps.get(slot) == m) {
+                    running += counts[slot].sum();
+                }
+                if (back + 1 == windowMinutes[w]) {
+                    sums[w++] = running;
+                }
+            }
+            return sums;
+        }
+    }
+}
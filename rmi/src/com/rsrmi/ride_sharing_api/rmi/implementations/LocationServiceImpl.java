@@ -1,9 +1,13 @@
 package com.rsrmi.ride_sharing_api.rmi.implementations;
 
 import com.rsrmi.ride_sharing_api.rmi.interfaces.LocationService;
+import com.rsrmi.ride_sharing_api.rmi.models.PlaceSuggestion;
+import com.rsrmi.ride_sharing_api.rmi.models.PredictedPosition;
 import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
 import com.rsrmi.ride_sharing_api.rmi.models.User;
 import java.rmi.RemoteException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.rmi.server.UnicastRemoteObject;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -12,23 +16,49 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.ArrayList;
 import com.rsrmi.ride_sharing_api.rmi.config.DatabaseConfig;
+import com.rsrmi.ride_sharing_api.rmi.geocoding.PlaceIndex;
+import com.rsrmi.ride_sharing_api.rmi.geocoding.PlaceSearchIndex;
+import com.rsrmi.ride_sharing_api.rmi.geocoding.ReverseGeocoder;
+import com.rsrmi.ride_sharing_api.rmi.heatmap.SupplyDemandHeatmap;
+import com.rsrmi.ride_sharing_api.rmi.logging.LogSampler;
+import com.rsrmi.ride_sharing_api.rmi.presence.DriverPresence;
+import com.rsrmi.ride_sharing_api.rmi.routing.MapMatcher;
+import java.sql.Array;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.sql.Timestamp;
 
 public class LocationServiceImpl extends UnicastRemoteObject implements LocationService {
+    private static final Logger log = LoggerFactory.getLogger(LocationServiceImpl.class);
+    private static final LogSampler NEARBY_DRIVERS_SAMPLER = LogSampler.withDefaultRate();
+
     private final DatabaseConfig dbConfig;
+    private final ReverseGeocoder geocoder;
+    private final PlaceSearchIndex placeSearch;
+    private final SupplyDemandHeatmap heatmap;
+    private final DriverPresence presence;
+    private final MapMatcher mapMatcher;
 
     public LocationServiceImpl() throws RemoteException {
         super();
         this.dbConfig = DatabaseConfig.getInstance();
+        this.geocoder = ReverseGeocoder.getInstance();
+        PlaceIndex places = geocoder.getPlaces();
+        this.placeSearch = places != null ? new PlaceSearchIndex(places) : null;
+        this.heatmap = SupplyDemandHeatmap.getInstance();
+        this.presence = DriverPresence.getInstance();
+        this.mapMatcher = MapMatcher.getInstance();
     }
 
     // Update a user's location, timestamp, and availability
     @Override
     public boolean updateUserLocation(int userId, UserLocation location) throws RemoteException {
-        String sql = "INSERT INTO user_locations (user_id, latitude, longitude, address, last_updated, is_online) " +
+        // Returns the user's type in the same round trip so driver moves can feed the heatmap
+        String sql = "WITH up AS (INSERT INTO user_locations (user_id, latitude, longitude, address, last_updated, is_online) " +
                 "VALUES (?, ?, ?, ?, ?, ?) " +
-                "ON CONFLICT (user_id) DO UPDATE SET latitude = EXCLUDED.latitude, longitude = EXCLUDED.longitude, address = EXCLUDED.address, last_updated = EXCLUDED.last_updated, is_online = EXCLUDED.is_online";
+                "ON CONFLICT (user_id) DO UPDATE SET latitude = EXCLUDED.latitude, longitude = EXCLUDED.longitude, address = EXCLUDED.address, last_updated = EXCLUDED.last_updated, is_online = EXCLUDED.is_online " +
+                "RETURNING user_id) SELECT u.user_type FROM up JOIN users u ON u.id = up.user_id";
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, userId);
@@ -37,20 +67,31 @@ public class LocationServiceImpl extends UnicastRemoteObject implements Location
             stmt.setString(4, location.getAddress());
             stmt.setTimestamp(5, Timestamp.valueOf(location.getLastUpdated()));
             stmt.setBoolean(6, location.getIsOnline());
-            int affected = stmt.executeUpdate();
-            if (affected > 0) {
-                System.out.println("✅ User lcoation updated successfully for : " + location.getAddress());
-                return true;
-            } else {
-                return false;
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    log.debug("User location updated userId={}", userId);
+                    if ("DRIVER".equals(rs.getString("user_type"))) {
+                        heatmap.onDriverLocation(userId, location.getLatitude(), location.getLongitude(), location.getIsOnline());
+                        if (location.getIsOnline()) {
+                            presence.heartbeat(userId, location.getLatitude(), location.getLongitude());
+                            mapMatcher.submit(userId, location.getLatitude(), location.getLongitude(), System.currentTimeMillis());
+                        } else {
+                            presence.offline(userId);
+                        }
+                    }
+                    return true;
+                } else {
+                    return false;
+                }
             }
         } catch (SQLException e) {
-            System.err.println("updateUserLocation: SQL error: " + e.getMessage());
+            log.error("updateUserLocation failed userId={}", userId, e);
             return false;
         }
     }
 
-    // Get the current location for a user
+    // Get the current location for a user. A driver on a ride gets the map-matched position, and
+    // lastUpdated moves with it so the version follows the snap.
     @Override
     public UserLocation getUserLocation(int userId) throws RemoteException {
         String sql = "SELECT latitude, longitude, address, is_online, last_updated FROM user_locations WHERE user_id = ?";
@@ -65,53 +106,123 @@ public class LocationServiceImpl extends UnicastRemoteObject implements Location
                     boolean is_online = rs.getBoolean("is_online");
                     Timestamp lastUpdatedTs = rs.getTimestamp("last_updated");
                     LocalDateTime lastUpdated = lastUpdatedTs != null ? lastUpdatedTs.toLocalDateTime() : null;
-
-                    System.out.println("✅ Get user location successfully for user id : " + userId);
+                    MapMatcher.Snap snap = mapMatcher.snapped(userId);
+                    if (snap != null) {
+                        lat = snap.latitude;
+                        lon = snap.longitude;
+                        lastUpdated = withSnap(lastUpdated, snap);
+                    }
 
                     return new UserLocation(userId, lat, lon, address, is_online, lastUpdated);
                 }
             }
         } catch (SQLException e) {
-            System.err.println("getUserLocation: SQL error: " + e.getMessage());
+            log.error("getUserLocation failed userId={}", userId, e);
         }
         return null;
     }
 
-    // Find nearby drivers within a radius
+    // Cheap probe for conditional GETs: two columns of one row, no UserLocation on the wire
+    @Override
+    public long getUserLocationVersion(int userId) throws RemoteException {
+        String sql = "SELECT is_online, last_updated FROM user_locations WHERE user_id = ?";
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Timestamp lastUpdatedTs = rs.getTimestamp("last_updated");
+                    LocalDateTime lastUpdated = lastUpdatedTs != null ? lastUpdatedTs.toLocalDateTime() : null;
+                    MapMatcher.Snap snap = mapMatcher.snapped(userId);
+                    if (snap != null) {
+                        lastUpdated = withSnap(lastUpdated, snap);
+                    }
+                    return UserLocation.version(lastUpdated, rs.getBoolean("is_online"));
+                }
+            }
+        } catch (SQLException e) {
+            log.error("getUserLocationVersion failed userId={}", userId, e);
+        }
+        return 0;
+    }
+
+    // The later of the stored row's time and the ping the snap was matched from, in the same local
+    // time Timestamp.toLocalDateTime gives
+    private static LocalDateTime withSnap(LocalDateTime lastUpdated, MapMatcher.Snap snap) {
+        LocalDateTime snapped = LocalDateTime.ofInstant(Instant.ofEpochMilli(snap.timestampMillis), ZoneId.systemDefault());
+        return lastUpdated == null || snapped.isAfter(lastUpdated) ? snapped : lastUpdated;
+    }
+
+    // Find nearby drivers within a radius. Only drivers DriverPresence has heard from recently are
+    // candidates, so the query reads a handful of rows by id instead of every is_online row; the
+    // join keeps out any id presence holds that is not (or no longer) a driver.
     @Override
     public List<UserLocation> findNearbyDrivers(UserLocation riderLocation, double radiusKm) throws RemoteException {
         List<UserLocation> result = new ArrayList<>();
         if (riderLocation == null) return result;
-        String sql = "SELECT ul.user_id, ul.latitude, ul.longitude, ul.address, ul.is_online, ul.last_updated " +
+        List<Integer> candidates = presence.onlineWithin(riderLocation.getLatitude(), riderLocation.getLongitude(), radiusKm);
+        if (candidates.isEmpty()) return result;
+        String sql = "SELECT ul.user_id, ul.latitude, ul.longitude, ul.address, ul.last_updated " +
                 "FROM user_locations ul " +
-                "JOIN users u ON ul.user_id = u.id " +
-                "WHERE u.user_type = 'DRIVER' AND ul.is_online = TRUE";
+                "JOIN users u ON u.id = ul.user_id " +
+                "WHERE ul.user_id = ANY(?) AND u.user_type = 'DRIVER'";
         try (Connection conn = dbConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                double lat = rs.getDouble("latitude");
-                double lon = rs.getDouble("longitude");
-                double distance = haversine(
-                        riderLocation.getLatitude(), riderLocation.getLongitude(),
-                        lat, lon);
-                if (distance <= radiusKm) {
-                    int userId = rs.getInt("user_id");
-                    String address = rs.getString("address");
-                    boolean isOnline = rs.getBoolean("is_online");
-                    Timestamp lastUpdatedTs = rs.getTimestamp("last_updated");
-                    LocalDateTime lastUpdated = lastUpdatedTs != null ? lastUpdatedTs.toLocalDateTime() : null;
-                    UserLocation driverLoc = new UserLocation(userId, lat, lon, address, isOnline, lastUpdated);
-                    result.add(driverLoc);
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Array ids = conn.createArrayOf("integer", candidates.toArray());
+            stmt.setArray(1, ids);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    double lat = rs.getDouble("latitude");
+                    double lon = rs.getDouble("longitude");
+                    double distance = haversine(
+                            riderLocation.getLatitude(), riderLocation.getLongitude(),
+                            lat, lon);
+                    if (distance <= radiusKm) {
+                        int userId = rs.getInt("user_id");
+                        String address = rs.getString("address");
+                        Timestamp lastUpdatedTs = rs.getTimestamp("last_updated");
+                        LocalDateTime lastUpdated = lastUpdatedTs != null ? lastUpdatedTs.toLocalDateTime() : null;
+                        // Presence is the authority on liveness; the stored flag may lag by one flush
+                        UserLocation driverLoc = new UserLocation(userId, lat, lon, address, true, lastUpdated);
+                        result.add(driverLoc);
+                    }
                 }
             }
         } catch (SQLException e) {
-            System.err.println("findNearbyDrivers: SQL error: " + e.getMessage());
+            log.error("findNearbyDrivers failed", e);
+        }
+        if (log.isDebugEnabled() && NEARBY_DRIVERS_SAMPLER.sample()) {
+            log.debug("findNearbyDrivers rider=({}, {}) radiusKm={} candidates={} found={}",
+                riderLocation.getLatitude(), riderLocation.getLongitude(), radiusKm, candidates.size(), result.size());
         }
-        System.out.println("✅ Get nearby drivers successfully for location : " + riderLocation.getAddress());
         return result;
     }
 
+    @Override
+    public boolean heartbeat(int driverId) throws RemoteException {
+        return presence.touch(driverId);
+    }
+
+    @Override
+    public PredictedPosition predictDriverPosition(int driverId, long atMillis) throws RemoteException {
+        return presence.predict(driverId, atMillis > 0 ? atMillis : System.currentTimeMillis());
+    }
+
+    @Override
+    public String reverseGeocode(double latitude, double longitude) throws RemoteException {
+        return geocoder.reverse(latitude, longitude);
+    }
+
+    @Override
+    public List<PlaceSuggestion> searchPlaces(String query, UserLocation near, int limit) throws RemoteException {
+        if (placeSearch == null) {
+            return new ArrayList<>();
+        }
+        double lat = near != null ? near.getLatitude() : Double.NaN;
+        double lng = near != null ? near.getLongitude() : Double.NaN;
+        return placeSearch.search(query, lat, lng, Math.min(limit, 20));
+    }
+
     public static double haversine(double lat1, double lon1, double lat2, double lon2) {
         double R = 6371; // Radius of the earth in km
         double dLat = Math.toRadians(lat2 - lat1);
@@ -1,8 +1,26 @@
 package com.rsrmi.ride_sharing_api.rmi.implementations;
 
+import com.rsrmi.ride_sharing_api.rmi.cache.ActiveRideCache;
+import com.rsrmi.ride_sharing_api.rmi.cache.PendingRideCoalescer;
+import com.rsrmi.ride_sharing_api.rmi.cache.RideRequestKeys;
+import com.rsrmi.ride_sharing_api.rmi.events.RideOfferBroadcaster;
+import com.rsrmi.ride_sharing_api.rmi.geocoding.ReverseGeocoder;
+import com.rsrmi.ride_sharing_api.rmi.heatmap.SupplyDemandHeatmap;
+import com.rsrmi.ride_sharing_api.rmi.interfaces.RideOfferListener;
 import com.rsrmi.ride_sharing_api.rmi.interfaces.RideService;
+import com.rsrmi.ride_sharing_api.rmi.logging.LogSampler;
+import com.rsrmi.ride_sharing_api.rmi.models.CellSupplyDemand;
+import com.rsrmi.ride_sharing_api.rmi.models.CurrentRideResult;
+import com.rsrmi.ride_sharing_api.rmi.models.FareQuote;
 import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import com.rsrmi.ride_sharing_api.rmi.models.RideTrajectory;
+import com.rsrmi.ride_sharing_api.rmi.presence.DriverPresence;
+import com.rsrmi.ride_sharing_api.rmi.pricing.FareQuoteEngine;
+import com.rsrmi.ride_sharing_api.rmi.routing.MapMatcher;
+import com.rsrmi.ride_sharing_api.rmi.tracking.TrajectoryRecorder;
 import java.rmi.RemoteException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.rmi.server.UnicastRemoteObject;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -13,12 +31,46 @@ import java.util.ArrayList;
 import com.rsrmi.ride_sharing_api.rmi.config.DatabaseConfig;
 
 public class RideServiceImpl extends UnicastRemoteObject implements RideService {
+    private static final Logger log = LoggerFactory.getLogger(RideServiceImpl.class);
+    private static final LogSampler PENDING_RIDES_SAMPLER = LogSampler.withDefaultRate();
+    private static final LogSampler DRIVER_LOCATION_SAMPLER = LogSampler.withDefaultRate();
+
+    // Ride columns plus the rider's username/phone, read back from a data-modifying CTE
+    private static final String SELECT_WITH_RIDER =
+        " SELECT w.*, u.username as rider_username, u.phone as rider_phone " +
+        "FROM w LEFT JOIN users u ON w.rider_id = u.id";
+    private static final String RETURNING_WITH_RIDER = " RETURNING *)" + SELECT_WITH_RIDER;
+
+    // Must match the predicate of idx_rides_one_active_per_rider for ON CONFLICT to use it
+    private static final String ACTIVE_STATUS =
+        "status IN ('PENDING', 'ACCEPTED', 'DRIVER_EN_ROUTE', 'ARRIVED', 'IN_PROGRESS')";
+
     private final DatabaseConfig dbConfig;
+    private final RideOfferBroadcaster offerBroadcaster;
+    private final ActiveRideCache activeRides;
+    private final ReverseGeocoder geocoder;
+    private final SupplyDemandHeatmap heatmap;
+    private final FareQuoteEngine fareQuotes;
+    private final DriverPresence presence;
+    private final TrajectoryRecorder trajectories;
+    private final MapMatcher mapMatcher;
+    private final PendingRideCoalescer pendingRides;
+    private final RideRequestKeys requestKeys;
 
     public RideServiceImpl() throws RemoteException {
         super();
         this.dbConfig = DatabaseConfig.getInstance();
-        System.out.println("✅ RideService implementation initialized successfully");
+        this.offerBroadcaster = RideOfferBroadcaster.getInstance();
+        this.activeRides = ActiveRideCache.getInstance();
+        this.geocoder = ReverseGeocoder.getInstance();
+        this.heatmap = SupplyDemandHeatmap.getInstance();
+        this.fareQuotes = FareQuoteEngine.getInstance();
+        this.presence = DriverPresence.getInstance();
+        this.trajectories = TrajectoryRecorder.getInstance();
+        this.mapMatcher = MapMatcher.getInstance();
+        this.pendingRides = new PendingRideCoalescer(this::scanPendingRides);
+        this.requestKeys = RideRequestKeys.getInstance();
+        log.info("RideService implementation initialized");
     }
 
     // Ride request and matching
@@ -26,39 +78,140 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
     public int requestRide(
         int riderId,
         double pickupLat, double pickupLng,
-        double destLat, double destLng
+        double destLat, double destLng,
+        String requestKey
     ) throws RemoteException {
-        System.out.println("🚗 requestRide called - RiderID: " + riderId + 
-                          ", Pickup: (" + pickupLat + ", " + pickupLng + ")" +
-                          ", Destination: (" + destLat + ", " + destLng + ")");
-        
-        String sql = "INSERT INTO rides (rider_id, pickup_latitude, pickup_longitude, " +
-                    "destination_latitude, destination_longitude, status, created_at, updated_at) " +
-                    "VALUES (?, ?, ?, ?, ?, 'PENDING', NOW(), NOW()) RETURNING id";
+        log.debug("requestRide riderId={} pickup=({}, {}) destination=({}, {}) key={}", riderId, pickupLat, pickupLng, destLat, destLng, requestKey);
 
-        try (Connection conn = dbConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
+        // A retry of a request that already created its ride gets that ride back
+        if (requestKey != null) {
+            int priorRideId = requestKeys.lookup(riderId, requestKey);
+            if (priorRideId > 0) {
+                log.info("Ride request replayed riderId={} rideId={}", riderId, priorRideId);
+                return priorRideId;
+            }
+        }
+        // One active ride per rider; the partial unique index enforces it for riders not cached
+        ActiveRideCache.Entry active = activeRides.lookup(riderId);
+        if (active != null && active.ride != null && active.ride.getRiderId() == riderId) {
+            return refuseSecondRide(riderId, requestKey, active.ride.getId());
+        }
+
+        String sql = "WITH w AS (INSERT INTO rides (rider_id, pickup_latitude, pickup_longitude, " +
+                    "destination_latitude, destination_longitude, pickup_address, destination_address, " +
+                    "fare_amount, fare_currency, surge_multiplier, status, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'PENDING', NOW(), NOW()) " +
+                    "ON CONFLICT (rider_id) WHERE " + ACTIVE_STATUS + " DO NOTHING RETURNING *)" +
+                    (requestKey == null ? "" :
+                    ", k AS (INSERT INTO ride_request_keys (rider_id, request_key, ride_id) SELECT rider_id, ?, id FROM w " +
+                    "ON CONFLICT (rider_id, request_key) DO UPDATE SET ride_id = EXCLUDED.ride_id, created_at = NOW())") +
+                    SELECT_WITH_RIDER;
+
+        // Resolved before borrowing a connection; all in-memory lookups. The fare is the same
+        // cached quote getFareQuote showed the rider, as long as it is still in its time bucket.
+        String pickupAddress = geocoder.reverse(pickupLat, pickupLng);
+        String destinationAddress = geocoder.reverse(destLat, destLng);
+        FareQuote fare = fareQuotes.quote(pickupLat, pickupLng, destLat, destLng);
+
+        try (Connection conn = dbConfig.getConnection()) {
+            if (requestKey != null) {
+                int priorRideId = findKeyedRide(conn, riderId, requestKey);
+                if (priorRideId > 0) {
+                    log.info("Ride request replayed riderId={} rideId={}", riderId, priorRideId);
+                    return priorRideId;
+                }
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, riderId);
+                pstmt.setDouble(2, pickupLat);
+                pstmt.setDouble(3, pickupLng);
+                pstmt.setDouble(4, destLat);
+                pstmt.setDouble(5, destLng);
+                pstmt.setString(6, pickupAddress);
+                pstmt.setString(7, destinationAddress);
+                pstmt.setDouble(8, fare.getFare());
+                pstmt.setString(9, fare.getCurrency());
+                pstmt.setDouble(10, fare.getSurgeMultiplier());
+                if (requestKey != null) {
+                    pstmt.setString(11, requestKey);
+                }
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        Ride ride = mapResultSetToRide(rs);
+                        int rideId = ride.getId();
+                        log.info("Ride requested riderId={} rideId={} fare={} surge={}", riderId, rideId, fare.getFare(), fare.getSurgeMultiplier());
+
+                        if (requestKey != null) {
+                            requestKeys.put(riderId, requestKey, rideId, System.currentTimeMillis());
+                        }
+                        activeRides.put(ride, rs.getLong("revision"));
+                        // Otherwise nearby drivers would not see the ride until their shared scan expires
+                        pendingRides.invalidate(pickupLat, pickupLng);
+                        heatmap.onRideRequested(ride);
+                        offerBroadcaster.publishOffer(ride);
+                        return rideId;
+                    }
+                }
+            }
+            // The insert hit the active-ride index: either a concurrent retry won, or the rider
+            // already has a ride this server hadn't cached
+            return refuseSecondRide(conn, riderId, requestKey, 0);
+
+        } catch (SQLException e) {
+            log.error("Failed to request ride riderId={}", riderId, e);
+            throw new RemoteException("Failed to request ride: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the ride the key created if this is a retry, otherwise 0 to refuse a second ride
+     */
+    private int refuseSecondRide(int riderId, String requestKey, int activeRideId) throws RemoteException {
+        if (requestKey == null) {
+            return refused(riderId, activeRideId);
+        }
+        try (Connection conn = dbConfig.getConnection()) {
+            return refuseSecondRide(conn, riderId, requestKey, activeRideId);
+        } catch (SQLException e) {
+            log.error("Failed to look up ride request key riderId={}", riderId, e);
+            throw new RemoteException("Failed to request ride: " + e.getMessage(), e);
+        }
+    }
+
+    // Same, on a connection the caller already holds: a second getConnection() would need a second admission permit
+    private int refuseSecondRide(Connection conn, int riderId, String requestKey, int activeRideId) throws SQLException {
+        if (requestKey != null) {
+            int priorRideId = findKeyedRide(conn, riderId, requestKey);
+            if (priorRideId > 0) {
+                log.info("Ride request replayed riderId={} rideId={}", riderId, priorRideId);
+                return priorRideId;
+            }
+        }
+        return refused(riderId, activeRideId);
+    }
+
+    private int refused(int riderId, int activeRideId) {
+        log.info("Ride request refused riderId={} - already has active ride {}", riderId, activeRideId > 0 ? activeRideId : "(in DB)");
+        return 0;
+    }
+
+    private int findKeyedRide(Connection conn, int riderId, String requestKey) throws SQLException {
+        String sql = "SELECT ride_id, created_at FROM ride_request_keys WHERE rider_id = ? AND request_key = ? " +
+                    "AND created_at > NOW() - make_interval(mins => ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, riderId);
-            pstmt.setDouble(2, pickupLat);
-            pstmt.setDouble(3, pickupLng);
-            pstmt.setDouble(4, destLat);
-            pstmt.setDouble(5, destLng);
-            
+            pstmt.setString(2, requestKey);
+            pstmt.setInt(3, (int) RideRequestKeys.WINDOW_MINUTES);
             try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    int rideId = rs.getInt("id");
-                    System.out.println("✅ Ride request successful for rider " + riderId + ", ride ID: " + rideId);
-                    return rideId;
-                } else {
-                    System.out.println("❌ No ride ID returned from INSERT");
+                if (!rs.next()) {
                     return 0;
                 }
+                int rideId = rs.getInt("ride_id");
+                requestKeys.put(riderId, requestKey, rideId, rs.getTimestamp("created_at").getTime());
+                return rideId;
             }
-            
-        } catch (SQLException e) {
-            System.err.println("❌ Failed to request ride for rider " + riderId + ": " + e.getMessage());
-            throw new RemoteException("Failed to request ride: " + e.getMessage(), e);
         }
     }
 
@@ -66,8 +219,16 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
     public List<Ride> getPendingRides(
         double driverLat, double driverLng, double radius
     ) throws RemoteException {
-        System.out.println("📍 getPendingRides called - Driver location: (" + driverLat + ", " + driverLng + "), Radius: " + radius + "km");
-        
+        // Drivers queued in the same area share one scan; each gets its own radius, nearest first
+        List<Ride> rides = pendingRides.getPendingRides(driverLat, driverLng, radius);
+        if (log.isDebugEnabled() && PENDING_RIDES_SAMPLER.sample()) {
+            log.debug("getPendingRides driver=({}, {}) radius={} found={} scans={} shared={}", driverLat, driverLng, radius,
+                rides.size(), pendingRides.getScans(), pendingRides.getShared());
+        }
+        return rides;
+    }
+
+    private List<Ride> scanPendingRides(double lat, double lng, double radius) throws RemoteException {
         String sql = "SELECT r.*, u.username as rider_username, u.phone as rider_phone " +
                     "FROM rides r " +
                     "JOIN users u ON r.rider_id = u.id " +
@@ -79,8 +240,8 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setDouble(1, driverLat);
-            pstmt.setDouble(2, driverLng);
+            pstmt.setDouble(1, lat);
+            pstmt.setDouble(2, lng);
             pstmt.setDouble(3, radius);
             
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -89,10 +250,8 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
                 }
             }
             
-            System.out.println("✅ Found " + pendingRides.size() + " pending rides within " + radius + "km radius");
-            
         } catch (SQLException e) {
-            System.err.println("❌ Failed to get pending rides: " + e.getMessage());
+            log.error("Failed to get pending rides", e);
             throw new RemoteException("Failed to get pending rides: " + e.getMessage(), e);
         }
         
@@ -102,11 +261,11 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
     // ride accept and status
     @Override
     public int acceptRide(int driverId, int rideId) throws RemoteException {
-        System.out.println("🤝 acceptRide called - DriverID: " + driverId + ", RideID: " + rideId);
+        log.debug("acceptRide driverId={} rideId={}", driverId, rideId);
         
-        String sql = "UPDATE rides SET driver_id = ?, status = 'ACCEPTED', " +
-                    "accepted_at = NOW(), updated_at = NOW() " +
-                    "WHERE id = ? AND status = 'PENDING'";
+        String sql = "WITH w AS (UPDATE rides SET driver_id = ?, status = 'ACCEPTED', " +
+                    "accepted_at = NOW(), updated_at = NOW(), revision = revision + 1 " +
+                    "WHERE id = ? AND status = 'PENDING'" + RETURNING_WITH_RIDER;
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -114,43 +273,45 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
             pstmt.setInt(1, driverId);
             pstmt.setInt(2, rideId);
             
-            int result = pstmt.executeUpdate();
-            boolean success = result > 0;
+            boolean success = applyTransition(pstmt);
             
             if (success) {
-                System.out.println("✅ Ride " + rideId + " accepted successfully by driver " + driverId);
+                log.info("Ride accepted rideId={} driverId={}", rideId, driverId);
+                offerBroadcaster.publishWithdrawal(rideId);
                 return rideId;
             } else {
-                System.out.println("❌ Failed to accept ride " + rideId + " - ride may not be pending or not exist");
+                log.info("Ride not accepted rideId={} driverId={} - not pending or missing", rideId, driverId);
                 return 0;
             }
             
         } catch (SQLException e) {
-            System.err.println("❌ Failed to accept ride " + rideId + ": " + e.getMessage());
+            log.error("Failed to accept ride rideId={}", rideId, e);
             throw new RemoteException("Failed to accept ride: " + e.getMessage(), e);
         }
     }
 
     @Override
     public boolean cancelRide(int rideId) throws RemoteException {
-        System.out.println("❌ cancelRide called - RideID: " + rideId);
+        log.debug("cancelRide rideId={}", rideId);
         
-        String sql = "UPDATE rides SET status = 'CANCELLED', updated_at = NOW() " +
-                    "WHERE id = ? AND status NOT IN ('COMPLETED', 'CANCELLED')";
+        String sql = "WITH w AS (UPDATE rides SET status = 'CANCELLED', updated_at = NOW(), revision = revision + 1 " +
+                    "WHERE id = ? AND status NOT IN ('COMPLETED', 'CANCELLED')" + RETURNING_WITH_RIDER;
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, rideId);
             
-            int result = pstmt.executeUpdate();
-            boolean success = result > 0;
+            boolean success = applyTransition(pstmt);
             
-            System.out.println("✅ Ride " + rideId + " " + (success ? "cancelled successfully" : "cancellation failed - may be already completed/cancelled"));
+            log.info("Cancel rideId={} success={}", rideId, success);
+            if (success) {
+                offerBroadcaster.publishWithdrawal(rideId);
+            }
             return success;
             
         } catch (SQLException e) {
-            System.err.println("❌ Failed to cancel ride " + rideId + ": " + e.getMessage());
+            log.error("Failed to cancel ride rideId={}", rideId, e);
             throw new RemoteException("Failed to cancel ride: " + e.getMessage(), e);
         }
     }
@@ -158,96 +319,92 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
     // ride status updates
     @Override
     public boolean startDriveToPickup(int rideId) throws RemoteException {
-        System.out.println("🚗➡️ startDriveToPickup called - RideID: " + rideId);
+        log.debug("startDriveToPickup rideId={}", rideId);
         
-        String sql = "UPDATE rides SET status = 'DRIVER_EN_ROUTE', updated_at = NOW() " +
-                    "WHERE id = ? AND status = 'ACCEPTED'";
+        String sql = "WITH w AS (UPDATE rides SET status = 'DRIVER_EN_ROUTE', updated_at = NOW(), revision = revision + 1 " +
+                    "WHERE id = ? AND status = 'ACCEPTED'" + RETURNING_WITH_RIDER;
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, rideId);
             
-            int result = pstmt.executeUpdate();
-            boolean success = result > 0;
+            boolean success = applyTransition(pstmt);
             
-            System.out.println("✅ Ride " + rideId + " " + (success ? "driver started driving to pickup" : "failed to start drive - ride may not be accepted"));
+            log.info("Drive to pickup rideId={} success={}", rideId, success);
             return success;
             
         } catch (SQLException e) {
-            System.err.println("❌ Failed to start drive to pickup for ride " + rideId + ": " + e.getMessage());
+            log.error("Failed to start drive to pickup rideId={}", rideId, e);
             throw new RemoteException("Failed to start drive to pickup: " + e.getMessage(), e);
         }
     }
 
     @Override
     public boolean arrivedAtPickup(int rideId) throws RemoteException {
-        System.out.println("📍 arrivedAtPickup called - RideID: " + rideId);
+        log.debug("arrivedAtPickup rideId={}", rideId);
         
-        String sql = "UPDATE rides SET status = 'ARRIVED', updated_at = NOW() " +
-                    "WHERE id = ? AND status = 'DRIVER_EN_ROUTE'";
+        String sql = "WITH w AS (UPDATE rides SET status = 'ARRIVED', updated_at = NOW(), revision = revision + 1 " +
+                    "WHERE id = ? AND status = 'DRIVER_EN_ROUTE'" + RETURNING_WITH_RIDER;
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, rideId);
             
-            int result = pstmt.executeUpdate();
-            boolean success = result > 0;
+            boolean success = applyTransition(pstmt);
             
-            System.out.println("✅ Ride " + rideId + " " + (success ? "driver arrived at pickup" : "failed to update arrival - driver may not be en route"));
+            log.info("Arrived at pickup rideId={} success={}", rideId, success);
             return success;
             
         } catch (SQLException e) {
-            System.err.println("❌ Failed to update arrival at pickup for ride " + rideId + ": " + e.getMessage());
+            log.error("Failed to update arrival at pickup rideId={}", rideId, e);
             throw new RemoteException("Failed to update arrival at pickup: " + e.getMessage(), e);
         }
     }
 
     @Override
     public boolean startRideToDestination(int rideId) throws RemoteException {
-        System.out.println("🚗🎯 startRideToDestination called - RideID: " + rideId);
+        log.debug("startRideToDestination rideId={}", rideId);
         
-        String sql = "UPDATE rides SET status = 'IN_PROGRESS', started_at = NOW(), updated_at = NOW() " +
-                    "WHERE id = ? AND status = 'ARRIVED'";
+        String sql = "WITH w AS (UPDATE rides SET status = 'IN_PROGRESS', started_at = NOW(), updated_at = NOW(), revision = revision + 1 " +
+                    "WHERE id = ? AND status = 'ARRIVED'" + RETURNING_WITH_RIDER;
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, rideId);
             
-            int result = pstmt.executeUpdate();
-            boolean success = result > 0;
+            boolean success = applyTransition(pstmt);
             
-            System.out.println("✅ Ride " + rideId + " " + (success ? "started journey to destination" : "failed to start ride - driver may not have arrived"));
+            log.info("Ride to destination rideId={} success={}", rideId, success);
             return success;
             
         } catch (SQLException e) {
-            System.err.println("❌ Failed to start ride to destination for ride " + rideId + ": " + e.getMessage());
+            log.error("Failed to start ride to destination rideId={}", rideId, e);
             throw new RemoteException("Failed to start ride to destination: " + e.getMessage(), e);
         }
     }
 
     @Override
     public boolean completeRide(int rideId) throws RemoteException {
-        System.out.println("🏁 completeRide called - RideID: " + rideId);
+        log.debug("completeRide rideId={}", rideId);
         
-        String sql = "UPDATE rides SET status = 'COMPLETED', completed_at = NOW(), updated_at = NOW() " +
-                    "WHERE id = ? AND status = 'IN_PROGRESS'";
+        String sql = "WITH w AS (UPDATE rides SET status = 'COMPLETED', completed_at = NOW(), updated_at = NOW(), revision = revision + 1 " +
+                    "WHERE id = ? AND status = 'IN_PROGRESS'" + RETURNING_WITH_RIDER;
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, rideId);
             
-            int result = pstmt.executeUpdate();
-            boolean success = result > 0;
+            boolean success = applyTransition(pstmt);
             
-            System.out.println("✅ Ride " + rideId + " " + (success ? "completed successfully!" : "failed to complete - ride may not be in progress"));
+            log.info("Complete rideId={} success={}", rideId, success);
             return success;
             
         } catch (SQLException e) {
-            System.err.println("❌ Failed to complete ride " + rideId + ": " + e.getMessage());
+            log.error("Failed to complete ride rideId={}", rideId, e);
             throw new RemoteException("Failed to complete ride: " + e.getMessage(), e);
         }
     }
@@ -255,7 +412,9 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
     // real-time tracking
     @Override
     public boolean updateDriverLocation(int driverId, double lat, double lng) throws RemoteException {
-        System.out.println("📍 updateDriverLocation called with driverId=" + driverId + ", lat=" + lat + ", lng=" + lng);
+        if (log.isDebugEnabled() && DRIVER_LOCATION_SAMPLER.sample()) {
+            log.debug("updateDriverLocation driverId={} lat={} lng={}", driverId, lat, lng);
+        }
         
         // First verify the user is a driver
         String userCheckSql = "SELECT user_type FROM users WHERE id = ?";
@@ -266,17 +425,17 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
             ResultSet rs = userCheckPstmt.executeQuery();
             
             if (!rs.next()) {
-                System.err.println("❌ User with ID " + driverId + " not found");
+                log.warn("updateDriverLocation: user not found driverId={}", driverId);
                 return false;
             }
             
             String userType = rs.getString("user_type");
             if (!"DRIVER".equals(userType)) {
-                System.err.println("❌ User " + driverId + " is not a driver (type: " + userType + ")");
+                log.warn("updateDriverLocation: user is not a driver driverId={} type={}", driverId, userType);
                 return false;
             }
         } catch (SQLException e) {
-            System.err.println("❌ Failed to verify user type for driver " + driverId + ": " + e.getMessage());
+            log.error("Failed to verify user type driverId={}", driverId, e);
             throw new RemoteException("Failed to verify user type: " + e.getMessage(), e);
         }
         
@@ -295,7 +454,7 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
             
             // If no record exists, insert a new one
             if (result == 0) {
-                System.out.println("📍 No existing location record found for driver " + driverId + ", creating new one");
+                log.debug("No location row for driverId={}, inserting", driverId);
                 String insertSql = "INSERT INTO user_locations (user_id, latitude, longitude, is_online, last_updated) " +
                                   "VALUES (?, ?, ?, true, NOW())";
                 try (PreparedStatement insertPstmt = conn.prepareStatement(insertSql)) {
@@ -307,11 +466,20 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
             }
             
             boolean success = result > 0;
-            System.out.println("📍 Driver location update " + (success ? "successful" : "failed") + " for driver " + driverId);
+            if (success) {
+                heatmap.onDriverLocation(driverId, lat, lng, true);
+                presence.heartbeat(driverId, lat, lng);
+                long now = System.currentTimeMillis();
+                mapMatcher.submit(driverId, lat, lng, now);
+                ActiveRideCache.Entry active = activeRides.lookup(driverId);
+                if (active != null && active.ride != null && active.ride.getDriverId() == driverId) {
+                    trajectories.record(active.ride.getId(), lat, lng, now);
+                }
+            }
             return success;
             
         } catch (SQLException e) {
-            System.err.println("❌ Failed to update driver location for driver " + driverId + ": " + e.getMessage());
+            log.error("Failed to update driver location driverId={}", driverId, e);
             throw new RemoteException("Failed to update driver location: " + e.getMessage(), e);
         }
     }
@@ -319,14 +487,39 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
     // ride information
     @Override
     public Ride getCurrentRide(int userId) throws RemoteException {
-        System.out.println("ℹ️ getCurrentRide called for user " + userId);
-        
+        ActiveRideCache.Entry cached = activeRides.lookup(userId);
+        if (cached == null) {
+            cached = loadCurrentRide(userId);
+        }
+        return cached.ride;
+    }
+
+    @Override
+    public CurrentRideResult getCurrentRideIfChanged(int userId, long knownVersion) throws RemoteException {
+        ActiveRideCache.Entry cached = activeRides.lookup(userId);
+        if (cached == null) {
+            cached = loadCurrentRide(userId);
+        }
+        if (cached.version == knownVersion) {
+            return CurrentRideResult.notModified(cached.version);
+        }
+        return new CurrentRideResult(cached.version, true, cached.ride);
+    }
+
+    // Cache miss: probe the active-ride partial indexes once per side instead of OR + NOT IN over the whole table
+    private ActiveRideCache.Entry loadCurrentRide(int userId) throws RemoteException {
         String sql = "SELECT r.*, u.username as rider_username, u.phone as rider_phone " +
                     "FROM rides r " +
                     "LEFT JOIN users u ON r.rider_id = u.id " +
-                    "WHERE (r.rider_id = ? OR r.driver_id = ?) " +
-                    "AND r.status NOT IN ('COMPLETED', 'CANCELLED') " +
-                    "ORDER BY r.created_at DESC LIMIT 1";
+                    "WHERE r.id = (SELECT a.id FROM (" +
+                    "(SELECT id, created_at FROM rides WHERE rider_id = ? " +
+                    "AND status IN ('PENDING', 'ACCEPTED', 'DRIVER_EN_ROUTE', 'ARRIVED', 'IN_PROGRESS') " +
+                    "ORDER BY created_at DESC LIMIT 1) " +
+                    "UNION ALL " +
+                    "(SELECT id, created_at FROM rides WHERE driver_id = ? " +
+                    "AND status IN ('PENDING', 'ACCEPTED', 'DRIVER_EN_ROUTE', 'ARRIVED', 'IN_PROGRESS') " +
+                    "ORDER BY created_at DESC LIMIT 1)" +
+                    ") a ORDER BY a.created_at DESC LIMIT 1)";
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -337,25 +530,22 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     Ride currentRide = mapResultSetToRide(rs);
-                    System.out.println("ℹ️ Current ride found for user " + userId + ": ride ID " + currentRide.getId() + ", status " + currentRide.getStatus());
-                    return currentRide;
+                    log.debug("Current ride loaded userId={} rideId={} status={}", userId, currentRide.getId(), currentRide.getStatus());
+                    return activeRides.warm(userId, currentRide, rs.getLong("revision"));
                 } else {
-                    System.out.println("ℹ️ No current ride found for user " + userId);
+                    log.debug("No current ride userId={}", userId);
+                    return activeRides.warm(userId, null, 0);
                 }
             }
             
         } catch (SQLException e) {
-            System.err.println("❌ Failed to get current ride for user " + userId + ": " + e.getMessage());
+            log.error("Failed to get current ride userId={}", userId, e);
             throw new RemoteException("Failed to get current ride: " + e.getMessage(), e);
         }
-        
-        return null;
     }
 
     @Override
     public List<Ride> getRideHistory(int userId) throws RemoteException {
-        System.out.println("📜 getRideHistory called for user " + userId);
-        
         String sql = "SELECT r.*, u.username as rider_username, u.phone as rider_phone " +
                     "FROM rides r " +
                     "LEFT JOIN users u ON r.rider_id = u.id " +
@@ -376,10 +566,10 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
                 }
             }
             
-            System.out.println("📜 Retrieved " + rideHistory.size() + " rides from history for user " + userId);
+            log.debug("getRideHistory userId={} rides={}", userId, rideHistory.size());
             
         } catch (SQLException e) {
-            System.err.println("❌ Failed to get ride history for user " + userId + ": " + e.getMessage());
+            log.error("Failed to get ride history userId={}", userId, e);
             throw new RemoteException("Failed to get ride history: " + e.getMessage(), e);
         }
         
@@ -389,8 +579,6 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
     // ride status checking
     @Override
     public String getRideStatus(int rideId) throws RemoteException {
-        System.out.println("🔍 getRideStatus called for ride " + rideId);
-        
         String sql = "SELECT status FROM rides WHERE id = ?";
 
         try (Connection conn = dbConfig.getConnection();
@@ -401,25 +589,88 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
                     String status = rs.getString("status");
-                    System.out.println("🔍 Status for ride " + rideId + ": " + status);
                     return status;
                 } else {
-                    System.out.println("🔍 Ride " + rideId + " not found");
+                    log.debug("getRideStatus: ride not found rideId={}", rideId);
                 }
             }
             
         } catch (SQLException e) {
-            System.err.println("❌ Failed to get ride status for ride " + rideId + ": " + e.getMessage());
+            log.error("Failed to get ride status rideId={}", rideId, e);
             throw new RemoteException("Failed to get ride status: " + e.getMessage(), e);
         }
         
         return null;
     }
 
+    // ride offer subscriptions
+    @Override
+    public int subscribeRideOffers(RideOfferListener listener, double lat, double lng, double radiusKm) throws RemoteException {
+        if (listener == null) {
+            throw new RemoteException("Ride offer listener must not be null");
+        }
+        return offerBroadcaster.subscribe(listener, lat, lng, radiusKm);
+    }
+
+    @Override
+    public boolean updateRideOfferArea(int subscriptionId, double lat, double lng, double radiusKm) throws RemoteException {
+        return offerBroadcaster.updateArea(subscriptionId, lat, lng, radiusKm);
+    }
+
+    @Override
+    public boolean unsubscribeRideOffers(int subscriptionId) throws RemoteException {
+        return offerBroadcaster.unsubscribe(subscriptionId);
+    }
+
+    // supply and demand
+    @Override
+    public List<CellSupplyDemand> getSupplyDemand(double minLat, double minLng, double maxLat, double maxLng) throws RemoteException {
+        return heatmap.snapshot(minLat, minLng, maxLat, maxLng);
+    }
+
+    // fare quotes
+    @Override
+    public FareQuote getFareQuote(double pickupLat, double pickupLng, double destLat, double destLng) throws RemoteException {
+        return fareQuotes.quote(pickupLat, pickupLng, destLat, destLng);
+    }
+
+    // trip replay
+    @Override
+    public RideTrajectory getRideTrajectory(int rideId) throws RemoteException {
+        try {
+            return trajectories.load(rideId);
+        } catch (SQLException e) {
+            log.error("Failed to get ride trajectory rideId={}", rideId, e);
+            throw new RemoteException("Failed to get ride trajectory: " + e.getMessage(), e);
+        }
+    }
+
+    // Runs a status UPDATE wrapped with RETURNING_WITH_RIDER and records the new state in the active-ride cache and heatmap
+    private boolean applyTransition(PreparedStatement pstmt) throws SQLException {
+        try (ResultSet rs = pstmt.executeQuery()) {
+            if (!rs.next()) {
+                return false;
+            }
+            Ride ride = mapResultSetToRide(rs);
+            activeRides.put(ride, rs.getLong("revision"));
+            heatmap.onRideTransition(ride);
+            if (ride.getStatus() == Ride.Status.ACCEPTED || ride.getStatus() == Ride.Status.CANCELLED) {
+                // No longer pending: only the shared scans around its pickup are out of date
+                pendingRides.invalidate(ride.getPickupLatitude(), ride.getPickupLongitude());
+            }
+            if (ride.getStatus() == Ride.Status.ACCEPTED) {
+                trajectories.start(ride.getId());
+                mapMatcher.start(ride.getDriverId());
+            } else if (ride.getStatus() == Ride.Status.COMPLETED || ride.getStatus() == Ride.Status.CANCELLED) {
+                trajectories.finish(ride.getId());
+                mapMatcher.stop(ride.getDriverId());
+            }
+            return true;
+        }
+    }
+
     // Helper method to map ResultSet to Ride object
     private Ride mapResultSetToRide(ResultSet rs) throws SQLException {
-        System.out.println("🔧 mapResultSetToRide called - mapping database row to Ride object");
-        
         Ride ride = new Ride();
         ride.setId(rs.getInt("id"));
         ride.setRiderId(rs.getInt("rider_id"));
@@ -437,7 +688,6 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
             ride.setRiderPhone(rs.getString("rider_phone"));
         } catch (SQLException e) {
             // These fields might not be available in all queries, so ignore if not found
-            System.out.println("ℹ️ Rider username/phone not available in this query result");
         }
         
         // Convert status string to enum
@@ -446,7 +696,7 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
             try {
                 ride.setStatus(Ride.Status.valueOf(statusStr));
             } catch (IllegalArgumentException e) {
-                System.err.println("⚠️ Invalid ride status found: " + statusStr + ", defaulting to PENDING");
+                log.warn("Invalid ride status {} on rideId={}, defaulting to PENDING", statusStr, ride.getId());
                 ride.setStatus(Ride.Status.PENDING); // Default fallback
             }
         }
@@ -456,8 +706,10 @@ public class RideServiceImpl extends UnicastRemoteObject implements RideService
         ride.setAcceptedAt(rs.getTimestamp("accepted_at"));
         ride.setStartedAt(rs.getTimestamp("started_at"));
         ride.setCompletedAt(rs.getTimestamp("completed_at"));
-        
-        System.out.println("🔧 Successfully mapped ride ID " + ride.getId() + " with status " + ride.getStatus());
+        ride.setFareAmount(rs.getDouble("fare_amount"));
+        ride.setFareCurrency(rs.getString("fare_currency"));
+        ride.setSurgeMultiplier(rs.getDouble("surge_multiplier"));
+
         return ride;
     }
 }
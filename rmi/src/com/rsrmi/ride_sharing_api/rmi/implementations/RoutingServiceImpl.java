@@ -0,0 +1,39 @@
+package com.rsrmi.ride_sharing_api.rmi.implementations;
+
+import com.rsrmi.ride_sharing_api.rmi.interfaces.RoutingService;
+import com.rsrmi.ride_sharing_api.rmi.models.DriverEta;
+import com.rsrmi.ride_sharing_api.rmi.models.RouteEstimate;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
+import com.rsrmi.ride_sharing_api.rmi.routing.RoutingEngine;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RoutingServiceImpl extends UnicastRemoteObject implements RoutingService {
+
+    private final RoutingEngine engine;
+
+    public RoutingServiceImpl() throws RemoteException {
+        super();
+        this.engine = RoutingEngine.getInstance();
+    }
+
+    @Override
+    public RouteEstimate getRouteEstimate(double fromLat, double fromLng, double toLat, double toLng) throws RemoteException {
+        return engine.estimate(fromLat, fromLng, toLat, toLng);
+    }
+
+    @Override
+    public List<DriverEta> getDriverEtas(List<UserLocation> candidates, double pickupLat, double pickupLng, double horizonSeconds) throws RemoteException {
+        if (candidates == null || candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return engine.estimateToPickup(candidates, pickupLat, pickupLng, horizonSeconds);
+    }
+
+    @Override
+    public boolean isRoadNetworkLoaded() throws RemoteException {
+        return engine.hasRoadNetwork();
+    }
+}
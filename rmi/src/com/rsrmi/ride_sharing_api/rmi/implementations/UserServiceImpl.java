@@ -1,9 +1,14 @@
 package com.rsrmi.ride_sharing_api.rmi.implementations;
 
+import com.rsrmi.ride_sharing_api.rmi.auth.PasswordHasher;
+import com.rsrmi.ride_sharing_api.rmi.cache.UserExistenceFilter;
 import com.rsrmi.ride_sharing_api.rmi.interfaces.UserService;
 import com.rsrmi.ride_sharing_api.rmi.models.User;
 import com.rsrmi.ride_sharing_api.rmi.config.DatabaseConfig;
+import com.rsrmi.ride_sharing_api.rmi.logging.Redact;
 import java.rmi.RemoteException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.rmi.server.UnicastRemoteObject;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -14,33 +19,46 @@ import java.sql.SQLException;
  * Implementation of UserService interface using DB
  */
 public class UserServiceImpl extends UnicastRemoteObject implements UserService {
+    private static final Logger log = LoggerFactory.getLogger(UserServiceImpl.class);
+
+    private final DatabaseConfig dbConfig;
+    private final UserExistenceFilter existence;
+    private final PasswordHasher passwords;
+
     /**
      * Constructor - must call super() and handle RemoteException
      * @throws RemoteException Required for RMI
      */
     public UserServiceImpl() throws RemoteException {
-        super();
         // DB tables are initialized by DatabaseConfig singleton
-        DatabaseConfig.getInstance();
+        this(DatabaseConfig.getInstance(), UserExistenceFilter.getInstance(), PasswordHasher.getInstance());
+    }
+
+    UserServiceImpl(DatabaseConfig dbConfig, UserExistenceFilter existence, PasswordHasher passwords) throws RemoteException {
+        super();
+        this.dbConfig = dbConfig;
+        this.existence = existence;
+        this.passwords = passwords;
         
-        System.out.println("UserService implementation initialized successfully");
+        log.info("UserService implementation initialized");
     }
 
     @Override
     public boolean registerUser(User user) throws RemoteException {
         String sql;
         if (user.getUserType() == User.UserType.DRIVER) {
-            System.out.println("car " + user.getCarType() + " lic " + user.getLicenseNumber());
             sql = "INSERT INTO users (username, phone, password, user_type, car_type, license_number) VALUES (?, ?, ?, ?, ?, ?)";
         } else {
             sql = "INSERT INTO users (username, phone, password, user_type) VALUES (?, ?, ?, ?)";
         }
+        // Hashed before a connection is taken, so the slow part doesn't hold one
+        String passwordHash = passwords.hash(user.getPassword());
         
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+        try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, user.getUsername());
             stmt.setString(2, user.getPhone());
-            stmt.setString(3, user.getPassword());
+            stmt.setString(3, passwordHash);
             stmt.setString(4, user.getUserType().toString());
             
             if (user.getUserType() == User.UserType.DRIVER) {
@@ -49,45 +67,80 @@ public class UserServiceImpl extends UnicastRemoteObject implements UserService
             }
             
             stmt.executeUpdate();
-            System.out.println("✅ User registered successfully: " + user.getUsername());
+            existence.add(user.getUsername(), user.getPhone());
+            log.info("User registered username={} type={}", user.getUsername(), user.getUserType());
             return true;
         } catch (SQLException e) {
-            System.err.println("Registration failed: " + e.getMessage());
+            log.warn("Registration failed username={} phone={}: {}", user.getUsername(), Redact.phone(user.getPhone()), e.getMessage());
             return false;
         }
     }
 
     @Override
     public User loginUser(String phone, String password) throws RemoteException {
-        String sql = "SELECT id, username, phone, user_type, car_type, license_number FROM users WHERE phone = ? AND password = ?";
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+        String sql = "SELECT id, username, phone, password, user_type, car_type, license_number FROM users WHERE phone = ?";
+        User user = null;
+        String stored = null;
+        try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, phone);
-            stmt.setString(2, password);
             ResultSet rs = stmt.executeQuery();
-            System.out.println("phone is " + phone + " password is " + password);
             if (rs.next()) {
-                User user = new User();
+                user = new User();
                 user.setId(rs.getInt("id"));
                 user.setUsername(rs.getString("username"));
                 user.setPhone(rs.getString("phone"));
                 user.setUserType(User.UserType.valueOf(rs.getString("user_type")));
+                stored = rs.getString("password");
                 
                 // Set driver-specific fields if user is a driver
                 if (user.getUserType() == User.UserType.DRIVER) {
                     user.setCarType(rs.getString("car_type"));
                     user.setLicenseNumber(rs.getString("license_number"));
                 }
-                
-                System.out.println("✅ Login successful: " + phone);
-                return user;
             }
-            System.out.println("Login failed: Invalid phone or password");
-            return null;
         } catch (SQLException e) {
-            System.err.println("Login failed: " + e.getMessage());
+            log.error("Login failed phone={}", Redact.phone(phone), e);
+            return null;
+        }
+
+        // Verified after the connection is back in the pool, on the hashing executor. An unknown
+        // phone costs the same hash, so timing does not tell which phones are registered.
+        if (user == null) {
+            passwords.verifyAbsent(password);
+            log.info("Login failed phone={}", Redact.phone(phone));
+            return null;
+        }
+        if (!passwords.verify(password, stored)) {
+            log.info("Login failed phone={}", Redact.phone(phone));
             return null;
         }
+        if (passwords.needsRehash(stored)) {
+            rehash(user.getId(), password, stored);
+        }
+        log.info("Login successful userId={}", user.getId());
+        return user;
+    }
+
+    /**
+     * Replaces a plaintext or outdated password with a current hash, unless it changed meanwhile.
+     * Best effort: the login has already succeeded, and the next one will try again.
+     */
+    private void rehash(int id, String password, String stored) {
+        try {
+            String passwordHash = passwords.hash(password);
+            try (Connection conn = dbConfig.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement("UPDATE users SET password = ? WHERE id = ? AND password = ?")) {
+                stmt.setString(1, passwordHash);
+                stmt.setInt(2, id);
+                stmt.setString(3, stored);
+                if (stmt.executeUpdate() > 0) {
+                    log.info("Password rehashed userId={}", id);
+                }
+            }
+        } catch (RemoteException | SQLException e) {
+            log.warn("Password rehash skipped userId={}: {}", id, e.getMessage());
+        }
     }
 
     @Override
@@ -99,7 +152,8 @@ public class UserServiceImpl extends UnicastRemoteObject implements UserService
             sql = "UPDATE users SET username = ?, phone = ? WHERE id = ?";
         }
         
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+        int rows;
+        try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, user.getUsername());
             stmt.setString(2, user.getPhone());
@@ -112,62 +166,75 @@ public class UserServiceImpl extends UnicastRemoteObject implements UserService
                 stmt.setInt(3, id);
             }
             
-            int rows = stmt.executeUpdate();
-            if (rows > 0) {
-                System.out.println("✅ User updated successfully : " + user.getUsername());
-                return getUserById(id);
-            } else {
-                return null;
-            }
+            rows = stmt.executeUpdate();
         } catch (SQLException e) {
-            System.err.println("Update failed: " + e.getMessage());
+            log.warn("Update failed userId={}: {}", id, e.getMessage());
+            return null;
+        }
+        if (rows == 0) {
             return null;
         }
+        existence.add(user.getUsername(), user.getPhone());
+        existence.markStale(); // the old username or phone may be free now
+        log.info("User updated userId={}", id);
+        // Read back once the update's connection is closed; a thread holds one at a time
+        return getUserById(id);
     }
 
     @Override
     public boolean deleteUser(int id) throws RemoteException {
         String sql = "DELETE FROM users WHERE id = ?";
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+        try (Connection conn = dbConfig.getConnection();
             PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, id);
                 int rows = stmt.executeUpdate();
                 if (rows > 0) {
-                    System.out.println("✅ User deleted successfully ");
+                    existence.markStale();
+                    log.info("User deleted userId={}", id);
                     return true;
                 } else {
                     return false;
                 }
         } catch (SQLException e) {
-            System.err.println("Delete failed: " + e.getMessage());
+            log.error("Delete failed userId={}", id, e);
             return false;
         }
     }
 
     @Override
     public boolean isPhoneExists(String phone) throws RemoteException {
+        if (phone == null || !existence.mightHavePhone(phone)) {
+            return false;
+        }
         String sql = "SELECT 1 FROM users WHERE phone = ?";
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+        try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, phone);
             ResultSet rs = stmt.executeQuery();
-            return rs.next();
+            boolean exists = rs.next();
+            existence.recordLookup(exists);
+            return exists;
         } catch (SQLException e) {
-            System.err.println("Phone existence check failed: " + e.getMessage());
+            log.error("Phone existence check failed", e);
             return false;
         }
     }
 
     @Override
     public boolean isUsernameExists(String username) throws RemoteException {
+        if (username == null || !existence.mightHaveUsername(username)) {
+            return false;
+        }
         String sql = "SELECT 1 FROM users WHERE username = ?";
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+        try (Connection conn = dbConfig.getConnection();
             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
-            return rs.next();
+            boolean exists = rs.next();
+            existence.recordLookup(exists);
+            return exists;
         } catch (SQLException e) {
-            System.err.println("Username existence check failed: " + e.getMessage());
+            log.error("Username existence check failed", e);
             return false;
         }
     }
@@ -175,7 +242,7 @@ public class UserServiceImpl extends UnicastRemoteObject implements UserService
     @Override
     public User getUserById(int id) throws RemoteException {
         String sql = "SELECT id, username, phone, password, user_type, car_type, license_number FROM users WHERE id = ?";
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+        try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
@@ -197,7 +264,7 @@ public class UserServiceImpl extends UnicastRemoteObject implements UserService
             }
             return null;
         } catch (SQLException e) {
-            System.err.println("getUserById failed: " + e.getMessage());
+            log.error("getUserById failed userId={}", id, e);
             return null;
         }
     }
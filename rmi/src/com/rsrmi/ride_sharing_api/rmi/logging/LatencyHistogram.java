@@ -0,0 +1,89 @@
+package com.rsrmi.ride_sharing_api.rmi.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram for stage timings that are logged rather than graphed.
+ *
+ * Values are in microseconds, exact below 16 and above that in eight buckets per power of two,
+ * so percentiles are within about 12% and recording is a single atomic increment.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR = 16;
+    private static final int SUB_BUCKETS = 8;
+
+    private final AtomicLongArray counts = new AtomicLongArray(LINEAR + (64 - 4) * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(index(micros));
+        count.increment();
+        sumMicros.add(micros);
+        long max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+            max = maxMicros.get();
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sumMicros.sum() / n;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     * @return the lower bound of the bucket holding that quantile, 0 when empty
+     */
+    public long percentileMicros(double quantile) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return lowerBound(i);
+            }
+        }
+        return maxMicros.get();
+    }
+
+    public String summary() {
+        return String.format("n=%d p50=%dus p99=%dus max=%dus", getCount(), percentileMicros(0.5),
+            percentileMicros(0.99), getMaxMicros());
+    }
+
+    private static int index(long micros) {
+        if (micros < LINEAR) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) ((micros >>> (exponent - 3)) & (SUB_BUCKETS - 1));
+        return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    private static long lowerBound(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exponent = (index - LINEAR) / SUB_BUCKETS + 4;
+        int sub = (index - LINEAR) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - 3);
+    }
+}
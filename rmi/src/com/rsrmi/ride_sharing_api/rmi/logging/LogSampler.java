@@ -0,0 +1,32 @@
+package com.rsrmi.ride_sharing_api.rmi.logging;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets one in every N hot-path calls through to debug logging. Callers should check
+ * {@code log.isDebugEnabled()} first so the counter is never touched in production.
+ */
+public final class LogSampler {
+
+    private static final int DEFAULT_RATE = EnvConfig.getInt("RMI_LOG_SAMPLE_EVERY", 100);
+
+    private final int every;
+    private final AtomicLong counter = new AtomicLong();
+
+    private LogSampler(int every) {
+        this.every = Math.max(1, every);
+    }
+
+    public static LogSampler everyN(int every) {
+        return new LogSampler(every);
+    }
+
+    public static LogSampler withDefaultRate() {
+        return new LogSampler(DEFAULT_RATE);
+    }
+
+    public boolean sample() {
+        return counter.getAndIncrement() % every == 0;
+    }
+}
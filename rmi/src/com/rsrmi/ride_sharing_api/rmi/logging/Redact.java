@@ -0,0 +1,23 @@
+package com.rsrmi.ride_sharing_api.rmi.logging;
+
+/**
+ * Masks personal data before it reaches a log line. Passwords are never logged at all.
+ */
+public final class Redact {
+
+    private Redact() {
+    }
+
+    // Keep the last three digits so support can still correlate a line with a user
+    public static String phone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        int keep = Math.min(3, phone.length());
+        StringBuilder masked = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length() - keep; i++) {
+            masked.append('*');
+        }
+        return masked.append(phone, phone.length() - keep, phone.length()).toString();
+    }
+}
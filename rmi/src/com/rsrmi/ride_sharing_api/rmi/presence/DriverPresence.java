@@ -0,0 +1,496 @@
+package com.rsrmi.ride_sharing_api.rmi.presence;
+
+import com.rsrmi.ride_sharing_api.rmi.config.DatabaseConfig;
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import com.rsrmi.ride_sharing_api.rmi.heatmap.GeoHash;
+import com.rsrmi.ride_sharing_api.rmi.heatmap.SupplyDemandHeatmap;
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import com.rsrmi.ride_sharing_api.rmi.models.PredictedPosition;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Which drivers are actually online, judged by how recently they were heard from rather than by
+ * the is_online flag a client last sent.
+ *
+ * A heartbeat is a volatile write on the driver's entry. Expiry runs on one ticker thread over a
+ * hashed timer wheel with one slot per tick: an entry sits in the slot of the deadline it had
+ * when it was last checked, and when that slot comes round it is either re-filed under its new
+ * deadline or expired. Heartbeats therefore never touch the wheel. Online/offline flips are
+ * written to user_locations in one batched UPDATE per flush interval.
+ *
+ * Each entry also carries a {@link MotionState}, so a driver's position at any moment can be
+ * predicted from memory between their pings, and is filed under the geohash cell of its last
+ * position (PRESENCE_GEOHASH_PRECISION, about 5 km at the default 5), so a radius query only
+ * visits the drivers in the cells around the point.
+ *
+ * Every change is also journaled to a {@link PresenceStore} in PRESENCE_SNAPSHOT_DIR, which is
+ * compacted into a snapshot every PRESENCE_SNAPSHOT_SECONDS. On startup the drivers that were
+ * online come back from there, within the timeout, instead of the map starting empty; the ones
+ * that timed out meanwhile are flipped offline. Only ids that are still drivers in the users
+ * table come back, and nothing does if startup recreated the schema, since its ids restart and
+ * would name other users. A blank PRESENCE_SNAPSHOT_DIR turns this off.
+ */
+public class DriverPresence {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverPresence.class);
+
+    private static final long TIMEOUT_MILLIS = EnvConfig.getLong("PRESENCE_TIMEOUT_SECONDS", 90) * 1000;
+    private static final long TICK_MILLIS = EnvConfig.getLong("PRESENCE_TICK_MS", 1000);
+    private static final long FLUSH_MILLIS = EnvConfig.getLong("PRESENCE_FLUSH_MS", 2000);
+    private static final String SNAPSHOT_DIR = EnvConfig.getString("PRESENCE_SNAPSHOT_DIR", "data/presence");
+    private static final long SNAPSHOT_MILLIS = EnvConfig.getLong("PRESENCE_SNAPSHOT_SECONDS", 30) * 1000;
+    private static final int JOURNAL_RECORDS = EnvConfig.getInt("PRESENCE_JOURNAL_RECORDS", 262_144);
+    private static final int CELL_PRECISION = EnvConfig.getInt("PRESENCE_GEOHASH_PRECISION", 5);
+
+    private static DriverPresence instance;
+
+    private final Map<Integer, Entry> live = new ConcurrentHashMap<>();
+    // geohash -> live entries last seen in that cell; a cell is dropped when its last entry leaves
+    private final Map<String, Set<Entry>> cells = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> arrivals = new ConcurrentLinkedQueue<>();
+    // driverId -> is_online still to be written; a later flip for the same driver replaces an earlier one
+    private final Map<Integer, Boolean> pendingFlips = new ConcurrentHashMap<>();
+    private final SupplyDemandHeatmap heatmap;
+    private final DatabaseConfig dbConfig;
+    private final PresenceStore store; // null when snapshots are off or the directory failed
+
+    // Wheel state below is only touched by the ticker thread
+    private final ArrayDeque<Entry>[] wheel;
+    private long lastTick;
+    private long lastFlush;
+    private long lastSnapshot;
+
+    private DriverPresence() {
+        this.heatmap = SupplyDemandHeatmap.getInstance();
+        this.dbConfig = DatabaseConfig.getInstance();
+        // A deadline is never more than one timeout ahead, so one turn of the wheel covers it
+        int slots = (int) ((TIMEOUT_MILLIS + TICK_MILLIS - 1) / TICK_MILLIS) + 2;
+        @SuppressWarnings("unchecked")
+        ArrayDeque<Entry>[] slotQueues = (ArrayDeque<Entry>[]) new ArrayDeque<?>[slots];
+        for (int i = 0; i < slots; i++) {
+            slotQueues[i] = new ArrayDeque<>();
+        }
+        this.wheel = slotQueues;
+        long now = System.currentTimeMillis();
+        this.lastTick = now / TICK_MILLIS;
+        this.lastFlush = now;
+        this.lastSnapshot = now;
+        this.store = openStore();
+
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "driver-presence");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+        log.info("Driver presence timeoutSeconds={} tickMs={} flushMs={}", TIMEOUT_MILLIS / 1000, TICK_MILLIS, FLUSH_MILLIS);
+    }
+
+    private PresenceStore openStore() {
+        if (SNAPSHOT_DIR.isBlank()) {
+            return null;
+        }
+        try {
+            PresenceStore opened = new PresenceStore(Path.of(SNAPSHOT_DIR), JOURNAL_RECORDS);
+            restore(opened);
+            // Folds the journals just replayed into a snapshot and starts a fresh one
+            opened.snapshot(this::snapshotRecords);
+            return opened;
+        } catch (IOException | SQLException | RuntimeException e) {
+            log.warn("Driver presence snapshots disabled, starting empty: {}", e.getMessage());
+            live.clear();
+            cells.clear();
+            arrivals.clear();
+            pendingFlips.clear();
+            return null;
+        }
+    }
+
+    private void restore(PresenceStore opened) throws IOException, SQLException {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        Map<Integer, PresenceStore.Record> recovered = opened.recover();
+        if (dbConfig.isSchemaRecreated()) {
+            log.info("Driver presence not restored, the schema was recreated at startup saved={}", recovered.size());
+            return;
+        }
+        int stored = recovered.size();
+        recovered.keySet().retainAll(drivers(recovered.keySet()));
+        int expired = 0;
+        for (PresenceStore.Record saved : recovered.values()) {
+            if (saved.lastSeen + TIMEOUT_MILLIS <= now) {
+                pendingFlips.put(saved.driverId, Boolean.FALSE);
+                expired++;
+                continue;
+            }
+            Entry entry = new Entry(saved.driverId, saved.latitude, saved.longitude, saved.lastSeen);
+            entry.motion = MotionState.first(saved.latitude, saved.longitude, saved.positionTime);
+            live.put(saved.driverId, entry);
+            place(entry, saved.latitude, saved.longitude);
+            arrivals.add(entry);
+            // The last flip may not have reached the database before the restart
+            pendingFlips.put(saved.driverId, Boolean.TRUE);
+        }
+        log.info("Driver presence restored online={} expired={} dropped={} ms={}", live.size(), expired,
+            stored - recovered.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // The ids among these that are drivers in the users table
+    private Set<Integer> drivers(Collection<Integer> ids) throws SQLException {
+        Set<Integer> drivers = new HashSet<>();
+        if (ids.isEmpty()) {
+            return drivers;
+        }
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT id FROM users WHERE id = ANY(?) AND user_type = 'DRIVER'")) {
+            stmt.setArray(1, conn.createArrayOf("integer", ids.toArray()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    drivers.add(rs.getInt("id"));
+                }
+            }
+        }
+        return drivers;
+    }
+
+    private List<PresenceStore.Record> snapshotRecords() {
+        List<PresenceStore.Record> records = new ArrayList<>(live.size());
+        for (Entry entry : live.values()) {
+            records.add(new PresenceStore.Record(entry.driverId, entry.latitude, entry.longitude, entry.lastSeen, entry.motion.time));
+        }
+        return records;
+    }
+
+    private void journal(int kind, int driverId, double latitude, double longitude, long time) {
+        if (store != null) {
+            store.append(kind, driverId, latitude, longitude, time);
+        }
+    }
+
+    public static synchronized DriverPresence getInstance() {
+        if (instance == null) {
+            instance = new DriverPresence();
+        }
+        return instance;
+    }
+
+    /**
+     * A location update from a driver. Brings the driver online if they were not.
+     */
+    public void heartbeat(int driverId, double latitude, double longitude) {
+        long now = System.currentTimeMillis();
+        Entry entry = live.get(driverId);
+        if (entry != null) {
+            entry.latitude = latitude;
+            entry.longitude = longitude;
+            entry.lastSeen = now;
+            // Two pings from one driver racing here is rare and costs one velocity sample
+            entry.motion = entry.motion.next(latitude, longitude, now);
+            place(entry, latitude, longitude);
+            journal(PresenceStore.HEARTBEAT, driverId, latitude, longitude, now);
+            return;
+        }
+        Entry fresh = new Entry(driverId, latitude, longitude, now);
+        entry = live.putIfAbsent(driverId, fresh);
+        if (entry == null) {
+            place(fresh, latitude, longitude);
+            arrivals.add(fresh);
+            pendingFlips.put(driverId, Boolean.TRUE);
+        } else {
+            entry.latitude = latitude;
+            entry.longitude = longitude;
+            entry.lastSeen = now;
+            entry.motion = entry.motion.next(latitude, longitude, now);
+            place(entry, latitude, longitude);
+        }
+        journal(PresenceStore.HEARTBEAT, driverId, latitude, longitude, now);
+    }
+
+    /**
+     * A keep-alive without a position. Only an online driver can be kept alive this way.
+     *
+     * @return false when the driver has expired or never came online, and must send a location
+     */
+    public boolean touch(int driverId) {
+        Entry entry = live.get(driverId);
+        if (entry == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        entry.lastSeen = now;
+        journal(PresenceStore.TOUCH, driverId, 0, 0, now);
+        return true;
+    }
+
+    /**
+     * The driver went offline through a write that already stored is_online = false.
+     */
+    public void offline(int driverId) {
+        Entry entry = live.remove(driverId);
+        if (entry != null) {
+            entry.gone = true;
+            unplace(entry);
+            pendingFlips.remove(driverId);
+            journal(PresenceStore.OFFLINE, driverId, 0, 0, System.currentTimeMillis());
+        }
+    }
+
+    public boolean isOnline(int driverId) {
+        return live.containsKey(driverId);
+    }
+
+    /**
+     * Dead-reckoned position of an online driver at {@code atMillis}, answered from memory.
+     *
+     * @return null when the driver is not online
+     */
+    public PredictedPosition predict(int driverId, long atMillis) {
+        Entry entry = live.get(driverId);
+        if (entry == null) {
+            return null;
+        }
+        MotionState motion = entry.motion;
+        double[] position = motion.positionAt(atMillis);
+        return new PredictedPosition(driverId, position[0], position[1], atMillis, motion.time,
+            motion.offsetMillis(atMillis), motion.speedMps(), motion.headingDegrees());
+    }
+
+    public int getOnlineCount() {
+        return live.size();
+    }
+
+    /**
+     * Ids of online drivers whose last reported position is within radiusKm. Visits the geohash
+     * cells overlapping the radius' bounding box, or every cell when that box spans more cells
+     * than are occupied.
+     */
+    public List<Integer> onlineWithin(double latitude, double longitude, double radiusKm) {
+        double dLat = radiusKm / 111.32;
+        double dLng = radiusKm / (111.32 * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+        double minLat = Math.max(-90, latitude - dLat);
+        double maxLat = Math.min(90, latitude + dLat);
+        double minLng = Math.max(-180, longitude - dLng);
+        double maxLng = Math.min(180, longitude + dLng);
+        // Cells of one precision form a regular grid; start from the one holding the box's corner
+        double[] corner = GeoHash.bounds(GeoHash.encode(minLat, minLng, CELL_PRECISION));
+        double cellLat = corner[2] - corner[0];
+        double cellLng = corner[3] - corner[1];
+        long rows = (long) Math.ceil((maxLat - corner[0]) / cellLat);
+        long columns = (long) Math.ceil((maxLng - corner[1]) / cellLng);
+
+        List<Integer> ids = new ArrayList<>();
+        if (rows * columns > cells.size()) {
+            for (Set<Entry> members : cells.values()) {
+                collect(members, latitude, longitude, radiusKm, ids);
+            }
+            return ids;
+        }
+        for (long row = 0; row < rows; row++) {
+            double cellCenterLat = corner[0] + (row + 0.5) * cellLat;
+            for (long column = 0; column < columns; column++) {
+                Set<Entry> members = cells.get(GeoHash.encode(cellCenterLat, corner[1] + (column + 0.5) * cellLng, CELL_PRECISION));
+                if (members != null) {
+                    collect(members, latitude, longitude, radiusKm, ids);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void collect(Set<Entry> members, double latitude, double longitude, double radiusKm, List<Integer> ids) {
+        for (Entry entry : members) {
+            if (!entry.gone && LocationServiceImpl.haversine(latitude, longitude, entry.latitude, entry.longitude) <= radiusKm) {
+                ids.add(entry.driverId);
+            }
+        }
+    }
+
+    // Files the entry under the cell of its new position, if that changed
+    private void place(Entry entry, double latitude, double longitude) {
+        String cell = GeoHash.encode(latitude, longitude, CELL_PRECISION);
+        String previous = entry.cell;
+        if (cell.equals(previous)) {
+            return;
+        }
+        entry.cell = cell;
+        cells.compute(cell, (key, members) -> {
+            Set<Entry> updated = members != null ? members : ConcurrentHashMap.newKeySet();
+            updated.add(entry);
+            return updated;
+        });
+        if (previous != null) {
+            leave(previous, entry);
+        }
+        // A ping that raced the driver going offline must not leave them filed
+        if (entry.gone) {
+            unplace(entry);
+        }
+    }
+
+    private void unplace(Entry entry) {
+        String cell = entry.cell;
+        if (cell != null) {
+            leave(cell, entry);
+        }
+    }
+
+    private void leave(String cell, Entry entry) {
+        cells.computeIfPresent(cell, (key, members) -> {
+            members.remove(entry);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            Entry arrived;
+            while ((arrived = arrivals.poll()) != null) {
+                file(arrived);
+            }
+            long currentTick = now / TICK_MILLIS;
+            // After a stall, one full turn visits every slot
+            long firstTick = Math.max(lastTick + 1, currentTick - wheel.length + 1);
+            int expired = 0;
+            for (long t = firstTick; t <= currentTick; t++) {
+                expired += expireSlot(wheel[(int) (t % wheel.length)], now);
+            }
+            lastTick = currentTick;
+            if (expired > 0) {
+                log.debug("Driver presence expired={} online={}", expired, live.size());
+            }
+            if (now - lastFlush >= FLUSH_MILLIS) {
+                lastFlush = now;
+                flush();
+            }
+            if (store != null && (now - lastSnapshot >= SNAPSHOT_MILLIS || store.journalFill() > 0.75)) {
+                lastSnapshot = now;
+                snapshot();
+            }
+        } catch (RuntimeException e) {
+            log.error("Driver presence tick failed", e);
+        }
+    }
+
+    private void snapshot() {
+        long start = System.nanoTime();
+        try {
+            store.snapshot(this::snapshotRecords);
+            log.debug("Driver presence snapshot online={} ms={}", live.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Driver presence snapshot failed, journal kept: {}", e.getMessage());
+        }
+    }
+
+    private int expireSlot(ArrayDeque<Entry> slot, long now) {
+        int expired = 0;
+        for (int n = slot.size(); n > 0; n--) {
+            Entry entry = slot.poll();
+            if (entry.gone) {
+                continue;
+            }
+            if (entry.lastSeen + TIMEOUT_MILLIS > now) {
+                file(entry);
+                continue;
+            }
+            if (!live.remove(entry.driverId, entry)) {
+                continue;
+            }
+            // A heartbeat may have landed between the check and the remove
+            if (entry.lastSeen + TIMEOUT_MILLIS > now && live.putIfAbsent(entry.driverId, entry) == null) {
+                file(entry);
+                continue;
+            }
+            entry.gone = true;
+            unplace(entry);
+            pendingFlips.put(entry.driverId, Boolean.FALSE);
+            journal(PresenceStore.OFFLINE, entry.driverId, 0, 0, now);
+            heatmap.driverOffline(entry.driverId);
+            expired++;
+        }
+        return expired;
+    }
+
+    private void file(Entry entry) {
+        long deadlineTick = (entry.lastSeen + TIMEOUT_MILLIS) / TICK_MILLIS + 1;
+        wheel[(int) (Math.max(deadlineTick, lastTick + 1) % wheel.length)].add(entry);
+    }
+
+    private void flush() {
+        if (pendingFlips.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>();
+        List<Boolean> online = new ArrayList<>();
+        for (Map.Entry<Integer, Boolean> flip : pendingFlips.entrySet()) {
+            if (pendingFlips.remove(flip.getKey(), flip.getValue())) {
+                ids.add(flip.getKey());
+                online.add(flip.getValue());
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE user_locations ul SET is_online = f.online " +
+                     "FROM unnest(?::int[], ?::boolean[]) AS f(user_id, online) WHERE ul.user_id = f.user_id";
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Array idArray = conn.createArrayOf("integer", ids.toArray());
+            Array onlineArray = conn.createArrayOf("boolean", online.toArray());
+            stmt.setArray(1, idArray);
+            stmt.setArray(2, onlineArray);
+            int updated = stmt.executeUpdate();
+            log.debug("Driver presence flushed flips={} rows={}", ids.size(), updated);
+        } catch (SQLException e) {
+            log.warn("Driver presence flush failed flips={}, will retry: {}", ids.size(), e.getMessage());
+            for (int i = 0; i < ids.size(); i++) {
+                pendingFlips.putIfAbsent(ids.get(i), online.get(i));
+            }
+            return;
+        }
+        // An offline flip can race a driver coming back; the next flush restores them
+        for (int i = 0; i < ids.size(); i++) {
+            if (!online.get(i) && live.containsKey(ids.get(i))) {
+                pendingFlips.putIfAbsent(ids.get(i), Boolean.TRUE);
+            }
+        }
+    }
+
+    private static final class Entry {
+        final int driverId;
+        volatile double latitude;
+        volatile double longitude;
+        volatile long lastSeen;
+        volatile boolean gone; // removed from the live map; dropped when the wheel reaches it
+        volatile MotionState motion;
+        volatile String cell; // geohash the entry is filed under in cells
+
+        Entry(int driverId, double latitude, double longitude, long lastSeen) {
+            this.driverId = driverId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.lastSeen = lastSeen;
+            this.motion = MotionState.first(latitude, longitude, lastSeen);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.rsrmi.ride_sharing_api.rmi.presence;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+
+/**
+ * Immutable dead-reckoning state for one driver: the last two fixes and a velocity smoothed over
+ * the recent ones. A new fix produces a new state, so readers never see a half-updated model.
+ *
+ * Velocity is blended towards each measured one with weight 1 - exp(-dt / tau), so it follows a
+ * turn within a couple of pings at the usual interval without being thrown around by one noisy
+ * fix. Positions between the last two fixes are interpolated; later ones are extrapolated along
+ * the velocity for at most MOTION_MAX_EXTRAPOLATION_SECONDS and then held.
+ */
+public final class MotionState {
+
+    private static final double METERS_PER_DEGREE = 6_371_000 * Math.PI / 180;
+    private static final double TAU_SECONDS = EnvConfig.getDouble("MOTION_VELOCITY_TAU_SECONDS", 3);
+    private static final long MAX_EXTRAPOLATION_MILLIS = EnvConfig.getLong("MOTION_MAX_EXTRAPOLATION_SECONDS", 10) * 1000;
+    private static final long MAX_GAP_MILLIS = EnvConfig.getLong("MOTION_MAX_GAP_SECONDS", 30) * 1000;
+    private static final double MAX_SPEED_MPS = 45;
+    private static final double STILL_MPS = 0.5; // below this the driver is treated as parked
+
+    final double latitude;
+    final double longitude;
+    final long time;
+    final double prevLatitude;
+    final double prevLongitude;
+    final long prevTime;
+    final double northMps;
+    final double eastMps;
+
+    private MotionState(double latitude, double longitude, long time, double prevLatitude, double prevLongitude,
+                        long prevTime, double northMps, double eastMps) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.time = time;
+        this.prevLatitude = prevLatitude;
+        this.prevLongitude = prevLongitude;
+        this.prevTime = prevTime;
+        this.northMps = northMps;
+        this.eastMps = eastMps;
+    }
+
+    public static MotionState first(double latitude, double longitude, long time) {
+        return new MotionState(latitude, longitude, time, latitude, longitude, time, 0, 0);
+    }
+
+    public MotionState next(double lat, double lng, long t) {
+        if (t <= time) {
+            return this; // out of order
+        }
+        if (t - time > MAX_GAP_MILLIS) {
+            return first(lat, lng, t);
+        }
+        double seconds = (t - time) / 1000.0;
+        double measuredNorth = (lat - latitude) * METERS_PER_DEGREE / seconds;
+        double measuredEast = (lng - longitude) * METERS_PER_DEGREE * Math.cos(Math.toRadians(lat)) / seconds;
+        double weight = 1 - Math.exp(-seconds / TAU_SECONDS);
+        double north = northMps + weight * (measuredNorth - northMps);
+        double east = eastMps + weight * (measuredEast - eastMps);
+        double speed = Math.hypot(north, east);
+        if (speed > MAX_SPEED_MPS) {
+            north *= MAX_SPEED_MPS / speed;
+            east *= MAX_SPEED_MPS / speed;
+        }
+        return new MotionState(lat, lng, t, latitude, longitude, time, north, east);
+    }
+
+    public double speedMps() {
+        return Math.hypot(northMps, eastMps);
+    }
+
+    /**
+     * Compass heading of the velocity in degrees, 0 when parked.
+     */
+    public double headingDegrees() {
+        if (speedMps() < STILL_MPS) {
+            return 0;
+        }
+        double degrees = Math.toDegrees(Math.atan2(eastMps, northMps));
+        return degrees < 0 ? degrees + 360 : degrees;
+    }
+
+    /**
+     * Milliseconds past the last fix the model actually projects for {@code at}: negative when
+     * {@code at} falls between the last two fixes, capped at the extrapolation limit.
+     */
+    public long offsetMillis(long at) {
+        if (at >= time) {
+            return speedMps() < STILL_MPS ? 0 : Math.min(at - time, MAX_EXTRAPOLATION_MILLIS);
+        }
+        return Math.max(at, prevTime) - time;
+    }
+
+    /**
+     * @return { latitude, longitude } at {@code at}
+     */
+    public double[] positionAt(long at) {
+        long offset = offsetMillis(at);
+        if (offset >= 0) {
+            double seconds = offset / 1000.0;
+            return new double[] {
+                latitude + northMps * seconds / METERS_PER_DEGREE,
+                longitude + eastMps * seconds / (METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude)))
+            };
+        }
+        double ratio = time > prevTime ? (double) (time + offset - prevTime) / (time - prevTime) : 1;
+        return new double[] {
+            prevLatitude + (latitude - prevLatitude) * ratio,
+            prevLongitude + (longitude - prevLongitude) * ratio
+        };
+    }
+}
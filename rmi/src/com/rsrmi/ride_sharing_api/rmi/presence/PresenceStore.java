@@ -0,0 +1,289 @@
+package com.rsrmi.ride_sharing_api.rmi.presence;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * On-disk copy of the presence state, so a restarted server comes back with the drivers who were
+ * online instead of an empty map: a compact snapshot plus an append-only journal of the changes
+ * made since, both memory-mapped.
+ *
+ * presence.snap is a 32-byte header (magic, version, count, record size, written-at, journal
+ * generation) followed by one 32-byte record per driver: id, latitude and longitude in int
+ * microdegrees, flags, last-seen time and position time. presence-N.journal holds fixed 24-byte
+ * records (kind, id, microdegrees, time). An append is a slot taken with one atomic increment and
+ * a few stores into the mapping; the kind is stored last with release semantics, so a record cut
+ * short by a crash reads as empty. Appends reach the page cache, not the disk: they survive the
+ * process dying, and a machine crash loses what the OS hadn't written back.
+ *
+ * A snapshot first switches appends to the next journal generation and only then reads the live
+ * state, so every change is either in the snapshot or in the newer journal. Recovery replays the
+ * journal by time, so a record older than what the snapshot already holds changes nothing.
+ */
+public class PresenceStore {
+
+    public static final int HEARTBEAT = 1;
+    public static final int TOUCH = 2;
+    public static final int OFFLINE = 3;
+
+    private static final int MAGIC = 0x5052534e; // "PRSN"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SNAPSHOT_RECORD_BYTES = 32;
+    private static final int JOURNAL_RECORD_BYTES = 24;
+    private static final int FLAG_ONLINE = 1;
+    private static final String SNAPSHOT_FILE = "presence.snap";
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    /**
+     * One driver's state as stored.
+     */
+    public static final class Record {
+        public final int driverId;
+        public final double latitude;
+        public final double longitude;
+        public final long lastSeen;
+        public final long positionTime;
+        final boolean online;
+
+        public Record(int driverId, double latitude, double longitude, long lastSeen, long positionTime) {
+            this(driverId, latitude, longitude, lastSeen, positionTime, true);
+        }
+
+        Record(int driverId, double latitude, double longitude, long lastSeen, long positionTime, boolean online) {
+            this.driverId = driverId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.lastSeen = lastSeen;
+            this.positionTime = positionTime;
+            this.online = online;
+        }
+    }
+
+    private static final class Journal {
+        final long generation;
+        final MappedByteBuffer buffer;
+        final int capacity;
+        final AtomicInteger next = new AtomicInteger();
+
+        Journal(long generation, MappedByteBuffer buffer, int capacity) {
+            this.generation = generation;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+    }
+
+    private final Path dir;
+    private final int journalCapacity;
+    private volatile Journal journal;
+
+    public PresenceStore(Path dir, int journalCapacity) throws IOException {
+        this.dir = dir;
+        this.journalCapacity = journalCapacity;
+        Files.createDirectories(dir);
+    }
+
+    /**
+     * Appends one change to the journal.
+     *
+     * @return false if there is no journal yet or it is full; a snapshot makes room
+     */
+    public boolean append(int kind, int driverId, double latitude, double longitude, long time) {
+        Journal current = journal;
+        if (current == null) {
+            return false;
+        }
+        int slot = current.next.getAndIncrement();
+        if (slot >= current.capacity) {
+            return false;
+        }
+        int offset = slot * JOURNAL_RECORD_BYTES;
+        MappedByteBuffer buffer = current.buffer;
+        buffer.putInt(offset + 4, driverId);
+        buffer.putInt(offset + 8, toMicros(latitude));
+        buffer.putInt(offset + 12, toMicros(longitude));
+        buffer.putLong(offset + 16, time);
+        INT.setRelease(buffer, offset, kind);
+        return true;
+    }
+
+    /**
+     * @return how full the current journal is, from 0 to 1
+     */
+    public double journalFill() {
+        Journal current = journal;
+        return current == null ? 1 : Math.min(1, (double) current.next.get() / current.capacity);
+    }
+
+    /**
+     * Reads the last snapshot and replays the journals written after it.
+     *
+     * @return the drivers that were online, by id; empty if nothing was stored
+     */
+    public Map<Integer, Record> recover() throws IOException {
+        Map<Integer, Record> state = new HashMap<>();
+        long fromGeneration = 0;
+        Path snapshot = dir.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer.order(ByteOrder.nativeOrder());
+                int count = buffer.getInt(8);
+                if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(12) != SNAPSHOT_RECORD_BYTES
+                    || channel.size() < HEADER_BYTES + (long) count * SNAPSHOT_RECORD_BYTES) {
+                    throw new IOException("Unreadable presence snapshot " + snapshot);
+                }
+                fromGeneration = buffer.getLong(24);
+                for (int i = 0; i < count; i++) {
+                    int offset = HEADER_BYTES + i * SNAPSHOT_RECORD_BYTES;
+                    int driverId = buffer.getInt(offset);
+                    state.put(driverId, new Record(driverId, fromMicros(buffer.getInt(offset + 4)), fromMicros(buffer.getInt(offset + 8)),
+                        buffer.getLong(offset + 16), buffer.getLong(offset + 24), (buffer.getInt(offset + 12) & FLAG_ONLINE) != 0));
+                }
+            }
+        }
+        for (Map.Entry<Long, Path> file : journals().entrySet()) {
+            if (file.getKey() >= fromGeneration) {
+                replay(file.getValue(), state);
+            }
+        }
+        state.values().removeIf(record -> !record.online);
+        return state;
+    }
+
+    /**
+     * Writes a snapshot of {@code state}, read after appends have moved to a new journal, then
+     * drops the journals it covers.
+     */
+    public synchronized void snapshot(Supplier<Collection<Record>> state) throws IOException {
+        Journal previous = journal;
+        long generation = previous == null ? lastGeneration() + 1 : previous.generation + 1;
+        journal = openJournal(generation);
+        Collection<Record> records = state.get();
+
+        Path temp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        long size = HEADER_BYTES + (long) records.size() * SNAPSHOT_RECORD_BYTES;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.nativeOrder());
+            int count = 0;
+            for (Record record : records) {
+                if (count == records.size()) {
+                    break;
+                }
+                int offset = HEADER_BYTES + count * SNAPSHOT_RECORD_BYTES;
+                buffer.putInt(offset, record.driverId);
+                buffer.putInt(offset + 4, toMicros(record.latitude));
+                buffer.putInt(offset + 8, toMicros(record.longitude));
+                buffer.putInt(offset + 12, record.online ? FLAG_ONLINE : 0);
+                buffer.putLong(offset + 16, record.lastSeen);
+                buffer.putLong(offset + 24, record.positionTime);
+                count++;
+            }
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, count);
+            buffer.putInt(12, SNAPSHOT_RECORD_BYTES);
+            buffer.putLong(16, System.currentTimeMillis());
+            buffer.putLong(24, generation);
+            buffer.force();
+        }
+        Files.move(temp, dir.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (Map.Entry<Long, Path> file : journals().entrySet()) {
+            if (file.getKey() < generation) {
+                Files.deleteIfExists(file.getValue());
+            }
+        }
+    }
+
+    private Journal openJournal(long generation) throws IOException {
+        try (FileChannel channel = FileChannel.open(dir.resolve("presence-" + generation + ".journal"),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping outlives the channel; a fresh file reads as zeros, i.e. empty records
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) journalCapacity * JOURNAL_RECORD_BYTES);
+            buffer.order(ByteOrder.nativeOrder());
+            return new Journal(generation, buffer, journalCapacity);
+        }
+    }
+
+    private static void replay(Path file, Map<Integer, Record> state) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.nativeOrder());
+            int records = (int) (channel.size() / JOURNAL_RECORD_BYTES);
+            for (int i = 0; i < records; i++) {
+                int offset = i * JOURNAL_RECORD_BYTES;
+                int kind = buffer.getInt(offset);
+                if (kind == 0) {
+                    continue; // never written, or cut short
+                }
+                int driverId = buffer.getInt(offset + 4);
+                long time = buffer.getLong(offset + 16);
+                Record known = state.get(driverId);
+                if (known != null && time < known.lastSeen) {
+                    continue;
+                }
+                switch (kind) {
+                    case HEARTBEAT -> state.put(driverId, new Record(driverId, fromMicros(buffer.getInt(offset + 8)),
+                        fromMicros(buffer.getInt(offset + 12)), time, time, true));
+                    case TOUCH -> {
+                        if (known != null && known.online) {
+                            state.put(driverId, new Record(driverId, known.latitude, known.longitude, time, known.positionTime, true));
+                        }
+                    }
+                    // Kept as a tombstone so an older heartbeat later in the file can't revive the driver
+                    case OFFLINE -> state.put(driverId, new Record(driverId, 0, 0, time, time, false));
+                    default -> {
+                    }
+                }
+            }
+        }
+    }
+
+    // generation -> journal file, oldest first
+    private Map<Long, Path> journals() throws IOException {
+        Map<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "presence-*.journal")) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                try {
+                    files.put(Long.parseLong(name.substring("presence-".length(), name.length() - ".journal".length())), file);
+                } catch (NumberFormatException e) {
+                    // not ours
+                }
+            }
+        }
+        return files;
+    }
+
+    private long lastGeneration() throws IOException {
+        List<Long> generations = new ArrayList<>(journals().keySet());
+        return generations.isEmpty() ? 0 : generations.get(generations.size() - 1);
+    }
+
+    private static int toMicros(double degrees) {
+        return (int) Math.round(degrees * 1e6);
+    }
+
+    private static double fromMicros(int micros) {
+        return micros / 1e6;
+    }
+}
@@ -0,0 +1,167 @@
+package com.rsrmi.ride_sharing_api.rmi.pricing;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import com.rsrmi.ride_sharing_api.rmi.heatmap.GeoHash;
+import com.rsrmi.ride_sharing_api.rmi.heatmap.SupplyDemandHeatmap;
+import com.rsrmi.ride_sharing_api.rmi.models.CellSupplyDemand;
+import com.rsrmi.ride_sharing_api.rmi.models.FareQuote;
+import com.rsrmi.ride_sharing_api.rmi.models.RouteEstimate;
+import com.rsrmi.ride_sharing_api.rmi.routing.RoutingEngine;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Prices trips from road distance and drive time plus a surge multiplier read from the live
+ * per-cell counters in {@link SupplyDemandHeatmap}.
+ *
+ * Quotes are cached per (origin cell, destination cell) for one time bucket: the route is
+ * computed between the cell centers, so every trip between the same two cells in the same
+ * bucket gets the same price, and the whole cache is dropped when the bucket rolls over.
+ * A repeated quote is two geohash encodes and a map hit; nothing here touches the database.
+ */
+public class FareQuoteEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(FareQuoteEngine.class);
+
+    private static final String CURRENCY = EnvConfig.getString("FARE_CURRENCY", "MMK");
+    private static final double BASE_FARE = EnvConfig.getDouble("FARE_BASE", 1500);
+    private static final double PER_KM = EnvConfig.getDouble("FARE_PER_KM", 500);
+    private static final double PER_MINUTE = EnvConfig.getDouble("FARE_PER_MINUTE", 50);
+    private static final double MINIMUM_FARE = EnvConfig.getDouble("FARE_MINIMUM", 2000);
+    private static final double ROUND_TO = EnvConfig.getDouble("FARE_ROUND_TO", 50);
+
+    private static final double SURGE_SENSITIVITY = EnvConfig.getDouble("SURGE_SENSITIVITY", 0.5);
+    private static final double SURGE_MAX = EnvConfig.getDouble("SURGE_MAX", 3.0);
+    private static final int SURGE_STEPS_PER_UNIT = 10; // multipliers move in 0.1 steps
+    private static final int SURGE_MIN_PENDING = EnvConfig.getInt("SURGE_MIN_PENDING", 3);
+
+    private static final long BUCKET_MILLIS = EnvConfig.getLong("FARE_QUOTE_BUCKET_SECONDS", 60) * 1000;
+    private static final int CELL_PRECISION = EnvConfig.getInt("FARE_QUOTE_GEOHASH_PRECISION", 7);
+    private static final int MAX_CACHED_QUOTES = EnvConfig.getInt("FARE_QUOTE_CACHE_SIZE", 50_000);
+
+    private static FareQuoteEngine instance;
+
+    private final RoutingEngine routing;
+    private final SupplyDemandHeatmap heatmap;
+    private final AtomicReference<Bucket> current = new AtomicReference<>(new Bucket(0));
+
+    /**
+     * Engine over explicit collaborators, for tools and benchmarks; the server uses {@link #getInstance()}.
+     */
+    public FareQuoteEngine(RoutingEngine routing, SupplyDemandHeatmap heatmap) {
+        this.routing = routing;
+        this.heatmap = heatmap;
+    }
+
+    public static synchronized FareQuoteEngine getInstance() {
+        if (instance == null) {
+            instance = new FareQuoteEngine(RoutingEngine.getInstance(), SupplyDemandHeatmap.getInstance());
+            log.info("Fare quotes currency={} bucketSeconds={} cellPrecision={} surgeMax={}",
+                CURRENCY, BUCKET_MILLIS / 1000, CELL_PRECISION, SURGE_MAX);
+        }
+        return instance;
+    }
+
+    /**
+     * The quote for a trip in the current time bucket. The returned object is shared with other
+     * callers and must not be modified.
+     */
+    public FareQuote quote(double pickupLat, double pickupLng, double destLat, double destLng) {
+        Bucket bucket = currentBucket(System.currentTimeMillis());
+        String key = GeoHash.encode(pickupLat, pickupLng, CELL_PRECISION) + ':' + GeoHash.encode(destLat, destLng, CELL_PRECISION);
+        CompletableFuture<FareQuote> cached = bucket.quotes.get(key);
+        if (cached == null) {
+            if (bucket.quotes.size() >= MAX_CACHED_QUOTES) {
+                return compute(key, bucket.id);
+            }
+            // Single flight: the first caller for a key routes outside any map lock, the rest wait for it
+            CompletableFuture<FareQuote> mine = new CompletableFuture<>();
+            cached = bucket.quotes.putIfAbsent(key, mine);
+            if (cached == null) {
+                try {
+                    FareQuote quote = compute(key, bucket.id);
+                    mine.complete(quote);
+                    return quote;
+                } catch (RuntimeException e) {
+                    bucket.quotes.remove(key, mine);
+                    mine.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        return cached.join();
+    }
+
+    private Bucket currentBucket(long now) {
+        long id = now / BUCKET_MILLIS;
+        Bucket bucket = current.get();
+        while (bucket.id < id) {
+            Bucket next = new Bucket(id);
+            if (current.compareAndSet(bucket, next)) {
+                return next;
+            }
+            bucket = current.get();
+        }
+        return bucket;
+    }
+
+    private FareQuote compute(String key, long bucketId) {
+        int split = key.indexOf(':');
+        double[] origin = GeoHash.bounds(key.substring(0, split));
+        double[] destination = GeoHash.bounds(key.substring(split + 1));
+        double originLat = (origin[0] + origin[2]) / 2;
+        double originLng = (origin[1] + origin[3]) / 2;
+        RouteEstimate route = routing.estimate(originLat, originLng,
+            (destination[0] + destination[2]) / 2, (destination[1] + destination[3]) / 2);
+
+        double baseFare = Math.max(MINIMUM_FARE,
+            BASE_FARE + PER_KM * route.getDistanceKm() + PER_MINUTE * route.getDurationSeconds() / 60);
+        double surge = surgeMultiplier(heatmap.cellContaining(originLat, originLng));
+
+        FareQuote quote = new FareQuote();
+        quote.setDistanceKm(route.getDistanceKm());
+        quote.setDurationSeconds(route.getDurationSeconds());
+        quote.setRoadNetwork(route.isRoadNetwork());
+        quote.setBaseFare(round(baseFare));
+        quote.setSurgeMultiplier(surge);
+        quote.setFare(round(baseFare * surge));
+        quote.setCurrency(CURRENCY);
+        quote.setValidUntil((bucketId + 1) * BUCKET_MILLIS);
+        return quote;
+    }
+
+    /**
+     * 1.0 until open requests outnumber online drivers in the pickup cell, then rising with the
+     * ratio, rounded down to a 0.1 step and capped at SURGE_MAX. A handful of requests in an
+     * empty cell does not surge on its own.
+     */
+    static double surgeMultiplier(CellSupplyDemand cell) {
+        long pending = cell.getPendingRides();
+        if (pending < SURGE_MIN_PENDING) {
+            return 1.0;
+        }
+        double ratio = (double) pending / Math.max(1, cell.getOnlineDrivers());
+        if (ratio <= 1) {
+            return 1.0;
+        }
+        double surge = Math.min(SURGE_MAX, 1 + SURGE_SENSITIVITY * (ratio - 1));
+        return Math.floor(surge * SURGE_STEPS_PER_UNIT + 1e-9) / SURGE_STEPS_PER_UNIT;
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount / ROUND_TO) * ROUND_TO;
+    }
+
+    private static final class Bucket {
+        final long id;
+        final Map<String, CompletableFuture<FareQuote>> quotes = new ConcurrentHashMap<>();
+
+        Bucket(long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.rsrmi.ride_sharing_api.rmi.routing;
+
+import java.util.Arrays;
+
+/**
+ * Grid index over the forward edges of a {@link RoadGraph}, for finding the road segments a GPS
+ * fix could lie on. RoadGraph's own grid only holds nodes, which misses the middle of long
+ * segments; here every edge is filed under each cell its bounding box touches.
+ */
+final class EdgeIndex {
+
+    private static final double CELL_DEGREES = 0.001; // ~110 m north-south
+    static final double METERS_PER_DEGREE = 6_371_000 * Math.PI / 180;
+
+    private final RoadGraph graph;
+    final int[] source; // source node of each forward edge
+
+    private final int minRow;
+    private final int minCol;
+    private final int cols;
+    private final int[] cellIds;    // sorted
+    private final int[] cellStart;  // edges of cellIds[i] are cellEdges[cellStart[i] .. cellStart[i + 1] - 1]
+    private final int[] cellEdges;
+
+    /**
+     * Projections of a fix onto nearby edges, nearest first. Reused between calls.
+     */
+    static final class Candidates {
+        final int[] edge;
+        final double[] fraction; // 0 at the edge's source, 1 at its target
+        final double[] latitude;
+        final double[] longitude;
+        final double[] meters;
+        int size;
+
+        Candidates(int capacity) {
+            edge = new int[capacity];
+            fraction = new double[capacity];
+            latitude = new double[capacity];
+            longitude = new double[capacity];
+            meters = new double[capacity];
+        }
+    }
+
+    EdgeIndex(RoadGraph graph) {
+        this.graph = graph;
+        int edgeCount = graph.fwdTarget.length;
+        this.source = new int[edgeCount];
+        for (int v = 0; v < graph.nodeCount; v++) {
+            for (int e = graph.fwdFirst[v]; e < graph.fwdFirst[v + 1]; e++) {
+                source[e] = v;
+            }
+        }
+
+        int loRow = Integer.MAX_VALUE;
+        int loCol = Integer.MAX_VALUE;
+        int hiRow = Integer.MIN_VALUE;
+        int hiCol = Integer.MIN_VALUE;
+        for (int v = 0; v < graph.nodeCount; v++) {
+            loRow = Math.min(loRow, cellOf(graph.lat[v]));
+            hiRow = Math.max(hiRow, cellOf(graph.lat[v]));
+            loCol = Math.min(loCol, cellOf(graph.lng[v]));
+            hiCol = Math.max(hiCol, cellOf(graph.lng[v]));
+        }
+        this.minRow = loRow;
+        this.minCol = loCol;
+        this.cols = edgeCount == 0 ? 1 : hiCol - loCol + 1;
+        if (edgeCount > 0 && (long) (hiRow - loRow + 1) * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Road graph spans too many cells for the edge index");
+        }
+
+        // (cell, edge) pairs packed into longs so a primitive sort groups them by cell
+        long pairCount = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            pairCount += (long) (rowSpan(e)) * colSpan(e);
+        }
+        long[] pairs = new long[Math.toIntExact(pairCount)];
+        int p = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            int a = source[e];
+            int b = graph.fwdTarget[e];
+            int r0 = cellOf(Math.min(graph.lat[a], graph.lat[b]));
+            int c0 = cellOf(Math.min(graph.lng[a], graph.lng[b]));
+            for (int r = r0; r < r0 + rowSpan(e); r++) {
+                for (int c = c0; c < c0 + colSpan(e); c++) {
+                    pairs[p++] = ((long) cellId(r, c) << 32) | e;
+                }
+            }
+        }
+        Arrays.sort(pairs);
+
+        int[] ids = new int[pairs.length];
+        int[] starts = new int[pairs.length + 1];
+        this.cellEdges = new int[pairs.length];
+        int cells = 0;
+        for (int i = 0; i < pairs.length; i++) {
+            int cell = (int) (pairs[i] >>> 32);
+            cellEdges[i] = (int) pairs[i];
+            if (cells == 0 || ids[cells - 1] != cell) {
+                ids[cells] = cell;
+                starts[cells] = i;
+                cells++;
+            }
+        }
+        starts[cells] = pairs.length;
+        this.cellIds = Arrays.copyOf(ids, cells);
+        this.cellStart = Arrays.copyOf(starts, cells + 1);
+    }
+
+    int size() {
+        return cellEdges.length;
+    }
+
+    /**
+     * Fills {@code out} with the projections onto the nearest edges within {@code maxMeters},
+     * at most as many as it has room for.
+     */
+    void near(double latitude, double longitude, double maxMeters, Candidates out) {
+        out.size = 0;
+        // Equirectangular projection around the fix; exact enough over a few hundred metres
+        double lngMeters = METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+        double latReach = maxMeters / METERS_PER_DEGREE;
+        double lngReach = maxMeters / lngMeters;
+        for (int r = cellOf(latitude - latReach); r <= cellOf(latitude + latReach); r++) {
+            for (int c = cellOf(longitude - lngReach); c <= cellOf(longitude + lngReach); c++) {
+                if (r < minRow || c < minCol || c - minCol >= cols) {
+                    continue;
+                }
+                int cell = Arrays.binarySearch(cellIds, cellId(r, c));
+                if (cell < 0) {
+                    continue;
+                }
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    consider(cellEdges[i], latitude, longitude, lngMeters, maxMeters, out);
+                }
+            }
+        }
+    }
+
+    private void consider(int e, double latitude, double longitude, double lngMeters, double maxMeters, Candidates out) {
+        int a = source[e];
+        int b = graph.fwdTarget[e];
+        double ax = (graph.lng[a] - longitude) * lngMeters;
+        double ay = (graph.lat[a] - latitude) * METERS_PER_DEGREE;
+        double dx = (graph.lng[b] - longitude) * lngMeters - ax;
+        double dy = (graph.lat[b] - latitude) * METERS_PER_DEGREE - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared > 0 ? Math.max(0, Math.min(1, -(ax * dx + ay * dy) / lengthSquared)) : 0;
+        double px = ax + t * dx;
+        double py = ay + t * dy;
+        double meters = Math.sqrt(px * px + py * py);
+        if (meters > maxMeters) {
+            return;
+        }
+        int capacity = out.edge.length;
+        // An edge spanning several cells is seen once per cell
+        for (int k = 0; k < out.size; k++) {
+            if (out.edge[k] == e) {
+                return;
+            }
+        }
+        if (out.size == capacity && meters >= out.meters[capacity - 1]) {
+            return;
+        }
+        // Insertion into the nearest-first list
+        int k = out.size < capacity ? out.size++ : capacity - 1;
+        while (k > 0 && out.meters[k - 1] > meters) {
+            out.edge[k] = out.edge[k - 1];
+            out.fraction[k] = out.fraction[k - 1];
+            out.latitude[k] = out.latitude[k - 1];
+            out.longitude[k] = out.longitude[k - 1];
+            out.meters[k] = out.meters[k - 1];
+            k--;
+        }
+        out.edge[k] = e;
+        out.fraction[k] = t;
+        out.latitude[k] = latitude + py / METERS_PER_DEGREE;
+        out.longitude[k] = longitude + px / lngMeters;
+        out.meters[k] = meters;
+    }
+
+    private int rowSpan(int e) {
+        int a = source[e];
+        int b = graph.fwdTarget[e];
+        return Math.abs(cellOf(graph.lat[a]) - cellOf(graph.lat[b])) + 1;
+    }
+
+    private int colSpan(int e) {
+        int a = source[e];
+        int b = graph.fwdTarget[e];
+        return Math.abs(cellOf(graph.lng[a]) - cellOf(graph.lng[b])) + 1;
+    }
+
+    private int cellId(int row, int col) {
+        return (row - minRow) * cols + (col - minCol);
+    }
+
+    private static int cellOf(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+}
@@ -0,0 +1,386 @@
+package com.rsrmi.ride_sharing_api.rmi.routing;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import com.rsrmi.ride_sharing_api.rmi.logging.LatencyHistogram;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Snaps live driver pings to the road graph with an online hidden Markov model. The hidden state
+ * is the road edge the driver is on. Candidates are the edges within MAP_MATCH_RADIUS_METERS of a
+ * ping, emissions are Gaussian in the ping's distance from the edge, and transitions are
+ * exponential in how far the driving distance between two candidates differs from the straight
+ * line between the pings.
+ *
+ * A driver keeps only the Viterbi scores of the previous ping's candidates, so each ping costs one
+ * bounded shortest-path sweep per previous candidate plus candidates² comparisons, never a replay
+ * of the trip. The reported position is the best candidate at the latest ping, with no look-ahead.
+ *
+ * Matching runs on MAP_MATCH_THREADS dedicated threads, off the ingestion path. A driver always
+ * maps to the same thread, which keeps their pings in order and their state single-threaded. Each
+ * thread has a bounded queue; a ping that does not fit is dropped, since the next one serves as well.
+ */
+public class MapMatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MapMatcher.class);
+
+    private static final double GPS_SIGMA_METERS = EnvConfig.getDouble("MAP_MATCH_GPS_SIGMA_METERS", 8);
+    private static final double BETA_METERS = EnvConfig.getDouble("MAP_MATCH_BETA_METERS", 10);
+    private static final double RADIUS_METERS = EnvConfig.getDouble("MAP_MATCH_RADIUS_METERS", 40);
+    private static final int MAX_CANDIDATES = EnvConfig.getInt("MAP_MATCH_MAX_CANDIDATES", 8);
+    private static final long MAX_GAP_MILLIS = EnvConfig.getLong("MAP_MATCH_MAX_GAP_SECONDS", 60) * 1000;
+    private static final int THREADS = EnvConfig.getInt("MAP_MATCH_THREADS", 2);
+    private static final int QUEUE_SIZE = EnvConfig.getInt("MAP_MATCH_QUEUE", 10000);
+    private static final long STATS_MILLIS = EnvConfig.getLong("MAP_MATCH_STATS_SECONDS", 60) * 1000;
+
+    private static MapMatcher instance;
+
+    private final RoadGraph graph;
+    private final EdgeIndex index;
+    private final Worker[] workers;
+    private final Map<Integer, Track> tracks = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+    private final LatencyHistogram candidateLatency = new LatencyHistogram();
+    private final LatencyHistogram transitionLatency = new LatencyHistogram();
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+    private final LongAdder matched = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder breaks = new LongAdder();
+    private final LongAdder offRoad = new LongAdder();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong nextStatsAt;
+
+    /**
+     * Where the matcher last placed a driver.
+     */
+    public static final class Snap {
+        public final double latitude;
+        public final double longitude;
+        public final long timestampMillis; // time of the ping this was matched from
+
+        Snap(double latitude, double longitude, long timestampMillis) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.timestampMillis = timestampMillis;
+        }
+    }
+
+    /**
+     * Matcher over an already loaded graph, for tools and benchmarks; the server uses
+     * {@link #getInstance()}. Without a graph every call is a no-op.
+     */
+    public MapMatcher(RoadGraph graph) {
+        this.graph = graph;
+        this.nextStatsAt = new AtomicLong(System.currentTimeMillis() + STATS_MILLIS);
+        if (graph == null) {
+            this.index = null;
+            this.workers = new Worker[0];
+            log.info("No road graph, map matching disabled");
+            return;
+        }
+        long start = System.nanoTime();
+        this.index = new EdgeIndex(graph);
+        this.workers = new Worker[Math.max(1, THREADS)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i);
+        }
+        log.info("Map matcher ready edgeCells={} threads={} radiusMeters={} sigmaMeters={} ms={}", index.size(),
+            workers.length, RADIUS_METERS, GPS_SIGMA_METERS, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public static synchronized MapMatcher getInstance() {
+        if (instance == null) {
+            instance = new MapMatcher(RoutingEngine.getInstance().getGraph());
+        }
+        return instance;
+    }
+
+    /**
+     * Start matching a driver's pings, once they are assigned a ride.
+     */
+    public void start(int driverId) {
+        if (index != null) {
+            tracks.putIfAbsent(driverId, new Track());
+        }
+    }
+
+    /**
+     * The ride is over; forget the driver's state and snapped position.
+     */
+    public void stop(int driverId) {
+        Track track = tracks.remove(driverId);
+        if (track != null) {
+            track.stopped = true;
+            track.snap = null;
+        }
+    }
+
+    /**
+     * Queue a ping for matching. Ignored unless the driver was started.
+     */
+    public void submit(int driverId, double latitude, double longitude, long timestampMillis) {
+        Track track = tracks.get(driverId);
+        if (track == null) {
+            return;
+        }
+        Worker worker = workers[Math.floorMod(driverId, workers.length)];
+        long enqueued = System.nanoTime();
+        pending.incrementAndGet();
+        try {
+            worker.executor.execute(() -> {
+                try {
+                    match(worker, track, latitude, longitude, timestampMillis, enqueued);
+                } catch (RuntimeException e) {
+                    log.error("Map matching failed driverId={}", driverId, e);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            dropped.increment();
+        }
+    }
+
+    /**
+     * @return the driver's matched position, or null when they are not being matched or are off the road network
+     */
+    public Snap snapped(int driverId) {
+        Track track = tracks.get(driverId);
+        return track != null ? track.snap : null;
+    }
+
+    public boolean isIdle() {
+        return pending.get() == 0;
+    }
+
+    public LatencyHistogram getQueueLatency() {
+        return queueLatency;
+    }
+
+    public LatencyHistogram getCandidateLatency() {
+        return candidateLatency;
+    }
+
+    public LatencyHistogram getTransitionLatency() {
+        return transitionLatency;
+    }
+
+    public LatencyHistogram getTotalLatency() {
+        return totalLatency;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getBreaks() {
+        return breaks.sum();
+    }
+
+    private void match(Worker worker, Track track, double latitude, double longitude, long time, long enqueued) {
+        long begin = System.nanoTime();
+        queueLatency.recordNanos(begin - enqueued);
+        if (track.stopped || time <= track.lastTime) {
+            return;
+        }
+        boolean connected = track.size > 0 && time - track.lastTime <= MAX_GAP_MILLIS;
+        double straight = connected
+            ? LocationServiceImpl.haversine(track.lastLat, track.lastLng, latitude, longitude) * 1000 : 0;
+        if (connected && straight < GPS_SIGMA_METERS) {
+            // Standing still or GPS wander: no evidence to move on, keep the state and the snap
+            track.lastTime = time;
+            return;
+        }
+
+        EdgeIndex.Candidates candidates = worker.candidates;
+        index.near(latitude, longitude, RADIUS_METERS, candidates);
+        long found = System.nanoTime();
+        candidateLatency.recordNanos(found - begin);
+        if (candidates.size == 0) {
+            // Off the network (car park, missing road); report the raw position until back on it
+            offRoad.increment();
+            track.size = 0;
+            track.lastTime = time;
+            track.snap = null;
+            return;
+        }
+
+        double[] scores = worker.scores;
+        for (int j = 0; j < candidates.size; j++) {
+            double z = candidates.meters[j] / GPS_SIGMA_METERS;
+            scores[j] = -0.5 * z * z;
+        }
+        if (connected) {
+            double[] best = worker.best;
+            Arrays.fill(best, 0, candidates.size, Double.NEGATIVE_INFINITY);
+            double limit = 2 * straight + 2 * RADIUS_METERS;
+            for (int i = 0; i < track.size; i++) {
+                worker.routes(track.edge[i], track.fraction[i], candidates, limit);
+                for (int j = 0; j < candidates.size; j++) {
+                    double route = worker.route[j];
+                    if (route != Double.POSITIVE_INFINITY) {
+                        best[j] = Math.max(best[j], track.score[i] - Math.abs(route - straight) / BETA_METERS);
+                    }
+                }
+            }
+            boolean linked = false;
+            for (int j = 0; j < candidates.size; j++) {
+                linked |= best[j] != Double.NEGATIVE_INFINITY;
+            }
+            if (linked) {
+                for (int j = 0; j < candidates.size; j++) {
+                    scores[j] += best[j];
+                }
+            } else {
+                // No candidate is reachable from the last ones (bad fix, tunnel, missing road): start over
+                breaks.increment();
+            }
+        }
+        transitionLatency.recordNanos(System.nanoTime() - found);
+
+        int bestJ = 0;
+        for (int j = 1; j < candidates.size; j++) {
+            if (scores[j] > scores[bestJ]) {
+                bestJ = j;
+            }
+        }
+        // Keep the live candidates, normalised so the scores do not drift towards -infinity
+        int kept = 0;
+        for (int j = 0; j < candidates.size; j++) {
+            if (scores[j] != Double.NEGATIVE_INFINITY) {
+                track.edge[kept] = candidates.edge[j];
+                track.fraction[kept] = candidates.fraction[j];
+                track.score[kept] = scores[j] - scores[bestJ];
+                kept++;
+            }
+        }
+        track.size = kept;
+        track.lastLat = latitude;
+        track.lastLng = longitude;
+        track.lastTime = time;
+        track.snap = new Snap(candidates.latitude[bestJ], candidates.longitude[bestJ], time);
+
+        totalLatency.recordNanos(System.nanoTime() - begin);
+        matched.increment();
+        logStatsIfDue();
+    }
+
+    private void logStatsIfDue() {
+        long due = nextStatsAt.get();
+        long now = System.currentTimeMillis();
+        if (now >= due && nextStatsAt.compareAndSet(due, now + STATS_MILLIS)) {
+            log.info("Map matching matched={} dropped={} breaks={} offRoad={} drivers={} queue[{}] candidates[{}] transitions[{}] total[{}]",
+                matched.sum(), dropped.sum(), breaks.sum(), offRoad.sum(), tracks.size(), queueLatency.summary(),
+                candidateLatency.summary(), transitionLatency.summary(), totalLatency.summary());
+        }
+    }
+
+    // Only touched by the worker thread the driver maps to, apart from the volatile fields
+    private static final class Track {
+        final int[] edge = new int[MAX_CANDIDATES];
+        final double[] fraction = new double[MAX_CANDIDATES];
+        final double[] score = new double[MAX_CANDIDATES];
+        int size;
+        double lastLat;
+        double lastLng;
+        long lastTime = Long.MIN_VALUE;
+        volatile Snap snap;
+        volatile boolean stopped;
+    }
+
+    /**
+     * One matching thread with its own queue and scratch space. The shortest-path arrays are
+     * O(nodes) and invalidated by bumping an epoch, as in RouteSearch.
+     */
+    private final class Worker {
+        final ThreadPoolExecutor executor;
+        final EdgeIndex.Candidates candidates = new EdgeIndex.Candidates(MAX_CANDIDATES);
+        final double[] scores = new double[MAX_CANDIDATES];
+        final double[] best = new double[MAX_CANDIDATES];
+        final double[] route = new double[MAX_CANDIDATES];
+        final float[] dist;
+        final int[] seen;
+        final MinHeap heap = new MinHeap();
+        int epoch;
+
+        Worker(int number) {
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_SIZE), r -> {
+                Thread t = new Thread(r, "map-matcher-" + number);
+                t.setDaemon(true);
+                return t;
+            });
+            this.dist = new float[graph.nodeCount];
+            this.seen = new int[graph.nodeCount];
+        }
+
+        /**
+         * Driving metres from a point on edge {@code from} to each candidate, within {@code limit};
+         * unreachable candidates get +infinity.
+         */
+        void routes(int from, double fromFraction, EdgeIndex.Candidates to, double limit) {
+            double length = graph.fwdMeters[from];
+            int open = 0;
+            for (int j = 0; j < to.size; j++) {
+                double ahead = (to.fraction[j] - fromFraction) * length;
+                // A small step back along the same edge is GPS noise, not a U-turn
+                if (to.edge[j] == from && ahead >= -GPS_SIGMA_METERS) {
+                    route[j] = Math.max(0, ahead);
+                } else {
+                    route[j] = Double.POSITIVE_INFINITY;
+                    open++;
+                }
+            }
+            double toEnd = (1 - fromFraction) * length;
+            if (open == 0 || toEnd > limit) {
+                return;
+            }
+            if (++epoch == 0) {
+                Arrays.fill(seen, 0);
+                epoch = 1;
+            }
+            heap.clear();
+            int start = graph.fwdTarget[from];
+            seen[start] = epoch;
+            dist[start] = (float) toEnd;
+            heap.push(start, (float) toEnd);
+            while (!heap.isEmpty() && heap.peekKey() <= limit) {
+                float d = heap.peekKey();
+                int v = heap.pop();
+                if (d > dist[v]) {
+                    continue; // stale copy
+                }
+                for (int j = 0; j < to.size; j++) {
+                    if (route[j] == Double.POSITIVE_INFINITY && index.source[to.edge[j]] == v) {
+                        route[j] = d + to.fraction[j] * graph.fwdMeters[to.edge[j]];
+                        open--;
+                    }
+                }
+                if (open == 0) {
+                    return;
+                }
+                for (int e = graph.fwdFirst[v]; e < graph.fwdFirst[v + 1]; e++) {
+                    int w = graph.fwdTarget[e];
+                    float nd = d + graph.fwdMeters[e];
+                    if (nd <= limit && (seen[w] != epoch || nd < dist[w])) {
+                        seen[w] = epoch;
+                        dist[w] = nd;
+                        heap.push(w, nd);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.rsrmi.ride_sharing_api.rmi.routing;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of (float key, int node) pairs in two primitive arrays. There is no
+ * decrease-key: callers push a node again with its better key and skip the stale copy on pop.
+ */
+final class MinHeap {
+
+    private float[] keys = new float[256];
+    private int[] nodes = new int[256];
+    private int size;
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    float peekKey() {
+        return keys[0];
+    }
+
+    void push(int node, float key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[i] = keys[parent];
+            nodes[i] = nodes[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        nodes[i] = node;
+    }
+
+    int pop() {
+        int top = nodes[0];
+        size--;
+        if (size > 0) {
+            float key = keys[size];
+            int node = nodes[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                nodes[i] = nodes[child];
+                i = child;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+        }
+        return top;
+    }
+}
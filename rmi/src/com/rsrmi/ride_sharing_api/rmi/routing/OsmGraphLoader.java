@@ -0,0 +1,229 @@
+package com.rsrmi.ride_sharing_api.rmi.routing;
+
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Builds a {@link RoadGraph} from an OpenStreetMap XML extract (.osm), streaming it with StAX.
+ * Only ways with a drivable highway tag are kept; speeds come from maxspeed when present and
+ * from a per-highway-class default otherwise.
+ */
+public final class OsmGraphLoader {
+
+    private static final Map<String, Double> DEFAULT_SPEED_KMH = new HashMap<>();
+
+    static {
+        DEFAULT_SPEED_KMH.put("motorway", 100.0);
+        DEFAULT_SPEED_KMH.put("motorway_link", 60.0);
+        DEFAULT_SPEED_KMH.put("trunk", 80.0);
+        DEFAULT_SPEED_KMH.put("trunk_link", 50.0);
+        DEFAULT_SPEED_KMH.put("primary", 60.0);
+        DEFAULT_SPEED_KMH.put("primary_link", 40.0);
+        DEFAULT_SPEED_KMH.put("secondary", 50.0);
+        DEFAULT_SPEED_KMH.put("secondary_link", 35.0);
+        DEFAULT_SPEED_KMH.put("tertiary", 40.0);
+        DEFAULT_SPEED_KMH.put("tertiary_link", 30.0);
+        DEFAULT_SPEED_KMH.put("unclassified", 30.0);
+        DEFAULT_SPEED_KMH.put("residential", 25.0);
+        DEFAULT_SPEED_KMH.put("living_street", 10.0);
+        DEFAULT_SPEED_KMH.put("service", 15.0);
+    }
+
+    private OsmGraphLoader() {
+    }
+
+    public static RoadGraph load(Path osmFile) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(osmFile), 1 << 16)) {
+            return load(in);
+        }
+    }
+
+    public static RoadGraph load(InputStream in) throws IOException {
+        Builder builder = new Builder();
+        try {
+            XMLStreamReader xml = XMLInputFactory.newFactory().createXMLStreamReader(in);
+            long[] wayNodes = new long[64];
+            int wayLength = 0;
+            boolean inWay = false;
+            String highway = null;
+            String oneway = null;
+            String maxspeed = null;
+            String junction = null;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "node":
+                            builder.addOsmNode(Long.parseLong(xml.getAttributeValue(null, "id")),
+                                Double.parseDouble(xml.getAttributeValue(null, "lat")),
+                                Double.parseDouble(xml.getAttributeValue(null, "lon")));
+                            break;
+                        case "way":
+                            inWay = true;
+                            wayLength = 0;
+                            highway = oneway = maxspeed = junction = null;
+                            break;
+                        case "nd":
+                            if (inWay) {
+                                if (wayLength == wayNodes.length) {
+                                    wayNodes = Arrays.copyOf(wayNodes, wayLength * 2);
+                                }
+                                wayNodes[wayLength++] = Long.parseLong(xml.getAttributeValue(null, "ref"));
+                            }
+                            break;
+                        case "tag":
+                            if (inWay) {
+                                String k = xml.getAttributeValue(null, "k");
+                                String v = xml.getAttributeValue(null, "v");
+                                if ("highway".equals(k)) {
+                                    highway = v;
+                                } else if ("oneway".equals(k)) {
+                                    oneway = v;
+                                } else if ("maxspeed".equals(k)) {
+                                    maxspeed = v;
+                                } else if ("junction".equals(k)) {
+                                    junction = v;
+                                }
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "way".equals(xml.getLocalName())) {
+                    inWay = false;
+                    Double defaultSpeed = highway != null ? DEFAULT_SPEED_KMH.get(highway) : null;
+                    if (defaultSpeed != null && wayLength > 1) {
+                        double speedKmh = parseMaxspeed(maxspeed, defaultSpeed);
+                        boolean impliedOneway = "motorway".equals(highway) || "roundabout".equals(junction);
+                        boolean reversed = "-1".equals(oneway);
+                        boolean onewayForward = "yes".equals(oneway) || "true".equals(oneway) || "1".equals(oneway)
+                            || (impliedOneway && !"no".equals(oneway));
+                        boolean forward = !reversed;
+                        boolean backward = reversed || !onewayForward;
+                        builder.addWay(wayNodes, wayLength, speedKmh, forward, backward);
+                    }
+                }
+            }
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed OSM extract: " + e.getMessage(), e);
+        }
+        return builder.build();
+    }
+
+    static double parseMaxspeed(String maxspeed, double fallbackKmh) {
+        if (maxspeed == null) {
+            return fallbackKmh;
+        }
+        String value = maxspeed.trim();
+        double factor = 1;
+        if (value.endsWith("mph")) {
+            factor = 1.609344;
+            value = value.substring(0, value.length() - 3).trim();
+        }
+        try {
+            double parsed = Double.parseDouble(value) * factor;
+            return parsed > 0 ? parsed : fallbackKmh;
+        } catch (NumberFormatException e) {
+            return fallbackKmh; // "signals", "walk", country codes like "DE:urban"
+        }
+    }
+
+    /**
+     * Collects every OSM node (ways reference them after they are declared), then keeps only
+     * the nodes that some drivable edge touches and renumbers them densely.
+     */
+    private static final class Builder {
+        private final Map<Long, Integer> osmToIndex = new HashMap<>();
+        private double[] lat = new double[1024];
+        private double[] lng = new double[1024];
+        private int nodes;
+
+        private int[] from = new int[1024];
+        private int[] to = new int[1024];
+        private float[] seconds = new float[1024];
+        private float[] meters = new float[1024];
+        private int edges;
+
+        void addOsmNode(long osmId, double latitude, double longitude) {
+            if (nodes == lat.length) {
+                lat = Arrays.copyOf(lat, nodes * 2);
+                lng = Arrays.copyOf(lng, nodes * 2);
+            }
+            lat[nodes] = latitude;
+            lng[nodes] = longitude;
+            osmToIndex.put(osmId, nodes++);
+        }
+
+        void addWay(long[] wayNodes, int length, double speedKmh, boolean forward, boolean backward) {
+            double metersPerSecond = speedKmh / 3.6;
+            for (int i = 1; i < length; i++) {
+                Integer a = osmToIndex.get(wayNodes[i - 1]);
+                Integer b = osmToIndex.get(wayNodes[i]);
+                if (a == null || b == null || a.equals(b)) {
+                    continue; // clipped at the extract boundary
+                }
+                double segmentMeters = LocationServiceImpl.haversine(lat[a], lng[a], lat[b], lng[b]) * 1000;
+                float segmentSeconds = (float) (segmentMeters / metersPerSecond);
+                if (forward) {
+                    addEdge(a, b, segmentSeconds, (float) segmentMeters);
+                }
+                if (backward) {
+                    addEdge(b, a, segmentSeconds, (float) segmentMeters);
+                }
+            }
+        }
+
+        private void addEdge(int a, int b, float edgeSeconds, float edgeMeters) {
+            if (edges == from.length) {
+                from = Arrays.copyOf(from, edges * 2);
+                to = Arrays.copyOf(to, edges * 2);
+                seconds = Arrays.copyOf(seconds, edges * 2);
+                meters = Arrays.copyOf(meters, edges * 2);
+            }
+            from[edges] = a;
+            to[edges] = b;
+            seconds[edges] = edgeSeconds;
+            meters[edges] = edgeMeters;
+            edges++;
+        }
+
+        RoadGraph build() {
+            int[] dense = new int[nodes];
+            Arrays.fill(dense, -1);
+            int used = 0;
+            for (int e = 0; e < edges; e++) {
+                if (dense[from[e]] < 0) {
+                    dense[from[e]] = used++;
+                }
+                if (dense[to[e]] < 0) {
+                    dense[to[e]] = used++;
+                }
+            }
+            double[] usedLat = new double[used];
+            double[] usedLng = new double[used];
+            for (int v = 0; v < nodes; v++) {
+                if (dense[v] >= 0) {
+                    usedLat[dense[v]] = lat[v];
+                    usedLng[dense[v]] = lng[v];
+                }
+            }
+            for (int e = 0; e < edges; e++) {
+                from[e] = dense[from[e]];
+                to[e] = dense[to[e]];
+            }
+            return new RoadGraph(usedLat, usedLng, from, to, seconds, meters, edges);
+        }
+    }
+}
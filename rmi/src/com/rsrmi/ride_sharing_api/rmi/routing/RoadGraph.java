@@ -0,0 +1,160 @@
+package com.rsrmi.ride_sharing_api.rmi.routing;
+
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import java.util.Arrays;
+
+/**
+ * Immutable directed road graph in compressed sparse row form. Node ids are dense ints,
+ * edge weights are travel seconds and metres as floats. The reverse graph is kept alongside
+ * so searches can also run backwards from a target.
+ *
+ * Nodes are additionally bucketed into a lat/lng grid for snapping coordinates to the network.
+ */
+public final class RoadGraph {
+
+    private static final double CELL_DEGREES = 0.0025; // ~280 m north-south
+
+    final int nodeCount;
+    final double[] lat;
+    final double[] lng;
+
+    final int[] fwdFirst;     // edges of node v are fwdFirst[v] .. fwdFirst[v + 1] - 1
+    final int[] fwdTarget;
+    final float[] fwdSeconds;
+    final float[] fwdMeters;
+
+    final int[] revFirst;
+    final int[] revTarget;   // for reverse edges: the source of the original edge
+    final float[] revSeconds;
+    final float[] revMeters;
+
+    // Fastest speed on any edge; dividing straight-line distance by it gives an admissible A* bound
+    final double maxSpeedMps;
+
+    private final long[] cellKeys;   // sorted
+    private final int[] cellStart;   // nodes of cellKeys[i] are cellNodes[cellStart[i] .. cellStart[i + 1] - 1]
+    private final int[] cellNodes;
+
+    /**
+     * @param from, to, seconds, meters parallel edge arrays of length {@code edgeCount}
+     */
+    RoadGraph(double[] lat, double[] lng, int[] from, int[] to, float[] seconds, float[] meters, int edgeCount) {
+        this.nodeCount = lat.length;
+        this.lat = lat;
+        this.lng = lng;
+
+        this.fwdFirst = new int[nodeCount + 1];
+        this.fwdTarget = new int[edgeCount];
+        this.fwdSeconds = new float[edgeCount];
+        this.fwdMeters = new float[edgeCount];
+        fillCsr(from, to, seconds, meters, edgeCount, fwdFirst, fwdTarget, fwdSeconds, fwdMeters);
+
+        this.revFirst = new int[nodeCount + 1];
+        this.revTarget = new int[edgeCount];
+        this.revSeconds = new float[edgeCount];
+        this.revMeters = new float[edgeCount];
+        fillCsr(to, from, seconds, meters, edgeCount, revFirst, revTarget, revSeconds, revMeters);
+
+        double maxSpeed = 1;
+        for (int e = 0; e < edgeCount; e++) {
+            if (seconds[e] > 0) {
+                maxSpeed = Math.max(maxSpeed, meters[e] / seconds[e]);
+            }
+        }
+        this.maxSpeedMps = maxSpeed;
+
+        // Grid index: sort node ids by cell key, then record where each cell's run starts
+        long[] keyed = new long[nodeCount];
+        Integer[] order = new Integer[nodeCount];
+        for (int v = 0; v < nodeCount; v++) {
+            keyed[v] = cellKey(cellOf(lat[v]), cellOf(lng[v]));
+            order[v] = v;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keyed[a], keyed[b]));
+        this.cellNodes = new int[nodeCount];
+        long[] keys = new long[nodeCount];
+        int[] starts = new int[nodeCount + 1];
+        int cells = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            int v = order[i];
+            cellNodes[i] = v;
+            if (cells == 0 || keys[cells - 1] != keyed[v]) {
+                keys[cells] = keyed[v];
+                starts[cells] = i;
+                cells++;
+            }
+        }
+        starts[cells] = nodeCount;
+        this.cellKeys = Arrays.copyOf(keys, cells);
+        this.cellStart = Arrays.copyOf(starts, cells + 1);
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return fwdTarget.length;
+    }
+
+    /**
+     * @return the node closest to the coordinate within {@code maxMeters}, or -1 if there is none
+     */
+    public int nearestNode(double latitude, double longitude, double maxMeters) {
+        int row = cellOf(latitude);
+        int col = cellOf(longitude);
+        double cellMeters = CELL_DEGREES * 111_320 * Math.max(0.1, Math.cos(Math.toRadians(latitude)));
+        int reach = (int) Math.ceil(maxMeters / cellMeters);
+        // Compare on an equirectangular projection (exact enough at snapping range), confirm with haversine
+        double lngScale = Math.cos(Math.toRadians(latitude));
+        int best = -1;
+        double bestSquared = Double.MAX_VALUE;
+        for (int r = row - reach; r <= row + reach; r++) {
+            for (int c = col - reach; c <= col + reach; c++) {
+                int cell = Arrays.binarySearch(cellKeys, cellKey(r, c));
+                if (cell < 0) {
+                    continue;
+                }
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int v = cellNodes[i];
+                    double dLat = lat[v] - latitude;
+                    double dLng = (lng[v] - longitude) * lngScale;
+                    double squared = dLat * dLat + dLng * dLng;
+                    if (squared < bestSquared) {
+                        bestSquared = squared;
+                        best = v;
+                    }
+                }
+            }
+        }
+        if (best >= 0 && LocationServiceImpl.haversine(latitude, longitude, lat[best], lng[best]) * 1000 > maxMeters) {
+            return -1;
+        }
+        return best;
+    }
+
+    private static void fillCsr(int[] from, int[] to, float[] seconds, float[] meters, int edgeCount,
+                                int[] first, int[] target, float[] outSeconds, float[] outMeters) {
+        for (int e = 0; e < edgeCount; e++) {
+            first[from[e] + 1]++;
+        }
+        for (int v = 0; v < first.length - 1; v++) {
+            first[v + 1] += first[v];
+        }
+        int[] next = Arrays.copyOf(first, first.length - 1);
+        for (int e = 0; e < edgeCount; e++) {
+            int slot = next[from[e]]++;
+            target[slot] = to[e];
+            outSeconds[slot] = seconds[e];
+            outMeters[slot] = meters[e];
+        }
+    }
+
+    private static int cellOf(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+}
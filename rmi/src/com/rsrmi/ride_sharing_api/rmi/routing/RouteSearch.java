@@ -0,0 +1,228 @@
+package com.rsrmi.ride_sharing_api.rmi.routing;
+
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import java.util.Arrays;
+
+/**
+ * Bidirectional A* over a {@link RoadGraph}, minimising travel time.
+ *
+ * Both directions use the average potential p(v) = (h(v, t) - h(s, v)) / 2, where h is the
+ * straight-line distance divided by the graph's top speed. Forward and reverse reduced costs
+ * then agree, so the search can stop once the two queue heads sum to the best meeting cost.
+ *
+ * One instance holds O(nodes) scratch arrays and is not thread-safe; RoutingEngine keeps one
+ * per thread. Arrays are invalidated by bumping an epoch instead of clearing them.
+ */
+final class RouteSearch {
+
+    private final RoadGraph graph;
+    private final float[] distF;
+    private final float[] distR;
+    private final float[] metersF;
+    private final float[] metersR;
+    private final float[] potential;
+    private final int[] seenF;
+    private final int[] seenR;
+    private final int[] settledF;
+    private final int[] settledR;
+    private final int[] potentialSeen;
+    private final int[] wanted;
+    private final MinHeap heapF = new MinHeap();
+    private final MinHeap heapR = new MinHeap();
+    private int epoch;
+
+    private int source;
+    private int target;
+
+    // Result of the last successful search
+    private double seconds;
+    private double meters;
+    private int settledCount;
+
+    RouteSearch(RoadGraph graph) {
+        this.graph = graph;
+        int n = graph.nodeCount;
+        distF = new float[n];
+        distR = new float[n];
+        metersF = new float[n];
+        metersR = new float[n];
+        potential = new float[n];
+        seenF = new int[n];
+        seenR = new int[n];
+        settledF = new int[n];
+        settledR = new int[n];
+        potentialSeen = new int[n];
+        wanted = new int[n];
+    }
+
+    /**
+     * @return true when target is reachable; read the result with {@link #seconds()} and {@link #meters()}
+     */
+    boolean search(int s, int t) {
+        source = s;
+        target = t;
+        settledCount = 0;
+        if (s == t) {
+            seconds = 0;
+            meters = 0;
+            return true;
+        }
+        nextEpoch();
+        heapF.clear();
+        heapR.clear();
+
+        seenF[s] = epoch;
+        distF[s] = 0;
+        metersF[s] = 0;
+        heapF.push(s, potential(s));
+        seenR[t] = epoch;
+        distR[t] = 0;
+        metersR[t] = 0;
+        heapR.push(t, -potential(t));
+
+        float best = Float.POSITIVE_INFINITY;
+        float bestMeters = 0;
+        while (!heapF.isEmpty() && !heapR.isEmpty()) {
+            if (heapF.peekKey() + heapR.peekKey() >= best) {
+                break;
+            }
+            boolean forward = heapF.peekKey() <= heapR.peekKey();
+            MinHeap heap = forward ? heapF : heapR;
+            int[] settled = forward ? settledF : settledR;
+            int u = heap.pop();
+            if (settled[u] == epoch) {
+                continue; // stale duplicate
+            }
+            settled[u] = epoch;
+            settledCount++;
+
+            int[] first = forward ? graph.fwdFirst : graph.revFirst;
+            int[] targets = forward ? graph.fwdTarget : graph.revTarget;
+            float[] edgeSeconds = forward ? graph.fwdSeconds : graph.revSeconds;
+            float[] edgeMeters = forward ? graph.fwdMeters : graph.revMeters;
+            float[] dist = forward ? distF : distR;
+            float[] metersTo = forward ? metersF : metersR;
+            int[] seen = forward ? seenF : seenR;
+            float[] otherDist = forward ? distR : distF;
+            float[] otherMeters = forward ? metersR : metersF;
+            int[] otherSeen = forward ? seenR : seenF;
+
+            float du = dist[u];
+            for (int e = first[u]; e < first[u + 1]; e++) {
+                int v = targets[e];
+                float dv = du + edgeSeconds[e];
+                if (seen[v] == epoch && dist[v] <= dv) {
+                    continue;
+                }
+                seen[v] = epoch;
+                dist[v] = dv;
+                metersTo[v] = metersTo[u] + edgeMeters[e];
+                float p = potential(v);
+                heap.push(v, forward ? dv + p : dv - p);
+                if (otherSeen[v] == epoch && dv + otherDist[v] < best) {
+                    best = dv + otherDist[v];
+                    bestMeters = metersTo[v] + otherMeters[v];
+                }
+            }
+        }
+        if (best == Float.POSITIVE_INFINITY) {
+            return false;
+        }
+        seconds = best;
+        meters = bestMeters;
+        return true;
+    }
+
+    /**
+     * Many-to-one: one Dijkstra sweep over the reverse graph from {@code t}, settling nodes in
+     * order of drive time to t. Stops once every source is settled or the horizon is passed, so
+     * cost depends on the horizon rather than on how many sources there are.
+     *
+     * @param outSeconds receives the drive time from sources[i] to t, or infinity beyond the horizon
+     * @param outMeters receives the matching route length
+     */
+    void sweepTo(int t, int[] sources, float horizonSeconds, float[] outSeconds, float[] outMeters) {
+        nextEpoch();
+        heapR.clear();
+        settledCount = 0;
+        int remaining = 0;
+        for (int v : sources) {
+            if (v >= 0 && wanted[v] != epoch) {
+                wanted[v] = epoch;
+                remaining++;
+            }
+        }
+
+        seenR[t] = epoch;
+        distR[t] = 0;
+        metersR[t] = 0;
+        heapR.push(t, 0);
+        while (!heapR.isEmpty() && remaining > 0) {
+            int u = heapR.pop();
+            if (settledR[u] == epoch) {
+                continue;
+            }
+            float du = distR[u];
+            if (du > horizonSeconds) {
+                break;
+            }
+            settledR[u] = epoch;
+            settledCount++;
+            if (wanted[u] == epoch) {
+                remaining--;
+            }
+            for (int e = graph.revFirst[u]; e < graph.revFirst[u + 1]; e++) {
+                int v = graph.revTarget[e];
+                float dv = du + graph.revSeconds[e];
+                if (dv > horizonSeconds || seenR[v] == epoch && distR[v] <= dv) {
+                    continue;
+                }
+                seenR[v] = epoch;
+                distR[v] = dv;
+                metersR[v] = metersR[u] + graph.revMeters[e];
+                heapR.push(v, dv);
+            }
+        }
+
+        for (int i = 0; i < sources.length; i++) {
+            int v = sources[i];
+            boolean reached = v >= 0 && settledR[v] == epoch;
+            outSeconds[i] = reached ? distR[v] : Float.POSITIVE_INFINITY;
+            outMeters[i] = reached ? metersR[v] : Float.POSITIVE_INFINITY;
+        }
+    }
+
+    double seconds() {
+        return seconds;
+    }
+
+    double meters() {
+        return meters;
+    }
+
+    int settledCount() {
+        return settledCount;
+    }
+
+    private float potential(int v) {
+        if (potentialSeen[v] != epoch) {
+            potentialSeen[v] = epoch;
+            double toTarget = LocationServiceImpl.haversine(graph.lat[v], graph.lng[v], graph.lat[target], graph.lng[target]);
+            double fromSource = LocationServiceImpl.haversine(graph.lat[source], graph.lng[source], graph.lat[v], graph.lng[v]);
+            potential[v] = (float) ((toTarget - fromSource) * 1000 / graph.maxSpeedMps / 2);
+        }
+        return potential[v];
+    }
+
+    private void nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(seenF, 0);
+            Arrays.fill(seenR, 0);
+            Arrays.fill(settledF, 0);
+            Arrays.fill(settledR, 0);
+            Arrays.fill(potentialSeen, 0);
+            Arrays.fill(wanted, 0);
+            epoch = 1;
+        }
+    }
+}
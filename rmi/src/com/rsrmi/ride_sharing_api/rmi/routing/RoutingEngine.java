@@ -0,0 +1,213 @@
+package com.rsrmi.ride_sharing_api.rmi.routing;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import com.rsrmi.ride_sharing_api.rmi.models.DriverEta;
+import com.rsrmi.ride_sharing_api.rmi.models.RouteEstimate;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Answers drive-time queries from the road graph in ROUTING_OSM_FILE. Without a graph, or when
+ * a point cannot be snapped to a road, it falls back to the same straight-line estimate the web
+ * client uses so callers always get a number.
+ *
+ * At most ROUTING_MAX_SEARCHES searches (default: one per CPU) run at once, since each holds
+ * scratch arrays sized to the graph. A caller that cannot get one within ROUTING_SEARCH_WAIT_MS
+ * gets the straight-line estimate instead of allocating another.
+ */
+public class RoutingEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutingEngine.class);
+
+    private static final double MAX_SNAP_METERS = EnvConfig.getDouble("ROUTING_MAX_SNAP_METERS", 500);
+    private static final double SNAP_SPEED_MPS = 15 / 3.6; // walking the car to the nearest road node
+    private static final int MAX_SEARCHES = EnvConfig.getInt("ROUTING_MAX_SEARCHES", Runtime.getRuntime().availableProcessors());
+    private static final long SEARCH_WAIT_MILLIS = EnvConfig.getLong("ROUTING_SEARCH_WAIT_MS", 50);
+
+    private static RoutingEngine instance;
+
+    private final RoadGraph graph;
+    // Scratch searches are O(nodes) each, so they are pooled rather than kept per thread,
+    // which would allocate one for every virtual thread that ever routes. Only permit holders
+    // create one, so the pool never grows past the permit count.
+    private final ConcurrentLinkedQueue<RouteSearch> searches = new ConcurrentLinkedQueue<>();
+    private final int maxSearches;
+    private final Semaphore permits;
+    private final long waitMillis;
+
+    /**
+     * Engine over an already loaded graph, for tools and benchmarks; the server uses {@link #getInstance()}.
+     */
+    public RoutingEngine(RoadGraph graph) {
+        this(graph, MAX_SEARCHES, SEARCH_WAIT_MILLIS);
+    }
+
+    RoutingEngine(RoadGraph graph, int maxSearches, long waitMillis) {
+        this.graph = graph;
+        this.maxSearches = Math.max(1, maxSearches);
+        this.permits = new Semaphore(this.maxSearches);
+        this.waitMillis = waitMillis;
+    }
+
+    public static synchronized RoutingEngine getInstance() {
+        if (instance == null) {
+            instance = new RoutingEngine(loadConfiguredGraph());
+        }
+        return instance;
+    }
+
+    public boolean hasRoadNetwork() {
+        return graph != null;
+    }
+
+    public RoadGraph getGraph() {
+        return graph;
+    }
+
+    public RouteEstimate estimate(double fromLat, double fromLng, double toLat, double toLng) {
+        if (graph == null) {
+            return straightLine(fromLat, fromLng, toLat, toLng);
+        }
+        int s = graph.nearestNode(fromLat, fromLng, MAX_SNAP_METERS);
+        int t = graph.nearestNode(toLat, toLng, MAX_SNAP_METERS);
+        if (s < 0 || t < 0) {
+            return straightLine(fromLat, fromLng, toLat, toLng);
+        }
+        double snapMeters = (LocationServiceImpl.haversine(fromLat, fromLng, graph.lat[s], graph.lng[s])
+            + LocationServiceImpl.haversine(toLat, toLng, graph.lat[t], graph.lng[t])) * 1000;
+
+        RouteSearch search = borrow();
+        if (search == null) {
+            return straightLine(fromLat, fromLng, toLat, toLng);
+        }
+        try {
+            if (!search.search(s, t)) {
+                return straightLine(fromLat, fromLng, toLat, toLng);
+            }
+            return new RouteEstimate((search.meters() + snapMeters) / 1000,
+                search.seconds() + snapMeters / SNAP_SPEED_MPS, true);
+        } finally {
+            giveBack(search);
+        }
+    }
+
+    /**
+     * Many-to-one ETAs for ranking candidate drivers: a single reverse sweep from the pickup
+     * instead of one search per driver. Drivers that cannot be snapped are estimated in a
+     * straight line. Drivers beyond the horizon are omitted; the rest come back fastest first.
+     */
+    public List<DriverEta> estimateToPickup(List<UserLocation> drivers, double pickupLat, double pickupLng, double horizonSeconds) {
+        List<DriverEta> etas = new ArrayList<>(drivers.size());
+        int t = graph != null ? graph.nearestNode(pickupLat, pickupLng, MAX_SNAP_METERS) : -1;
+        RouteSearch search = t >= 0 ? borrow() : null;
+        if (search == null) {
+            for (UserLocation driver : drivers) {
+                addIfWithin(etas, driver.getUserId(),
+                    straightLine(driver.getLatitude(), driver.getLongitude(), pickupLat, pickupLng), horizonSeconds);
+            }
+        } else {
+            double pickupSnapMeters = LocationServiceImpl.haversine(pickupLat, pickupLng, graph.lat[t], graph.lng[t]) * 1000;
+            int[] sources = new int[drivers.size()];
+            double[] snapMeters = new double[drivers.size()];
+            for (int i = 0; i < sources.length; i++) {
+                UserLocation driver = drivers.get(i);
+                sources[i] = graph.nearestNode(driver.getLatitude(), driver.getLongitude(), MAX_SNAP_METERS);
+                if (sources[i] >= 0) {
+                    snapMeters[i] = pickupSnapMeters + LocationServiceImpl.haversine(driver.getLatitude(), driver.getLongitude(),
+                        graph.lat[sources[i]], graph.lng[sources[i]]) * 1000;
+                }
+            }
+            float[] seconds = new float[sources.length];
+            float[] meters = new float[sources.length];
+            try {
+                search.sweepTo(t, sources, (float) horizonSeconds, seconds, meters);
+            } finally {
+                giveBack(search);
+            }
+            for (int i = 0; i < sources.length; i++) {
+                UserLocation driver = drivers.get(i);
+                if (sources[i] < 0) {
+                    addIfWithin(etas, driver.getUserId(),
+                        straightLine(driver.getLatitude(), driver.getLongitude(), pickupLat, pickupLng), horizonSeconds);
+                } else if (seconds[i] != Float.POSITIVE_INFINITY) {
+                    double eta = seconds[i] + snapMeters[i] / SNAP_SPEED_MPS;
+                    if (eta <= horizonSeconds) {
+                        etas.add(new DriverEta(driver.getUserId(), eta, (meters[i] + snapMeters[i]) / 1000, true));
+                    }
+                }
+            }
+        }
+        etas.sort(Comparator.comparingDouble(DriverEta::getEtaSeconds));
+        return etas;
+    }
+
+    private static void addIfWithin(List<DriverEta> etas, int driverId, RouteEstimate estimate, double horizonSeconds) {
+        if (estimate.getDurationSeconds() <= horizonSeconds) {
+            etas.add(new DriverEta(driverId, estimate.getDurationSeconds(), estimate.getDistanceKm(), false));
+        }
+    }
+
+    /**
+     * Same speed bands as the web client's straight-line fallback.
+     */
+    public static RouteEstimate straightLine(double fromLat, double fromLng, double toLat, double toLng) {
+        double km = LocationServiceImpl.haversine(fromLat, fromLng, toLat, toLng);
+        double speedKmh = km < 2 ? 15 : km < 10 ? 25 : 35;
+        return new RouteEstimate(km, km / speedKmh * 3600, false);
+    }
+
+    /**
+     * @return a search to run, or null if all of them stayed busy for the wait; pair with {@link #giveBack}
+     */
+    RouteSearch borrow() {
+        try {
+            if (!permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                log.debug("All {} route searches busy, using a straight-line estimate", maxSearches);
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        RouteSearch search = searches.poll();
+        return search != null ? search : new RouteSearch(graph);
+    }
+
+    void giveBack(RouteSearch search) {
+        searches.offer(search);
+        permits.release();
+    }
+
+    private static RoadGraph loadConfiguredGraph() {
+        String file = EnvConfig.getString("ROUTING_OSM_FILE", null);
+        if (file == null || file.isBlank()) {
+            log.info("ROUTING_OSM_FILE not set, routing uses straight-line estimates");
+            return null;
+        }
+        Path path = Path.of(file);
+        if (!Files.isReadable(path)) {
+            log.warn("Routing extract not readable path={}, routing uses straight-line estimates", path);
+            return null;
+        }
+        try {
+            long start = System.nanoTime();
+            RoadGraph loaded = OsmGraphLoader.load(path);
+            log.info("Road graph loaded path={} nodes={} edges={} ms={}", path, loaded.getNodeCount(),
+                loaded.getEdgeCount(), (System.nanoTime() - start) / 1_000_000);
+            return loaded;
+        } catch (Exception e) {
+            log.error("Failed to load road graph path={}, routing uses straight-line estimates", path, e);
+            return null;
+        }
+    }
+}
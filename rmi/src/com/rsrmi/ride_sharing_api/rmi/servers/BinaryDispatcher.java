@@ -0,0 +1,98 @@
+package com.rsrmi.ride_sharing_api.rmi.servers;
+
+import com.rsrmi.ride_sharing_api.rmi.interfaces.LocationService;
+import com.rsrmi.ride_sharing_api.rmi.interfaces.RideService;
+import com.rsrmi.ride_sharing_api.rmi.interfaces.UserService;
+import com.rsrmi.ride_sharing_api.rmi.transport.Frames;
+import com.rsrmi.ride_sharing_api.rmi.transport.Op;
+import com.rsrmi.ride_sharing_api.rmi.transport.WireCodec;
+import com.rsrmi.ride_sharing_api.rmi.transport.WireInput;
+import com.rsrmi.ride_sharing_api.rmi.transport.WireOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decodes one binary-transport request, calls the same service objects RMI exports, and encodes
+ * the response frame. Argument order matches the client stubs in the transport package.
+ */
+public class BinaryDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(BinaryDispatcher.class);
+
+    private final UserService users;
+    private final LocationService locations;
+    private final RideService rides;
+
+    public BinaryDispatcher(UserService users, LocationService locations, RideService rides) {
+        this.users = users;
+        this.locations = locations;
+        this.rides = rides;
+    }
+
+    /**
+     * @param frame request bytes, {@code length} after the length field starting at {@code start}
+     * @return the complete response frame, an error frame if the call threw
+     */
+    public WireOutput handle(byte[] frame, int start, int length) {
+        int callId = Frames.callId(frame, start);
+        Op op = Op.of(Frames.kind(frame, start));
+        if (op == null) {
+            return Frames.error(callId, "Unknown operation " + Frames.kind(frame, start));
+        }
+        WireInput in = new WireInput(frame, start + Frames.LENGTH_BYTES + Frames.HEADER_BYTES, length - Frames.HEADER_BYTES);
+        WireOutput out = Frames.begin(callId, Frames.STATUS_OK, 128);
+        try {
+            call(op, in, out);
+            return Frames.finish(out);
+        } catch (Exception e) {
+            log.warn("Binary transport call {} failed: {}", op, e.getMessage());
+            return Frames.error(callId, e.getMessage());
+        }
+    }
+
+    private void call(Op op, WireInput in, WireOutput out) throws Exception {
+        switch (op) {
+            case REQUEST_RIDE -> out.writeVarInt(rides.requestRide(in.readVarInt(), in.readDouble(), in.readDouble(),
+                in.readDouble(), in.readDouble(), in.readString()));
+            case GET_PENDING_RIDES -> WireCodec.writeList(out,
+                rides.getPendingRides(in.readDouble(), in.readDouble(), in.readDouble()), WireCodec::writeRide);
+            case ACCEPT_RIDE -> out.writeVarInt(rides.acceptRide(in.readVarInt(), in.readVarInt()));
+            case CANCEL_RIDE -> out.writeBoolean(rides.cancelRide(in.readVarInt()));
+            case START_DRIVE_TO_PICKUP -> out.writeBoolean(rides.startDriveToPickup(in.readVarInt()));
+            case ARRIVED_AT_PICKUP -> out.writeBoolean(rides.arrivedAtPickup(in.readVarInt()));
+            case START_RIDE_TO_DESTINATION -> out.writeBoolean(rides.startRideToDestination(in.readVarInt()));
+            case COMPLETE_RIDE -> out.writeBoolean(rides.completeRide(in.readVarInt()));
+            case UPDATE_DRIVER_LOCATION -> out.writeBoolean(rides.updateDriverLocation(in.readVarInt(), in.readDouble(), in.readDouble()));
+            case GET_CURRENT_RIDE -> WireCodec.writeRide(out, rides.getCurrentRide(in.readVarInt()));
+            case GET_CURRENT_RIDE_IF_CHANGED -> WireCodec.writeCurrentRideResult(out,
+                rides.getCurrentRideIfChanged(in.readVarInt(), in.readVarLong()));
+            case GET_RIDE_HISTORY -> WireCodec.writeList(out, rides.getRideHistory(in.readVarInt()), WireCodec::writeRide);
+            case GET_RIDE_STATUS -> out.writeString(rides.getRideStatus(in.readVarInt()));
+            case GET_SUPPLY_DEMAND -> WireCodec.writeList(out,
+                rides.getSupplyDemand(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble()), WireCodec::writeCell);
+            case GET_FARE_QUOTE -> WireCodec.writeFareQuote(out,
+                rides.getFareQuote(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble()));
+            case GET_RIDE_TRAJECTORY -> WireCodec.writeTrajectory(out, rides.getRideTrajectory(in.readVarInt()));
+
+            case UPDATE_USER_LOCATION -> out.writeBoolean(locations.updateUserLocation(in.readVarInt(), WireCodec.readUserLocation(in)));
+            case GET_USER_LOCATION -> WireCodec.writeUserLocation(out, locations.getUserLocation(in.readVarInt()));
+            case GET_USER_LOCATION_VERSION -> out.writeVarLong(locations.getUserLocationVersion(in.readVarInt()));
+            case FIND_NEARBY_DRIVERS -> WireCodec.writeList(out,
+                locations.findNearbyDrivers(WireCodec.readUserLocation(in), in.readDouble()), WireCodec::writeUserLocation);
+            case HEARTBEAT -> out.writeBoolean(locations.heartbeat(in.readVarInt()));
+            case PREDICT_DRIVER_POSITION -> WireCodec.writePredictedPosition(out,
+                locations.predictDriverPosition(in.readVarInt(), in.readVarLong()));
+            case REVERSE_GEOCODE -> out.writeString(locations.reverseGeocode(in.readDouble(), in.readDouble()));
+            case SEARCH_PLACES -> WireCodec.writeList(out,
+                locations.searchPlaces(in.readString(), WireCodec.readUserLocation(in), in.readVarInt()), WireCodec::writePlaceSuggestion);
+
+            case PING -> out.writeBoolean(users.ping());
+            case REGISTER_USER -> out.writeBoolean(users.registerUser(WireCodec.readUser(in)));
+            case LOGIN_USER -> WireCodec.writeUser(out, users.loginUser(in.readString(), in.readString()));
+            case GET_USER_BY_ID -> WireCodec.writeUser(out, users.getUserById(in.readVarInt()));
+            case UPDATE_USER -> WireCodec.writeUser(out, users.updateUser(in.readVarInt(), WireCodec.readUser(in)));
+            case IS_USERNAME_EXISTS -> out.writeBoolean(users.isUsernameExists(in.readString()));
+            case IS_PHONE_EXISTS -> out.writeBoolean(users.isPhoneExists(in.readString()));
+            case DELETE_USER -> out.writeBoolean(users.deleteUser(in.readVarInt()));
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.rsrmi.ride_sharing_api.rmi.servers;
+
+import com.rsrmi.ride_sharing_api.rmi.transport.Frames;
+import com.rsrmi.ride_sharing_api.rmi.transport.WireOutput;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * NIO server for the binary transport, running beside the RMI registry. One selector thread
+ * reads frames from every connection and hands each call to the worker pool, so a slow call
+ * never holds up the others on its connection; responses are queued and written back by the
+ * selector thread in whatever order the calls finish, several per write when they pile up.
+ */
+public class BinaryServer implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(BinaryServer.class);
+
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_GATHER = 64;
+
+    private final BinaryDispatcher dispatcher;
+    private final ExecutorService workers;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Queue<Connection> wantWrite = new ConcurrentLinkedQueue<>();
+    private final AtomicLong calls = new AtomicLong();
+    private volatile boolean running = true;
+
+    public BinaryServer(int port, BinaryDispatcher dispatcher, ExecutorService workers) throws IOException {
+        this.dispatcher = dispatcher;
+        this.workers = workers;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public void start() {
+        Thread thread = new Thread(this::selectLoop, "binary-transport-selector");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        serverChannel.close();
+    }
+
+    private void selectLoop() {
+        while (running) {
+            try {
+                selector.select();
+                Connection pending;
+                while ((pending = wantWrite.poll()) != null) {
+                    if (pending.key.isValid()) {
+                        pending.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.debug("Binary transport connection dropped: {}", e.getMessage());
+                        connection.close();
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    log.error("Binary transport selector failed", e);
+                }
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+            // shutting down
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    private final class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+        ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        final Queue<ByteBuffer> out = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean writeRequested = new AtomicBoolean();
+        final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() throws IOException {
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            in.flip();
+            byte[] bytes = in.array();
+            int start = 0;
+            int available = in.limit();
+            while (available - start >= Frames.LENGTH_BYTES) {
+                int length = Frames.length(bytes, start);
+                if (available - start < Frames.LENGTH_BYTES + length) {
+                    break;
+                }
+                // The read buffer is reused, so the worker gets its own copy of the frame
+                byte[] frame = Arrays.copyOfRange(bytes, start, start + Frames.LENGTH_BYTES + length);
+                workers.execute(() -> respond(dispatcher.handle(frame, 0, length)));
+                calls.incrementAndGet();
+                start += Frames.LENGTH_BYTES + length;
+            }
+            in.position(start);
+            in.compact();
+            if (!in.hasRemaining()) {
+                in = ByteBuffer.allocate(in.capacity() * 2).put(in.flip());
+            }
+        }
+
+        /**
+         * Called by workers: queues the response and asks the selector thread to write it.
+         */
+        void respond(WireOutput response) {
+            out.add(ByteBuffer.wrap(response.array(), 0, response.size()));
+            if (writeRequested.compareAndSet(false, true)) {
+                wantWrite.add(this);
+                selector.wakeup();
+            }
+        }
+
+        void flush() throws IOException {
+            while (true) {
+                int n = 0;
+                for (ByteBuffer buffer : out) {
+                    if (n == MAX_GATHER) {
+                        break;
+                    }
+                    gather[n++] = buffer;
+                }
+                if (n == 0) {
+                    break;
+                }
+                channel.write(gather, 0, n);
+                for (int i = 0; i < n; i++) {
+                    if (gather[i].hasRemaining()) {
+                        Arrays.fill(gather, null);
+                        return; // socket buffer full; stay interested in OP_WRITE
+                    }
+                    out.poll();
+                }
+            }
+            Arrays.fill(gather, null);
+            key.interestOps(SelectionKey.OP_READ);
+            writeRequested.set(false);
+            // A worker may have queued a response after the loop looked
+            if (!out.isEmpty() && writeRequested.compareAndSet(false, true)) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+
+        void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // already gone
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.rsrmi.ride_sharing_api.rmi.servers;
+
+import com.rsrmi.ride_sharing_api.rmi.health.StartupTimer;
+import com.rsrmi.ride_sharing_api.rmi.interfaces.UserService;
+import java.io.File;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.Enumeration;
+import java.util.concurrent.CompletableFuture;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Training run for the AppCDS archive, made while building the production image: loads every
+ * class in the server jar and makes one RMI call through the registry, so the archive also
+ * holds the JDK's RMI, reflection-proxy and logging classes. Needs no database. Run it with
+ * the same classpath as the server:
+ *
+ * java -XX:ArchiveClassesAtExit=rmi-server.jsa -cp rmi-server.jar com.rsrmi.ride_sharing_api.rmi.servers.CdsTraining
+ */
+public class CdsTraining {
+
+    public static void main(String[] args) throws Exception {
+        StartupTimer.mark("cds-training");
+
+        int loaded = 0;
+        ClassLoader loader = CdsTraining.class.getClassLoader();
+        for (String path : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (!path.endsWith(".jar")) {
+                continue;
+            }
+            try (JarFile jar = new JarFile(path)) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    String name = entries.nextElement().getName();
+                    if (!name.endsWith(".class") || name.contains("-")) {
+                        continue;
+                    }
+                    try {
+                        Class.forName(name.substring(0, name.length() - 6).replace('/', '.'), false, loader);
+                        loaded++;
+                    } catch (ClassNotFoundException | LinkageError e) {
+                        // Optional dependency missing; the server never loads it either
+                    }
+                }
+            }
+        }
+        Class.forName("org.postgresql.Driver");
+        Class.forName("com.zaxxer.hikari.HikariDataSource");
+
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 11099;
+        Registry registry = LocateRegistry.createRegistry(port);
+        UserService service = LazyService.create(UserService.class, new CompletableFuture<>(), new CompletableFuture<>());
+        registry.bind("UserService", UnicastRemoteObject.exportObject(service, 0));
+        boolean ready = ((UserService) LocateRegistry.getRegistry("localhost", port).lookup("UserService")).ping();
+        UnicastRemoteObject.unexportObject(service, true);
+        UnicastRemoteObject.unexportObject(registry, true);
+
+        System.out.println("CDS training loaded " + loaded + " classes, round trip ping=" + ready);
+        System.exit(0);
+    }
+}
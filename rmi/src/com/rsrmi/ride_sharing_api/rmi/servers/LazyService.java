@@ -0,0 +1,75 @@
+package com.rsrmi.ride_sharing_api.rmi.servers;
+
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import com.rsrmi.ride_sharing_api.rmi.health.StartupTimer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Stand-in for a service whose implementation is still being built, so the registry can be
+ * bound as soon as the server starts. Calls wait up to RMI_STARTUP_WAIT_MS for the
+ * implementation and then go straight through; ping() doesn't wait and answers false until
+ * every service is ready, which makes it the readiness check.
+ */
+final class LazyService implements InvocationHandler {
+
+    private static final long WAIT_MS = EnvConfig.getLong("RMI_STARTUP_WAIT_MS", 10_000);
+
+    private final String name;
+    private final CompletableFuture<?> target;
+    private final CompletableFuture<?> ready;
+
+    private LazyService(String name, CompletableFuture<?> target, CompletableFuture<?> ready) {
+        this.name = name;
+        this.target = target;
+        this.ready = ready;
+    }
+
+    /**
+     * @param target completes with the implementation
+     * @param ready completes once all services are built
+     */
+    static <T extends Remote> T create(Class<T> type, CompletableFuture<? extends T> target, CompletableFuture<?> ready) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+            new LazyService(type.getSimpleName(), target, ready)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> name + "(lazy)";
+            };
+        }
+        if (method.getName().equals("ping") && method.getParameterCount() == 0 && !ready.isDone()) {
+            return false;
+        }
+        Object impl;
+        try {
+            impl = target.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RemoteException(name + " is still starting, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteException("Interrupted while waiting for " + name, e);
+        } catch (ExecutionException e) {
+            throw new RemoteException(name + " failed to start: " + e.getCause().getMessage(), e.getCause());
+        }
+        StartupTimer.firstCall(name + "." + method.getName());
+        try {
+            return method.invoke(impl, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
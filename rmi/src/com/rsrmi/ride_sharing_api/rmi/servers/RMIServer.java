@@ -3,46 +3,112 @@ package com.rsrmi.ride_sharing_api.rmi.servers;
 import com.rsrmi.ride_sharing_api.rmi.implementations.UserServiceImpl;
 import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
 import com.rsrmi.ride_sharing_api.rmi.implementations.RideServiceImpl;
+import com.rsrmi.ride_sharing_api.rmi.implementations.RoutingServiceImpl;
 import com.rsrmi.ride_sharing_api.rmi.interfaces.UserService;
 import com.rsrmi.ride_sharing_api.rmi.interfaces.LocationService;
 import com.rsrmi.ride_sharing_api.rmi.interfaces.RideService;
+import com.rsrmi.ride_sharing_api.rmi.interfaces.RoutingService;
+import com.rsrmi.ride_sharing_api.rmi.config.DatabaseConfig;
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import com.rsrmi.ride_sharing_api.rmi.dispatch.AdmissionGate;
+import com.rsrmi.ride_sharing_api.rmi.dispatch.ServerExecutors;
+import com.rsrmi.ride_sharing_api.rmi.health.StartupTimer;
+import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * RMI Server that starts the registry and binds the UserService
+ * RMI Server that starts the registry and binds the UserService, and serves the same objects
+ * over the binary transport on BINARY_TRANSPORT_PORT (0 turns it off).
+ *
+ * The registry is bound before the services are built, so clients can connect at once; see
+ * LazyService for how early calls behave and HealthCheck for liveness versus readiness.
  */
 public class RMIServer {
+    private static final Logger log = LoggerFactory.getLogger(RMIServer.class);
     
     public static void main(String[] args) {
         try {
-            System.out.println("Starting RMI Server...");
+            log.info("Starting RMI Server");
+
+            // Bound how long a callback to a slow RideOfferListener can hold a delivery thread
+            if (System.getProperty("sun.rmi.transport.tcp.responseTimeout") == null) {
+                System.setProperty("sun.rmi.transport.tcp.responseTimeout", "5000");
+            }
+
+            // The JDK transport runs one platform thread per connection and its pool is not pluggable;
+            // optionally cap it so a connection storm is refused instead of growing thread stacks
+            String maxConnectionThreads = System.getenv("RMI_MAX_CONNECTION_THREADS");
+            if (maxConnectionThreads != null && System.getProperty("sun.rmi.transport.tcp.maxConnectionThreads") == null) {
+                System.setProperty("sun.rmi.transport.tcp.maxConnectionThreads", maxConnectionThreads);
+            }
 
             // Step 1: Create RMI Registry on port 1099
-            System.out.println("Creating RMI Registry on port 1099...");
+            log.info("Creating RMI Registry on port 1099");
             Registry registry = LocateRegistry.createRegistry(1099);
 
-            // Step 2: Create service implementations
-            System.out.println("Creating service implementations...");
-            UserServiceImpl userServiceImpl = new UserServiceImpl();
-            UserService userService = userServiceImpl;
-            LocationService locationService = new LocationServiceImpl();
-            RideService rideService = new RideServiceImpl();
+            // Step 2: Build the service implementations in parallel; the database schema setup,
+            // road graph and place index loads don't depend on each other
+            log.info("Creating service implementations");
+            ExecutorService startup = ServerExecutors.newWorkerPool("startup", 4);
+            CompletableFuture<UserService> users = build(UserServiceImpl::new, startup);
+            CompletableFuture<LocationService> locations = build(LocationServiceImpl::new, startup);
+            CompletableFuture<RideService> rides = build(RideServiceImpl::new, startup);
+            CompletableFuture<RoutingService> routing = build(RoutingServiceImpl::new, startup);
+            CompletableFuture<Void> ready = CompletableFuture.allOf(users, locations, rides, routing);
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            for (CompletableFuture<?> service : new CompletableFuture<?>[] { users, locations, rides, routing }) {
+                service.exceptionally(e -> {
+                    failed.completeExceptionally(e);
+                    return null;
+                });
+            }
+
+            // Step 3: Bind stand-ins right away; calls made before a service is built wait for it
+            log.info("Binding services to registry");
+            UserService userService = LazyService.create(UserService.class, users, ready);
+            LocationService locationService = LazyService.create(LocationService.class, locations, ready);
+            RideService rideService = LazyService.create(RideService.class, rides, ready);
+            RoutingService routingService = LazyService.create(RoutingService.class, routing, ready);
+            registry.bind("UserService", UnicastRemoteObject.exportObject(userService, 0));
+            registry.bind("LocationService", UnicastRemoteObject.exportObject(locationService, 0));
+            registry.bind("RideService", UnicastRemoteObject.exportObject(rideService, 0));
+            registry.bind("RoutingService", UnicastRemoteObject.exportObject(routingService, 0));
 
-            // Step 3: Bind the services to the registry
-            System.out.println("Binding services to registry...");
-            registry.bind("UserService", userService);
-            registry.bind("LocationService", locationService);
-            registry.bind("RideService", rideService);
+            // Step 4: Serve the same services over the binary transport
+            int binaryPort = EnvConfig.getInt("BINARY_TRANSPORT_PORT", 1100);
+            if (binaryPort > 0) {
+                BinaryServer binaryServer = new BinaryServer(binaryPort,
+                    new BinaryDispatcher(userService, locationService, rideService),
+                    ServerExecutors.newWorkerPool("binary-transport", "BINARY_TRANSPORT_THREAD_MODE", EnvConfig.getInt("BINARY_TRANSPORT_THREADS", 32)));
+                binaryServer.start();
+                log.info("Binary transport listening on port {}", binaryServer.getPort());
+            }
+            StartupTimer.mark("bound");
 
             // Get RMI hostname for Docker networking
             String rmiHost = System.getenv().getOrDefault("RMI_HOSTNAME", "localhost");
 
-            System.out.println("RMI Server started successfully!");
-            System.out.println("UserService is available at: rmi://" + rmiHost + ":1099/UserService");
-            System.out.println("LocationService is available at: rmi://" + rmiHost + ":1099/LocationService");
-            System.out.println("RideService is available at: rmi://" + rmiHost + ":1099/RideService");
-            System.out.println("Server is ready to accept client connections...");
+            try {
+                CompletableFuture.anyOf(ready, failed).join();
+            } catch (CompletionException e) {
+                // Exit so the container is restarted rather than left live but never ready
+                log.error("Service initialization failed", e.getCause());
+                System.exit(1);
+            }
+            startup.shutdown();
+            StartupTimer.mark("ready");
+
+            AdmissionGate dbAdmission = DatabaseConfig.getInstance().getAdmission();
+            log.info("Thread modes rideOfferDelivery={} binaryTransport={} dbAdmissionPermits={}",
+                ServerExecutors.mode("RIDE_OFFER_DELIVERY_THREAD_MODE"), ServerExecutors.mode("BINARY_TRANSPORT_THREAD_MODE"), dbAdmission.getPermits());
+            log.info("RMI Server started, UserService/LocationService/RideService/RoutingService available at rmi://{}:1099", rmiHost);
 
             // Keep the server alive
             while (true) {
@@ -50,8 +116,21 @@ public class RMIServer {
             }
 
         } catch (Exception e) {
-            System.err.println("Error starting RMI Server: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error starting RMI Server", e);
         }
     }
+
+    private interface ServiceFactory<T> {
+        T create() throws RemoteException;
+    }
+
+    private static <T> CompletableFuture<T> build(ServiceFactory<T> factory, ExecutorService executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return factory.create();
+            } catch (RemoteException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
 }
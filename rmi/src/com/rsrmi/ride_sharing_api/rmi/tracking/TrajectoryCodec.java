@@ -0,0 +1,123 @@
+package com.rsrmi.ride_sharing_api.rmi.tracking;
+
+import com.rsrmi.ride_sharing_api.rmi.models.RideTrajectory;
+import java.util.Arrays;
+
+/**
+ * Simplifies a run of GPS fixes and encodes it in the segment format described on
+ * {@link RideTrajectory}.
+ *
+ * Simplification is Douglas-Peucker with the synchronized Euclidean distance: a point is measured
+ * against where the driver would have been at that moment moving at constant speed between the
+ * two kept points, not against the nearest point of the line. The error bound therefore covers
+ * timing as well as shape, and a stop at the kerb is not flattened away. Coordinates are then
+ * rounded to 1e-5 degrees, which adds under a metre.
+ */
+public final class TrajectoryCodec {
+
+    private static final double METERS_PER_DEGREE = 6_371_000 * Math.PI / 180;
+
+    private TrajectoryCodec() {
+    }
+
+    /**
+     * Indices of the points to keep, ascending, always including the first and last.
+     */
+    public static int[] simplify(double[] lat, double[] lng, long[] time, int count, double maxErrorMeters) {
+        if (count <= 2) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        double metersPerDegreeLng = METERS_PER_DEGREE * Math.cos(Math.toRadians(lat[0]));
+        double maxErrorSquared = maxErrorMeters * maxErrorMeters;
+        boolean[] keep = new boolean[count];
+        keep[0] = true;
+        keep[count - 1] = true;
+        int kept = 2;
+
+        // Explicit stack of (first, last) ranges; recursion depth could reach the point count
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            long span = time[last] - time[first];
+            int worst = -1;
+            double worstSquared = maxErrorSquared;
+            for (int i = first + 1; i < last; i++) {
+                double ratio = span > 0 ? (double) (time[i] - time[first]) / span : 0;
+                double expectedLat = lat[first] + (lat[last] - lat[first]) * ratio;
+                double expectedLng = lng[first] + (lng[last] - lng[first]) * ratio;
+                double dy = (lat[i] - expectedLat) * METERS_PER_DEGREE;
+                double dx = (lng[i] - expectedLng) * metersPerDegreeLng;
+                double squared = dx * dx + dy * dy;
+                if (squared > worstSquared) {
+                    worstSquared = squared;
+                    worst = i;
+                }
+            }
+            if (worst < 0) {
+                continue;
+            }
+            keep[worst] = true;
+            kept++;
+            if (top + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = first;
+            stack[top++] = worst;
+            stack[top++] = worst;
+            stack[top++] = last;
+        }
+
+        int[] indices = new int[kept];
+        int k = 0;
+        for (int i = 0; i < count; i++) {
+            if (keep[i]) {
+                indices[k++] = i;
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * One encoded segment holding the given points in order.
+     */
+    public static byte[] encode(double[] lat, double[] lng, long[] time, int[] indices) {
+        // Worst case 10 bytes per varint, three per point, plus the count
+        byte[] out = new byte[10 + indices.length * 30];
+        int pos = writeVarint(out, 0, indices.length);
+        long prevLat = 0;
+        long prevLng = 0;
+        long prevTime = 0;
+        for (int i : indices) {
+            long qLat = Math.round(lat[i] * RideTrajectory.COORDINATE_SCALE);
+            long qLng = Math.round(lng[i] * RideTrajectory.COORDINATE_SCALE);
+            pos = writeVarint(out, pos, zigzag(qLat - prevLat));
+            pos = writeVarint(out, pos, zigzag(qLng - prevLng));
+            pos = writeVarint(out, pos, zigzag(time[i] - prevTime));
+            prevLat = qLat;
+            prevLng = qLng;
+            prevTime = time[i];
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    private static int writeVarint(byte[] out, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static long zigzag(long n) {
+        return (n << 1) ^ (n >> 63);
+    }
+}
@@ -0,0 +1,218 @@
+package com.rsrmi.ride_sharing_api.rmi.tracking;
+
+import com.rsrmi.ride_sharing_api.rmi.config.DatabaseConfig;
+import com.rsrmi.ride_sharing_api.rmi.config.EnvConfig;
+import com.rsrmi.ride_sharing_api.rmi.dispatch.ServerExecutors;
+import com.rsrmi.ride_sharing_api.rmi.models.RideTrajectory;
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects driver breadcrumbs for rides in progress and stores them compressed in ride_tracks.
+ *
+ * Fixes are buffered per ride in memory. Every TRAJECTORY_SEGMENT_POINTS fixes, and when the ride
+ * ends, the buffer is simplified and encoded by {@link TrajectoryCodec} and written as one
+ * segment row on a background writer, so a crash loses at most one unwritten segment.
+ */
+public class TrajectoryRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(TrajectoryRecorder.class);
+
+    private static final double MAX_ERROR_METERS = EnvConfig.getDouble("TRAJECTORY_MAX_ERROR_METERS", 5);
+    private static final int SEGMENT_POINTS = EnvConfig.getInt("TRAJECTORY_SEGMENT_POINTS", 300);
+
+    private static TrajectoryRecorder instance;
+
+    private final Map<Integer, Track> tracks = new ConcurrentHashMap<>();
+    private final DatabaseConfig dbConfig;
+    private final ExecutorService writer;
+
+    private TrajectoryRecorder() {
+        this.dbConfig = DatabaseConfig.getInstance();
+        this.writer = ServerExecutors.newWorkerPool("trajectory-writer", 2);
+    }
+
+    public static synchronized TrajectoryRecorder getInstance() {
+        if (instance == null) {
+            instance = new TrajectoryRecorder();
+        }
+        return instance;
+    }
+
+    /**
+     * Start buffering fixes for a ride once a driver is assigned.
+     */
+    public void start(int rideId) {
+        tracks.putIfAbsent(rideId, new Track(rideId));
+    }
+
+    /**
+     * Buffer one fix. Ignored unless the ride was started and has not finished, so a fix racing
+     * the end of the ride cannot leave a stray buffer behind.
+     */
+    public void record(int rideId, double latitude, double longitude, long timestampMillis) {
+        Track track = tracks.get(rideId);
+        if (track == null) {
+            return;
+        }
+        Segment full = null;
+        synchronized (track) {
+            track.add(latitude, longitude, timestampMillis);
+            if (track.size >= SEGMENT_POINTS) {
+                full = track.takeSegment();
+            }
+        }
+        if (full != null) {
+            submit(full);
+        }
+    }
+
+    /**
+     * The ride is over: write whatever is still buffered.
+     */
+    public void finish(int rideId) {
+        Track track = tracks.remove(rideId);
+        if (track == null) {
+            return;
+        }
+        Segment rest;
+        synchronized (track) {
+            rest = track.size > 0 ? track.takeSegment() : null;
+        }
+        if (rest != null) {
+            submit(rest);
+        }
+    }
+
+    /**
+     * Stored segments in order, plus the still-buffered tail of a ride in progress.
+     *
+     * @return null when nothing was recorded for the ride
+     */
+    public RideTrajectory load(int rideId) throws SQLException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        int points = 0;
+        int rawPoints = 0;
+        String sql = "SELECT point_count, raw_point_count, encoded FROM ride_tracks WHERE ride_id = ? ORDER BY segment_no";
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, rideId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    points += rs.getInt("point_count");
+                    rawPoints += rs.getInt("raw_point_count");
+                    encoded.writeBytes(rs.getBytes("encoded"));
+                }
+            }
+        }
+        Track track = tracks.get(rideId);
+        if (track != null) {
+            Segment tail;
+            synchronized (track) {
+                tail = track.size > 0 ? track.peekSegment() : null;
+            }
+            if (tail != null) {
+                int[] kept = TrajectoryCodec.simplify(tail.lat, tail.lng, tail.time, tail.lat.length, MAX_ERROR_METERS);
+                encoded.writeBytes(TrajectoryCodec.encode(tail.lat, tail.lng, tail.time, kept));
+                points += kept.length;
+                rawPoints += tail.lat.length;
+            }
+        }
+        if (rawPoints == 0) {
+            return null;
+        }
+        return new RideTrajectory(rideId, points, rawPoints, encoded.toByteArray());
+    }
+
+    private void submit(Segment segment) {
+        writer.execute(() -> write(segment));
+    }
+
+    private void write(Segment segment) {
+        int[] kept = TrajectoryCodec.simplify(segment.lat, segment.lng, segment.time, segment.lat.length, MAX_ERROR_METERS);
+        byte[] encoded = TrajectoryCodec.encode(segment.lat, segment.lng, segment.time, kept);
+        String sql = "INSERT INTO ride_tracks (ride_id, segment_no, point_count, raw_point_count, encoded) VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, segment.rideId);
+            stmt.setInt(2, segment.segmentNo);
+            stmt.setInt(3, kept.length);
+            stmt.setInt(4, segment.lat.length);
+            stmt.setBytes(5, encoded);
+            stmt.executeUpdate();
+            log.debug("Trajectory segment stored rideId={} segment={} points={}/{} bytes={}",
+                segment.rideId, segment.segmentNo, kept.length, segment.lat.length, encoded.length);
+        } catch (SQLException e) {
+            log.error("Failed to store trajectory segment rideId={} segment={}", segment.rideId, segment.segmentNo, e);
+        }
+    }
+
+    private static final class Segment {
+        final int rideId;
+        final int segmentNo;
+        final double[] lat;
+        final double[] lng;
+        final long[] time;
+
+        Segment(int rideId, int segmentNo, double[] lat, double[] lng, long[] time) {
+            this.rideId = rideId;
+            this.segmentNo = segmentNo;
+            this.lat = lat;
+            this.lng = lng;
+            this.time = time;
+        }
+    }
+
+    // Guarded by its own monitor
+    private static final class Track {
+        final int rideId;
+        double[] lat = new double[32];
+        double[] lng = new double[32];
+        long[] time = new long[32];
+        int size;
+        int nextSegment;
+        long lastTime = Long.MIN_VALUE;
+
+        Track(int rideId) {
+            this.rideId = rideId;
+        }
+
+        void add(double latitude, double longitude, long timestampMillis) {
+            // Fixes can arrive out of order across RMI threads; drop ones older than the last kept
+            if (timestampMillis <= lastTime) {
+                return;
+            }
+            lastTime = timestampMillis;
+            if (size == lat.length) {
+                int capacity = Math.min(lat.length * 2, Math.max(SEGMENT_POINTS, 32));
+                lat = Arrays.copyOf(lat, capacity);
+                lng = Arrays.copyOf(lng, capacity);
+                time = Arrays.copyOf(time, capacity);
+            }
+            lat[size] = latitude;
+            lng[size] = longitude;
+            time[size] = timestampMillis;
+            size++;
+        }
+
+        Segment peekSegment() {
+            return new Segment(rideId, nextSegment, Arrays.copyOf(lat, size), Arrays.copyOf(lng, size), Arrays.copyOf(time, size));
+        }
+
+        Segment takeSegment() {
+            Segment segment = peekSegment();
+            nextSegment++;
+            size = 0;
+            return segment;
+        }
+    }
+}
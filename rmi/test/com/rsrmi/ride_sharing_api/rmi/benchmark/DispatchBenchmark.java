@@ -0,0 +1,93 @@
+package com.rsrmi.ride_sharing_api.rmi.benchmark;
+
+import com.rsrmi.ride_sharing_api.rmi.dispatch.AdmissionGate;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares thread-per-call handling on platform threads (what the JDK RMI transport does per
+ * connection) with virtual threads, for calls that block on a Hikari-sized resource behind the
+ * same AdmissionGate DatabaseConfig uses. Reports peak in-flight calls at the gate, peak live
+ * platform threads, resident memory growth and rejected calls.
+ *
+ * Run each mode in its own JVM so the memory figures do not bleed into each other:
+ * java -cp "./target/classes:./target/test-classes:./lib/*" com.rsrmi.ride_sharing_api.rmi.benchmark.DispatchBenchmark platform|virtual [callers] [poolSize] [queryMs]
+ */
+public class DispatchBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "platform";
+        int callers = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long queryMs = args.length > 3 ? Long.parseLong(args[3]) : 20;
+
+        // Same defaults as DatabaseConfig: pool-sized permits, 4x that waiting, 5s wait budget
+        AdmissionGate gate = new AdmissionGate("db", poolSize, poolSize * 4, 5000);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long rssBefore = rssKb();
+        threads.resetPeakThreadCount();
+
+        ExecutorService executor = "virtual".equals(mode)
+            ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newThreadPerTaskExecutor(Thread.ofPlatform().daemon().factory());
+        CountDownLatch allStarted = new CountDownLatch(callers);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(callers);
+        AtomicLong completed = new AtomicLong();
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < callers; i++) {
+            executor.execute(() -> {
+                try {
+                    allStarted.countDown();
+                    // Hold every caller until all exist, as a burst of concurrent RMI calls would
+                    release.await();
+                    if (gate.acquire()) {
+                        try {
+                            Thread.sleep(queryMs);
+                            completed.incrementAndGet();
+                        } finally {
+                            gate.release();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        allStarted.await();
+        long rssLoaded = rssKb();
+        int liveThreads = threads.getThreadCount();
+        release.countDown();
+        done.await();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        executor.shutdown();
+
+        System.out.printf("mode=%s callers=%d poolSize=%d queryMs=%d%n", mode, callers, poolSize, queryMs);
+        System.out.printf("  peak in-flight at gate : %d (peak waiting %d)%n", gate.getPeakInFlight(), gate.getPeakWaiting());
+        System.out.printf("  completed / rejected   : %d / %d in %.2fs%n", completed.get(), gate.getRejected(), seconds);
+        System.out.printf("  live platform threads  : %d (peak %d)%n", liveThreads, threads.getPeakThreadCount());
+        System.out.printf("  RSS growth with callers parked : %,d KB%n", rssLoaded - rssBefore);
+    }
+
+    private static long rssKb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (Exception e) {
+            // Not Linux: memory figure unavailable
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,104 @@
+package com.rsrmi.ride_sharing_api.rmi.benchmark;
+
+import com.rsrmi.ride_sharing_api.rmi.heatmap.SupplyDemandHeatmap;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import com.rsrmi.ride_sharing_api.rmi.pricing.FareQuoteEngine;
+import com.rsrmi.ride_sharing_api.rmi.routing.OsmGraphLoader;
+import com.rsrmi.ride_sharing_api.rmi.routing.RoadGraph;
+import com.rsrmi.ride_sharing_api.rmi.routing.RoutingEngine;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Fare quote latency under concurrent callers on the synthetic grid city from RoutingBenchmark.
+ * Riders ask for trips between a fixed set of popular places, so the first pass misses the
+ * quote cache once per cell pair (one route search each) and replaying the same trips is served
+ * entirely from it. Run it well inside one FARE_QUOTE_BUCKET_SECONDS window, or the replay
+ * starts a new bucket. A few cells are loaded with pending rides so the surge path is exercised.
+ *
+ * Usage: java -cp "./target/classes:./target/test-classes:./lib/*" com.rsrmi.ride_sharing_api.rmi.benchmark.FareQuoteBenchmark [threads] [quotesPerThread] [places]
+ */
+public class FareQuoteBenchmark {
+
+    private static final int GRID_SIZE = 300;
+    private static final double ORIGIN_LAT = 16.78;
+    private static final double ORIGIN_LNG = 96.13;
+    private static final double SPOT_SPAN_DEG = 0.06; // popular places within ~7 km of each other
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int quotesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int places = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        RoadGraph graph = OsmGraphLoader.load(new ByteArrayInputStream(
+            RoutingBenchmark.gridCity(GRID_SIZE).getBytes(StandardCharsets.UTF_8)));
+        SupplyDemandHeatmap heatmap = SupplyDemandHeatmap.getInstance();
+        FareQuoteEngine quotes = new FareQuoteEngine(new RoutingEngine(graph), heatmap);
+
+        Random random = new Random(7);
+        double[][] spots = new double[places][2];
+        for (double[] spot : spots) {
+            spot[0] = ORIGIN_LAT + 0.1 + random.nextDouble() * SPOT_SPAN_DEG;
+            spot[1] = ORIGIN_LNG + 0.1 + random.nextDouble() * SPOT_SPAN_DEG;
+        }
+        // Demand hotspots: ten places with more open requests than drivers
+        for (int i = 0; i < Math.min(10, spots.length - 1); i++) {
+            for (int r = 0; r < 12; r++) {
+                Ride ride = new Ride(i * 100 + r + 1, 1, 0, spots[i][0], spots[i][1], spots[i + 1][0], spots[i + 1][1], Ride.Status.PENDING);
+                heatmap.onRideRequested(ride);
+            }
+            heatmap.onDriverLocation(10_000 + i, spots[i][0], spots[i][1], true);
+        }
+
+        System.out.printf("graph: %,d nodes; %d threads x %,d quotes over %d places (%,d trips)%n",
+            graph.getNodeCount(), threads, quotesPerThread, places, places * places);
+        report("first pass (cold cache)", run(quotes, spots, threads, quotesPerThread));
+        report("same trips again (warm)", run(quotes, spots, threads, quotesPerThread));
+        System.out.println("sample: " + quotes.quote(spots[0][0], spots[0][1], spots[1][0], spots[1][1]));
+    }
+
+    private static long[] run(FareQuoteEngine quotes, double[][] spots, int threads, int quotesPerThread)
+            throws InterruptedException {
+        long[] latencies = new long[threads * quotesPerThread];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int offset = t * quotesPerThread;
+            Random random = new Random(t);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < quotesPerThread; i++) {
+                        double[] from = spots[random.nextInt(spots.length)];
+                        double[] to = spots[random.nextInt(spots.length)];
+                        // Riders a few metres apart at the same place share a cell and a quote
+                        double jitter = (random.nextDouble() - 0.5) * 0.0003;
+                        long begin = System.nanoTime();
+                        quotes.quote(from[0] + jitter, from[1] + jitter, to[0], to[1]);
+                        latencies[offset + i] = System.nanoTime() - begin;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+        start.countDown();
+        done.await();
+        return latencies;
+    }
+
+    private static void report(String label, long[] latencies) {
+        Arrays.sort(latencies);
+        System.out.printf("%-26s p50 %8.1f us, p99 %8.1f us, p99.9 %8.1f us, max %8.2f ms%n", label,
+            latencies[latencies.length / 2] / 1e3,
+            latencies[(int) (latencies.length * 0.99)] / 1e3,
+            latencies[(int) (latencies.length * 0.999)] / 1e3,
+            latencies[latencies.length - 1] / 1e6);
+    }
+}
@@ -0,0 +1,100 @@
+package com.rsrmi.ride_sharing_api.rmi.benchmark;
+
+import com.rsrmi.ride_sharing_api.rmi.geocoding.PlaceIndex;
+import com.rsrmi.ride_sharing_api.rmi.geocoding.PlaceSearchIndex;
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import com.rsrmi.ride_sharing_api.rmi.models.PlaceSuggestion;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reverse-geocoding latency of the KD-tree PlaceIndex over a synthetic city of places, checked
+ * against a linear scan on a sample of the queries, then autocomplete latency of PlaceSearchIndex.
+ *
+ * Usage: java -cp "./target/classes:./target/test-classes:./lib/*" com.rsrmi.ride_sharing_api.rmi.benchmark.GeocodingBenchmark [places] [queries]
+ */
+public class GeocodingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int placeCount = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        Random random = new Random(7);
+        double[] lat = new double[placeCount];
+        double[] lng = new double[placeCount];
+        StringBuilder csv = new StringBuilder("latitude,longitude,label\n");
+        for (int i = 0; i < placeCount; i++) {
+            lat[i] = 16.75 + random.nextDouble() * 0.2;
+            lng[i] = 96.10 + random.nextDouble() * 0.2;
+            csv.append((float) lat[i]).append(',').append((float) lng[i]).append(",No. ").append(i).append(", Street ").append(i % 997).append('\n');
+        }
+        long loadStart = System.nanoTime();
+        PlaceIndex index = PlaceIndex.load(new StringReader(csv.toString()));
+        System.out.printf("places: %,d indexed in %d ms%n", index.size(), (System.nanoTime() - loadStart) / 1_000_000);
+
+        // Correctness against a linear scan
+        int mismatches = 0;
+        for (int q = 0; q < 200; q++) {
+            double qLat = 16.75 + random.nextDouble() * 0.2;
+            double qLng = 96.10 + random.nextDouble() * 0.2;
+            int expected = -1;
+            double expectedKm = 0.25;
+            for (int i = 0; i < placeCount; i++) {
+                double km = LocationServiceImpl.haversine(qLat, qLng, (float) lat[i], (float) lng[i]);
+                if (km < expectedKm) {
+                    expectedKm = km;
+                    expected = i;
+                }
+            }
+            int found = index.nearest(qLat, qLng, 250);
+            if (found != expected && (found < 0 || expected < 0
+                || Math.abs(LocationServiceImpl.haversine(qLat, qLng, (float) lat[found], (float) lng[found]) - expectedKm) > 0.001)) {
+                mismatches++;
+            }
+        }
+        System.out.println("mismatches vs linear scan: " + mismatches + " / 200");
+
+        double[] qLat = new double[queries];
+        double[] qLng = new double[queries];
+        for (int q = 0; q < queries; q++) {
+            qLat[q] = 16.75 + random.nextDouble() * 0.2;
+            qLng[q] = 96.10 + random.nextDouble() * 0.2;
+        }
+        for (int q = 0; q < Math.min(queries, 100_000); q++) {
+            index.nearest(qLat[q], qLng[q], 250);
+        }
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int q = 0; q < queries; q++) {
+            checksum += index.nearest(qLat[q], qLng[q], 250);
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / queries;
+        System.out.printf("nearest(): %.2f us/query uncached (checksum %d)%n", micros, checksum);
+
+        // Autocomplete: prefixes of 1-8 characters of existing words, ranked around a random caller
+        long buildStart = System.nanoTime();
+        PlaceSearchIndex search = new PlaceSearchIndex(index);
+        System.out.printf("prefix index: %,d word entries (%,d KB) built in %d ms%n", search.size(),
+            search.size() * 8L / 1024, (System.nanoTime() - buildStart) / 1_000_000);
+        int searches = 20_000;
+        long[] nanos = new long[searches];
+        int found = 0;
+        for (int q = 0; q < searches + 5_000; q++) {
+            String word = q % 2 == 0 ? "street " + random.nextInt(997) : "no. " + random.nextInt(placeCount);
+            String prefix = word.substring(0, 1 + random.nextInt(Math.min(8, word.length())));
+            double callerLat = 16.75 + random.nextDouble() * 0.2;
+            double callerLng = 96.10 + random.nextDouble() * 0.2;
+            long t0 = System.nanoTime();
+            List<PlaceSuggestion> top = search.search(prefix, callerLat, callerLng, 5);
+            if (q >= 5_000) {
+                nanos[q - 5_000] = System.nanoTime() - t0;
+                found += top.size();
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("search(): p50 %.3f ms, p99 %.3f ms, max %.3f ms, %.1f results/query%n",
+            nanos[searches / 2] / 1e6, nanos[searches * 99 / 100] / 1e6, nanos[searches - 1] / 1e6, (double) found / searches);
+    }
+}
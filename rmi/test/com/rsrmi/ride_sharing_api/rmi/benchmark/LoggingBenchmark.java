@@ -0,0 +1,128 @@
+package com.rsrmi.ride_sharing_api.rmi.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+import com.rsrmi.ride_sharing_api.rmi.logging.LogSampler;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures how many simulated hot-path calls per second request threads can make while
+ * logging the way the service implementations used to (string concatenation + System.out)
+ * versus the SLF4J setup in config/logback.xml (parameterized messages, async appender).
+ *
+ * Usage: java -cp "./target/classes:./target/test-classes:./lib/*" com.rsrmi.ride_sharing_api.rmi.benchmark.LoggingBenchmark [threads] [callsPerThread]
+ */
+public class LoggingBenchmark {
+
+    private interface HotPath {
+        void call(int driverId, double lat, double lng);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int callsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        File dir = new File(System.getProperty("java.io.tmpdir"), "rmi-logging-benchmark");
+        dir.mkdirs();
+        PrintStream console = System.out;
+        console.println("Threads: " + threads + ", calls per thread: " + callsPerThread);
+
+        // 1. Old style: every call concatenates and prints through the synchronized, autoflushing System.out
+        PrintStream sink = new PrintStream(new FileOutputStream(new File(dir, "system-out.log")), true);
+        System.setOut(sink);
+        double printlnRate = run(threads, callsPerThread, (driverId, lat, lng) ->
+            System.out.println("📍 updateDriverLocation called with driverId=" + driverId + ", lat=" + lat + ", lng=" + lng));
+        System.setOut(console);
+        sink.close();
+
+        // 2. SLF4J at INFO through an async appender writing to the same kind of sink
+        org.slf4j.Logger log = asyncFileLogger(new File(dir, "async.log"));
+        double asyncInfoRate = run(threads, callsPerThread, (driverId, lat, lng) ->
+            log.info("updateDriverLocation driverId={} lat={} lng={}", driverId, lat, lng));
+
+        // 3. What the services actually do on hot paths: sampled debug, with DEBUG off in production
+        LogSampler sampler = LogSampler.everyN(100);
+        double sampledDebugRate = run(threads, callsPerThread, (driverId, lat, lng) -> {
+            if (log.isDebugEnabled() && sampler.sample()) {
+                log.debug("updateDriverLocation driverId={} lat={} lng={}", driverId, lat, lng);
+            }
+        });
+
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+
+        console.printf("System.out println        : %,12.0f calls/s%n", printlnRate);
+        console.printf("SLF4J async INFO          : %,12.0f calls/s (%.1fx)%n", asyncInfoRate, asyncInfoRate / printlnRate);
+        console.printf("SLF4J sampled DEBUG (off) : %,12.0f calls/s (%.1fx)%n", sampledDebugRate, sampledDebugRate / printlnRate);
+    }
+
+    private static double run(int threads, int callsPerThread, HotPath hotPath) throws InterruptedException {
+        // Warm up so the JIT has compiled the logging path before timing
+        for (int i = 0; i < 20_000; i++) {
+            hotPath.call(i, 16.8409, 96.1735);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int driverId = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < callsPerThread; i++) {
+                        hotPath.call(driverId, 16.8409 + i * 1e-6, 96.1735 - i * 1e-6);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        return (double) threads * callsPerThread / seconds;
+    }
+
+    private static org.slf4j.Logger asyncFileLogger(File file) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %-5level [%thread] %logger{36} - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.getAbsolutePath());
+        fileAppender.setAppend(false);
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        // Same settings as config/logback.xml
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(1638);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(fileAppender);
+        async.start();
+
+        ch.qos.logback.classic.Logger logger = context.getLogger("benchmark.hotpath");
+        logger.detachAndStopAllAppenders();
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(async);
+        return logger;
+    }
+}
@@ -0,0 +1,216 @@
+package com.rsrmi.ride_sharing_api.rmi.benchmark;
+
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import com.rsrmi.ride_sharing_api.rmi.routing.MapMatcher;
+import com.rsrmi.ride_sharing_api.rmi.routing.OsmGraphLoader;
+import com.rsrmi.ride_sharing_api.rmi.routing.RoadGraph;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Accuracy and per-stage cost of map matching on the synthetic grid city from RoutingBenchmark.
+ * Simulated drivers follow the two-way streets, turning at random junctions, and report a fix
+ * every few seconds with Gaussian noise and occasional multipath outliers. Each round sends one
+ * ping per driver through the matcher's queues and waits for them to drain, then compares both
+ * the raw fix and the snapped position with where the driver really was, and with the street they
+ * were on. Snapping cannot remove noise along the street, so the off-road distance is the measure of it.
+ *
+ * Usage: java -cp "./target/classes:./target/test-classes:./lib/*" com.rsrmi.ride_sharing_api.rmi.benchmark.MapMatchBenchmark [drivers] [pings] [noiseMeters]
+ */
+public class MapMatchBenchmark {
+
+    private static final double ORIGIN_LAT = 16.78;
+    private static final double ORIGIN_LNG = 96.13;
+    private static final double SPACING_DEG = 0.0012; // must match RoutingBenchmark
+    private static final int GRID = 100;
+    private static final double METERS_PER_DEGREE = 6_371_000 * Math.PI / 180;
+    private static final long PING_MILLIS = 4000;
+
+    // Heading as row/column steps: north, east, south, west
+    private static final int[] DR = { 1, 0, -1, 0 };
+    private static final int[] DC = { 0, 1, 0, -1 };
+
+    public static void main(String[] args) throws Exception {
+        int drivers = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int pings = args.length > 1 ? Integer.parseInt(args[1]) : 150;
+        double noise = args.length > 2 ? Double.parseDouble(args[2]) : 6;
+
+        RoadGraph graph = OsmGraphLoader.load(new ByteArrayInputStream(
+            RoutingBenchmark.gridCity(GRID).getBytes(StandardCharsets.UTF_8)));
+        long buildStart = System.nanoTime();
+        MapMatcher matcher = new MapMatcher(graph);
+        System.out.printf("graph: %,d nodes, %,d edges; matcher built in %d ms%n", graph.getNodeCount(), graph.getEdgeCount(),
+            (System.nanoTime() - buildStart) / 1_000_000);
+
+        Random random = new Random(5);
+        Driver[] fleet = new Driver[drivers];
+        for (int d = 0; d < drivers; d++) {
+            fleet[d] = new Driver(random);
+            matcher.start(d + 1);
+        }
+        double[] rawErrors = new double[drivers * pings];
+        double[] snapErrors = new double[drivers * pings];
+        double[] rawOffRoad = new double[drivers * pings];
+        double[] snapOffRoad = new double[drivers * pings];
+        int samples = 0;
+        int unsnapped = 0;
+        long time = 1_760_000_000_000L;
+        long start = System.nanoTime();
+        for (int p = 0; p < pings; p++) {
+            time += PING_MILLIS;
+            double[][] truth = new double[drivers][];
+            double[][] fixes = new double[drivers][];
+            for (int d = 0; d < drivers; d++) {
+                fleet[d].advance(random, PING_MILLIS / 1000.0);
+                truth[d] = fleet[d].position();
+                double spread = random.nextInt(30) == 0 ? 5 * noise : noise; // multipath outlier now and then
+                double lat = truth[d][0] + random.nextGaussian() * spread / METERS_PER_DEGREE;
+                double lng = truth[d][1] + random.nextGaussian() * spread / (METERS_PER_DEGREE * Math.cos(Math.toRadians(lat)));
+                fixes[d] = new double[] { lat, lng };
+                matcher.submit(d + 1, lat, lng, time);
+            }
+            while (!matcher.isIdle()) {
+                Thread.onSpinWait();
+            }
+            // Skip the first pings while the model has little history
+            if (p < 3) {
+                continue;
+            }
+            for (int d = 0; d < drivers; d++) {
+                MapMatcher.Snap snap = matcher.snapped(d + 1);
+                rawErrors[samples] = meters(fixes[d][0], fixes[d][1], truth[d][0], truth[d][1]);
+                rawOffRoad[samples] = fleet[d].crossTrack(fixes[d][0], fixes[d][1]);
+                if (snap == null) {
+                    unsnapped++;
+                    snapErrors[samples] = rawErrors[samples];
+                    snapOffRoad[samples] = rawOffRoad[samples];
+                } else {
+                    snapErrors[samples] = meters(snap.latitude, snap.longitude, truth[d][0], truth[d][1]);
+                    snapOffRoad[samples] = fleet[d].crossTrack(snap.latitude, snap.longitude);
+                }
+                samples++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("drivers: %d, pings each: %d, noise %.0f m (5x outliers 1 in 30), %,d pings in %.2f s (%.0f pings/s)%n",
+            drivers, pings, noise, (long) drivers * pings, seconds, drivers * pings / seconds);
+        report("raw fix error    ", Arrays.copyOf(rawErrors, samples));
+        report("snapped error    ", Arrays.copyOf(snapErrors, samples));
+        report("raw off the road ", Arrays.copyOf(rawOffRoad, samples));
+        report("snap off the road", Arrays.copyOf(snapOffRoad, samples));
+        System.out.printf("unsnapped: %d, HMM breaks: %d, dropped: %d%n", unsnapped, matcher.getBreaks(), matcher.getDropped());
+        System.out.println("queue       " + matcher.getQueueLatency().summary());
+        System.out.println("candidates  " + matcher.getCandidateLatency().summary());
+        System.out.println("transitions " + matcher.getTransitionLatency().summary());
+        System.out.println("total       " + matcher.getTotalLatency().summary());
+    }
+
+    private static void report(String label, double[] errors) {
+        Arrays.sort(errors);
+        double sum = 0;
+        int within5 = 0;
+        for (double e : errors) {
+            sum += e;
+            if (e <= 5) {
+                within5++;
+            }
+        }
+        System.out.printf("%s mean %.1f m, p50 %.1f m, p95 %.1f m, max %.1f m, within 5 m %.1f%%%n", label,
+            sum / errors.length, errors[errors.length / 2], errors[(int) (errors.length * 0.95)],
+            errors[errors.length - 1], 100.0 * within5 / errors.length);
+    }
+
+    private static double meters(double lat1, double lng1, double lat2, double lng2) {
+        return LocationServiceImpl.haversine(lat1, lng1, lat2, lng2) * 1000;
+    }
+
+    private static boolean twoWay(int line) {
+        return line % 10 != 5 && line % 10 != 7;
+    }
+
+    /**
+     * Drives block by block along two-way streets; never turns back.
+     */
+    private static final class Driver {
+        int row;
+        int col;
+        int heading;
+        double progress; // fraction of the current block covered
+        final double speed;
+
+        Driver(Random random) {
+            do {
+                row = 10 + random.nextInt(GRID - 20);
+                col = 10 + random.nextInt(GRID - 20);
+            } while (!twoWay(row) || !twoWay(col));
+            heading = random.nextInt(4);
+            speed = 7 + random.nextDouble() * 7;
+        }
+
+        void advance(Random random, double seconds) {
+            double meters = speed * seconds;
+            while (meters > 0) {
+                double block = blockMeters();
+                double left = (1 - progress) * block;
+                if (meters < left) {
+                    progress += meters / block;
+                    return;
+                }
+                meters -= left;
+                row += DR[heading];
+                col += DC[heading];
+                progress = 0;
+                turn(random);
+            }
+        }
+
+        private void turn(Random random) {
+            int[] options = new int[3];
+            int n = 0;
+            for (int h : new int[] { heading, (heading + 1) % 4, (heading + 3) % 4 }) {
+                int nr = row + DR[h];
+                int nc = col + DC[h];
+                // A north/south move runs along a column line, east/west along a row line
+                boolean open = h % 2 == 0 ? twoWay(col) : twoWay(row);
+                if (open && nr >= 1 && nc >= 1 && nr < GRID - 1 && nc < GRID - 1) {
+                    options[n++] = h;
+                }
+            }
+            if (n == 0) {
+                heading = (heading + 2) % 4;
+            } else if (options[0] == heading && random.nextInt(3) > 0) {
+                heading = options[0];
+            } else {
+                heading = options[random.nextInt(n)];
+            }
+        }
+
+        double blockMeters() {
+            double lat = ORIGIN_LAT + row * SPACING_DEG;
+            return heading % 2 == 0 ? SPACING_DEG * METERS_PER_DEGREE
+                : SPACING_DEG * METERS_PER_DEGREE * Math.cos(Math.toRadians(lat));
+        }
+
+        /**
+         * Metres from the centre line of the street being driven.
+         */
+        double crossTrack(double lat, double lng) {
+            if (heading % 2 == 0) {
+                double lineLng = ORIGIN_LNG + col * SPACING_DEG;
+                return Math.abs(lng - lineLng) * METERS_PER_DEGREE * Math.cos(Math.toRadians(lat));
+            }
+            double lineLat = ORIGIN_LAT + row * SPACING_DEG;
+            return Math.abs(lat - lineLat) * METERS_PER_DEGREE;
+        }
+
+        double[] position() {
+            return new double[] {
+                ORIGIN_LAT + (row + DR[heading] * progress) * SPACING_DEG,
+                ORIGIN_LNG + (col + DC[heading] * progress) * SPACING_DEG
+            };
+        }
+    }
+}
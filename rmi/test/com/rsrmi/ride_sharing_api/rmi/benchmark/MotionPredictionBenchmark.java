@@ -0,0 +1,137 @@
+package com.rsrmi.ride_sharing_api.rmi.benchmark;
+
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import com.rsrmi.ride_sharing_api.rmi.presence.MotionState;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * How far the driver marker a rider sees is from the real car, showing the last fix as-is versus
+ * the dead-reckoned position from {@link MotionState}, at several GPS upload intervals.
+ *
+ * Cars drive a street grid at varying speed with turns and traffic-light stops, simulated in
+ * 100 ms steps. Fixes carry GPS noise and reach the server after a network delay. The rider's
+ * screen is sampled every second and compared with the true position at that moment.
+ *
+ * Usage: java -cp "./target/classes:./target/test-classes:./lib/*" com.rsrmi.ride_sharing_api.rmi.benchmark.MotionPredictionBenchmark [cars] [minutes] [noiseMeters] [delayMs]
+ */
+public class MotionPredictionBenchmark {
+
+    private static final double METERS_PER_DEGREE = 6_371_000 * Math.PI / 180;
+    private static final double ORIGIN_LAT = 16.78;
+    private static final double ORIGIN_LNG = 96.13;
+    private static final long STEP_MILLIS = 100;
+
+    public static void main(String[] args) {
+        int cars = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int minutes = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        double noise = args.length > 2 ? Double.parseDouble(args[2]) : 5;
+        long delay = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+
+        System.out.printf("cars: %d, %d min each, GPS noise %.0f m, upload delay %d ms%n", cars, minutes, noise, delay);
+        for (int intervalSeconds : new int[] { 3, 5, 10, 15 }) {
+            run(cars, minutes, noise, delay, intervalSeconds * 1000L);
+        }
+    }
+
+    private static void run(int cars, int minutes, double noise, long delay, long interval) {
+        int samplesPerCar = minutes * 60;
+        double[] lastFixErrors = new double[cars * samplesPerCar];
+        double[] predictedErrors = new double[cars * samplesPerCar];
+        int n = 0;
+        long predictNanos = 0;
+        Random random = new Random(3);
+        for (int c = 0; c < cars; c++) {
+            Car car = new Car(random);
+            long[] fixTimes = new long[samplesPerCar * 20];
+            double[][] fixes = new double[fixTimes.length][];
+            int fixCount = 0;
+            int delivered = 0;
+            MotionState model = null;
+            long phase = random.nextInt((int) interval);
+            for (long t = 0; t <= minutes * 60_000L; t += STEP_MILLIS) {
+                car.step(random, STEP_MILLIS / 1000.0);
+                if (t % interval == phase - phase % STEP_MILLIS) {
+                    double lat = car.lat + random.nextGaussian() * noise / METERS_PER_DEGREE;
+                    double lng = car.lng + random.nextGaussian() * noise / (METERS_PER_DEGREE * Math.cos(Math.toRadians(car.lat)));
+                    fixTimes[fixCount] = t;
+                    fixes[fixCount++] = new double[] { lat, lng };
+                }
+                // Fixes reach the server after the delay and are stamped with their arrival time, as heartbeats are
+                while (delivered < fixCount && fixTimes[delivered] + delay <= t) {
+                    double[] fix = fixes[delivered++];
+                    model = model == null ? MotionState.first(fix[0], fix[1], t) : model.next(fix[0], fix[1], t);
+                }
+                if (t % 1000 == 0 && model != null && n < lastFixErrors.length) {
+                    double[] last = fixes[delivered - 1];
+                    lastFixErrors[n] = meters(last[0], last[1], car.lat, car.lng);
+                    long begin = System.nanoTime();
+                    double[] predicted = model.positionAt(t);
+                    predictNanos += System.nanoTime() - begin;
+                    predictedErrors[n] = meters(predicted[0], predicted[1], car.lat, car.lng);
+                    n++;
+                }
+            }
+        }
+        System.out.printf("upload every %2d s: last fix %s | predicted %s | %.0f ns/prediction%n", interval / 1000,
+            summary(Arrays.copyOf(lastFixErrors, n)), summary(Arrays.copyOf(predictedErrors, n)), (double) predictNanos / n);
+    }
+
+    private static String summary(double[] errors) {
+        Arrays.sort(errors);
+        double sum = 0;
+        for (double e : errors) {
+            sum += e;
+        }
+        return String.format("mean %5.1f m, p50 %5.1f m, p95 %5.1f m", sum / errors.length, errors[errors.length / 2],
+            errors[(int) (errors.length * 0.95)]);
+    }
+
+    private static double meters(double lat1, double lng1, double lat2, double lng2) {
+        return LocationServiceImpl.haversine(lat1, lng1, lat2, lng2) * 1000;
+    }
+
+    /**
+     * Accelerates towards a cruise speed, turns every block or few, and sometimes waits at a light.
+     */
+    private static final class Car {
+        double lat;
+        double lng;
+        double heading;
+        double speed;
+        double cruise;
+        double untilTurn;
+        double stopped;
+
+        Car(Random random) {
+            lat = ORIGIN_LAT + random.nextDouble() * 0.05;
+            lng = ORIGIN_LNG + random.nextDouble() * 0.05;
+            heading = random.nextInt(4) * Math.PI / 2;
+            cruise = 6 + random.nextDouble() * 8;
+            untilTurn = 100 + random.nextDouble() * 300;
+        }
+
+        void step(Random random, double seconds) {
+            if (stopped > 0) {
+                stopped -= seconds;
+                speed = 0;
+                return;
+            }
+            double accel = Math.max(-3, Math.min(2, (cruise - speed) * 0.5));
+            speed = Math.max(0, speed + accel * seconds);
+            double meters = speed * seconds;
+            untilTurn -= meters;
+            if (untilTurn <= 0) {
+                heading += (random.nextBoolean() ? 1 : -1) * Math.PI / 2;
+                untilTurn = 100 + random.nextDouble() * 300;
+                cruise = 6 + random.nextDouble() * 8;
+                speed *= 0.4; // slow for the corner
+                if (random.nextInt(4) == 0) {
+                    stopped = 10 + random.nextDouble() * 40;
+                }
+            }
+            lat += meters * Math.cos(heading) / METERS_PER_DEGREE;
+            lng += meters * Math.sin(heading) / (METERS_PER_DEGREE * Math.cos(Math.toRadians(lat)));
+        }
+    }
+}
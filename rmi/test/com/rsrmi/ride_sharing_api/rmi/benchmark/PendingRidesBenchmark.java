@@ -0,0 +1,171 @@
+package com.rsrmi.ride_sharing_api.rmi.benchmark;
+
+import com.rsrmi.ride_sharing_api.rmi.cache.PendingRideCoalescer;
+import com.rsrmi.ride_sharing_api.rmi.logging.LatencyHistogram;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An airport queue: many drivers parked within a few hundred metres of each other, all polling
+ * getPendingRides with the same radius. The query is an in-memory stand-in for the SQL scan that
+ * holds one of a small pool of "connections" for a fixed time, so direct scans queue for the pool
+ * the way they would for Postgres.
+ *
+ * Runs every driver against the direct query and then against PendingRideCoalescer, reporting
+ * polls per second, latency, and how many scans actually ran. Afterwards one coalesced poll per
+ * driver is checked against the direct query for that driver: same rides, nearest first.
+ *
+ * Usage: java -cp "./target/classes:./target/test-classes:./lib/*" com.rsrmi.ride_sharing_api.rmi.benchmark.PendingRidesBenchmark [drivers] [seconds] [scanMicros] [pollMillis]
+ */
+public class PendingRidesBenchmark {
+
+    private static final double AIRPORT_LAT = 16.9073;
+    private static final double AIRPORT_LNG = 96.1332;
+    private static final double RADIUS = 0.05;
+    private static final int DB_CONNECTIONS = 10;
+
+    public static void main(String[] args) throws Exception {
+        int drivers = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long scanMicros = args.length > 2 ? Long.parseLong(args[2]) : 5_000;
+        long pollMillis = args.length > 3 ? Long.parseLong(args[3]) : 200;
+
+        List<Ride> rides = pendingRides(2_000);
+        Semaphore pool = new Semaphore(DB_CONNECTIONS);
+        AtomicLong directScans = new AtomicLong();
+        PendingRideCoalescer.Loader direct = (lat, lng, radius) -> {
+            pool.acquireUninterruptibly();
+            try {
+                LockSupport.parkNanos(scanMicros * 1000);
+                directScans.incrementAndGet();
+                return within(rides, lat, lng, radius);
+            } finally {
+                pool.release();
+            }
+        };
+        System.out.printf("%d drivers polling every %d ms, %d s per run, %,d pending rides, %d us per scan on %d connections%n",
+            drivers, pollMillis, seconds, rides.size(), scanMicros, DB_CONNECTIONS);
+
+        run("direct   ", direct, directScans, drivers, seconds, pollMillis);
+        PendingRideCoalescer coalescer = new PendingRideCoalescer(direct);
+        directScans.set(0);
+        run("coalesced", coalescer::getPendingRides, directScans, drivers, seconds, pollMillis);
+        System.out.printf("coalescer: %,d scans, %,d polls served from a shared scan%n", coalescer.getScans(), coalescer.getShared());
+
+        int mismatches = 0;
+        for (double[] position : positions(drivers)) {
+            List<Ride> expected = sortedWithin(rides, position[0], position[1], RADIUS);
+            if (!ids(coalescer.getPendingRides(position[0], position[1], RADIUS)).equals(ids(expected))) {
+                mismatches++;
+            }
+        }
+        System.out.printf("drivers whose coalesced result differs from the direct query: %d of %d%n", mismatches, drivers);
+
+        // Accepts invalidate the snapshots around the pickup; the next poll must not see the withdrawn ride
+        Ride taken = rides.remove(rides.indexOf(within(rides, AIRPORT_LAT, AIRPORT_LNG, RADIUS).get(0)));
+        coalescer.invalidate(taken.getPickupLatitude(), taken.getPickupLongitude());
+        boolean gone = coalescer.getPendingRides(AIRPORT_LAT, AIRPORT_LNG, RADIUS).stream().noneMatch(r -> r.getId() == taken.getId());
+        System.out.println("withdrawn ride gone after invalidate: " + gone);
+        System.exit(0);
+    }
+
+    private static void run(String label, PendingRideCoalescer.Loader query, AtomicLong scans, int drivers, int seconds,
+                            long pollMillis) throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong failures = new AtomicLong();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(drivers);
+        long begin = System.nanoTime();
+        for (double[] position : positions(drivers)) {
+            double lat = position[0];
+            double lng = position[1];
+            Thread t = new Thread(() -> {
+                try {
+                    LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(pollMillis * 1_000_000 + 1));
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        query.load(lat, lng, RADIUS);
+                        latency.recordNanos(System.nanoTime() - start);
+                        LockSupport.parkNanos(pollMillis * 1_000_000);
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+        done.await();
+        double elapsed = (System.nanoTime() - begin) / 1e9;
+        System.out.printf("%s %,8.0f polls/s  %s  scans=%,d  failures=%d%n", label, latency.getCount() / elapsed,
+            latency.summary(), scans.get(), failures.get());
+    }
+
+    /**
+     * Driver positions, parked within about 300 m of the terminal.
+     */
+    private static List<double[]> positions(int drivers) {
+        List<double[]> positions = new ArrayList<>(drivers);
+        for (int i = 0; i < drivers; i++) {
+            Random random = new Random(i);
+            positions.add(new double[] {
+                AIRPORT_LAT + (random.nextDouble() - 0.5) * 0.006,
+                AIRPORT_LNG + (random.nextDouble() - 0.5) * 0.006
+            });
+        }
+        return positions;
+    }
+
+    private static List<Ride> pendingRides(int count) {
+        Random random = new Random(42);
+        List<Ride> rides = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Ride ride = new Ride();
+            ride.setId(1 + i);
+            ride.setStatus(Ride.Status.PENDING);
+            // A tenth are arrivals at the airport, the rest spread over the city
+            boolean airport = i % 10 == 0;
+            double spread = airport ? 0.01 : 0.4;
+            double centerLat = airport ? AIRPORT_LAT : 16.80;
+            double centerLng = airport ? AIRPORT_LNG : 96.15;
+            ride.setPickupLatitude(centerLat + (random.nextDouble() - 0.5) * spread);
+            ride.setPickupLongitude(centerLng + (random.nextDouble() - 0.5) * spread);
+            rides.add(ride);
+        }
+        return rides;
+    }
+
+    private static List<Ride> within(List<Ride> rides, double lat, double lng, double radius) {
+        List<Ride> result = new ArrayList<>();
+        for (Ride ride : rides) {
+            if (Math.sqrt(Math.pow(ride.getPickupLatitude() - lat, 2) + Math.pow(ride.getPickupLongitude() - lng, 2)) <= radius) {
+                result.add(ride);
+            }
+        }
+        return result;
+    }
+
+    private static List<Ride> sortedWithin(List<Ride> rides, double lat, double lng, double radius) {
+        List<Ride> result = within(rides, lat, lng, radius);
+        result.sort((a, b) -> Double.compare(Math.hypot(a.getPickupLatitude() - lat, a.getPickupLongitude() - lng),
+            Math.hypot(b.getPickupLatitude() - lat, b.getPickupLongitude() - lng)));
+        return result;
+    }
+
+    private static List<Integer> ids(List<Ride> rides) {
+        List<Integer> ids = new ArrayList<>(rides.size());
+        for (Ride ride : rides) {
+            ids.add(ride.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,102 @@
+package com.rsrmi.ride_sharing_api.rmi.benchmark;
+
+import com.rsrmi.ride_sharing_api.rmi.presence.PresenceStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Cost of the presence journal on the heartbeat path, and how long a restarted server takes to
+ * get the online fleet back from snapshot plus journal, for a few fleet sizes. Each run keeps
+ * the model state itself and checks the recovered positions against it.
+ *
+ * Usage: java -cp "./target/classes:./target/test-classes:./lib/*" com.rsrmi.ride_sharing_api.rmi.benchmark.PresenceRecoveryBenchmark [journalRecords]
+ */
+public class PresenceRecoveryBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int journalRecords = args.length > 0 ? Integer.parseInt(args[0]) : 262_144;
+
+        for (int drivers : new int[] { 10_000, 100_000, 1_000_000 }) {
+            Path dir = Files.createTempDirectory("presence-bench");
+            try {
+                run(dir, drivers, journalRecords);
+            } finally {
+                try (Stream<Path> files = Files.walk(dir)) {
+                    files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+                }
+            }
+        }
+    }
+
+    private static void run(Path dir, int drivers, int journalRecords) throws Exception {
+        Random random = new Random(drivers);
+        long now = System.currentTimeMillis();
+        double[] lat = new double[drivers];
+        double[] lng = new double[drivers];
+        long[] seen = new long[drivers];
+        boolean[] online = new boolean[drivers];
+        for (int i = 0; i < drivers; i++) {
+            lat[i] = 16.75 + random.nextDouble() * 0.2;
+            lng[i] = 96.10 + random.nextDouble() * 0.2;
+            seen[i] = now - random.nextInt(60_000);
+            online[i] = true;
+        }
+
+        PresenceStore store = new PresenceStore(dir, journalRecords);
+        long snapshotStart = System.nanoTime();
+        store.snapshot(() -> {
+            List<PresenceStore.Record> records = new ArrayList<>(drivers);
+            for (int i = 0; i < drivers; i++) {
+                records.add(new PresenceStore.Record(i + 1, lat[i], lng[i], seen[i], seen[i]));
+            }
+            return records;
+        });
+        long snapshotMillis = (System.nanoTime() - snapshotStart) / 1_000_000;
+
+        // Pings and a few drivers going offline since the snapshot, filling most of the journal
+        int appends = journalRecords * 3 / 4;
+        long appendStart = System.nanoTime();
+        for (int n = 0; n < appends; n++) {
+            int i = random.nextInt(drivers);
+            long time = now + n;
+            if (n % 50 == 0) {
+                store.append(PresenceStore.OFFLINE, i + 1, 0, 0, time);
+                online[i] = false;
+            } else {
+                lat[i] += (random.nextDouble() - 0.5) * 1e-3;
+                lng[i] += (random.nextDouble() - 0.5) * 1e-3;
+                store.append(PresenceStore.HEARTBEAT, i + 1, lat[i], lng[i], time);
+                online[i] = true;
+            }
+            seen[i] = time;
+        }
+        double appendNanos = (double) (System.nanoTime() - appendStart) / appends;
+
+        // A restarted server: a new store over the same files
+        long recoverStart = System.nanoTime();
+        Map<Integer, PresenceStore.Record> recovered = new PresenceStore(dir, journalRecords).recover();
+        long recoverMillis = (System.nanoTime() - recoverStart) / 1_000_000;
+
+        int expectedOnline = 0;
+        int mismatches = 0;
+        for (int i = 0; i < drivers; i++) {
+            PresenceStore.Record record = recovered.get(i + 1);
+            if (online[i]) {
+                expectedOnline++;
+            }
+            if (online[i] != (record != null) || (record != null && (record.lastSeen != seen[i]
+                || Math.abs(record.latitude - lat[i]) > 1e-6 || Math.abs(record.longitude - lng[i]) > 1e-6))) {
+                mismatches++;
+            }
+        }
+        System.out.printf("drivers %,9d: snapshot %,d KB in %d ms, append %.0f ns, recover %,d online + %,d journal records in %d ms, mismatches %d (expected online %,d)%n",
+            drivers, Files.size(dir.resolve("presence.snap")) / 1024, snapshotMillis, appendNanos, recovered.size(), appends,
+            recoverMillis, mismatches, expectedOnline);
+    }
+}
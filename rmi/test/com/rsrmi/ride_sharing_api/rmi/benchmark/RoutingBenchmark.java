@@ -0,0 +1,137 @@
+package com.rsrmi.ride_sharing_api.rmi.benchmark;
+
+import com.rsrmi.ride_sharing_api.rmi.models.RouteEstimate;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
+import com.rsrmi.ride_sharing_api.rmi.routing.OsmGraphLoader;
+import com.rsrmi.ride_sharing_api.rmi.routing.RoadGraph;
+import com.rsrmi.ride_sharing_api.rmi.routing.RoutingEngine;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Point-to-point ETA throughput of the routing engine, then candidate-ranking latency of the
+ * many-to-one sweep against one search per driver as the candidate count grows. Uses ROUTING_OSM_FILE-style input when
+ * a path is given, otherwise a synthetic grid city (residential streets, a primary road every
+ * tenth row/column, some one-way streets) around Yangon.
+ *
+ * Usage: java -cp "./target/classes:./target/test-classes:./lib/*" com.rsrmi.ride_sharing_api.rmi.benchmark.RoutingBenchmark [queries] [gridSize|extract.osm]
+ */
+public class RoutingBenchmark {
+
+    private static final double ORIGIN_LAT = 16.78;
+    private static final double ORIGIN_LNG = 96.13;
+    private static final double SPACING_DEG = 0.0012; // ~130 m blocks
+    private static final double MATRIX_HORIZON_SECONDS = 900;
+
+    public static void main(String[] args) throws Exception {
+        int queries = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        String input = args.length > 1 ? args[1] : "300";
+
+        long loadStart = System.nanoTime();
+        RoadGraph graph;
+        double spanDeg;
+        if (input.endsWith(".osm")) {
+            graph = OsmGraphLoader.load(Path.of(input));
+            spanDeg = 0.1;
+        } else {
+            int size = Integer.parseInt(input);
+            graph = OsmGraphLoader.load(new ByteArrayInputStream(gridCity(size).getBytes(StandardCharsets.UTF_8)));
+            spanDeg = size * SPACING_DEG;
+        }
+        System.out.printf("graph: %,d nodes, %,d edges, loaded in %d ms%n", graph.getNodeCount(), graph.getEdgeCount(),
+            (System.nanoTime() - loadStart) / 1_000_000);
+
+        RoutingEngine engine = new RoutingEngine(graph);
+        Random random = new Random(42);
+        double[][] points = new double[queries][4];
+        for (double[] p : points) {
+            p[0] = ORIGIN_LAT + random.nextDouble() * spanDeg;
+            p[1] = ORIGIN_LNG + random.nextDouble() * spanDeg;
+            // Ride-hailing pickups: mostly within a few km of the driver
+            p[2] = p[0] + (random.nextDouble() - 0.5) * Math.min(spanDeg, 0.06);
+            p[3] = p[1] + (random.nextDouble() - 0.5) * Math.min(spanDeg, 0.06);
+        }
+        for (int i = 0; i < Math.min(2000, queries); i++) {
+            engine.estimate(points[i][0], points[i][1], points[i][2], points[i][3]);
+        }
+
+        long start = System.nanoTime();
+        double totalSeconds = 0;
+        int routed = 0;
+        for (double[] p : points) {
+            RouteEstimate estimate = engine.estimate(p[0], p[1], p[2], p[3]);
+            totalSeconds += estimate.getDurationSeconds();
+            if (estimate.isRoadNetwork()) {
+                routed++;
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("queries: %,d (%,d on the road network), %.0f queries/s single-threaded, mean ETA %.0f s%n",
+            queries, routed, queries / elapsed, totalSeconds / queries);
+
+        // Candidate ranking: one reverse sweep from the pickup vs one point-to-point search per driver
+        double pickupLat = ORIGIN_LAT + spanDeg / 2;
+        double pickupLng = ORIGIN_LNG + spanDeg / 2;
+        int rounds = 200;
+        for (int candidates : new int[] { 10, 50, 100, 500 }) {
+            List<UserLocation> drivers = new ArrayList<>();
+            for (int i = 0; i < candidates; i++) {
+                // Nearby-driver search radius of ~3 km
+                drivers.add(new UserLocation(i + 1, pickupLat + (random.nextDouble() - 0.5) * 0.05,
+                    pickupLng + (random.nextDouble() - 0.5) * 0.05, null, true, null));
+            }
+            engine.estimateToPickup(drivers, pickupLat, pickupLng, MATRIX_HORIZON_SECONDS);
+            long sweepStart = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                engine.estimateToPickup(drivers, pickupLat, pickupLng, MATRIX_HORIZON_SECONDS);
+            }
+            double sweepMs = (System.nanoTime() - sweepStart) / 1e6 / rounds;
+            long pointStart = System.nanoTime();
+            for (int r = 0; r < rounds / 10; r++) {
+                for (UserLocation driver : drivers) {
+                    engine.estimate(driver.getLatitude(), driver.getLongitude(), pickupLat, pickupLng);
+                }
+            }
+            double pointMs = (System.nanoTime() - pointStart) / 1e6 / (rounds / 10);
+            System.out.printf("ranking %3d candidates: sweep %6.2f ms, point-to-point %7.2f ms%n", candidates, sweepMs, pointMs);
+        }
+    }
+
+    static String gridCity(int size) {
+        StringBuilder xml = new StringBuilder(size * size * 120);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<osm version=\"0.6\">\n");
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                xml.append("<node id=\"").append(r * size + c + 1)
+                    .append("\" lat=\"").append(ORIGIN_LAT + r * SPACING_DEG)
+                    .append("\" lon=\"").append(ORIGIN_LNG + c * SPACING_DEG).append("\"/>\n");
+            }
+        }
+        long wayId = 1;
+        for (int line = 0; line < size; line++) {
+            String highway = line % 10 == 0 ? "primary" : "residential";
+            String oneway = line % 10 == 5 ? "yes" : line % 10 == 7 ? "-1" : null;
+            appendWay(xml, wayId++, highway, oneway, size, line, true);
+            appendWay(xml, wayId++, highway, oneway, size, line, false);
+        }
+        xml.append("</osm>\n");
+        return xml.toString();
+    }
+
+    private static void appendWay(StringBuilder xml, long id, String highway, String oneway, int size, int line, boolean row) {
+        xml.append("<way id=\"").append(id).append("\">\n");
+        for (int i = 0; i < size; i++) {
+            long node = row ? line * size + i + 1 : i * size + line + 1;
+            xml.append("<nd ref=\"").append(node).append("\"/>\n");
+        }
+        xml.append("<tag k=\"highway\" v=\"").append(highway).append("\"/>\n");
+        if (oneway != null) {
+            xml.append("<tag k=\"oneway\" v=\"").append(oneway).append("\"/>\n");
+        }
+        xml.append("</way>\n");
+    }
+}
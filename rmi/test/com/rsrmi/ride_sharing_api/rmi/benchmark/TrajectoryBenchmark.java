@@ -0,0 +1,144 @@
+package com.rsrmi.ride_sharing_api.rmi.benchmark;
+
+import com.rsrmi.ride_sharing_api.rmi.models.RideTrajectory;
+import com.rsrmi.ride_sharing_api.rmi.tracking.TrajectoryCodec;
+import java.util.Random;
+
+/**
+ * Storage size and error of trajectory compression on synthetic 1 Hz trips through a street
+ * grid: straight runs at varying speed, turns, traffic-light stops, and GPS noise that drifts
+ * the way phone fixes do rather than jumping independently every second.
+ *
+ * Raw size is counted as the three fields a breadcrumb row carries (two doubles and a
+ * timestamp, 24 bytes), before any per-row or index overhead.
+ *
+ * Usage: java -cp "./target/classes:./target/test-classes:./lib/*" com.rsrmi.ride_sharing_api.rmi.benchmark.TrajectoryBenchmark [trips] [maxErrorMeters] [segmentPoints]
+ */
+public class TrajectoryBenchmark {
+
+    private static final double METERS_PER_DEGREE = 6_371_000 * Math.PI / 180;
+    private static final int RAW_BYTES_PER_POINT = 8 + 8 + 8;
+
+    public static void main(String[] args) {
+        int trips = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        double maxError = args.length > 1 ? Double.parseDouble(args[1]) : 5;
+        int segmentPoints = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+
+        Random random = new Random(11);
+        long rawPoints = 0;
+        long keptPoints = 0;
+        long encodedBytes = 0;
+        double worstError = 0;
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int trip = 0; trip < trips; trip++) {
+            double[][] fixes = trip(random, 900 + random.nextInt(1800));
+            double[] lat = fixes[0];
+            double[] lng = fixes[1];
+            long[] time = new long[lat.length];
+            for (int i = 0; i < time.length; i++) {
+                time[i] = (long) fixes[2][i];
+            }
+            // Same segmentation as TrajectoryRecorder
+            for (int from = 0; from < lat.length; from += segmentPoints) {
+                int n = Math.min(segmentPoints, lat.length - from);
+                double[] sLat = java.util.Arrays.copyOfRange(lat, from, from + n);
+                double[] sLng = java.util.Arrays.copyOfRange(lng, from, from + n);
+                long[] sTime = java.util.Arrays.copyOfRange(time, from, from + n);
+
+                long begin = System.nanoTime();
+                int[] kept = TrajectoryCodec.simplify(sLat, sLng, sTime, n, maxError);
+                byte[] encoded = TrajectoryCodec.encode(sLat, sLng, sTime, kept);
+                encodeNanos += System.nanoTime() - begin;
+
+                double[][] decoded = new double[3][kept.length];
+                int[] next = { 0 };
+                begin = System.nanoTime();
+                RideTrajectory.decode(encoded, (dLat, dLng, dTime) -> {
+                    int k = next[0]++;
+                    decoded[0][k] = dLat;
+                    decoded[1][k] = dLng;
+                    decoded[2][k] = dTime;
+                });
+                decodeNanos += System.nanoTime() - begin;
+
+                worstError = Math.max(worstError, maxReplayError(sLat, sLng, sTime, decoded));
+                rawPoints += n;
+                keptPoints += kept.length;
+                encodedBytes += encoded.length;
+            }
+        }
+        long rawBytes = rawPoints * RAW_BYTES_PER_POINT;
+        System.out.printf("trips: %d, fixes: %,d (%.1f h of driving), error bound %.1f m, segments of %d%n",
+            trips, rawPoints, rawPoints / 3600.0, maxError, segmentPoints);
+        System.out.printf("kept points: %,d (%.1f%%)%n", keptPoints, 100.0 * keptPoints / rawPoints);
+        System.out.printf("raw: %,d bytes, encoded: %,d bytes (%.2f bytes/fix) -> %.1fx smaller%n",
+            rawBytes, encodedBytes, (double) encodedBytes / rawPoints, (double) rawBytes / encodedBytes);
+        System.out.printf("worst replay error vs every raw fix: %.2f m%n", worstError);
+        System.out.printf("encode %.2f us/fix, decode %.3f us/fix%n", encodeNanos / 1e3 / rawPoints, decodeNanos / 1e3 / rawPoints);
+    }
+
+    /**
+     * Distance from each raw fix to where the decoded trajectory puts the driver at that moment.
+     */
+    private static double maxReplayError(double[] lat, double[] lng, long[] time, double[][] decoded) {
+        double cos = Math.cos(Math.toRadians(lat[0]));
+        double worst = 0;
+        int k = 0;
+        for (int i = 0; i < lat.length; i++) {
+            while (k < decoded[2].length - 2 && decoded[2][k + 1] < time[i]) {
+                k++;
+            }
+            int k1 = Math.min(k + 1, decoded[2].length - 1);
+            double span = decoded[2][k1] - decoded[2][k];
+            double ratio = span > 0 ? Math.max(0, Math.min(1, (time[i] - decoded[2][k]) / span)) : 0;
+            double eLat = decoded[0][k] + (decoded[0][k1] - decoded[0][k]) * ratio;
+            double eLng = decoded[1][k] + (decoded[1][k1] - decoded[1][k]) * ratio;
+            double dy = (lat[i] - eLat) * METERS_PER_DEGREE;
+            double dx = (lng[i] - eLng) * METERS_PER_DEGREE * cos;
+            worst = Math.max(worst, Math.sqrt(dx * dx + dy * dy));
+        }
+        return worst;
+    }
+
+    private static double[][] trip(Random random, int seconds) {
+        double[][] out = new double[3][seconds];
+        double lat = 16.78 + random.nextDouble() * 0.1;
+        double lng = 96.13 + random.nextDouble() * 0.1;
+        double heading = random.nextInt(4) * Math.PI / 2;
+        double speed = 0;
+        double cruise = 8 + random.nextDouble() * 6;
+        int untilTurn = 60 + random.nextInt(120);
+        int stopped = 0;
+        double noiseX = 0;
+        double noiseY = 0;
+        long t = 1_760_000_000_000L + random.nextInt(1_000_000) * 1000L;
+        for (int s = 0; s < seconds; s++) {
+            if (stopped > 0) {
+                stopped--;
+                speed = 0;
+            } else {
+                speed += Math.max(-2, Math.min(1.5, (cruise - speed) * 0.3 + random.nextGaussian() * 0.5));
+                speed = Math.max(0, speed);
+                if (--untilTurn <= 0) {
+                    heading += (random.nextBoolean() ? 1 : -1) * Math.PI / 2;
+                    untilTurn = 40 + random.nextInt(160);
+                    cruise = 6 + random.nextDouble() * 8;
+                    if (random.nextInt(3) == 0) {
+                        stopped = 15 + random.nextInt(45);
+                    }
+                }
+            }
+            lat += speed * Math.cos(heading) / METERS_PER_DEGREE;
+            lng += speed * Math.sin(heading) / (METERS_PER_DEGREE * Math.cos(Math.toRadians(lat)));
+            // Drifting noise, about 3 m standard deviation
+            noiseX = noiseX * 0.9 + random.nextGaussian() * 1.3;
+            noiseY = noiseY * 0.9 + random.nextGaussian() * 1.3;
+            out[0][s] = lat + noiseY / METERS_PER_DEGREE;
+            out[1][s] = lng + noiseX / (METERS_PER_DEGREE * Math.cos(Math.toRadians(lat)));
+            out[2][s] = t;
+            t += 1000 + random.nextInt(40) - 20;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,252 @@
+package com.rsrmi.ride_sharing_api.rmi.benchmark;
+
+import com.rsrmi.ride_sharing_api.rmi.interfaces.LocationService;
+import com.rsrmi.ride_sharing_api.rmi.interfaces.RideService;
+import com.rsrmi.ride_sharing_api.rmi.interfaces.UserService;
+import com.rsrmi.ride_sharing_api.rmi.logging.LatencyHistogram;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import com.rsrmi.ride_sharing_api.rmi.servers.BinaryDispatcher;
+import com.rsrmi.ride_sharing_api.rmi.servers.BinaryServer;
+import com.rsrmi.ride_sharing_api.rmi.transport.BinaryClient;
+import com.rsrmi.ride_sharing_api.rmi.transport.BinaryRideService;
+import com.rsrmi.ride_sharing_api.rmi.transport.WireCodec;
+import com.rsrmi.ride_sharing_api.rmi.transport.WireOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Proxy;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * RMI against the binary transport over loopback, for the API's two hottest shapes of call: a
+ * tiny one (getRideStatus) and a list of rides (getPendingRides). Both transports front the same
+ * in-memory RideService, which can be made to take a fixed time per call like a fast query.
+ *
+ * Each transport is driven by blocking caller threads, as the API's bounded-elastic workers do,
+ * and the binary one also by a single thread keeping a window of async calls in flight.
+ * Reports calls per second, latency, payload bytes and the peak number of transport threads
+ * (RMI's per-connection threads on both ends, or the binary transport's selector, readers and
+ * workers).
+ *
+ * Usage: java -cp "./target/classes:./target/test-classes:./lib/*" com.rsrmi.ride_sharing_api.rmi.benchmark.TransportBenchmark [callers] [seconds] [rides] [serviceMicros]
+ */
+public class TransportBenchmark {
+
+    private static final int RMI_PORT = 11099;
+
+    public static void main(String[] args) throws Exception {
+        int callers = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int rideCount = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long serviceMicros = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        List<Ride> rides = sampleRides(rideCount);
+        RideService backend = fakeRideService(rides, serviceMicros);
+        System.out.printf("callers: %d, %d s per run, %d rides per list, %d us service time%n", callers, seconds, rideCount, serviceMicros);
+        System.out.printf("getPendingRides payload: Java serialization %,d B, binary codec %,d B%n",
+            javaSerializedBytes(new ArrayList<>(rides)), binaryBytes(rides));
+
+        RideService exported = (RideService) UnicastRemoteObject.exportObject(backend, 0);
+        Registry registry = LocateRegistry.createRegistry(RMI_PORT);
+        registry.bind("RideService", exported);
+        RideService rmi = (RideService) LocateRegistry.getRegistry("localhost", RMI_PORT).lookup("RideService");
+
+        ExecutorService workers = Executors.newFixedThreadPool(32, r -> {
+            Thread t = new Thread(r, "binary-transport-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        BinaryServer server = new BinaryServer(0, new BinaryDispatcher(unsupported(UserService.class),
+            unsupported(LocationService.class), backend), workers);
+        server.start();
+        BinaryClient client = new BinaryClient("localhost", server.getPort(), 4, 10_000);
+        BinaryRideService binary = new BinaryRideService(client);
+
+        for (String call : new String[] { "getRideStatus", "getPendingRides" }) {
+            boolean list = call.equals("getPendingRides");
+            Call rmiCall = list ? () -> rmi.getPendingRides(16.8, 96.1, 5) : () -> rmi.getRideStatus(42);
+            Call binaryCall = list ? () -> binary.getPendingRides(16.8, 96.1, 5) : () -> binary.getRideStatus(42);
+            System.out.println(call);
+            // First pass warms up both paths
+            blocking("rmi", rmiCall, callers, 1, false);
+            blocking("binary", binaryCall, callers, 1, false);
+            blocking("  rmi, blocking callers    ", rmiCall, callers, seconds, true);
+            blocking("  binary, blocking callers ", binaryCall, callers, seconds, true);
+            pipelined("  binary, 1 thread async   ", list ? () -> binary.getPendingRidesAsync(16.8, 96.1, 5)
+                : () -> binary.getRideStatusAsync(42), callers, seconds);
+        }
+        client.close();
+        server.close();
+        UnicastRemoteObject.unexportObject(backend, true);
+        UnicastRemoteObject.unexportObject(registry, true);
+        System.exit(0);
+    }
+
+    private interface Call {
+        Object call() throws Exception;
+    }
+
+    private interface AsyncCall {
+        CompletableFuture<?> call();
+    }
+
+    private static void blocking(String label, Call call, int callers, int seconds, boolean print) throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong failures = new AtomicLong();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(callers);
+        int[] peakThreads = new int[2];
+        long begin = System.nanoTime();
+        for (int i = 0; i < callers; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        try {
+                            call.call();
+                            latency.recordNanos(System.nanoTime() - start);
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+        while (!done.await(200, java.util.concurrent.TimeUnit.MILLISECONDS)) {
+            int[] now = transportThreads();
+            peakThreads[0] = Math.max(peakThreads[0], now[0]);
+            peakThreads[1] = Math.max(peakThreads[1], now[1]);
+        }
+        if (print) {
+            report(label, latency, failures.get(), System.nanoTime() - begin, peakThreads);
+        }
+    }
+
+    private static void pipelined(String label, AsyncCall call, int window, int seconds) throws Exception {
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong failures = new AtomicLong();
+        Semaphore inFlight = new Semaphore(window);
+        long begin = System.nanoTime();
+        long end = begin + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            inFlight.acquire();
+            long start = System.nanoTime();
+            call.call().whenComplete((result, error) -> {
+                if (error == null) {
+                    latency.recordNanos(System.nanoTime() - start);
+                } else {
+                    failures.incrementAndGet();
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(window);
+        report(label + "(window " + window + ")", latency, failures.get(), System.nanoTime() - begin, transportThreads());
+    }
+
+    private static void report(String label, LatencyHistogram latency, long failures, long nanos, int[] threads) {
+        System.out.printf("%s %,9.0f calls/s  %s  failures=%d  threads rmi=%d binary=%d%n", label,
+            latency.getCount() / (nanos / 1e9), latency.summary(), failures, threads[0], threads[1]);
+    }
+
+    /**
+     * @return { RMI connection threads, binary transport threads } alive now; idle RMI
+     *         connections keep their threads for a while after a run
+     */
+    private static int[] transportThreads() {
+        int[] count = new int[2];
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.getName().startsWith("RMI TCP Connection")) {
+                count[0]++;
+            } else if (t.getName().startsWith("binary-")) {
+                count[1]++;
+            }
+        }
+        return count;
+    }
+
+    private static List<Ride> sampleRides(int count) {
+        List<Ride> rides = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            Ride ride = new Ride();
+            ride.setId(10_000 + i);
+            ride.setRiderId(500 + i);
+            ride.setPickupLatitude(16.78 + i * 0.001);
+            ride.setPickupLongitude(96.13 + i * 0.001);
+            ride.setDestinationLatitude(16.85 - i * 0.001);
+            ride.setDestinationLongitude(96.17 - i * 0.001);
+            ride.setStatus(Ride.Status.PENDING);
+            ride.setPickupAddress("Sule Pagoda Road " + i);
+            ride.setDestinationAddress("Kabar Aye Pagoda Road " + i);
+            ride.setRiderUsername("rider" + i);
+            ride.setRiderPhone("0912345" + (1000 + i));
+            ride.setCreatedAt(new Timestamp(now - i * 1000L));
+            ride.setUpdatedAt(new Timestamp(now));
+            ride.setFareAmount(4500 + i * 100);
+            ride.setFareCurrency("MMK");
+            ride.setSurgeMultiplier(1.2);
+            rides.add(ride);
+        }
+        return rides;
+    }
+
+    private static RideService fakeRideService(List<Ride> rides, long serviceMicros) {
+        return (RideService) Proxy.newProxyInstance(RideService.class.getClassLoader(), new Class<?>[] { RideService.class },
+            (proxy, method, methodArgs) -> {
+                switch (method.getName()) {
+                    case "getPendingRides", "getRideStatus" -> {
+                        if (serviceMicros > 0) {
+                            LockSupport.parkNanos(serviceMicros * 1000);
+                        }
+                        return method.getName().equals("getRideStatus") ? "PENDING" : rides;
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "equals" -> {
+                        return proxy == methodArgs[0];
+                    }
+                    case "toString" -> {
+                        return "FakeRideService";
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private static <T> T unsupported(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, methodArgs) -> {
+            throw new UnsupportedOperationException(method.getName());
+        }));
+    }
+
+    private static int javaSerializedBytes(Object value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.size();
+    }
+
+    private static int binaryBytes(List<Ride> rides) {
+        WireOutput out = new WireOutput(1024);
+        WireCodec.writeList(out, rides, WireCodec::writeRide);
+        return out.size();
+    }
+}
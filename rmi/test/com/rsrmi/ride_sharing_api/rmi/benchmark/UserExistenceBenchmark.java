@@ -0,0 +1,59 @@
+package com.rsrmi.ride_sharing_api.rmi.benchmark;
+
+import com.rsrmi.ride_sharing_api.rmi.cache.BloomFilter;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Observed false-positive rate of the BloomFilter behind the username/phone existence checks,
+ * at a few target rates, for a table of registered usernames probed with names nobody has;
+ * each positive here would have cost a database query. Also reports lookup latency and size.
+ *
+ * Usage: java -cp "./target/classes:./target/test-classes:./lib/*" com.rsrmi.ride_sharing_api.rmi.benchmark.UserExistenceBenchmark [users] [probes]
+ */
+public class UserExistenceBenchmark {
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int probes = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+        Set<String> taken = new HashSet<>();
+        for (int i = 0; i < users; i++) {
+            taken.add("user" + i);
+        }
+
+        for (double target : new double[] { 0.1, 0.01, 0.001 }) {
+            BloomFilter filter = new BloomFilter(users * 2L, target);
+            long buildStart = System.nanoTime();
+            for (String username : taken) {
+                filter.add(username);
+            }
+            long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+            int missing = 0;
+            for (String username : taken) {
+                if (!filter.mightContain(username)) {
+                    missing++;
+                }
+            }
+
+            // Typing a name into the form: mostly prefixes and variants that aren't registered
+            String[] queries = new String[probes];
+            for (int i = 0; i < probes; i++) {
+                queries[i] = (i % 3 == 0 ? "usr" : i % 3 == 1 ? "user_" : "rider") + i;
+            }
+            int positives = 0;
+            long start = System.nanoTime();
+            for (String query : queries) {
+                if (filter.mightContain(query)) {
+                    positives++;
+                }
+            }
+            long nanos = System.nanoTime() - start;
+
+            System.out.printf("target %.3f: kb=%,d hashes=%d build=%dms estimated=%.5f observed=%.5f (%,d of %,d would query) %.0f ns/check, false negatives=%d%n",
+                target, filter.getBitCount() / 8 / 1024, filter.getHashCount(), buildMillis, filter.estimatedFalsePositiveRate(),
+                (double) positives / probes, positives, probes, (double) nanos / probes, missing);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.rsrmi.ride_sharing_api.rmi.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import org.junit.jupiter.api.Test;
+
+class ActiveRideCacheTest {
+
+    private static final int RIDER = 11;
+    private static final int DRIVER = 22;
+
+    private final ActiveRideCache cache = new ActiveRideCache();
+
+    @Test
+    void staleAcceptDoesNotResurrectCancelledRide() {
+        cache.put(ride(1, 0, Ride.Status.PENDING), 0);
+        cache.put(ride(1, 0, Ride.Status.CANCELLED), 2);
+        // The accept committed first (revision 1) but its put arrives after the cancel
+        cache.put(ride(1, DRIVER, Ride.Status.ACCEPTED), 1);
+
+        assertNull(cache.getRide(1));
+        assertNull(cache.lookup(RIDER).ride);
+        assertNull(cache.lookup(DRIVER));
+    }
+
+    @Test
+    void laterPutAfterRideEndedIsIgnored() {
+        cache.put(ride(1, DRIVER, Ride.Status.IN_PROGRESS), 3);
+        cache.put(ride(1, DRIVER, Ride.Status.COMPLETED), 4);
+        cache.put(ride(1, DRIVER, Ride.Status.IN_PROGRESS), 5);
+
+        assertNull(cache.getRide(1));
+        assertNull(cache.lookup(RIDER).ride);
+        assertNull(cache.lookup(DRIVER).ride);
+    }
+
+    @Test
+    void lowerRevisionIsIgnored() {
+        Ride arrived = ride(1, DRIVER, Ride.Status.ARRIVED);
+        cache.put(arrived, 3);
+        long version = cache.getRideVersion(1);
+        cache.put(ride(1, DRIVER, Ride.Status.DRIVER_EN_ROUTE), 2);
+        cache.put(ride(1, DRIVER, Ride.Status.ACCEPTED), 3);
+
+        assertSame(arrived, cache.getRide(1));
+        assertEquals(version, cache.getRideVersion(1));
+    }
+
+    @Test
+    void newerRevisionBumpsVersion() {
+        cache.put(ride(1, DRIVER, Ride.Status.ACCEPTED), 1);
+        long before = cache.lookup(RIDER).version;
+        Ride started = ride(1, DRIVER, Ride.Status.IN_PROGRESS);
+        cache.put(started, 2);
+
+        ActiveRideCache.Entry rider = cache.lookup(RIDER);
+        assertSame(started, rider.ride);
+        assertTrue(rider.version > before);
+        assertSame(started, cache.lookup(DRIVER).ride);
+    }
+
+    @Test
+    void warmDoesNotOverrideLifecycleWrites() {
+        Ride accepted = ride(1, DRIVER, Ride.Status.ACCEPTED);
+        cache.put(accepted, 1);
+        // A slow DB read that still saw the ride as pending
+        ActiveRideCache.Entry entry = cache.warm(RIDER, ride(1, 0, Ride.Status.PENDING), 0);
+
+        assertSame(accepted, entry.ride);
+        assertSame(accepted, cache.getRide(1));
+    }
+
+    @Test
+    void warmDoesNotBringBackEndedRide() {
+        cache.put(ride(1, DRIVER, Ride.Status.ACCEPTED), 1);
+        cache.put(ride(1, DRIVER, Ride.Status.CANCELLED), 2);
+        ActiveRideCache.Entry entry = cache.warm(DRIVER, ride(1, DRIVER, Ride.Status.ACCEPTED), 1);
+
+        assertNull(entry.ride);
+        assertNull(cache.getRide(1));
+    }
+
+    @Test
+    void warmCachesIdleUsers() {
+        assertNull(cache.lookup(RIDER));
+        cache.warm(RIDER, null, 0);
+
+        ActiveRideCache.Entry entry = cache.lookup(RIDER);
+        assertNotNull(entry);
+        assertNull(entry.ride);
+    }
+
+    @Test
+    void endingOneRideKeepsUsersNewerBinding() {
+        cache.put(ride(1, DRIVER, Ride.Status.ACCEPTED), 1);
+        Ride next = ride(2, 0, Ride.Status.PENDING);
+        next.setRiderId(33);
+        next.setDriverId(DRIVER);
+        cache.put(next, 0);
+        // Ride 1 ending must not clear the driver, who is now bound to ride 2
+        cache.put(ride(1, DRIVER, Ride.Status.COMPLETED), 2);
+
+        assertSame(next, cache.lookup(DRIVER).ride);
+        assertNull(cache.lookup(RIDER).ride);
+    }
+
+    private static Ride ride(int id, int driverId, Ride.Status status) {
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setRiderId(RIDER);
+        ride.setDriverId(driverId);
+        ride.setStatus(status);
+        return ride;
+    }
+}
@@ -0,0 +1,100 @@
+package com.rsrmi.ride_sharing_api.rmi.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    private static final int ENTRIES = 100_000;
+
+    @Test
+    void neverForgetsAnAddedValue() {
+        BloomFilter filter = new BloomFilter(ENTRIES, 0.01);
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.add("user" + i);
+            filter.add(phone(i));
+        }
+        for (int i = 0; i < ENTRIES; i++) {
+            assertTrue(filter.mightContain("user" + i), "user" + i);
+            assertTrue(filter.mightContain(phone(i)), phone(i));
+        }
+        assertEquals(2L * ENTRIES, filter.getAdded());
+    }
+
+    @Test
+    void falsePositiveRateNearTarget() {
+        for (double target : new double[] { 0.01, 0.001 }) {
+            BloomFilter filter = new BloomFilter(ENTRIES, target);
+            for (int i = 0; i < ENTRIES; i++) {
+                filter.add("user" + i);
+            }
+            // Near misses of the added names, the case a signup form actually sees
+            int probes = 1_000_000;
+            int hits = 0;
+            for (int i = 0; i < probes; i++) {
+                if (filter.mightContain("user" + (ENTRIES + i))) {
+                    hits++;
+                }
+            }
+            double measured = (double) hits / probes;
+            assertTrue(measured < target * 1.5, "target " + target + ", measured " + measured);
+            double estimated = filter.estimatedFalsePositiveRate();
+            assertTrue(estimated < target * 1.5 && estimated > target / 1.5, "target " + target + ", estimated " + estimated);
+        }
+    }
+
+    @Test
+    void overfilledFilterReportsItsWorseRate() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 4000; i++) {
+            filter.add("user" + i);
+        }
+        // Four times the planned entries: the estimate should say the filter needs rebuilding
+        assertTrue(filter.estimatedFalsePositiveRate() > 0.1, "estimated " + filter.estimatedFalsePositiveRate());
+        assertEquals(1000, filter.getCapacity());
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(ENTRIES, 0.01);
+        assertFalse(filter.mightContain(""));
+        assertFalse(filter.mightContain("user0"));
+        assertEquals(0, filter.estimatedFalsePositiveRate());
+    }
+
+    @Test
+    void concurrentAddsAreAllVisible() throws InterruptedException {
+        BloomFilter filter = new BloomFilter(ENTRIES, 0.01);
+        List<Thread> threads = new ArrayList<>();
+        int perThread = ENTRIES / 4;
+        for (int t = 0; t < 4; t++) {
+            int from = t * perThread;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = from; i < from + perThread; i++) {
+                    filter.add("user" + i);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < ENTRIES; i++) {
+            assertTrue(filter.mightContain("user" + i), "user" + i);
+        }
+        BloomFilter sequential = new BloomFilter(ENTRIES, 0.01);
+        for (int i = 0; i < ENTRIES; i++) {
+            sequential.add("user" + i);
+        }
+        // Same bits either way, so the set-bit count was not lost to races
+        assertEquals(sequential.estimatedFalsePositiveRate(), filter.estimatedFalsePositiveRate());
+    }
+
+    private static String phone(int i) {
+        return String.format("+959%09d", i * 7919L % 1_000_000_000L);
+    }
+}
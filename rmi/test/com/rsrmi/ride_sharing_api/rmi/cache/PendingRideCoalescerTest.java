@@ -0,0 +1,77 @@
+package com.rsrmi.ride_sharing_api.rmi.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class PendingRideCoalescerTest {
+
+    private static final double RADIUS = 0.05;
+    private static final double DOWNTOWN_LAT = 16.78;
+    private static final double DOWNTOWN_LNG = 96.15;
+    private static final double AIRPORT_LAT = 16.90;
+    private static final double AIRPORT_LNG = 96.13;
+
+    private final List<Ride> rides = new ArrayList<>();
+    private final AtomicInteger scans = new AtomicInteger();
+    private final PendingRideCoalescer coalescer = new PendingRideCoalescer(this::load);
+
+    @Test
+    void pollsInTheSameCellShareOneScan() throws RemoteException {
+        rides.add(ride(1, DOWNTOWN_LAT, DOWNTOWN_LNG));
+
+        assertEquals(1, coalescer.getPendingRides(DOWNTOWN_LAT, DOWNTOWN_LNG, RADIUS).size());
+        assertEquals(1, coalescer.getPendingRides(DOWNTOWN_LAT + 0.0001, DOWNTOWN_LNG, RADIUS).size());
+        assertEquals(1, scans.get());
+        assertEquals(1, coalescer.getShared());
+    }
+
+    @Test
+    void invalidateDropsOnlySnapshotsCoveringThePickup() throws RemoteException {
+        rides.add(ride(1, DOWNTOWN_LAT, DOWNTOWN_LNG));
+        rides.add(ride(2, AIRPORT_LAT, AIRPORT_LNG));
+        coalescer.getPendingRides(DOWNTOWN_LAT, DOWNTOWN_LNG, RADIUS);
+        coalescer.getPendingRides(AIRPORT_LAT, AIRPORT_LNG, RADIUS);
+        assertEquals(2, scans.get());
+
+        Ride requested = ride(3, DOWNTOWN_LAT + 0.001, DOWNTOWN_LNG);
+        rides.add(requested);
+        coalescer.invalidate(requested.getPickupLatitude(), requested.getPickupLongitude());
+
+        assertEquals(2, coalescer.getPendingRides(DOWNTOWN_LAT, DOWNTOWN_LNG, RADIUS).size());
+        assertEquals(1, coalescer.getPendingRides(AIRPORT_LAT, AIRPORT_LNG, RADIUS).size());
+        // Downtown scanned again; the airport snapshot was still shared
+        assertEquals(3, scans.get());
+    }
+
+    @Test
+    void withdrawnRideIsGoneAfterInvalidate() throws RemoteException {
+        Ride taken = ride(1, DOWNTOWN_LAT, DOWNTOWN_LNG);
+        rides.add(taken);
+        assertEquals(1, coalescer.getPendingRides(DOWNTOWN_LAT, DOWNTOWN_LNG, RADIUS).size());
+
+        rides.remove(taken);
+        coalescer.invalidate(taken.getPickupLatitude(), taken.getPickupLongitude());
+
+        assertEquals(0, coalescer.getPendingRides(DOWNTOWN_LAT, DOWNTOWN_LNG, RADIUS).size());
+    }
+
+    private List<Ride> load(double lat, double lng, double radius) {
+        scans.incrementAndGet();
+        return PendingRideCoalescer.nearest(rides, lat, lng, radius);
+    }
+
+    private static Ride ride(int id, double lat, double lng) {
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setPickupLatitude(lat);
+        ride.setPickupLongitude(lng);
+        ride.setStatus(Ride.Status.PENDING);
+        return ride;
+    }
+}
@@ -0,0 +1,14 @@
+package com.rsrmi.ride_sharing_api.rmi.cache;
+
+/**
+ * Filters for tests: never built, so every check goes to the database and nothing scans it.
+ */
+public final class UserExistenceFilters {
+
+    private UserExistenceFilters() {
+    }
+
+    public static UserExistenceFilter unbuilt() {
+        return new UserExistenceFilter();
+    }
+}
@@ -0,0 +1,44 @@
+package com.rsrmi.ride_sharing_api.rmi.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.junit.jupiter.api.Test;
+
+class DatabaseConfigTest {
+
+    private final FakeDatabase db = new FakeDatabase();
+
+    @Test
+    void nestedBorrowIsRefused() throws SQLException {
+        try (Connection held = db.config().getConnection()) {
+            assertThrows(IllegalStateException.class, () -> db.config().getConnection());
+            assertEquals(1, db.admission().getInFlight());
+        }
+        assertEquals(0, db.admission().getInFlight());
+    }
+
+    @Test
+    void closedConnectionFreesTheThread() throws SQLException {
+        for (int i = 0; i < 10; i++) {
+            try (Connection conn = db.config().getConnection()) {
+                assertEquals(1, db.openConnections());
+            }
+        }
+        assertEquals(0, db.openConnections());
+        assertEquals(0, db.admission().getInFlight());
+    }
+
+    @Test
+    void doubleCloseReleasesOnce() throws SQLException {
+        Connection conn = db.config().getConnection();
+        conn.close();
+        conn.close();
+        assertEquals(0, db.admission().getInFlight());
+        try (Connection again = db.config().getConnection()) {
+            assertEquals(1, db.admission().getInFlight());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.rsrmi.ride_sharing_api.rmi.config;
+
+import com.rsrmi.ride_sharing_api.rmi.dispatch.AdmissionGate;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+/**
+ * In-memory stand-in for the database behind a real {@link DatabaseConfig}, so service code runs
+ * through the admission gate and its one-connection-per-thread rule without PostgreSQL. Statements
+ * are answered by the first registered SQL prefix they start with; every statement is recorded.
+ */
+public final class FakeDatabase {
+
+    private final Map<String, List<Map<String, Object>>> queries = new LinkedHashMap<>();
+    private final Map<String, Integer> updates = new LinkedHashMap<>();
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger open = new AtomicInteger();
+    private final AdmissionGate admission = new AdmissionGate("test-db", 4, 0, 100);
+    private final DatabaseConfig config;
+
+    public FakeDatabase() {
+        DataSource dataSource = proxy(DataSource.class, (method, args) ->
+            "getConnection".equals(method) ? connection() : null);
+        this.config = new DatabaseConfig(dataSource, admission);
+    }
+
+    public FakeDatabase onQuery(String sqlPrefix, List<Map<String, Object>> rows) {
+        queries.put(sqlPrefix, rows);
+        return this;
+    }
+
+    public FakeDatabase onUpdate(String sqlPrefix, int rows) {
+        updates.put(sqlPrefix, rows);
+        return this;
+    }
+
+    public DatabaseConfig config() {
+        return config;
+    }
+
+    public List<String> executed() {
+        return executed;
+    }
+
+    public int openConnections() {
+        return open.get();
+    }
+
+    public AdmissionGate admission() {
+        return admission;
+    }
+
+    private Connection connection() {
+        open.incrementAndGet();
+        boolean[] closed = new boolean[1];
+        return proxy(Connection.class, (method, args) -> switch (method) {
+            case "prepareStatement" -> statement((String) args[0]);
+            case "close" -> {
+                if (!closed[0]) {
+                    closed[0] = true;
+                    open.decrementAndGet();
+                }
+                yield null;
+            }
+            case "isClosed" -> closed[0];
+            default -> null;
+        });
+    }
+
+    private PreparedStatement statement(String sql) {
+        return proxy(PreparedStatement.class, (method, args) -> switch (method) {
+            case "executeQuery" -> {
+                executed.add(sql);
+                yield resultSet(answer(queries, sql, List.of()));
+            }
+            case "executeUpdate" -> {
+                executed.add(sql);
+                yield answer(updates, sql, 0);
+            }
+            default -> null;
+        });
+    }
+
+    private static ResultSet resultSet(List<Map<String, Object>> rows) {
+        Iterator<Map<String, Object>> iterator = rows.iterator();
+        Object[] row = new Object[1];
+        return proxy(ResultSet.class, (method, args) -> {
+            if ("next".equals(method)) {
+                row[0] = iterator.hasNext() ? iterator.next() : null;
+                return row[0] != null;
+            }
+            if (method.startsWith("get") && args != null && args.length == 1 && args[0] instanceof String column) {
+                @SuppressWarnings("unchecked")
+                Object value = ((Map<String, Object>) row[0]).get(column);
+                return switch (method) {
+                    case "getInt" -> value == null ? 0 : ((Number) value).intValue();
+                    case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                    case "getDouble" -> value == null ? 0.0 : ((Number) value).doubleValue();
+                    case "getBoolean" -> value != null && (Boolean) value;
+                    case "getString" -> value == null ? null : value.toString();
+                    default -> value;
+                };
+            }
+            return null;
+        });
+    }
+
+    private static <T> T answer(Map<String, T> answers, String sql, T otherwise) {
+        for (Map.Entry<String, T> answer : answers.entrySet()) {
+            if (sql.startsWith(answer.getKey())) {
+                return answer.getValue();
+            }
+        }
+        return otherwise;
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args) throws Exception;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            Object result = handler.handle(method.getName(), args);
+            if (result == null && method.getReturnType().isPrimitive() && method.getReturnType() != void.class) {
+                Class<?> primitive = method.getReturnType();
+                return primitive == boolean.class ? false : primitive == int.class ? 0 : primitive == long.class ? 0L : 0.0;
+            }
+            return result;
+        }));
+    }
+}
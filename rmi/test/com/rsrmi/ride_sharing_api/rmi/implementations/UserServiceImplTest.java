@@ -0,0 +1,125 @@
+package com.rsrmi.ride_sharing_api.rmi.implementations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rsrmi.ride_sharing_api.rmi.auth.PasswordHasher;
+import com.rsrmi.ride_sharing_api.rmi.cache.UserExistenceFilters;
+import com.rsrmi.ride_sharing_api.rmi.config.FakeDatabase;
+import com.rsrmi.ride_sharing_api.rmi.models.User;
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class UserServiceImplTest {
+
+    private final FakeDatabase db = new FakeDatabase();
+    private UserServiceImpl service;
+
+    @AfterEach
+    void unexport() throws NoSuchObjectException {
+        if (service != null) {
+            UnicastRemoteObject.unexportObject(service, true);
+        }
+    }
+
+    @Test
+    void updateUserReadsBackAfterReleasingItsConnection() throws RemoteException {
+        db.onUpdate("UPDATE users", 1).onQuery("SELECT id, username", List.of(row(7, "renamed", "DRIVER")));
+        service = newService();
+
+        User updated = service.updateUser(7, driver("renamed"));
+
+        assertNotNull(updated);
+        assertEquals(7, updated.getId());
+        assertEquals("renamed", updated.getUsername());
+        assertEquals("sedan", updated.getCarType());
+        assertEquals(2, db.executed().size());
+        assertEquals(0, db.openConnections());
+        assertEquals(0, db.admission().getInFlight());
+    }
+
+    @Test
+    void updateOfMissingUserDoesNotReadBack() throws RemoteException {
+        db.onUpdate("UPDATE users", 0);
+        service = newService();
+
+        assertNull(service.updateUser(7, driver("renamed")));
+        assertEquals(1, db.executed().size());
+        assertEquals(0, db.openConnections());
+    }
+
+    @Test
+    void everyUserCallLeavesTheGateEmpty() throws RemoteException {
+        db.onQuery("SELECT id, username", List.of(row(7, "rider", "RIDER")))
+            .onQuery("SELECT 1", List.of(Map.of()))
+            .onUpdate("DELETE", 1);
+        service = newService();
+
+        assertEquals("rider", service.getUserById(7).getUsername());
+        assertEquals(true, service.isPhoneExists("+959000000001"));
+        assertEquals(true, service.isUsernameExists("rider"));
+        assertEquals(true, service.deleteUser(7));
+        assertEquals(0, db.openConnections());
+        assertEquals(0, db.admission().getInFlight());
+    }
+
+    @Test
+    void unknownPhoneCostsAsMuchAsWrongPassword() throws RemoteException {
+        Map<String, Object> known = row(7, "rider", "RIDER");
+        known.put("password", PasswordHasher.getInstance().hash("right"));
+        db.onQuery("SELECT id, username", List.of(known));
+        service = newService();
+        FakeDatabase empty = new FakeDatabase().onQuery("SELECT id, username", List.of());
+        UserServiceImpl unknown = new UserServiceImpl(empty.config(), UserExistenceFilters.unbuilt(), PasswordHasher.getInstance());
+        try {
+            long wrongPassword = Long.MAX_VALUE;
+            long unknownPhone = Long.MAX_VALUE;
+            for (int i = 0; i < 3; i++) {
+                long start = System.nanoTime();
+                assertNull(service.loginUser("+959000000001", "wrong"));
+                wrongPassword = Math.min(wrongPassword, System.nanoTime() - start);
+                start = System.nanoTime();
+                assertNull(unknown.loginUser("+959000000002", "wrong"));
+                unknownPhone = Math.min(unknownPhone, System.nanoTime() - start);
+            }
+            // Both derive a full-strength hash; without the dummy verify the unknown phone returns in microseconds
+            assertTrue(unknownPhone * 3 > wrongPassword, "unknown=" + unknownPhone + " wrong=" + wrongPassword);
+        } finally {
+            UnicastRemoteObject.unexportObject(unknown, true);
+        }
+    }
+
+    private UserServiceImpl newService() throws RemoteException {
+        return new UserServiceImpl(db.config(), UserExistenceFilters.unbuilt(), PasswordHasher.getInstance());
+    }
+
+    private static User driver(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPhone("+959000000001");
+        user.setUserType(User.UserType.DRIVER);
+        user.setCarType("sedan");
+        user.setLicenseNumber("YGN-1234");
+        return user;
+    }
+
+    private static Map<String, Object> row(int id, String username, String userType) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("username", username);
+        row.put("phone", "+959000000001");
+        row.put("password", "hash");
+        row.put("user_type", userType);
+        row.put("car_type", "sedan");
+        row.put("license_number", "YGN-1234");
+        return row;
+    }
+}
@@ -0,0 +1,157 @@
+package com.rsrmi.ride_sharing_api.rmi.presence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PresenceStoreTest {
+
+    private static final int CAPACITY = 64;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void emptyDirectoryRecoversNothing() throws IOException {
+        PresenceStore store = new PresenceStore(dir, CAPACITY);
+        assertTrue(store.recover().isEmpty());
+        // No journal until the first snapshot
+        assertFalse(store.append(PresenceStore.HEARTBEAT, 1, 16.8, 96.15, 1000));
+    }
+
+    @Test
+    void snapshotPlusJournalRecoversLatestState() throws IOException {
+        PresenceStore store = new PresenceStore(dir, CAPACITY);
+        store.snapshot(() -> List.of(
+            new PresenceStore.Record(1, 16.800001, 96.150001, 1000, 900),
+            new PresenceStore.Record(2, 16.81, 96.16, 1000, 1000),
+            new PresenceStore.Record(3, 16.82, 96.17, 1000, 1000)));
+        assertTrue(store.append(PresenceStore.HEARTBEAT, 1, 16.805, 96.155, 2000));
+        assertTrue(store.append(PresenceStore.TOUCH, 2, 0, 0, 2500));
+        assertTrue(store.append(PresenceStore.OFFLINE, 3, 0, 0, 3000));
+        assertTrue(store.append(PresenceStore.HEARTBEAT, 4, -33.8688, 151.2093, 3500));
+
+        Map<Integer, PresenceStore.Record> recovered = new PresenceStore(dir, CAPACITY).recover();
+
+        assertEquals(3, recovered.size());
+        assertRecord(recovered.get(1), 16.805, 96.155, 2000, 2000);
+        // A touch moves lastSeen but keeps the snapshot position and its time
+        assertRecord(recovered.get(2), 16.81, 96.16, 2500, 1000);
+        assertFalse(recovered.containsKey(3));
+        assertRecord(recovered.get(4), -33.8688, 151.2093, 3500, 3500);
+    }
+
+    @Test
+    void offlineBeatsOlderHeartbeatLaterInJournal() throws IOException {
+        PresenceStore store = new PresenceStore(dir, CAPACITY);
+        store.snapshot(List::of);
+        // Appended out of order by two threads: the heartbeat was taken before the driver went offline
+        store.append(PresenceStore.HEARTBEAT, 1, 16.8, 96.15, 1000);
+        store.append(PresenceStore.OFFLINE, 1, 0, 0, 3000);
+        store.append(PresenceStore.HEARTBEAT, 1, 16.9, 96.25, 2000);
+
+        assertTrue(new PresenceStore(dir, CAPACITY).recover().isEmpty());
+    }
+
+    @Test
+    void journalRecordOlderThanSnapshotChangesNothing() throws IOException {
+        PresenceStore store = new PresenceStore(dir, CAPACITY);
+        store.snapshot(() -> List.of(new PresenceStore.Record(1, 16.8, 96.15, 5000, 5000)));
+        store.append(PresenceStore.HEARTBEAT, 1, 16.9, 96.25, 4000);
+        store.append(PresenceStore.OFFLINE, 1, 0, 0, 4500);
+        // A touch for a driver the snapshot never had does not bring them online
+        store.append(PresenceStore.TOUCH, 2, 0, 0, 6000);
+
+        Map<Integer, PresenceStore.Record> recovered = new PresenceStore(dir, CAPACITY).recover();
+
+        assertEquals(1, recovered.size());
+        assertRecord(recovered.get(1), 16.8, 96.15, 5000, 5000);
+    }
+
+    @Test
+    void recordCutShortIsIgnored() throws IOException {
+        PresenceStore store = new PresenceStore(dir, CAPACITY);
+        store.snapshot(List::of);
+        store.append(PresenceStore.HEARTBEAT, 1, 16.8, 96.15, 1000);
+        // A crash after the slot's body was stored but before its kind: everything but the kind is there
+        ByteBuffer torn = ByteBuffer.allocate(24).order(ByteOrder.nativeOrder());
+        torn.putInt(0).putInt(2).putInt(16_810_000).putInt(96_160_000).putLong(2000).flip();
+        try (FileChannel channel = FileChannel.open(dir.resolve("presence-1.journal"), StandardOpenOption.WRITE)) {
+            channel.write(torn, 24);
+        }
+
+        Map<Integer, PresenceStore.Record> recovered = new PresenceStore(dir, CAPACITY).recover();
+
+        assertEquals(1, recovered.size());
+        assertRecord(recovered.get(1), 16.8, 96.15, 1000, 1000);
+    }
+
+    @Test
+    void snapshotStartsNewJournalAndDropsOldOnes() throws IOException {
+        PresenceStore store = new PresenceStore(dir, CAPACITY);
+        store.snapshot(List::of);
+        store.append(PresenceStore.HEARTBEAT, 1, 16.8, 96.15, 1000);
+        store.snapshot(() -> List.of(new PresenceStore.Record(1, 16.8, 96.15, 1000, 1000)));
+        store.append(PresenceStore.HEARTBEAT, 2, 16.9, 96.25, 2000);
+
+        assertFalse(Files.exists(dir.resolve("presence-1.journal")));
+        assertTrue(Files.exists(dir.resolve("presence-2.journal")));
+        Map<Integer, PresenceStore.Record> recovered = new PresenceStore(dir, CAPACITY).recover();
+        assertEquals(2, recovered.size());
+        assertRecord(recovered.get(2), 16.9, 96.25, 2000, 2000);
+    }
+
+    @Test
+    void restartedStoreContinuesAfterLastGeneration() throws IOException {
+        PresenceStore store = new PresenceStore(dir, CAPACITY);
+        store.snapshot(List::of);
+        store.append(PresenceStore.HEARTBEAT, 1, 16.8, 96.15, 1000);
+
+        PresenceStore restarted = new PresenceStore(dir, CAPACITY);
+        Map<Integer, PresenceStore.Record> recovered = restarted.recover();
+        restarted.snapshot(recovered::values);
+        restarted.append(PresenceStore.HEARTBEAT, 2, 16.9, 96.25, 2000);
+
+        Map<Integer, PresenceStore.Record> again = new PresenceStore(dir, CAPACITY).recover();
+        assertEquals(2, again.size());
+        assertRecord(again.get(1), 16.8, 96.15, 1000, 1000);
+    }
+
+    @Test
+    void fullJournalRefusesAppends() throws IOException {
+        PresenceStore store = new PresenceStore(dir, 4);
+        store.snapshot(List::of);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(store.append(PresenceStore.HEARTBEAT, i + 1, 16.8, 96.15, 1000 + i));
+        }
+        assertEquals(1, store.journalFill());
+        assertFalse(store.append(PresenceStore.HEARTBEAT, 5, 16.8, 96.15, 2000));
+        assertEquals(4, new PresenceStore(dir, 4).recover().size());
+    }
+
+    @Test
+    void unreadableSnapshotIsAnError() throws IOException {
+        Files.write(dir.resolve("presence.snap"), new byte[64]);
+        assertThrows(IOException.class, () -> new PresenceStore(dir, CAPACITY).recover());
+    }
+
+    private static void assertRecord(PresenceStore.Record record, double latitude, double longitude, long lastSeen, long positionTime) {
+        assertEquals(latitude, record.latitude, 1e-6);
+        assertEquals(longitude, record.longitude, 1e-6);
+        assertEquals(lastSeen, record.lastSeen);
+        assertEquals(positionTime, record.positionTime);
+    }
+}
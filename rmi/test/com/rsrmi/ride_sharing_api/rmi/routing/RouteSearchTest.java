@@ -0,0 +1,145 @@
+package com.rsrmi.ride_sharing_api.rmi.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RouteSearchTest {
+
+    private static final int NODES = 400;
+
+    @Test
+    void searchMatchesPlainDijkstra() {
+        RoadGraph graph = randomGraph(new Random(42));
+        RouteSearch search = new RouteSearch(graph);
+        Random random = new Random(7);
+        int reachable = 0;
+        for (int query = 0; query < 500; query++) {
+            int s = random.nextInt(graph.nodeCount);
+            int t = random.nextInt(graph.nodeCount);
+            double[][] expected = dijkstra(graph, s);
+            boolean found = search.search(s, t);
+            if (expected[0][t] == Double.POSITIVE_INFINITY) {
+                assertFalse(found, "route " + s + " -> " + t);
+                continue;
+            }
+            reachable++;
+            assertTrue(found, "route " + s + " -> " + t);
+            assertEquals(expected[0][t], search.seconds(), expected[0][t] * 1e-4 + 1e-3, "seconds " + s + " -> " + t);
+            assertEquals(expected[1][t], search.meters(), expected[1][t] * 1e-4 + 1e-2, "meters " + s + " -> " + t);
+        }
+        assertTrue(reachable > 400, "the graph should be mostly connected, was " + reachable);
+    }
+
+    @Test
+    void unreachableTargetIsReported() {
+        RoadGraph graph = randomGraph(new Random(42));
+        RouteSearch search = new RouteSearch(graph);
+        // The last node has no edges at all
+        assertFalse(search.search(0, graph.nodeCount - 1));
+        assertFalse(search.search(graph.nodeCount - 1, 0));
+        assertTrue(search.search(5, 5));
+        assertEquals(0, search.seconds());
+    }
+
+    @Test
+    void sweepMatchesPlainDijkstraWithinHorizon() {
+        RoadGraph graph = randomGraph(new Random(3));
+        RouteSearch search = new RouteSearch(graph);
+        Random random = new Random(11);
+        int[] sources = new int[60];
+        float[] seconds = new float[sources.length];
+        float[] meters = new float[sources.length];
+        for (int round = 0; round < 20; round++) {
+            int t = random.nextInt(graph.nodeCount);
+            for (int i = 0; i < sources.length; i++) {
+                sources[i] = random.nextInt(graph.nodeCount);
+            }
+            float horizon = 120 + random.nextInt(300);
+            search.sweepTo(t, sources, horizon, seconds, meters);
+            for (int i = 0; i < sources.length; i++) {
+                double[][] expected = dijkstra(graph, sources[i]);
+                if (expected[0][t] > horizon) {
+                    assertEquals(Float.POSITIVE_INFINITY, seconds[i], "source " + sources[i] + " -> " + t);
+                    continue;
+                }
+                assertEquals(expected[0][t], seconds[i], expected[0][t] * 1e-4 + 1e-3, "seconds " + sources[i] + " -> " + t);
+                assertEquals(expected[1][t], meters[i], expected[1][t] * 1e-4 + 1e-2, "meters " + sources[i] + " -> " + t);
+            }
+        }
+    }
+
+    /**
+     * Nodes scattered over a few kilometres, each with a handful of one-way edges to its nearest
+     * neighbours at varying speeds, plus one isolated node at the end. Edge lengths are never
+     * shorter than the straight line, as on a real road network.
+     */
+    private static RoadGraph randomGraph(Random random) {
+        double[] lat = new double[NODES];
+        double[] lng = new double[NODES];
+        for (int v = 0; v < NODES; v++) {
+            lat[v] = 16.80 + random.nextDouble() * 0.05;
+            lng[v] = 96.15 + random.nextDouble() * 0.05;
+        }
+        int perNode = 4;
+        int[] from = new int[NODES * perNode];
+        int[] to = new int[NODES * perNode];
+        float[] seconds = new float[NODES * perNode];
+        float[] meters = new float[NODES * perNode];
+        int edges = 0;
+        for (int v = 0; v < NODES - 1; v++) {
+            Integer[] byDistance = new Integer[NODES - 1];
+            for (int u = 0; u < NODES - 1; u++) {
+                byDistance[u] = u;
+            }
+            final int origin = v;
+            Arrays.sort(byDistance, (a, b) -> Double.compare(straightMeters(lat, lng, origin, a), straightMeters(lat, lng, origin, b)));
+            for (int k = 0; k < perNode; k++) {
+                int u = byDistance[1 + random.nextInt(8)];
+                from[edges] = v;
+                to[edges] = u;
+                meters[edges] = (float) (straightMeters(lat, lng, v, u) * (1 + random.nextDouble() * 0.3));
+                seconds[edges] = meters[edges] / (float) (5 + random.nextDouble() * 20);
+                edges++;
+            }
+        }
+        return new RoadGraph(lat, lng, from, to, seconds, meters, edges);
+    }
+
+    private static double straightMeters(double[] lat, double[] lng, int a, int b) {
+        return LocationServiceImpl.haversine(lat[a], lng[a], lat[b], lng[b]) * 1000;
+    }
+
+    // Textbook Dijkstra over the forward edges: {seconds[], meters[]} from s
+    private static double[][] dijkstra(RoadGraph graph, int s) {
+        double[] dist = new double[graph.nodeCount];
+        double[] meters = new double[graph.nodeCount];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[s] = 0;
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        queue.add(new double[] { 0, s });
+        while (!queue.isEmpty()) {
+            double[] head = queue.poll();
+            int u = (int) head[1];
+            if (head[0] > dist[u]) {
+                continue;
+            }
+            for (int e = graph.fwdFirst[u]; e < graph.fwdFirst[u + 1]; e++) {
+                int v = graph.fwdTarget[e];
+                double dv = dist[u] + graph.fwdSeconds[e];
+                if (dv < dist[v]) {
+                    dist[v] = dv;
+                    meters[v] = meters[u] + graph.fwdMeters[e];
+                    queue.add(new double[] { dv, v });
+                }
+            }
+        }
+        return new double[][] { dist, meters };
+    }
+}
@@ -0,0 +1,65 @@
+package com.rsrmi.ride_sharing_api.rmi.routing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rsrmi.ride_sharing_api.rmi.models.DriverEta;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RoutingEngineTest {
+
+    // Three nodes on a north-south road, 0.001 degrees (about 111 m) apart, both directions
+    private static RoadGraph road() {
+        double[] lat = { 16.800, 16.801, 16.802 };
+        double[] lng = { 96.15, 96.15, 96.15 };
+        int[] from = { 0, 1, 1, 2 };
+        int[] to = { 1, 0, 2, 1 };
+        float[] meters = { 111, 111, 111, 111 };
+        float[] seconds = { 10, 10, 10, 10 };
+        return new RoadGraph(lat, lng, from, to, seconds, meters, 4);
+    }
+
+    @Test
+    void searchesAreCappedAndReused() {
+        RoutingEngine engine = new RoutingEngine(road(), 2, 10);
+        RouteSearch first = engine.borrow();
+        RouteSearch second = engine.borrow();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(engine.borrow());
+
+        engine.giveBack(first);
+        assertSame(first, engine.borrow());
+    }
+
+    @Test
+    void busyEngineFallsBackToStraightLine() {
+        RoutingEngine engine = new RoutingEngine(road(), 1, 10);
+        assertTrue(engine.estimate(16.800, 96.15, 16.802, 96.15).isRoadNetwork());
+
+        RouteSearch held = engine.borrow();
+        assertFalse(engine.estimate(16.800, 96.15, 16.802, 96.15).isRoadNetwork());
+        List<DriverEta> etas = engine.estimateToPickup(List.of(driver(1, 16.800)), 16.802, 96.15, 600);
+        assertEquals(1, etas.size());
+        assertFalse(etas.get(0).isRoadNetwork());
+
+        engine.giveBack(held);
+        etas = engine.estimateToPickup(List.of(driver(1, 16.800)), 16.802, 96.15, 600);
+        assertTrue(etas.get(0).isRoadNetwork());
+        assertEquals(20, etas.get(0).getEtaSeconds(), 1);
+    }
+
+    private static UserLocation driver(int id, double lat) {
+        UserLocation location = new UserLocation();
+        location.setUserId(id);
+        location.setLatitude(lat);
+        location.setLongitude(96.15);
+        return location;
+    }
+}
@@ -0,0 +1,146 @@
+package com.rsrmi.ride_sharing_api.rmi.tracking;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rsrmi.ride_sharing_api.rmi.implementations.LocationServiceImpl;
+import com.rsrmi.ride_sharing_api.rmi.models.RideTrajectory;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TrajectoryCodecTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        Random random = new Random(1);
+        int count = 500;
+        double[] lat = new double[count];
+        double[] lng = new double[count];
+        long[] time = new long[count];
+        // Crosses both the equator and the prime meridian so deltas and values go negative
+        lat[0] = 0.01;
+        lng[0] = -0.01;
+        time[0] = 1_760_000_000_000L;
+        for (int i = 1; i < count; i++) {
+            lat[i] = lat[i - 1] - random.nextDouble() * 1e-4;
+            lng[i] = lng[i - 1] + random.nextDouble() * 1e-4;
+            time[i] = time[i - 1] + (i % 100 == 0 ? 3_600_000 : 1 + random.nextInt(5000));
+        }
+        int[] all = new int[count];
+        for (int i = 0; i < count; i++) {
+            all[i] = i;
+        }
+
+        List<double[]> points = decode(TrajectoryCodec.encode(lat, lng, time, all));
+
+        assertEquals(count, points.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(lat[i], points.get(i)[0], 0.5e-5 + 1e-12);
+            assertEquals(lng[i], points.get(i)[1], 0.5e-5 + 1e-12);
+            assertEquals(time[i], (long) points.get(i)[2]);
+        }
+    }
+
+    @Test
+    void segmentsDecodeBackToBack() {
+        double[] lat = { 16.8, 16.801, 16.802, 16.803 };
+        double[] lng = { 96.15, 96.151, 96.152, 96.153 };
+        long[] time = { 1000, 2000, 3000, 4000 };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(TrajectoryCodec.encode(lat, lng, time, new int[] { 0, 1 }));
+        out.writeBytes(TrajectoryCodec.encode(lat, lng, time, new int[] { 2, 3 }));
+
+        List<double[]> points = decode(out.toByteArray());
+
+        assertEquals(4, points.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(lat[i], points.get(i)[0], 1e-9);
+            assertEquals(lng[i], points.get(i)[1], 1e-9);
+            assertEquals(time[i], (long) points.get(i)[2]);
+        }
+    }
+
+    @Test
+    void emptySegmentDecodesToNothing() {
+        assertEquals(0, decode(TrajectoryCodec.encode(new double[0], new double[0], new long[0], new int[0])).size());
+        assertEquals(0, decode(null).size());
+    }
+
+    @Test
+    void simplifyStaysWithinErrorBound() {
+        Random random = new Random(5);
+        int count = 2000;
+        double[] lat = new double[count];
+        double[] lng = new double[count];
+        long[] time = new long[count];
+        lat[0] = 16.8;
+        lng[0] = 96.15;
+        double heading = 0;
+        for (int i = 1; i < count; i++) {
+            heading += (random.nextDouble() - 0.5) * 0.3;
+            double step = random.nextInt(10) == 0 ? 0 : 1e-4 * random.nextDouble();
+            lat[i] = lat[i - 1] + Math.cos(heading) * step;
+            lng[i] = lng[i - 1] + Math.sin(heading) * step;
+            time[i] = time[i - 1] + 1000;
+        }
+        double maxError = 5;
+
+        int[] kept = TrajectoryCodec.simplify(lat, lng, time, count, maxError);
+
+        assertEquals(0, kept[0]);
+        assertEquals(count - 1, kept[kept.length - 1]);
+        assertTrue(kept.length < count / 2, "kept " + kept.length + " of " + count);
+        for (int k = 1; k < kept.length; k++) {
+            int first = kept[k - 1];
+            int last = kept[k];
+            assertTrue(first < last);
+            for (int i = first + 1; i < last; i++) {
+                // Where the driver would be at time[i] moving at constant speed between the kept points
+                double ratio = (double) (time[i] - time[first]) / (time[last] - time[first]);
+                double expectedLat = lat[first] + (lat[last] - lat[first]) * ratio;
+                double expectedLng = lng[first] + (lng[last] - lng[first]) * ratio;
+                double meters = LocationServiceImpl.haversine(lat[i], lng[i], expectedLat, expectedLng) * 1000;
+                assertTrue(meters <= maxError * 1.01, "point " + i + " is " + meters + " m off");
+            }
+        }
+    }
+
+    @Test
+    void simplifyKeepsAStopOnAStraightRoad() {
+        // Straight line north at constant speed, except for a 60 s stop halfway
+        int count = 200;
+        double[] lat = new double[count];
+        double[] lng = new double[count];
+        long[] time = new long[count];
+        for (int i = 0; i < count; i++) {
+            int moving = i < 80 ? i : Math.max(80, i - 60);
+            lat[i] = 16.8 + moving * 1e-4;
+            lng[i] = 96.15;
+            time[i] = i * 1000L;
+        }
+
+        int[] kept = TrajectoryCodec.simplify(lat, lng, time, count, 5);
+
+        assertArrayEquals(new int[] { 0, 80, 140, 199 }, kept);
+    }
+
+    @Test
+    void simplifyKeepsShortRunsWhole() {
+        double[] lat = { 16.8, 16.9 };
+        double[] lng = { 96.1, 96.2 };
+        long[] time = { 0, 1 };
+        assertArrayEquals(new int[] { 0, 1 }, TrajectoryCodec.simplify(lat, lng, time, 2, 5));
+        assertArrayEquals(new int[] { 0 }, TrajectoryCodec.simplify(lat, lng, time, 1, 5));
+    }
+
+    private static List<double[]> decode(byte[] encoded) {
+        List<double[]> points = new ArrayList<>();
+        RideTrajectory.decode(encoded, (latitude, longitude, timestampMillis) ->
+            points.add(new double[] { latitude, longitude, timestampMillis }));
+        return points;
+    }
+}
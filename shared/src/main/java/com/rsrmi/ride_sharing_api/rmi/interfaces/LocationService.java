@@ -0,0 +1,32 @@
+package com.rsrmi.ride_sharing_api.rmi.interfaces;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.List;
+import com.rsrmi.ride_sharing_api.rmi.models.PlaceSuggestion;
+import com.rsrmi.ride_sharing_api.rmi.models.PredictedPosition;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
+import java.time.LocalDateTime;
+
+/**
+ * Remote interface for location-related services in the ride-sharing system.
+ */
+public interface LocationService extends Remote {
+
+    boolean updateUserLocation(int userId, UserLocation location) throws RemoteException;
+
+    UserLocation getUserLocation(int userId) throws RemoteException;
+
+    long getUserLocationVersion(int userId) throws RemoteException; // UserLocation.version of the stored row, 0 when there is none
+
+    List<UserLocation> findNearbyDrivers(UserLocation riderLocation, double radiusKm) throws RemoteException;
+
+    boolean heartbeat(int driverId) throws RemoteException; // keeps an online driver alive without a position; false means send a location update
+
+    PredictedPosition predictDriverPosition(int driverId, long atMillis) throws RemoteException; // from memory; atMillis 0 means now, null when the driver is offline
+
+    String reverseGeocode(double latitude, double longitude) throws RemoteException; // nearest known place label, null when none is close
+
+    List<PlaceSuggestion> searchPlaces(String query, UserLocation near, int limit) throws RemoteException; // prefix autocomplete, ranked by distance to near when given
+    
+}
@@ -0,0 +1,17 @@
+package com.rsrmi.ride_sharing_api.rmi.interfaces;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+
+/**
+ * Client-side callback that the RMI server pushes ride offers to.
+ * Implementations are exported by the caller (API tier or a driver gateway)
+ * and registered through {@link RideService#subscribeRideOffers}.
+ */
+public interface RideOfferListener extends Remote {
+
+    void onRideOffered(Ride ride) throws RemoteException; // New PENDING ride inside the subscribed area
+
+    void onRideWithdrawn(int rideId) throws RemoteException; // Ride was accepted or cancelled, drop it from the offer list
+}
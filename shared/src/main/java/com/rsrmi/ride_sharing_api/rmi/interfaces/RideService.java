@@ -0,0 +1,61 @@
+package com.rsrmi.ride_sharing_api.rmi.interfaces;
+
+import java.rmi.Remote;
+import java.util.List;
+import java.rmi.RemoteException;
+import com.rsrmi.ride_sharing_api.rmi.models.CellSupplyDemand;
+import com.rsrmi.ride_sharing_api.rmi.models.CurrentRideResult;
+import com.rsrmi.ride_sharing_api.rmi.models.FareQuote;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import com.rsrmi.ride_sharing_api.rmi.models.RideTrajectory;
+
+public interface RideService extends Remote {
+    
+    // 1. RIDE REQUEST & MATCHING
+    int requestRide(int riderId, double pickupLat, double pickupLng, double destLat, double destLng, String requestKey) throws RemoteException; // requestKey (nullable) makes retries return the first ride; 0 = rider already has an active ride
+    
+    List<Ride> getPendingRides(double driverLat, double driverLng, double radius) throws RemoteException; // Driver gets nearby ride requests
+    
+    // 2. RIDE ACCEPTANCE & STATUS
+    int acceptRide(int driverId, int rideId) throws RemoteException; // Driver accepts specific ride
+    
+    boolean cancelRide(int rideId) throws RemoteException;
+    
+    // 3. RIDE STATUS UPDATES
+    boolean startDriveToPickup(int rideId) throws RemoteException; // Driver starts driving to pickup
+    
+    boolean arrivedAtPickup(int rideId) throws RemoteException; // Driver arrived at pickup location
+    
+    boolean startRideToDestination(int rideId) throws RemoteException; // Driver picked up rider, going to destination
+    
+    boolean completeRide(int rideId) throws RemoteException; // Ride completed successfully
+    
+    // 4. REAL-TIME TRACKING
+    boolean updateDriverLocation(int driverId, double lat, double lng) throws RemoteException; // Driver location updates
+    
+    // 5. RIDE INFORMATION
+    Ride getCurrentRide(int userId) throws RemoteException; // Get in_progress ride
+
+    CurrentRideResult getCurrentRideIfChanged(int userId, long knownVersion) throws RemoteException; // Not-modified reply without a Ride when knownVersion is still current
+    
+    List<Ride> getRideHistory(int userId) throws RemoteException;
+    
+    // 6. RIDE STATUS CHECKING
+    String getRideStatus(int rideId) throws RemoteException; // Get current status: PENDING, ACCEPTED, DRIVER_EN_ROUTE, ARRIVED, IN_PROGRESS, COMPLETED, CANCELLED
+
+    // 7. RIDE OFFER SUBSCRIPTIONS
+    int subscribeRideOffers(RideOfferListener listener, double lat, double lng, double radiusKm) throws RemoteException; // Push new PENDING rides within radiusKm, returns subscription id
+
+    boolean updateRideOfferArea(int subscriptionId, double lat, double lng, double radiusKm) throws RemoteException; // Move the subscribed area as the driver moves
+
+    boolean unsubscribeRideOffers(int subscriptionId) throws RemoteException;
+
+    // 8. SUPPLY AND DEMAND
+    List<CellSupplyDemand> getSupplyDemand(double minLat, double minLng, double maxLat, double maxLng) throws RemoteException; // Per-cell pending rides, online drivers and 1/5/15-minute flows inside the box
+
+    // 9. FARE QUOTES
+    FareQuote getFareQuote(double pickupLat, double pickupLng, double destLat, double destLng) throws RemoteException; // Upfront price incl. surge; requestRide charges the same fare while the quote is valid
+
+    // 10. TRIP REPLAY
+    RideTrajectory getRideTrajectory(int rideId) throws RemoteException; // Simplified driver breadcrumbs in compact encoded form, null when none were recorded
+}
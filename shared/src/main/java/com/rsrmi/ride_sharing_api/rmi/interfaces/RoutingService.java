@@ -0,0 +1,22 @@
+package com.rsrmi.ride_sharing_api.rmi.interfaces;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.List;
+import com.rsrmi.ride_sharing_api.rmi.models.DriverEta;
+import com.rsrmi.ride_sharing_api.rmi.models.RouteEstimate;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
+
+/**
+ * Remote interface for road-network drive times in the ride-sharing system.
+ */
+public interface RoutingService extends Remote {
+
+    RouteEstimate getRouteEstimate(double fromLat, double fromLng, double toLat, double toLng) throws RemoteException;
+
+    // Drive times from each candidate driver to the pickup, fastest first; drivers beyond horizonSeconds are left out
+    List<DriverEta> getDriverEtas(List<UserLocation> candidates, double pickupLat, double pickupLng, double horizonSeconds) throws RemoteException;
+
+    boolean isRoadNetworkLoaded() throws RemoteException;
+
+}
@@ -0,0 +1,108 @@
+package com.rsrmi.ride_sharing_api.rmi.models;
+
+import java.io.Serializable;
+
+/**
+ * Supply and demand in one geohash cell. The window arrays hold counts for the last
+ * 1, 5 and 15 minutes, in that order (see {@link #WINDOW_MINUTES}).
+ */
+public class CellSupplyDemand implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final int[] WINDOW_MINUTES = { 1, 5, 15 };
+
+    private String geohash;
+    private double centerLatitude;
+    private double centerLongitude;
+    private long pendingRides;
+    private long onlineDrivers;
+    private long[] requested;
+    private long[] accepted;
+    private long[] cancelled;
+    private long[] driverUpdates;
+
+    public CellSupplyDemand() {
+        // Default constructor
+    }
+
+    public String getGeohash() {
+        return this.geohash;
+    }
+
+    public void setGeohash(String geohash) {
+        this.geohash = geohash;
+    }
+
+    public double getCenterLatitude() {
+        return this.centerLatitude;
+    }
+
+    public void setCenterLatitude(double centerLatitude) {
+        this.centerLatitude = centerLatitude;
+    }
+
+    public double getCenterLongitude() {
+        return this.centerLongitude;
+    }
+
+    public void setCenterLongitude(double centerLongitude) {
+        this.centerLongitude = centerLongitude;
+    }
+
+    public long getPendingRides() {
+        return this.pendingRides;
+    }
+
+    public void setPendingRides(long pendingRides) {
+        this.pendingRides = pendingRides;
+    }
+
+    public long getOnlineDrivers() {
+        return this.onlineDrivers;
+    }
+
+    public void setOnlineDrivers(long onlineDrivers) {
+        this.onlineDrivers = onlineDrivers;
+    }
+
+    public long[] getRequested() {
+        return this.requested;
+    }
+
+    public void setRequested(long[] requested) {
+        this.requested = requested;
+    }
+
+    public long[] getAccepted() {
+        return this.accepted;
+    }
+
+    public void setAccepted(long[] accepted) {
+        this.accepted = accepted;
+    }
+
+    public long[] getCancelled() {
+        return this.cancelled;
+    }
+
+    public void setCancelled(long[] cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    public long[] getDriverUpdates() {
+        return this.driverUpdates;
+    }
+
+    public void setDriverUpdates(long[] driverUpdates) {
+        this.driverUpdates = driverUpdates;
+    }
+
+    @Override
+    public String toString() {
+        return "CellSupplyDemand{" +
+                "geohash='" + geohash + '\'' +
+                ", pendingRides=" + pendingRides +
+                ", onlineDrivers=" + onlineDrivers +
+                '}';
+    }
+}
@@ -0,0 +1,61 @@
+package com.rsrmi.ride_sharing_api.rmi.models;
+
+import java.io.Serializable;
+
+/**
+ * Reply to a versioned current-ride poll. When nothing changed since the caller's
+ * version, {@code modified} is false and no Ride is shipped over the wire.
+ */
+public class CurrentRideResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private long version;
+    private boolean modified;
+    private Ride ride;
+
+    public CurrentRideResult() {
+        // Default constructor
+    }
+
+    public CurrentRideResult(long version, boolean modified, Ride ride) {
+        this.version = version;
+        this.modified = modified;
+        this.ride = ride;
+    }
+
+    public static CurrentRideResult notModified(long version) {
+        return new CurrentRideResult(version, false, null);
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isModified() {
+        return this.modified;
+    }
+
+    public void setModified(boolean modified) {
+        this.modified = modified;
+    }
+
+    public Ride getRide() {
+        return this.ride;
+    }
+
+    public void setRide(Ride ride) {
+        this.ride = ride;
+    }
+
+    @Override
+    public String toString() {
+        return "CurrentRideResult{" +
+                "version=" + version +
+                ", modified=" + modified +
+                ", ride=" + ride +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+package com.rsrmi.ride_sharing_api.rmi.models;
+
+import java.io.Serializable;
+
+/**
+ * Drive time from one candidate driver to a pickup point. {@code roadNetwork} is false when the
+ * figures are a straight-line estimate.
+ */
+public class DriverEta implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private int driverId;
+    private double etaSeconds;
+    private double distanceKm;
+    private boolean roadNetwork;
+
+    public DriverEta() {
+        // Default constructor
+    }
+
+    public DriverEta(int driverId, double etaSeconds, double distanceKm, boolean roadNetwork) {
+        this.driverId = driverId;
+        this.etaSeconds = etaSeconds;
+        this.distanceKm = distanceKm;
+        this.roadNetwork = roadNetwork;
+    }
+
+    public int getDriverId() {
+        return this.driverId;
+    }
+
+    public void setDriverId(int driverId) {
+        this.driverId = driverId;
+    }
+
+    public double getEtaSeconds() {
+        return this.etaSeconds;
+    }
+
+    public void setEtaSeconds(double etaSeconds) {
+        this.etaSeconds = etaSeconds;
+    }
+
+    public double getDistanceKm() {
+        return this.distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public boolean isRoadNetwork() {
+        return this.roadNetwork;
+    }
+
+    public void setRoadNetwork(boolean roadNetwork) {
+        this.roadNetwork = roadNetwork;
+    }
+
+    @Override
+    public String toString() {
+        return "DriverEta{" +
+                "driverId=" + driverId +
+                ", etaSeconds=" + etaSeconds +
+                ", distanceKm=" + distanceKm +
+                ", roadNetwork=" + roadNetwork +
+                '}';
+    }
+}
@@ -0,0 +1,99 @@
+package com.rsrmi.ride_sharing_api.rmi.models;
+
+import java.io.Serializable;
+
+/**
+ * Upfront price for a trip: distance and duration charges times the surge multiplier at the
+ * pickup. Quotes are shared by every trip between the same pair of small cells until
+ * {@code validUntil} (epoch millis), and a ride requested before then is charged {@code fare}.
+ */
+public class FareQuote implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private double distanceKm;
+    private double durationSeconds;
+    private boolean roadNetwork;
+    private double baseFare;
+    private double surgeMultiplier;
+    private double fare;
+    private String currency;
+    private long validUntil;
+
+    public FareQuote() {
+        // Default constructor
+    }
+
+    public double getDistanceKm() {
+        return this.distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public double getDurationSeconds() {
+        return this.durationSeconds;
+    }
+
+    public void setDurationSeconds(double durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public boolean isRoadNetwork() {
+        return this.roadNetwork;
+    }
+
+    public void setRoadNetwork(boolean roadNetwork) {
+        this.roadNetwork = roadNetwork;
+    }
+
+    public double getBaseFare() {
+        return this.baseFare;
+    }
+
+    public void setBaseFare(double baseFare) {
+        this.baseFare = baseFare;
+    }
+
+    public double getSurgeMultiplier() {
+        return this.surgeMultiplier;
+    }
+
+    public void setSurgeMultiplier(double surgeMultiplier) {
+        this.surgeMultiplier = surgeMultiplier;
+    }
+
+    public double getFare() {
+        return this.fare;
+    }
+
+    public void setFare(double fare) {
+        this.fare = fare;
+    }
+
+    public String getCurrency() {
+        return this.currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public long getValidUntil() {
+        return this.validUntil;
+    }
+
+    public void setValidUntil(long validUntil) {
+        this.validUntil = validUntil;
+    }
+
+    @Override
+    public String toString() {
+        return "FareQuote{" +
+                "distanceKm=" + distanceKm +
+                ", durationSeconds=" + durationSeconds +
+                ", surgeMultiplier=" + surgeMultiplier +
+                ", fare=" + fare +
+                ", currency=" + currency +
+                '}';
+    }
+}
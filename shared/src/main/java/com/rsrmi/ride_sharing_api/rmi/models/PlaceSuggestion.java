@@ -0,0 +1,67 @@
+package com.rsrmi.ride_sharing_api.rmi.models;
+
+import java.io.Serializable;
+
+/**
+ * One autocomplete result. {@code distanceKm} is -1 when the search had no caller position.
+ */
+public class PlaceSuggestion implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private String label;
+    private double latitude;
+    private double longitude;
+    private double distanceKm;
+
+    public PlaceSuggestion() {
+        // Default constructor
+    }
+
+    public PlaceSuggestion(String label, double latitude, double longitude, double distanceKm) {
+        this.label = label;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceKm = distanceKm;
+    }
+
+    public String getLabel() {
+        return this.label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public double getLatitude() {
+        return this.latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return this.longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public double getDistanceKm() {
+        return this.distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    @Override
+    public String toString() {
+        return "PlaceSuggestion{" +
+                "label='" + label + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", distanceKm=" + distanceKm +
+                '}';
+    }
+}
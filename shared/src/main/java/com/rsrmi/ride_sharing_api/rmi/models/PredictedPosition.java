@@ -0,0 +1,114 @@
+package com.rsrmi.ride_sharing_api.rmi.models;
+
+import java.io.Serializable;
+
+/**
+ * Where a driver probably is at {@code atMillis}, dead-reckoned from their recent fixes. With the
+ * speed and heading a client can keep animating the marker between polls.
+ * {@code offsetMillis} is how far past the last fix the position was projected (negative when
+ * interpolated between the last two fixes); after the server's extrapolation limit the
+ * position is held.
+ */
+public class PredictedPosition implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private int driverId;
+    private double latitude;
+    private double longitude;
+    private long atMillis;
+    private long fixMillis;
+    private long offsetMillis;
+    private double speedMps;
+    private double headingDegrees;
+
+    public PredictedPosition() {
+        // Default constructor
+    }
+
+    public PredictedPosition(int driverId, double latitude, double longitude, long atMillis, long fixMillis,
+                             long offsetMillis, double speedMps, double headingDegrees) {
+        this.driverId = driverId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.atMillis = atMillis;
+        this.fixMillis = fixMillis;
+        this.offsetMillis = offsetMillis;
+        this.speedMps = speedMps;
+        this.headingDegrees = headingDegrees;
+    }
+
+    public int getDriverId() {
+        return this.driverId;
+    }
+
+    public void setDriverId(int driverId) {
+        this.driverId = driverId;
+    }
+
+    public double getLatitude() {
+        return this.latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return this.longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public long getAtMillis() {
+        return this.atMillis;
+    }
+
+    public void setAtMillis(long atMillis) {
+        this.atMillis = atMillis;
+    }
+
+    public long getFixMillis() {
+        return this.fixMillis;
+    }
+
+    public void setFixMillis(long fixMillis) {
+        this.fixMillis = fixMillis;
+    }
+
+    public long getOffsetMillis() {
+        return this.offsetMillis;
+    }
+
+    public void setOffsetMillis(long offsetMillis) {
+        this.offsetMillis = offsetMillis;
+    }
+
+    public double getSpeedMps() {
+        return this.speedMps;
+    }
+
+    public void setSpeedMps(double speedMps) {
+        this.speedMps = speedMps;
+    }
+
+    public double getHeadingDegrees() {
+        return this.headingDegrees;
+    }
+
+    public void setHeadingDegrees(double headingDegrees) {
+        this.headingDegrees = headingDegrees;
+    }
+
+    @Override
+    public String toString() {
+        return "PredictedPosition{" +
+                "driverId=" + driverId +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", atMillis=" + atMillis +
+                ", offsetMillis=" + offsetMillis +
+                ", speedMps=" + speedMps +
+                '}';
+    }
+}
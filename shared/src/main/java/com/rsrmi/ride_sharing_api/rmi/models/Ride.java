@@ -22,6 +22,9 @@ public class Ride implements Serializable {
     private java.sql.Timestamp accepted_at;
     private java.sql.Timestamp started_at;
     private java.sql.Timestamp completed_at;
+    private double fare_amount;        // quoted at request time, 0 for rides that predate fares
+    private String fare_currency;
+    private double surge_multiplier;
 
     public enum Status {
         PENDING,           // Ride requested, waiting for driver
@@ -189,6 +192,30 @@ public class Ride implements Serializable {
         this.completed_at = completed_at;
     }
 
+    public double getFareAmount() {
+        return fare_amount;
+    }
+
+    public void setFareAmount(double fare_amount) {
+        this.fare_amount = fare_amount;
+    }
+
+    public String getFareCurrency() {
+        return fare_currency;
+    }
+
+    public void setFareCurrency(String fare_currency) {
+        this.fare_currency = fare_currency;
+    }
+
+    public double getSurgeMultiplier() {
+        return surge_multiplier;
+    }
+
+    public void setSurgeMultiplier(double surge_multiplier) {
+        this.surge_multiplier = surge_multiplier;
+    }
+
     @Override
     public String toString() {
         return "Ride{" +
@@ -0,0 +1,122 @@
+package com.rsrmi.ride_sharing_api.rmi.models;
+
+import java.io.Serializable;
+
+/**
+ * A ride's driver breadcrumbs after simplification, in the compact form they are stored in.
+ *
+ * {@code encoded} is one or more segments back to back. Each segment is a varint point count
+ * followed by that many points, every point being three zigzag varints: latitude and longitude
+ * in units of 1e-5 degrees and time in epoch milliseconds, each as a delta from the previous
+ * point of the segment (the first point is a delta from zero). Use {@link #decode} to walk the
+ * points without materialising them.
+ */
+public class RideTrajectory implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final double COORDINATE_SCALE = 1e5;
+
+    private int rideId;
+    private int pointCount;
+    private int rawPointCount;
+    private byte[] encoded;
+
+    public interface PointVisitor {
+        void point(double latitude, double longitude, long timestampMillis);
+    }
+
+    public RideTrajectory() {
+        // Default constructor
+    }
+
+    public RideTrajectory(int rideId, int pointCount, int rawPointCount, byte[] encoded) {
+        this.rideId = rideId;
+        this.pointCount = pointCount;
+        this.rawPointCount = rawPointCount;
+        this.encoded = encoded;
+    }
+
+    /**
+     * Streams every stored point, oldest first, to the visitor.
+     */
+    public void decode(PointVisitor visitor) {
+        decode(encoded, visitor);
+    }
+
+    public static void decode(byte[] encoded, PointVisitor visitor) {
+        if (encoded == null) {
+            return;
+        }
+        int[] pos = { 0 };
+        while (pos[0] < encoded.length) {
+            long count = readVarint(encoded, pos);
+            long lat = 0;
+            long lng = 0;
+            long time = 0;
+            for (long i = 0; i < count; i++) {
+                lat += unzigzag(readVarint(encoded, pos));
+                lng += unzigzag(readVarint(encoded, pos));
+                time += unzigzag(readVarint(encoded, pos));
+                visitor.point(lat / COORDINATE_SCALE, lng / COORDINATE_SCALE, time);
+            }
+        }
+    }
+
+    private static long readVarint(byte[] in, int[] pos) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static long unzigzag(long n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    public int getRideId() {
+        return this.rideId;
+    }
+
+    public void setRideId(int rideId) {
+        this.rideId = rideId;
+    }
+
+    public int getPointCount() {
+        return this.pointCount;
+    }
+
+    public void setPointCount(int pointCount) {
+        this.pointCount = pointCount;
+    }
+
+    public int getRawPointCount() {
+        return this.rawPointCount;
+    }
+
+    public void setRawPointCount(int rawPointCount) {
+        this.rawPointCount = rawPointCount;
+    }
+
+    public byte[] getEncoded() {
+        return this.encoded;
+    }
+
+    public void setEncoded(byte[] encoded) {
+        this.encoded = encoded;
+    }
+
+    @Override
+    public String toString() {
+        return "RideTrajectory{" +
+                "rideId=" + rideId +
+                ", pointCount=" + pointCount +
+                ", rawPointCount=" + rawPointCount +
+                ", encodedBytes=" + (encoded != null ? encoded.length : 0) +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package com.rsrmi.ride_sharing_api.rmi.models;
+
+import java.io.Serializable;
+
+/**
+ * Drive time and distance between two coordinates. {@code roadNetwork} is false when no road
+ * graph is loaded or the points could not be routed, and the figures are a straight-line estimate.
+ */
+public class RouteEstimate implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private double distanceKm;
+    private double durationSeconds;
+    private boolean roadNetwork;
+
+    public RouteEstimate() {
+        // Default constructor
+    }
+
+    public RouteEstimate(double distanceKm, double durationSeconds, boolean roadNetwork) {
+        this.distanceKm = distanceKm;
+        this.durationSeconds = durationSeconds;
+        this.roadNetwork = roadNetwork;
+    }
+
+    public double getDistanceKm() {
+        return this.distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public double getDurationSeconds() {
+        return this.durationSeconds;
+    }
+
+    public void setDurationSeconds(double durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public boolean isRoadNetwork() {
+        return this.roadNetwork;
+    }
+
+    public void setRoadNetwork(boolean roadNetwork) {
+        this.roadNetwork = roadNetwork;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteEstimate{" +
+                "distanceKm=" + distanceKm +
+                ", durationSeconds=" + durationSeconds +
+                ", roadNetwork=" + roadNetwork +
+                '}';
+    }
+}
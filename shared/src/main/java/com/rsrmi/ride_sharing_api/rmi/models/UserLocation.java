@@ -2,6 +2,7 @@ package com.rsrmi.ride_sharing_api.rmi.models;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 public class UserLocation implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -85,6 +86,18 @@ public class UserLocation implements Serializable {
                 '}';
     }
 
+    /**
+     * Version stamp for conditional requests: last_updated in UTC epoch millis with the
+     * online flag in the low bit, so both tiers derive the same value from the same row.
+     */
+    public static long version(LocalDateTime lastUpdated, boolean isOnline) {
+        if (lastUpdated == null) {
+            return 0;
+        }
+        long millis = lastUpdated.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return (millis << 1) | (isOnline ? 1 : 0);
+    }
+
     /**
      * Calculate distance between this location and another location
      * Using Haversine formula to calculate distance in kilometers
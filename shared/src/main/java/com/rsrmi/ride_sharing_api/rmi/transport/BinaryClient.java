@@ -0,0 +1,232 @@
+package com.rsrmi.ride_sharing_api.rmi.transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.rmi.RemoteException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client side of the binary transport: a few long-lived connections, each carrying any number
+ * of calls at once. A call writes its request frame and returns a future at once; a reader
+ * thread per connection matches responses to futures by call id, in whatever order they come.
+ *
+ * Futures complete on the reader thread, so dependent stages must not block. A broken
+ * connection fails its in-flight calls and is reopened by the next call that picks it.
+ */
+public final class BinaryClient implements AutoCloseable {
+
+    /**
+     * Writes a call's arguments after the frame header.
+     */
+    public interface Args {
+        void write(WireOutput out);
+    }
+
+    public static final Args NO_ARGS = out -> { };
+
+    private final InetSocketAddress address;
+    private final long timeoutMillis;
+    private final Connection[] connections;
+    private final AtomicInteger nextConnection = new AtomicInteger();
+    private final AtomicInteger nextCallId = new AtomicInteger();
+    private volatile boolean closed;
+
+    public BinaryClient(String host, int port, int connections, long timeoutMillis) {
+        this.address = new InetSocketAddress(host, port);
+        this.timeoutMillis = timeoutMillis;
+        this.connections = new Connection[Math.max(1, connections)];
+        for (int i = 0; i < this.connections.length; i++) {
+            this.connections[i] = new Connection(i);
+        }
+    }
+
+    /**
+     * Sends {@code op} with the arguments {@code args} writes and decodes the result with
+     * {@code result}. Fails with a RemoteException for server-side errors, I/O failures and
+     * timeouts.
+     */
+    public <T> CompletableFuture<T> call(Op op, Args args, WireCodec.Reader<T> result) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new RemoteException("Binary transport client is closed"));
+            return future;
+        }
+        int callId = nextCallId.incrementAndGet();
+        WireOutput frame = Frames.begin(callId, op.code, 64);
+        args.write(frame);
+        Frames.finish(frame);
+
+        Connection connection = connections[Math.floorMod(nextConnection.getAndIncrement(), connections.length)];
+        connection.pending.put(callId, new Pending<>(future, result));
+        future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+              .whenComplete((value, error) -> connection.pending.remove(callId));
+        try {
+            connection.send(frame);
+        } catch (IOException e) {
+            connection.fail(null, e);
+        }
+        return future;
+    }
+
+    /**
+     * Blocks for a call made through {@link #call}, unwrapping its failure to a RemoteException
+     * as the RMI stubs would throw.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws RemoteException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteException("Interrupted waiting for binary transport call", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RemoteException remote) {
+                throw remote;
+            }
+            if (cause instanceof TimeoutException) {
+                throw new RemoteException("Binary transport call timed out", cause);
+            }
+            throw new RemoteException("Binary transport call failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Connection connection : connections) {
+            connection.fail(null, new IOException("Binary transport client closed"));
+        }
+    }
+
+    private record Pending<T>(CompletableFuture<T> future, WireCodec.Reader<T> reader) {
+        void complete(byte[] frame, int start, int length) {
+            WireInput in = new WireInput(frame, start + Frames.LENGTH_BYTES + Frames.HEADER_BYTES,
+                length - Frames.HEADER_BYTES);
+            try {
+                if (Frames.kind(frame, start) == Frames.STATUS_OK) {
+                    future.complete(reader.read(in));
+                } else {
+                    future.completeExceptionally(new RemoteException(in.readString()));
+                }
+            } catch (RuntimeException e) {
+                future.completeExceptionally(new RemoteException("Malformed binary transport response", e));
+            }
+        }
+    }
+
+    private final class Connection {
+        final int index;
+        final Map<Integer, Pending<?>> pending = new ConcurrentHashMap<>();
+        final ReentrantLock writeLock = new ReentrantLock();
+        SocketChannel channel; // guarded by writeLock
+
+        Connection(int index) {
+            this.index = index;
+        }
+
+        void send(WireOutput frame) throws IOException {
+            writeLock.lock();
+            try {
+                if (channel == null || !channel.isOpen()) {
+                    open();
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(frame.array(), 0, frame.size());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private void open() throws IOException {
+            if (closed) {
+                throw new IOException("Binary transport client closed");
+            }
+            SocketChannel opened = SocketChannel.open(address);
+            opened.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel = opened;
+            Thread reader = new Thread(() -> readLoop(opened), "binary-client-" + index);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        private void readLoop(SocketChannel source) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            try {
+                while (true) {
+                    if (source.read(buffer) < 0) {
+                        throw new IOException("Binary transport connection closed by server");
+                    }
+                    buffer.flip();
+                    byte[] bytes = buffer.array();
+                    int start = 0;
+                    int available = buffer.limit();
+                    while (available - start >= Frames.LENGTH_BYTES) {
+                        int length = Frames.length(bytes, start);
+                        if (available - start < Frames.LENGTH_BYTES + length) {
+                            break;
+                        }
+                        Pending<?> call = pending.remove(Frames.callId(bytes, start));
+                        if (call != null) {
+                            call.complete(bytes, start, length);
+                        }
+                        start += Frames.LENGTH_BYTES + length;
+                    }
+                    buffer.position(start);
+                    buffer.compact();
+                    // Grow for a frame larger than the buffer
+                    if (!buffer.hasRemaining()) {
+                        buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                closeChannel(source);
+                fail(source, e);
+            }
+        }
+
+        /**
+         * Drops the connection, unless {@code broken} is an older channel already replaced, and
+         * fails the calls waiting on it.
+         */
+        void fail(SocketChannel broken, Exception cause) {
+            writeLock.lock();
+            try {
+                if (broken == null || broken == channel) {
+                    closeChannel(channel);
+                    channel = null;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            RemoteException error = new RemoteException("Binary transport connection failed: " + cause.getMessage(), cause);
+            for (Integer callId : pending.keySet()) {
+                Pending<?> call = pending.remove(callId);
+                if (call != null) {
+                    call.future().completeExceptionally(error);
+                }
+            }
+        }
+
+        private void closeChannel(SocketChannel c) {
+            if (c != null) {
+                try {
+                    c.close();
+                } catch (IOException ignored) {
+                    // already failing
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.rsrmi.ride_sharing_api.rmi.transport;
+
+import com.rsrmi.ride_sharing_api.rmi.interfaces.LocationService;
+import com.rsrmi.ride_sharing_api.rmi.models.PlaceSuggestion;
+import com.rsrmi.ride_sharing_api.rmi.models.PredictedPosition;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
+import java.rmi.RemoteException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * LocationService over the binary transport. The blocking interface methods wait on the
+ * {@code *Async} ones.
+ */
+public class BinaryLocationService implements LocationService {
+
+    private final BinaryClient client;
+
+    public BinaryLocationService(BinaryClient client) {
+        this.client = client;
+    }
+
+    public CompletableFuture<Boolean> updateUserLocationAsync(int userId, UserLocation location) {
+        return client.call(Op.UPDATE_USER_LOCATION, out -> {
+            out.writeVarInt(userId);
+            WireCodec.writeUserLocation(out, location);
+        }, WireInput::readBoolean);
+    }
+
+    public CompletableFuture<UserLocation> getUserLocationAsync(int userId) {
+        return client.call(Op.GET_USER_LOCATION, out -> out.writeVarInt(userId), WireCodec::readUserLocation);
+    }
+
+    public CompletableFuture<Long> getUserLocationVersionAsync(int userId) {
+        return client.call(Op.GET_USER_LOCATION_VERSION, out -> out.writeVarInt(userId), WireInput::readVarLong);
+    }
+
+    public CompletableFuture<List<UserLocation>> findNearbyDriversAsync(UserLocation riderLocation, double radiusKm) {
+        return client.call(Op.FIND_NEARBY_DRIVERS, out -> {
+            WireCodec.writeUserLocation(out, riderLocation);
+            out.writeDouble(radiusKm);
+        }, in -> WireCodec.readList(in, WireCodec::readUserLocation));
+    }
+
+    public CompletableFuture<Boolean> heartbeatAsync(int driverId) {
+        return client.call(Op.HEARTBEAT, out -> out.writeVarInt(driverId), WireInput::readBoolean);
+    }
+
+    public CompletableFuture<PredictedPosition> predictDriverPositionAsync(int driverId, long atMillis) {
+        return client.call(Op.PREDICT_DRIVER_POSITION, out -> {
+            out.writeVarInt(driverId);
+            out.writeVarLong(atMillis);
+        }, WireCodec::readPredictedPosition);
+    }
+
+    public CompletableFuture<String> reverseGeocodeAsync(double latitude, double longitude) {
+        return client.call(Op.REVERSE_GEOCODE, out -> {
+            out.writeDouble(latitude);
+            out.writeDouble(longitude);
+        }, WireInput::readString);
+    }
+
+    public CompletableFuture<List<PlaceSuggestion>> searchPlacesAsync(String query, UserLocation near, int limit) {
+        return client.call(Op.SEARCH_PLACES, out -> {
+            out.writeString(query);
+            WireCodec.writeUserLocation(out, near);
+            out.writeVarInt(limit);
+        }, in -> WireCodec.readList(in, WireCodec::readPlaceSuggestion));
+    }
+
+    @Override
+    public boolean updateUserLocation(int userId, UserLocation location) throws RemoteException {
+        return BinaryClient.await(updateUserLocationAsync(userId, location));
+    }
+
+    @Override
+    public UserLocation getUserLocation(int userId) throws RemoteException {
+        return BinaryClient.await(getUserLocationAsync(userId));
+    }
+
+    @Override
+    public long getUserLocationVersion(int userId) throws RemoteException {
+        return BinaryClient.await(getUserLocationVersionAsync(userId));
+    }
+
+    @Override
+    public List<UserLocation> findNearbyDrivers(UserLocation riderLocation, double radiusKm) throws RemoteException {
+        return BinaryClient.await(findNearbyDriversAsync(riderLocation, radiusKm));
+    }
+
+    @Override
+    public boolean heartbeat(int driverId) throws RemoteException {
+        return BinaryClient.await(heartbeatAsync(driverId));
+    }
+
+    @Override
+    public PredictedPosition predictDriverPosition(int driverId, long atMillis) throws RemoteException {
+        return BinaryClient.await(predictDriverPositionAsync(driverId, atMillis));
+    }
+
+    @Override
+    public String reverseGeocode(double latitude, double longitude) throws RemoteException {
+        return BinaryClient.await(reverseGeocodeAsync(latitude, longitude));
+    }
+
+    @Override
+    public List<PlaceSuggestion> searchPlaces(String query, UserLocation near, int limit) throws RemoteException {
+        return BinaryClient.await(searchPlacesAsync(query, near, limit));
+    }
+}
@@ -0,0 +1,220 @@
+package com.rsrmi.ride_sharing_api.rmi.transport;
+
+import com.rsrmi.ride_sharing_api.rmi.interfaces.RideOfferListener;
+import com.rsrmi.ride_sharing_api.rmi.interfaces.RideService;
+import com.rsrmi.ride_sharing_api.rmi.models.CellSupplyDemand;
+import com.rsrmi.ride_sharing_api.rmi.models.CurrentRideResult;
+import com.rsrmi.ride_sharing_api.rmi.models.FareQuote;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import com.rsrmi.ride_sharing_api.rmi.models.RideTrajectory;
+import java.rmi.RemoteException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RideService over the binary transport. The blocking interface methods wait on the
+ * {@code *Async} ones. Ride offer subscriptions push callbacks to the caller and stay on RMI.
+ */
+public class BinaryRideService implements RideService {
+
+    private final BinaryClient client;
+
+    public BinaryRideService(BinaryClient client) {
+        this.client = client;
+    }
+
+    public CompletableFuture<Integer> requestRideAsync(int riderId, double pickupLat, double pickupLng, double destLat, double destLng, String requestKey) {
+        return client.call(Op.REQUEST_RIDE, out -> {
+            out.writeVarInt(riderId);
+            out.writeDouble(pickupLat);
+            out.writeDouble(pickupLng);
+            out.writeDouble(destLat);
+            out.writeDouble(destLng);
+            out.writeString(requestKey);
+        }, WireInput::readVarInt);
+    }
+
+    public CompletableFuture<List<Ride>> getPendingRidesAsync(double driverLat, double driverLng, double radius) {
+        return client.call(Op.GET_PENDING_RIDES, out -> {
+            out.writeDouble(driverLat);
+            out.writeDouble(driverLng);
+            out.writeDouble(radius);
+        }, in -> WireCodec.readList(in, WireCodec::readRide));
+    }
+
+    public CompletableFuture<Integer> acceptRideAsync(int driverId, int rideId) {
+        return client.call(Op.ACCEPT_RIDE, out -> {
+            out.writeVarInt(driverId);
+            out.writeVarInt(rideId);
+        }, WireInput::readVarInt);
+    }
+
+    public CompletableFuture<Boolean> cancelRideAsync(int rideId) {
+        return rideCall(Op.CANCEL_RIDE, rideId);
+    }
+
+    public CompletableFuture<Boolean> startDriveToPickupAsync(int rideId) {
+        return rideCall(Op.START_DRIVE_TO_PICKUP, rideId);
+    }
+
+    public CompletableFuture<Boolean> arrivedAtPickupAsync(int rideId) {
+        return rideCall(Op.ARRIVED_AT_PICKUP, rideId);
+    }
+
+    public CompletableFuture<Boolean> startRideToDestinationAsync(int rideId) {
+        return rideCall(Op.START_RIDE_TO_DESTINATION, rideId);
+    }
+
+    public CompletableFuture<Boolean> completeRideAsync(int rideId) {
+        return rideCall(Op.COMPLETE_RIDE, rideId);
+    }
+
+    public CompletableFuture<Boolean> updateDriverLocationAsync(int driverId, double lat, double lng) {
+        return client.call(Op.UPDATE_DRIVER_LOCATION, out -> {
+            out.writeVarInt(driverId);
+            out.writeDouble(lat);
+            out.writeDouble(lng);
+        }, WireInput::readBoolean);
+    }
+
+    public CompletableFuture<Ride> getCurrentRideAsync(int userId) {
+        return client.call(Op.GET_CURRENT_RIDE, out -> out.writeVarInt(userId), WireCodec::readRide);
+    }
+
+    public CompletableFuture<CurrentRideResult> getCurrentRideIfChangedAsync(int userId, long knownVersion) {
+        return client.call(Op.GET_CURRENT_RIDE_IF_CHANGED, out -> {
+            out.writeVarInt(userId);
+            out.writeVarLong(knownVersion);
+        }, WireCodec::readCurrentRideResult);
+    }
+
+    public CompletableFuture<List<Ride>> getRideHistoryAsync(int userId) {
+        return client.call(Op.GET_RIDE_HISTORY, out -> out.writeVarInt(userId),
+            in -> WireCodec.readList(in, WireCodec::readRide));
+    }
+
+    public CompletableFuture<String> getRideStatusAsync(int rideId) {
+        return client.call(Op.GET_RIDE_STATUS, out -> out.writeVarInt(rideId), WireInput::readString);
+    }
+
+    public CompletableFuture<List<CellSupplyDemand>> getSupplyDemandAsync(double minLat, double minLng, double maxLat, double maxLng) {
+        return client.call(Op.GET_SUPPLY_DEMAND, out -> {
+            out.writeDouble(minLat);
+            out.writeDouble(minLng);
+            out.writeDouble(maxLat);
+            out.writeDouble(maxLng);
+        }, in -> WireCodec.readList(in, WireCodec::readCell));
+    }
+
+    public CompletableFuture<FareQuote> getFareQuoteAsync(double pickupLat, double pickupLng, double destLat, double destLng) {
+        return client.call(Op.GET_FARE_QUOTE, out -> {
+            out.writeDouble(pickupLat);
+            out.writeDouble(pickupLng);
+            out.writeDouble(destLat);
+            out.writeDouble(destLng);
+        }, WireCodec::readFareQuote);
+    }
+
+    public CompletableFuture<RideTrajectory> getRideTrajectoryAsync(int rideId) {
+        return client.call(Op.GET_RIDE_TRAJECTORY, out -> out.writeVarInt(rideId), WireCodec::readTrajectory);
+    }
+
+    private CompletableFuture<Boolean> rideCall(Op op, int rideId) {
+        return client.call(op, out -> out.writeVarInt(rideId), WireInput::readBoolean);
+    }
+
+    @Override
+    public int requestRide(int riderId, double pickupLat, double pickupLng, double destLat, double destLng, String requestKey) throws RemoteException {
+        return BinaryClient.await(requestRideAsync(riderId, pickupLat, pickupLng, destLat, destLng, requestKey));
+    }
+
+    @Override
+    public List<Ride> getPendingRides(double driverLat, double driverLng, double radius) throws RemoteException {
+        return BinaryClient.await(getPendingRidesAsync(driverLat, driverLng, radius));
+    }
+
+    @Override
+    public int acceptRide(int driverId, int rideId) throws RemoteException {
+        return BinaryClient.await(acceptRideAsync(driverId, rideId));
+    }
+
+    @Override
+    public boolean cancelRide(int rideId) throws RemoteException {
+        return BinaryClient.await(cancelRideAsync(rideId));
+    }
+
+    @Override
+    public boolean startDriveToPickup(int rideId) throws RemoteException {
+        return BinaryClient.await(startDriveToPickupAsync(rideId));
+    }
+
+    @Override
+    public boolean arrivedAtPickup(int rideId) throws RemoteException {
+        return BinaryClient.await(arrivedAtPickupAsync(rideId));
+    }
+
+    @Override
+    public boolean startRideToDestination(int rideId) throws RemoteException {
+        return BinaryClient.await(startRideToDestinationAsync(rideId));
+    }
+
+    @Override
+    public boolean completeRide(int rideId) throws RemoteException {
+        return BinaryClient.await(completeRideAsync(rideId));
+    }
+
+    @Override
+    public boolean updateDriverLocation(int driverId, double lat, double lng) throws RemoteException {
+        return BinaryClient.await(updateDriverLocationAsync(driverId, lat, lng));
+    }
+
+    @Override
+    public Ride getCurrentRide(int userId) throws RemoteException {
+        return BinaryClient.await(getCurrentRideAsync(userId));
+    }
+
+    @Override
+    public CurrentRideResult getCurrentRideIfChanged(int userId, long knownVersion) throws RemoteException {
+        return BinaryClient.await(getCurrentRideIfChangedAsync(userId, knownVersion));
+    }
+
+    @Override
+    public List<Ride> getRideHistory(int userId) throws RemoteException {
+        return BinaryClient.await(getRideHistoryAsync(userId));
+    }
+
+    @Override
+    public String getRideStatus(int rideId) throws RemoteException {
+        return BinaryClient.await(getRideStatusAsync(rideId));
+    }
+
+    @Override
+    public int subscribeRideOffers(RideOfferListener listener, double lat, double lng, double radiusKm) throws RemoteException {
+        throw new RemoteException("Ride offer subscriptions need the RMI transport");
+    }
+
+    @Override
+    public boolean updateRideOfferArea(int subscriptionId, double lat, double lng, double radiusKm) throws RemoteException {
+        throw new RemoteException("Ride offer subscriptions need the RMI transport");
+    }
+
+    @Override
+    public boolean unsubscribeRideOffers(int subscriptionId) throws RemoteException {
+        throw new RemoteException("Ride offer subscriptions need the RMI transport");
+    }
+
+    @Override
+    public List<CellSupplyDemand> getSupplyDemand(double minLat, double minLng, double maxLat, double maxLng) throws RemoteException {
+        return BinaryClient.await(getSupplyDemandAsync(minLat, minLng, maxLat, maxLng));
+    }
+
+    @Override
+    public FareQuote getFareQuote(double pickupLat, double pickupLng, double destLat, double destLng) throws RemoteException {
+        return BinaryClient.await(getFareQuoteAsync(pickupLat, pickupLng, destLat, destLng));
+    }
+
+    @Override
+    public RideTrajectory getRideTrajectory(int rideId) throws RemoteException {
+        return BinaryClient.await(getRideTrajectoryAsync(rideId));
+    }
+}
@@ -0,0 +1,97 @@
+package com.rsrmi.ride_sharing_api.rmi.transport;
+
+import com.rsrmi.ride_sharing_api.rmi.interfaces.UserService;
+import com.rsrmi.ride_sharing_api.rmi.models.User;
+import java.rmi.RemoteException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * UserService over the binary transport. The blocking interface methods wait on the
+ * {@code *Async} ones.
+ */
+public class BinaryUserService implements UserService {
+
+    private final BinaryClient client;
+
+    public BinaryUserService(BinaryClient client) {
+        this.client = client;
+    }
+
+    public CompletableFuture<Boolean> pingAsync() {
+        return client.call(Op.PING, BinaryClient.NO_ARGS, WireInput::readBoolean);
+    }
+
+    public CompletableFuture<Boolean> registerUserAsync(User user) {
+        return client.call(Op.REGISTER_USER, out -> WireCodec.writeUser(out, user), WireInput::readBoolean);
+    }
+
+    public CompletableFuture<User> loginUserAsync(String phone, String password) {
+        return client.call(Op.LOGIN_USER, out -> {
+            out.writeString(phone);
+            out.writeString(password);
+        }, WireCodec::readUser);
+    }
+
+    public CompletableFuture<User> getUserByIdAsync(int id) {
+        return client.call(Op.GET_USER_BY_ID, out -> out.writeVarInt(id), WireCodec::readUser);
+    }
+
+    public CompletableFuture<User> updateUserAsync(int id, User user) {
+        return client.call(Op.UPDATE_USER, out -> {
+            out.writeVarInt(id);
+            WireCodec.writeUser(out, user);
+        }, WireCodec::readUser);
+    }
+
+    public CompletableFuture<Boolean> isUsernameExistsAsync(String username) {
+        return client.call(Op.IS_USERNAME_EXISTS, out -> out.writeString(username), WireInput::readBoolean);
+    }
+
+    public CompletableFuture<Boolean> isPhoneExistsAsync(String phone) {
+        return client.call(Op.IS_PHONE_EXISTS, out -> out.writeString(phone), WireInput::readBoolean);
+    }
+
+    public CompletableFuture<Boolean> deleteUserAsync(int id) {
+        return client.call(Op.DELETE_USER, out -> out.writeVarInt(id), WireInput::readBoolean);
+    }
+
+    @Override
+    public boolean ping() throws RemoteException {
+        return BinaryClient.await(pingAsync());
+    }
+
+    @Override
+    public boolean registerUser(User user) throws RemoteException {
+        return BinaryClient.await(registerUserAsync(user));
+    }
+
+    @Override
+    public User loginUser(String phone, String password) throws RemoteException {
+        return BinaryClient.await(loginUserAsync(phone, password));
+    }
+
+    @Override
+    public User getUserById(int id) throws RemoteException {
+        return BinaryClient.await(getUserByIdAsync(id));
+    }
+
+    @Override
+    public User updateUser(int id, User user) throws RemoteException {
+        return BinaryClient.await(updateUserAsync(id, user));
+    }
+
+    @Override
+    public boolean isUsernameExists(String username) throws RemoteException {
+        return BinaryClient.await(isUsernameExistsAsync(username));
+    }
+
+    @Override
+    public boolean isPhoneExists(String phone) throws RemoteException {
+        return BinaryClient.await(isPhoneExistsAsync(phone));
+    }
+
+    @Override
+    public boolean deleteUser(int id) throws RemoteException {
+        return BinaryClient.await(deleteUserAsync(id));
+    }
+}
@@ -0,0 +1,68 @@
+package com.rsrmi.ride_sharing_api.rmi.transport;
+
+/**
+ * Frame layout of the binary transport, the same in both directions:
+ *
+ * <pre>
+ *   int  length   bytes after this field
+ *   int  callId   chosen by the client, echoed in the response
+ *   byte kind     Op code in a request, STATUS_OK / STATUS_ERROR in a response
+ *   ...  payload  arguments, the result, or an error message string
+ * </pre>
+ *
+ * Responses carry the call id, so a connection can have many calls in flight and answer them
+ * in any order.
+ */
+public final class Frames {
+
+    public static final int LENGTH_BYTES = 4;
+    public static final int HEADER_BYTES = 4 + 1; // callId + kind, counted in length
+    public static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_ERROR = 1;
+
+    private Frames() {
+    }
+
+    /**
+     * Starts a frame in an empty output; the length is filled in by {@link #finish}.
+     */
+    public static WireOutput begin(int callId, byte kind, int payloadHint) {
+        WireOutput out = new WireOutput(LENGTH_BYTES + HEADER_BYTES + payloadHint);
+        out.writeInt(0);
+        out.writeInt(callId);
+        out.writeByte(kind);
+        return out;
+    }
+
+    public static WireOutput finish(WireOutput out) {
+        out.putInt(0, out.size() - LENGTH_BYTES);
+        return out;
+    }
+
+    public static WireOutput error(int callId, String message) {
+        WireOutput out = begin(callId, STATUS_ERROR, 64);
+        out.writeString(message != null ? message : "Remote call failed");
+        return finish(out);
+    }
+
+    /**
+     * Length field of a frame starting at {@code at}, validated against the maximum.
+     */
+    public static int length(byte[] buf, int at) {
+        int length = WireInput.getInt(buf, at);
+        if (length < HEADER_BYTES || length > MAX_FRAME_BYTES) {
+            throw new IllegalStateException("Bad frame length " + length);
+        }
+        return length;
+    }
+
+    public static int callId(byte[] buf, int frameStart) {
+        return WireInput.getInt(buf, frameStart + LENGTH_BYTES);
+    }
+
+    public static byte kind(byte[] buf, int frameStart) {
+        return buf[frameStart + LENGTH_BYTES + 4];
+    }
+}
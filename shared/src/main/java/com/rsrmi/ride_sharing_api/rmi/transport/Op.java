@@ -0,0 +1,66 @@
+package com.rsrmi.ride_sharing_api.rmi.transport;
+
+/**
+ * Remote operations callable over the binary transport. Codes are part of the wire format: add
+ * new ones, never renumber.
+ */
+public enum Op {
+    // RideService
+    REQUEST_RIDE(1),
+    GET_PENDING_RIDES(2),
+    ACCEPT_RIDE(3),
+    CANCEL_RIDE(4),
+    START_DRIVE_TO_PICKUP(5),
+    ARRIVED_AT_PICKUP(6),
+    START_RIDE_TO_DESTINATION(7),
+    COMPLETE_RIDE(8),
+    UPDATE_DRIVER_LOCATION(9),
+    GET_CURRENT_RIDE(10),
+    GET_CURRENT_RIDE_IF_CHANGED(11),
+    GET_RIDE_HISTORY(12),
+    GET_RIDE_STATUS(13),
+    GET_SUPPLY_DEMAND(14),
+    GET_FARE_QUOTE(15),
+    GET_RIDE_TRAJECTORY(16),
+
+    // LocationService
+    UPDATE_USER_LOCATION(32),
+    GET_USER_LOCATION(33),
+    GET_USER_LOCATION_VERSION(34),
+    FIND_NEARBY_DRIVERS(35),
+    HEARTBEAT(36),
+    PREDICT_DRIVER_POSITION(37),
+    REVERSE_GEOCODE(38),
+    SEARCH_PLACES(39),
+
+    // UserService
+    PING(64),
+    REGISTER_USER(65),
+    LOGIN_USER(66),
+    GET_USER_BY_ID(67),
+    UPDATE_USER(68),
+    IS_USERNAME_EXISTS(69),
+    IS_PHONE_EXISTS(70),
+    DELETE_USER(71);
+
+    private static final Op[] BY_CODE = new Op[128];
+
+    static {
+        for (Op op : values()) {
+            BY_CODE[op.code] = op;
+        }
+    }
+
+    public final byte code;
+
+    Op(int code) {
+        this.code = (byte) code;
+    }
+
+    /**
+     * @return the operation, or null for a code this build does not know
+     */
+    public static Op of(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
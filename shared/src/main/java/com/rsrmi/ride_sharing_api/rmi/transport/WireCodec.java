@@ -0,0 +1,390 @@
+package com.rsrmi.ride_sharing_api.rmi.transport;
+
+import com.rsrmi.ride_sharing_api.rmi.models.CellSupplyDemand;
+import com.rsrmi.ride_sharing_api.rmi.models.CurrentRideResult;
+import com.rsrmi.ride_sharing_api.rmi.models.FareQuote;
+import com.rsrmi.ride_sharing_api.rmi.models.PlaceSuggestion;
+import com.rsrmi.ride_sharing_api.rmi.models.PredictedPosition;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import com.rsrmi.ride_sharing_api.rmi.models.RideTrajectory;
+import com.rsrmi.ride_sharing_api.rmi.models.User;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Field-by-field encoding of the wire models for the binary transport. Every object is preceded
+ * by a presence flag so nulls round-trip; enums go by ordinal, which is safe because both sides
+ * build from the same shared module.
+ */
+public final class WireCodec {
+
+    public interface Writer<T> {
+        void write(WireOutput out, T value);
+    }
+
+    public interface Reader<T> {
+        T read(WireInput in);
+    }
+
+    private static final Ride.Status[] RIDE_STATUSES = Ride.Status.values();
+    private static final User.UserType[] USER_TYPES = User.UserType.values();
+
+    private WireCodec() {
+    }
+
+    public static <T> void writeList(WireOutput out, List<T> list, Writer<T> writer) {
+        if (list == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        out.writeVarInt(list.size() + 1);
+        for (T item : list) {
+            writer.write(out, item);
+        }
+    }
+
+    public static <T> List<T> readList(WireInput in, Reader<T> reader) {
+        int size = in.readVarInt() - 1;
+        if (size < 0) {
+            return null;
+        }
+        List<T> list = new ArrayList<>(Math.min(size, in.remaining()));
+        for (int i = 0; i < size; i++) {
+            list.add(reader.read(in));
+        }
+        return list;
+    }
+
+    public static void writeTimestamp(WireOutput out, Timestamp ts) {
+        out.writeBoolean(ts != null);
+        if (ts != null) {
+            out.writeVarLong(ts.getTime());
+            out.writeVarInt(ts.getNanos() % 1_000_000);
+        }
+    }
+
+    public static Timestamp readTimestamp(WireInput in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Timestamp ts = new Timestamp(in.readVarLong());
+        ts.setNanos(ts.getNanos() + in.readVarInt());
+        return ts;
+    }
+
+    public static void writeDateTime(WireOutput out, LocalDateTime time) {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeVarLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeVarInt(time.getNano());
+        }
+    }
+
+    public static LocalDateTime readDateTime(WireInput in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long seconds = in.readVarLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.readVarInt(), ZoneOffset.UTC);
+    }
+
+    public static void writeLongs(WireOutput out, long[] values) {
+        if (values == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        out.writeVarInt(values.length + 1);
+        for (long v : values) {
+            out.writeVarLong(v);
+        }
+    }
+
+    public static long[] readLongs(WireInput in) {
+        int length = in.readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        // Every element takes at least a byte; a longer count is a cut-off frame, not a shorter array
+        if (length > in.remaining()) {
+            throw new IllegalStateException("Frame ended early");
+        }
+        long[] values = new long[length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readVarLong();
+        }
+        return values;
+    }
+
+    public static void writeRide(WireOutput out, Ride ride) {
+        out.writeBoolean(ride != null);
+        if (ride == null) {
+            return;
+        }
+        out.writeVarInt(ride.getId());
+        out.writeVarInt(ride.getRiderId());
+        out.writeVarInt(ride.getDriverId());
+        out.writeDouble(ride.getPickupLatitude());
+        out.writeDouble(ride.getPickupLongitude());
+        out.writeDouble(ride.getDestinationLatitude());
+        out.writeDouble(ride.getDestinationLongitude());
+        out.writeByte(ride.getStatus() != null ? ride.getStatus().ordinal() + 1 : 0);
+        out.writeString(ride.getPickupAddress());
+        out.writeString(ride.getDestinationAddress());
+        out.writeString(ride.getRiderUsername());
+        out.writeString(ride.getRiderPhone());
+        writeTimestamp(out, ride.getCreatedAt());
+        writeTimestamp(out, ride.getUpdatedAt());
+        writeTimestamp(out, ride.getAcceptedAt());
+        writeTimestamp(out, ride.getStartedAt());
+        writeTimestamp(out, ride.getCompletedAt());
+        out.writeDouble(ride.getFareAmount());
+        out.writeString(ride.getFareCurrency());
+        out.writeDouble(ride.getSurgeMultiplier());
+    }
+
+    public static Ride readRide(WireInput in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Ride ride = new Ride();
+        ride.setId(in.readVarInt());
+        ride.setRiderId(in.readVarInt());
+        ride.setDriverId(in.readVarInt());
+        ride.setPickupLatitude(in.readDouble());
+        ride.setPickupLongitude(in.readDouble());
+        ride.setDestinationLatitude(in.readDouble());
+        ride.setDestinationLongitude(in.readDouble());
+        int status = in.readByte();
+        ride.setStatus(status > 0 ? RIDE_STATUSES[status - 1] : null);
+        ride.setPickupAddress(in.readString());
+        ride.setDestinationAddress(in.readString());
+        ride.setRiderUsername(in.readString());
+        ride.setRiderPhone(in.readString());
+        ride.setCreatedAt(readTimestamp(in));
+        ride.setUpdatedAt(readTimestamp(in));
+        ride.setAcceptedAt(readTimestamp(in));
+        ride.setStartedAt(readTimestamp(in));
+        ride.setCompletedAt(readTimestamp(in));
+        ride.setFareAmount(in.readDouble());
+        ride.setFareCurrency(in.readString());
+        ride.setSurgeMultiplier(in.readDouble());
+        return ride;
+    }
+
+    public static void writeUser(WireOutput out, User user) {
+        out.writeBoolean(user != null);
+        if (user == null) {
+            return;
+        }
+        out.writeVarInt(user.getId());
+        out.writeString(user.getUsername());
+        out.writeString(user.getPassword());
+        out.writeString(user.getPhone());
+        out.writeByte(user.getUserType() != null ? user.getUserType().ordinal() + 1 : 0);
+        out.writeString(user.getCarType());
+        out.writeString(user.getLicenseNumber());
+    }
+
+    public static User readUser(WireInput in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        User user = new User();
+        user.setId(in.readVarInt());
+        user.setUsername(in.readString());
+        user.setPassword(in.readString());
+        user.setPhone(in.readString());
+        int type = in.readByte();
+        user.setUserType(type > 0 ? USER_TYPES[type - 1] : null);
+        user.setCarType(in.readString());
+        user.setLicenseNumber(in.readString());
+        return user;
+    }
+
+    public static void writeUserLocation(WireOutput out, UserLocation location) {
+        out.writeBoolean(location != null);
+        if (location == null) {
+            return;
+        }
+        out.writeVarInt(location.getUserId());
+        out.writeDouble(location.getLatitude());
+        out.writeDouble(location.getLongitude());
+        out.writeString(location.getAddress());
+        out.writeBoolean(location.getIsOnline());
+        writeDateTime(out, location.getLastUpdated());
+    }
+
+    public static UserLocation readUserLocation(WireInput in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        UserLocation location = new UserLocation();
+        location.setUserId(in.readVarInt());
+        location.setLatitude(in.readDouble());
+        location.setLongitude(in.readDouble());
+        location.setAddress(in.readString());
+        location.setIsOnline(in.readBoolean());
+        location.setLastUpdated(readDateTime(in));
+        return location;
+    }
+
+    public static void writePlaceSuggestion(WireOutput out, PlaceSuggestion place) {
+        out.writeBoolean(place != null);
+        if (place == null) {
+            return;
+        }
+        out.writeString(place.getLabel());
+        out.writeDouble(place.getLatitude());
+        out.writeDouble(place.getLongitude());
+        out.writeDouble(place.getDistanceKm());
+    }
+
+    public static PlaceSuggestion readPlaceSuggestion(WireInput in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        String label = in.readString();
+        double latitude = in.readDouble();
+        double longitude = in.readDouble();
+        return new PlaceSuggestion(label, latitude, longitude, in.readDouble());
+    }
+
+    public static void writePredictedPosition(WireOutput out, PredictedPosition position) {
+        out.writeBoolean(position != null);
+        if (position == null) {
+            return;
+        }
+        out.writeVarInt(position.getDriverId());
+        out.writeDouble(position.getLatitude());
+        out.writeDouble(position.getLongitude());
+        out.writeVarLong(position.getAtMillis());
+        out.writeVarLong(position.getFixMillis());
+        out.writeVarLong(position.getOffsetMillis());
+        out.writeDouble(position.getSpeedMps());
+        out.writeDouble(position.getHeadingDegrees());
+    }
+
+    public static PredictedPosition readPredictedPosition(WireInput in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        PredictedPosition position = new PredictedPosition();
+        position.setDriverId(in.readVarInt());
+        position.setLatitude(in.readDouble());
+        position.setLongitude(in.readDouble());
+        position.setAtMillis(in.readVarLong());
+        position.setFixMillis(in.readVarLong());
+        position.setOffsetMillis(in.readVarLong());
+        position.setSpeedMps(in.readDouble());
+        position.setHeadingDegrees(in.readDouble());
+        return position;
+    }
+
+    public static void writeFareQuote(WireOutput out, FareQuote quote) {
+        out.writeBoolean(quote != null);
+        if (quote == null) {
+            return;
+        }
+        out.writeDouble(quote.getDistanceKm());
+        out.writeDouble(quote.getDurationSeconds());
+        out.writeBoolean(quote.isRoadNetwork());
+        out.writeDouble(quote.getBaseFare());
+        out.writeDouble(quote.getSurgeMultiplier());
+        out.writeDouble(quote.getFare());
+        out.writeString(quote.getCurrency());
+        out.writeVarLong(quote.getValidUntil());
+    }
+
+    public static FareQuote readFareQuote(WireInput in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        FareQuote quote = new FareQuote();
+        quote.setDistanceKm(in.readDouble());
+        quote.setDurationSeconds(in.readDouble());
+        quote.setRoadNetwork(in.readBoolean());
+        quote.setBaseFare(in.readDouble());
+        quote.setSurgeMultiplier(in.readDouble());
+        quote.setFare(in.readDouble());
+        quote.setCurrency(in.readString());
+        quote.setValidUntil(in.readVarLong());
+        return quote;
+    }
+
+    public static void writeCell(WireOutput out, CellSupplyDemand cell) {
+        out.writeBoolean(cell != null);
+        if (cell == null) {
+            return;
+        }
+        out.writeString(cell.getGeohash());
+        out.writeDouble(cell.getCenterLatitude());
+        out.writeDouble(cell.getCenterLongitude());
+        out.writeVarLong(cell.getPendingRides());
+        out.writeVarLong(cell.getOnlineDrivers());
+        writeLongs(out, cell.getRequested());
+        writeLongs(out, cell.getAccepted());
+        writeLongs(out, cell.getCancelled());
+        writeLongs(out, cell.getDriverUpdates());
+    }
+
+    public static CellSupplyDemand readCell(WireInput in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        CellSupplyDemand cell = new CellSupplyDemand();
+        cell.setGeohash(in.readString());
+        cell.setCenterLatitude(in.readDouble());
+        cell.setCenterLongitude(in.readDouble());
+        cell.setPendingRides(in.readVarLong());
+        cell.setOnlineDrivers(in.readVarLong());
+        cell.setRequested(readLongs(in));
+        cell.setAccepted(readLongs(in));
+        cell.setCancelled(readLongs(in));
+        cell.setDriverUpdates(readLongs(in));
+        return cell;
+    }
+
+    public static void writeCurrentRideResult(WireOutput out, CurrentRideResult result) {
+        out.writeBoolean(result != null);
+        if (result == null) {
+            return;
+        }
+        out.writeVarLong(result.getVersion());
+        out.writeBoolean(result.isModified());
+        writeRide(out, result.getRide());
+    }
+
+    public static CurrentRideResult readCurrentRideResult(WireInput in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long version = in.readVarLong();
+        boolean modified = in.readBoolean();
+        return new CurrentRideResult(version, modified, readRide(in));
+    }
+
+    public static void writeTrajectory(WireOutput out, RideTrajectory trajectory) {
+        out.writeBoolean(trajectory != null);
+        if (trajectory == null) {
+            return;
+        }
+        out.writeVarInt(trajectory.getRideId());
+        out.writeVarInt(trajectory.getPointCount());
+        out.writeVarInt(trajectory.getRawPointCount());
+        out.writeBytes(trajectory.getEncoded());
+    }
+
+    public static RideTrajectory readTrajectory(WireInput in) {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int rideId = in.readVarInt();
+        int pointCount = in.readVarInt();
+        int rawPointCount = in.readVarInt();
+        return new RideTrajectory(rideId, pointCount, rawPointCount, in.readBytes());
+    }
+}
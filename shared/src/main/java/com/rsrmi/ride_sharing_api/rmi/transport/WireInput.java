@@ -0,0 +1,96 @@
+package com.rsrmi.ride_sharing_api.rmi.transport;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads what {@link WireOutput} wrote, from a byte range of one frame.
+ */
+public final class WireInput {
+
+    private final byte[] buf;
+    private int pos;
+    private final int limit;
+
+    public WireInput(byte[] buf, int offset, int length) {
+        this.buf = buf;
+        this.pos = offset;
+        this.limit = offset + length;
+    }
+
+    public int remaining() {
+        return limit - pos;
+    }
+
+    public int readByte() {
+        check(1);
+        return buf[pos++];
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public int readInt() {
+        check(4);
+        int v = getInt(buf, pos);
+        pos += 4;
+        return v;
+    }
+
+    public int readVarInt() {
+        return (int) readVarLong();
+    }
+
+    public long readVarLong() {
+        long n = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            check(1);
+            byte b = buf[pos++];
+            n |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (n >>> 1) ^ -(n & 1);
+            }
+        }
+        throw new IllegalStateException("Malformed varint in frame");
+    }
+
+    public double readDouble() {
+        check(8);
+        long bits = ((long) getInt(buf, pos) << 32) | (getInt(buf, pos + 4) & 0xFFFFFFFFL);
+        pos += 8;
+        return Double.longBitsToDouble(bits);
+    }
+
+    public String readString() {
+        int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        check(length);
+        String s = new String(buf, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        return s;
+    }
+
+    public byte[] readBytes() {
+        int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        check(length);
+        byte[] bytes = new byte[length];
+        System.arraycopy(buf, pos, bytes, 0, length);
+        pos += length;
+        return bytes;
+    }
+
+    static int getInt(byte[] b, int at) {
+        return (b[at] & 0xFF) << 24 | (b[at + 1] & 0xFF) << 16 | (b[at + 2] & 0xFF) << 8 | (b[at + 3] & 0xFF);
+    }
+
+    private void check(int bytes) {
+        if (bytes < 0 || pos + bytes > limit) {
+            throw new IllegalStateException("Frame ended early");
+        }
+    }
+}
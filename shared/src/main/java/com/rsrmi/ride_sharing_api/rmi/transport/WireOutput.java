@@ -0,0 +1,112 @@
+package com.rsrmi.ride_sharing_api.rmi.transport;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer for one binary-transport frame. Integers that are usually small (ids,
+ * counts, versions) go out as zigzag varints; coordinates and money as raw doubles.
+ */
+public final class WireOutput {
+
+    private byte[] buf;
+    private int pos;
+
+    public WireOutput(int capacity) {
+        this.buf = new byte[Math.max(16, capacity)];
+    }
+
+    public int size() {
+        return pos;
+    }
+
+    /**
+     * The backing array; only the first {@link #size()} bytes are written.
+     */
+    public byte[] array() {
+        return buf;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, pos);
+    }
+
+    public void writeByte(int v) {
+        ensure(1);
+        buf[pos++] = (byte) v;
+    }
+
+    public void writeBoolean(boolean v) {
+        writeByte(v ? 1 : 0);
+    }
+
+    public void writeInt(int v) {
+        ensure(4);
+        putInt(pos, v);
+        pos += 4;
+    }
+
+    public void writeVarInt(int v) {
+        writeVarLong(v);
+    }
+
+    public void writeVarLong(long v) {
+        long n = (v << 1) ^ (v >> 63);
+        ensure(10);
+        while ((n & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((n & 0x7F) | 0x80);
+            n >>>= 7;
+        }
+        buf[pos++] = (byte) n;
+    }
+
+    public void writeDouble(double v) {
+        long bits = Double.doubleToRawLongBits(v);
+        ensure(8);
+        putInt(pos, (int) (bits >>> 32));
+        putInt(pos + 4, (int) bits);
+        pos += 8;
+    }
+
+    /**
+     * UTF-8 with a varint length of bytes + 1, so 0 means null.
+     */
+    public void writeString(String s) {
+        if (s == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    public void writeBytes(byte[] bytes) {
+        if (bytes == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(bytes.length + 1);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    /**
+     * Overwrites four bytes already written, for a frame length known only at the end.
+     */
+    void putInt(int at, int v) {
+        buf[at] = (byte) (v >>> 24);
+        buf[at + 1] = (byte) (v >>> 16);
+        buf[at + 2] = (byte) (v >>> 8);
+        buf[at + 3] = (byte) v;
+    }
+
+    private void ensure(int more) {
+        if (pos + more > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + more));
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.rsrmi.ride_sharing_api.rmi.transport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rsrmi.ride_sharing_api.rmi.models.CellSupplyDemand;
+import com.rsrmi.ride_sharing_api.rmi.models.CurrentRideResult;
+import com.rsrmi.ride_sharing_api.rmi.models.FareQuote;
+import com.rsrmi.ride_sharing_api.rmi.models.PlaceSuggestion;
+import com.rsrmi.ride_sharing_api.rmi.models.PredictedPosition;
+import com.rsrmi.ride_sharing_api.rmi.models.Ride;
+import com.rsrmi.ride_sharing_api.rmi.models.RideTrajectory;
+import com.rsrmi.ride_sharing_api.rmi.models.User;
+import com.rsrmi.ride_sharing_api.rmi.models.UserLocation;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class WireCodecTest {
+
+    @Test
+    void rideRoundTrip() {
+        Ride ride = new Ride();
+        ride.setId(123_456);
+        ride.setRiderId(7);
+        ride.setDriverId(-1);
+        ride.setPickupLatitude(16.80528);
+        ride.setPickupLongitude(96.15611);
+        ride.setDestinationLatitude(-33.8688);
+        ride.setDestinationLongitude(Double.NaN);
+        ride.setStatus(Ride.Status.CANCELLED);
+        ride.setPickupAddress("Sule Pagoda Rd, ရန်ကုန်");
+        ride.setDestinationAddress("");
+        ride.setRiderUsername("rider");
+        ride.setRiderPhone(null);
+        Timestamp created = new Timestamp(1_760_000_000_123L);
+        created.setNanos(123_456_789);
+        ride.setCreatedAt(created);
+        ride.setUpdatedAt(new Timestamp(0));
+        ride.setAcceptedAt(new Timestamp(-86_400_000L));
+        ride.setFareAmount(4250.5);
+        ride.setFareCurrency("MMK");
+        ride.setSurgeMultiplier(1.4);
+
+        Ride read = roundTrip(ride, WireCodec::writeRide, WireCodec::readRide);
+
+        assertEquals(ride.getId(), read.getId());
+        assertEquals(ride.getRiderId(), read.getRiderId());
+        assertEquals(ride.getDriverId(), read.getDriverId());
+        assertEquals(ride.getPickupLatitude(), read.getPickupLatitude());
+        assertEquals(ride.getPickupLongitude(), read.getPickupLongitude());
+        assertEquals(ride.getDestinationLatitude(), read.getDestinationLatitude());
+        assertTrue(Double.isNaN(read.getDestinationLongitude()));
+        assertEquals(Ride.Status.CANCELLED, read.getStatus());
+        assertEquals(ride.getPickupAddress(), read.getPickupAddress());
+        assertEquals("", read.getDestinationAddress());
+        assertEquals("rider", read.getRiderUsername());
+        assertNull(read.getRiderPhone());
+        assertEquals(created, read.getCreatedAt());
+        assertEquals(123_456_789, read.getCreatedAt().getNanos());
+        assertEquals(ride.getUpdatedAt(), read.getUpdatedAt());
+        assertEquals(ride.getAcceptedAt(), read.getAcceptedAt());
+        assertNull(read.getStartedAt());
+        assertNull(read.getCompletedAt());
+        assertEquals(4250.5, read.getFareAmount());
+        assertEquals("MMK", read.getFareCurrency());
+        assertEquals(1.4, read.getSurgeMultiplier());
+    }
+
+    @Test
+    void everyRideStatusRoundTrips() {
+        for (Ride.Status status : Ride.Status.values()) {
+            Ride ride = new Ride();
+            ride.setStatus(status);
+            assertEquals(status, roundTrip(ride, WireCodec::writeRide, WireCodec::readRide).getStatus());
+        }
+        assertNull(roundTrip(new Ride(), WireCodec::writeRide, WireCodec::readRide).getStatus());
+    }
+
+    @Test
+    void nullsRoundTrip() {
+        assertNull(roundTrip(null, WireCodec::writeRide, WireCodec::readRide));
+        assertNull(roundTrip(null, WireCodec::writeUser, WireCodec::readUser));
+        assertNull(roundTrip(null, WireCodec::writeUserLocation, WireCodec::readUserLocation));
+        assertNull(roundTrip(null, WireCodec::writePlaceSuggestion, WireCodec::readPlaceSuggestion));
+        assertNull(roundTrip(null, WireCodec::writePredictedPosition, WireCodec::readPredictedPosition));
+        assertNull(roundTrip(null, WireCodec::writeFareQuote, WireCodec::readFareQuote));
+        assertNull(roundTrip(null, WireCodec::writeCell, WireCodec::readCell));
+        assertNull(roundTrip(null, WireCodec::writeCurrentRideResult, WireCodec::readCurrentRideResult));
+        assertNull(roundTrip(null, WireCodec::writeTrajectory, WireCodec::readTrajectory));
+        assertNull(roundTrip(null, WireCodec::writeTimestamp, WireCodec::readTimestamp));
+        assertNull(roundTrip(null, WireCodec::writeDateTime, WireCodec::readDateTime));
+        assertNull(roundTrip(null, WireCodec::writeLongs, WireCodec::readLongs));
+        assertNull(roundTrip(null, (out, list) -> WireCodec.writeList(out, list, WireCodec::writeRide),
+            in -> WireCodec.readList(in, WireCodec::readRide)));
+    }
+
+    @Test
+    void userAndLocationRoundTrip() {
+        User user = new User();
+        user.setId(42);
+        user.setUsername("driver42");
+        user.setPassword("$2a$10$hash");
+        user.setPhone("+95 9 123 456");
+        user.setUserType(User.UserType.DRIVER);
+        user.setCarType("sedan");
+        user.setLicenseNumber(null);
+
+        User readUser = roundTrip(user, WireCodec::writeUser, WireCodec::readUser);
+
+        assertEquals(42, readUser.getId());
+        assertEquals("driver42", readUser.getUsername());
+        assertEquals("$2a$10$hash", readUser.getPassword());
+        assertEquals("+95 9 123 456", readUser.getPhone());
+        assertEquals(User.UserType.DRIVER, readUser.getUserType());
+        assertEquals("sedan", readUser.getCarType());
+        assertNull(readUser.getLicenseNumber());
+
+        UserLocation location = new UserLocation();
+        location.setUserId(42);
+        location.setLatitude(16.8);
+        location.setLongitude(96.15);
+        location.setAddress("Downtown");
+        location.setIsOnline(true);
+        location.setLastUpdated(LocalDateTime.of(2025, 3, 1, 8, 30, 15, 987_654_321));
+
+        UserLocation readLocation = roundTrip(location, WireCodec::writeUserLocation, WireCodec::readUserLocation);
+
+        assertEquals(42, readLocation.getUserId());
+        assertEquals(16.8, readLocation.getLatitude());
+        assertEquals(96.15, readLocation.getLongitude());
+        assertEquals("Downtown", readLocation.getAddress());
+        assertTrue(readLocation.getIsOnline());
+        assertEquals(location.getLastUpdated(), readLocation.getLastUpdated());
+    }
+
+    @Test
+    void quoteCellAndPredictionRoundTrip() {
+        FareQuote quote = new FareQuote();
+        quote.setDistanceKm(12.3);
+        quote.setDurationSeconds(1500);
+        quote.setRoadNetwork(true);
+        quote.setBaseFare(3000);
+        quote.setSurgeMultiplier(1.25);
+        quote.setFare(3750);
+        quote.setCurrency("MMK");
+        quote.setValidUntil(Long.MAX_VALUE);
+
+        FareQuote readQuote = roundTrip(quote, WireCodec::writeFareQuote, WireCodec::readFareQuote);
+
+        assertEquals(12.3, readQuote.getDistanceKm());
+        assertEquals(1500, readQuote.getDurationSeconds());
+        assertTrue(readQuote.isRoadNetwork());
+        assertEquals(3000, readQuote.getBaseFare());
+        assertEquals(1.25, readQuote.getSurgeMultiplier());
+        assertEquals(3750, readQuote.getFare());
+        assertEquals("MMK", readQuote.getCurrency());
+        assertEquals(Long.MAX_VALUE, readQuote.getValidUntil());
+
+        CellSupplyDemand cell = new CellSupplyDemand();
+        cell.setGeohash("w4rq");
+        cell.setCenterLatitude(16.79);
+        cell.setCenterLongitude(96.14);
+        cell.setPendingRides(3);
+        cell.setOnlineDrivers(0);
+        cell.setRequested(new long[] { 0, 1, Long.MIN_VALUE, Long.MAX_VALUE, -5 });
+        cell.setAccepted(new long[0]);
+        cell.setCancelled(null);
+        cell.setDriverUpdates(new long[] { 300 });
+
+        CellSupplyDemand readCell = roundTrip(cell, WireCodec::writeCell, WireCodec::readCell);
+
+        assertEquals("w4rq", readCell.getGeohash());
+        assertEquals(16.79, readCell.getCenterLatitude());
+        assertEquals(96.14, readCell.getCenterLongitude());
+        assertEquals(3, readCell.getPendingRides());
+        assertEquals(0, readCell.getOnlineDrivers());
+        assertArrayEquals(cell.getRequested(), readCell.getRequested());
+        assertArrayEquals(new long[0], readCell.getAccepted());
+        assertNull(readCell.getCancelled());
+        assertArrayEquals(new long[] { 300 }, readCell.getDriverUpdates());
+
+        PredictedPosition position = new PredictedPosition();
+        position.setDriverId(9);
+        position.setLatitude(16.81);
+        position.setLongitude(96.16);
+        position.setAtMillis(1_760_000_005_000L);
+        position.setFixMillis(1_760_000_000_000L);
+        position.setOffsetMillis(-250);
+        position.setSpeedMps(11.5);
+        position.setHeadingDegrees(359.9);
+
+        PredictedPosition readPosition = roundTrip(position, WireCodec::writePredictedPosition, WireCodec::readPredictedPosition);
+
+        assertEquals(9, readPosition.getDriverId());
+        assertEquals(16.81, readPosition.getLatitude());
+        assertEquals(96.16, readPosition.getLongitude());
+        assertEquals(1_760_000_005_000L, readPosition.getAtMillis());
+        assertEquals(1_760_000_000_000L, readPosition.getFixMillis());
+        assertEquals(-250, readPosition.getOffsetMillis());
+        assertEquals(11.5, readPosition.getSpeedMps());
+        assertEquals(359.9, readPosition.getHeadingDegrees());
+    }
+
+    @Test
+    void listsAndNestedObjectsRoundTrip() {
+        List<PlaceSuggestion> places = new ArrayList<>();
+        places.add(new PlaceSuggestion("Bogyoke Market", 16.78, 96.15, 0.4));
+        places.add(null);
+        places.add(new PlaceSuggestion(null, 0, 0, 0));
+
+        List<PlaceSuggestion> readPlaces = roundTrip(places, (out, list) -> WireCodec.writeList(out, list, WireCodec::writePlaceSuggestion),
+            in -> WireCodec.readList(in, WireCodec::readPlaceSuggestion));
+
+        assertEquals(3, readPlaces.size());
+        assertEquals("Bogyoke Market", readPlaces.get(0).getLabel());
+        assertEquals(16.78, readPlaces.get(0).getLatitude());
+        assertEquals(96.15, readPlaces.get(0).getLongitude());
+        assertEquals(0.4, readPlaces.get(0).getDistanceKm());
+        assertNull(readPlaces.get(1));
+        assertNull(readPlaces.get(2).getLabel());
+        assertTrue(roundTrip(new ArrayList<Ride>(), (out, list) -> WireCodec.writeList(out, list, WireCodec::writeRide),
+            in -> WireCodec.readList(in, WireCodec::readRide)).isEmpty());
+
+        Ride ride = new Ride();
+        ride.setId(5);
+        CurrentRideResult result = roundTrip(new CurrentRideResult(Long.MAX_VALUE - 1, false, ride),
+            WireCodec::writeCurrentRideResult, WireCodec::readCurrentRideResult);
+        assertEquals(Long.MAX_VALUE - 1, result.getVersion());
+        assertFalse(result.isModified());
+        assertEquals(5, result.getRide().getId());
+
+        byte[] encoded = { 0, 1, -1, 127, -128 };
+        RideTrajectory trajectory = roundTrip(new RideTrajectory(5, 40, 900, encoded), WireCodec::writeTrajectory, WireCodec::readTrajectory);
+        assertEquals(5, trajectory.getRideId());
+        assertEquals(40, trajectory.getPointCount());
+        assertEquals(900, trajectory.getRawPointCount());
+        assertArrayEquals(encoded, trajectory.getEncoded());
+    }
+
+    @Test
+    void truncatedFrameIsRejected() {
+        Ride ride = new Ride();
+        ride.setPickupAddress("Sule Pagoda Rd");
+        WireOutput out = new WireOutput(16);
+        WireCodec.writeRide(out, ride);
+        for (int length = 1; length < out.size(); length++) {
+            WireInput in = new WireInput(out.array(), 0, length);
+            assertThrows(IllegalStateException.class, () -> WireCodec.readRide(in), "cut at " + length);
+        }
+    }
+
+    @Test
+    void cutOffArrayIsRejected() {
+        WireOutput out = new WireOutput(16);
+        out.writeVarInt(Integer.MAX_VALUE);
+        WireInput in = new WireInput(out.array(), 0, out.size());
+        // Claims two billion elements but holds none: an error, not an empty or huge array
+        assertThrows(IllegalStateException.class, () -> WireCodec.readLongs(in));
+    }
+
+    private static <T> T roundTrip(T value, WireCodec.Writer<T> writer, WireCodec.Reader<T> reader) {
+        WireOutput out = new WireOutput(16);
+        writer.write(out, value);
+        WireInput in = new WireInput(out.array(), 0, out.size());
+        T read = reader.read(in);
+        assertEquals(0, in.remaining(), "bytes left over");
+        return read;
+    }
+}
@@ -306,6 +306,25 @@ const DriverDashboard: React.FC = () => {
     }
   }, [correctLocation, currentLocation, isOpenForRides, updateDriverLocationOnServer]);
 
+  // Location updates only go out after 50m of movement, so keep the server's presence alive meanwhile
+  useEffect(() => {
+    if (!isOpenForRides || !isAuthenticated || user?.userType !== 'DRIVER') {
+      return;
+    }
+    const heartbeat = window.setInterval(async () => {
+      try {
+        const stillOnline = await rideAPI.sendDriverHeartbeat();
+        const currentLoc = correctLocation || currentLocation;
+        if (!stillOnline && currentLoc) {
+          await updateDriverLocationOnServer(currentLoc);
+        }
+      } catch (error) {
+        console.error('Driver heartbeat failed:', error);
+      }
+    }, 30000);
+    return () => window.clearInterval(heartbeat);
+  }, [isOpenForRides, isAuthenticated, user, correctLocation, currentLocation, updateDriverLocationOnServer]);
+
   const handleToggleOpenForRides = async () => {
     if (!isOpenForRides) {
       try {
@@ -279,7 +279,9 @@ const RiderDashboard: React.FC = () => {
       
       const pollDriverLocation = async () => {
         try {
-          const locationResponse = await locationAPI.getRealTimeLocation(currentRide.driverId.toString());
+          // The predicted position is answered from memory; fall back to the stored one when the driver is not online
+          const locationResponse = await locationAPI.getPredictedDriverPosition(currentRide.driverId.toString())
+            .catch(() => locationAPI.getRealTimeLocation(currentRide.driverId.toString()));
           if (locationResponse && locationResponse.latitude && locationResponse.longitude) {
             const newDriverLocation: Location = {
               lat: locationResponse.latitude,
@@ -164,6 +164,13 @@ export const rideAPI = {
     return response.data;
   },
 
+  // Keeps the driver online while parked; data is false once the server has expired them
+  sendDriverHeartbeat: async (): Promise<boolean> => {
+    const userData = getUserData();
+    const response = await api.post(`/drivers/heartbeat?id=${userData.id}`);
+    return response.data?.data === true;
+  },
+
   cancelRide: async (rideId: string | number) => {
     // Convert rideId to number if it's a string
     const rideIdNum = typeof rideId === 'string' ? parseInt(rideId, 10) : rideId;
@@ -201,6 +208,12 @@ export const locationAPI = {
     const response = await api.get(`/users/${userId}/get/location`);
     return response.data;
   },
+
+  // Server-side dead reckoning from the driver's recent pings, so the marker is not a ping behind
+  getPredictedDriverPosition: async (driverId: string) => {
+    const response = await api.get(`/drivers/${driverId}/position`);
+    return response.data?.data;
+  },
 };
 
 export const userAPI = {